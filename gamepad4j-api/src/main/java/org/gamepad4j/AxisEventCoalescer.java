@@ -0,0 +1,223 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Merges axis and stick events (see "Controllers.setAxisCoalescing()").
+ * Every axis and every stick of a controller has a cell, which holds its
+ * latest value and a "pending" flag. Only the first change of a cell
+ * creates an event; further changes only update the value of the cell,
+ * until the event has been delivered with the latest value.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+class AxisEventCoalescer {
+
+	/**
+	 * Latest state of one axis or stick.
+	 */
+	static final class Cell {
+
+		/** The controller. */
+		final IController controller;
+
+		/** The axis (null for stick cells). */
+		final IAxis axis;
+
+		/** The stick ID (null for axis cells). */
+		final StickID stickID;
+
+		/** The latest value (axis cells only). */
+		volatile float value = 0f;
+
+		/** The sample time of the latest value (System.nanoTime()). */
+		volatile long nanoTime = 0L;
+
+		/** Set while an event for this cell is waiting to be delivered. */
+		volatile boolean pending = false;
+
+		Cell(IController controller, IAxis axis, StickID stickID) {
+			this.controller = controller;
+			this.axis = axis;
+			this.stickID = stickID;
+		}
+	}
+
+	/**
+	 * The cells of one controller.
+	 */
+	private static final class ControllerCells {
+
+		/** The axis cells. */
+		final IdentityHashMap<IAxis, Cell> axes = new IdentityHashMap<IAxis, Cell>();
+
+		/** The stick cells, by StickID ordinal. */
+		final Cell[] sticks = new Cell[StickID.values().length];
+	}
+
+	/** The cells of all controllers. */
+	private final IdentityHashMap<IController, ControllerCells> cells = new IdentityHashMap<IController, ControllerCells>();
+
+	/** Cells with changes in the current poll (direct dispatch only). */
+	private Cell[] frame = new Cell[32];
+
+	/** Number of cells in the current poll. */
+	private int frameSize = 0;
+
+	/** Number of events eliminated by merging (written by the polling thread only). */
+	private volatile long coalescedCount = 0L;
+
+	/**
+	 * Returns the cells of a controller.
+	 */
+	private ControllerCells cellsOf(IController controller) {
+		ControllerCells controllerCells = this.cells.get(controller);
+		if(controllerCells == null) {
+			controllerCells = new ControllerCells();
+			this.cells.put(controller, controllerCells);
+		}
+		return controllerCells;
+	}
+
+	/**
+	 * Returns the cell of an axis.
+	 *
+	 * @param controller The controller.
+	 * @param axis The axis.
+	 * @return The cell.
+	 */
+	synchronized Cell axisCell(IController controller, IAxis axis) {
+		ControllerCells controllerCells = cellsOf(controller);
+		Cell cell = controllerCells.axes.get(axis);
+		if(cell == null) {
+			cell = new Cell(controller, axis, null);
+			controllerCells.axes.put(axis, cell);
+		}
+		return cell;
+	}
+
+	/**
+	 * Returns the cell of a stick.
+	 *
+	 * @param controller The controller.
+	 * @param stickID The stick ID.
+	 * @return The cell.
+	 */
+	synchronized Cell stickCell(IController controller, StickID stickID) {
+		ControllerCells controllerCells = cellsOf(controller);
+		Cell cell = controllerCells.sticks[stickID.ordinal()];
+		if(cell == null) {
+			cell = new Cell(controller, null, stickID);
+			controllerCells.sticks[stickID.ordinal()] = cell;
+		}
+		return cell;
+	}
+
+	/**
+	 * Removes the cells of a disconnected controller.
+	 *
+	 * @param controller The controller.
+	 */
+	synchronized void remove(IController controller) {
+		this.cells.remove(controller);
+	}
+
+	/**
+	 * Clears the pending flags of all cells (when pending events
+	 * have been discarded).
+	 */
+	synchronized void clearPending() {
+		for(ControllerCells controllerCells : this.cells.values()) {
+			for(Cell cell : controllerCells.axes.values()) {
+				cell.pending = false;
+			}
+			for(int i = 0; i < controllerCells.sticks.length; i++) {
+				if(controllerCells.sticks[i] != null) {
+					controllerCells.sticks[i].pending = false;
+				}
+			}
+		}
+		this.frameSize = 0;
+	}
+
+	/**
+	 * Stores the latest value of a cell.
+	 *
+	 * @param cell The cell.
+	 * @param value The new value.
+	 * @return True if a new event must be created, false if the change was
+	 *         merged into an event which is still pending.
+	 */
+	boolean update(Cell cell, float value) {
+		// The value must be written before the flag is checked; the
+		// consumer clears the flag before it reads the value, so the
+		// latest value is never lost.
+		long sampleNanos = cell.controller instanceof IControllerState ? ((IControllerState)cell.controller).getSampleNanos() : 0L;
+		cell.nanoTime = sampleNanos != 0L ? sampleNanos : System.nanoTime();
+		cell.value = value;
+		if(cell.pending) {
+			this.coalescedCount++;
+			return false;
+		}
+		cell.pending = true;
+		return true;
+	}
+
+	/**
+	 * Adds a cell to the current poll (direct dispatch only).
+	 *
+	 * @param cell The cell.
+	 */
+	void addToFrame(Cell cell) {
+		if(this.frameSize == this.frame.length) {
+			Cell[] grown = new Cell[this.frame.length * 2];
+			System.arraycopy(this.frame, 0, grown, 0, this.frameSize);
+			this.frame = grown;
+		}
+		this.frame[this.frameSize++] = cell;
+	}
+
+	/**
+	 * Returns the number of cells changed in the current poll.
+	 *
+	 * @return The number of cells.
+	 */
+	int getFrameSize() {
+		return this.frameSize;
+	}
+
+	/**
+	 * Returns a cell changed in the current poll, and clears its
+	 * pending flag.
+	 *
+	 * @param index The index (in the order of the first change).
+	 * @return The cell.
+	 */
+	Cell takeFrameCell(int index) {
+		Cell cell = this.frame[index];
+		this.frame[index] = null;
+		cell.pending = false;
+		return cell;
+	}
+
+	/**
+	 * Ends the current poll.
+	 */
+	void clearFrame() {
+		this.frameSize = 0;
+	}
+
+	/**
+	 * Returns the number of events eliminated by merging.
+	 *
+	 * @return The number of merged events.
+	 */
+	long getCoalescedCount() {
+		return this.coalescedCount;
+	}
+}
@@ -58,6 +58,37 @@ public enum ButtonID {
 		this.defaultLabel = label;
 	}
 	
+	/**
+	 * Returns the bit which represents this button in a pressed-state
+	 * bitmask (see "IControllerState.pressedMask()"). For "UNKNOWN", this is 0.
+	 * 
+	 * @return The bitmask value of this button.
+	 */
+	public long getMask() {
+		if(this == UNKNOWN) {
+			// "UNKNOWN" buttons don't have a bit of their own
+			return 0L;
+		}
+		return 1L << ordinal();
+	}
+
+	/**
+	 * Builds the bitmask for a combination of buttons, like a chord
+	 * "FACE_DOWN + FACE_RIGHT + SHOULDER_RIGHT_UP". Should be invoked once
+	 * at setup time; the resulting mask can then be checked every frame
+	 * with "IControllerState.isAllPressed()" or "IControllerState.isAnyPressed()".
+	 * 
+	 * @param buttonIDs The buttons to combine.
+	 * @return The combined bitmask.
+	 */
+	public static long maskOf(ButtonID... buttonIDs) {
+		long mask = 0L;
+		for(ButtonID id : buttonIDs) {
+			mask |= id.getMask();
+		}
+		return mask;
+	}
+	
 	/**
 	 * Returns the default text label for this button.
 	 * 
@@ -0,0 +1,221 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Controller of a CompositeControllerProvider: passes everything through
+ * to the controller of the underlying provider, but has the device ID
+ * assigned by the composite provider, so that the device IDs of the
+ * different providers don't collide.
+ * <p>
+ * The snapshots still contain the device ID of the underlying controller.
+ * If the underlying controller implements "IControllerState", so does the
+ * composite controller (see "create()").
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class CompositeController implements IController {
+
+	/** The controller of the underlying provider. */
+	private final IController delegate;
+
+	/** The device ID assigned by the composite provider. */
+	private final int deviceID;
+
+	/** The index of the underlying provider in the composite provider. */
+	private final int providerIndex;
+
+	/**
+	 * Creates a composite controller.
+	 *
+	 * @param delegate The controller of the underlying provider.
+	 * @param deviceID The device ID assigned by the composite provider.
+	 * @param providerIndex The index of the underlying provider.
+	 */
+	CompositeController(IController delegate, int deviceID, int providerIndex) {
+		this.delegate = delegate;
+		this.deviceID = deviceID;
+		this.providerIndex = providerIndex;
+	}
+
+	/**
+	 * Creates a composite controller, which implements "IControllerState"
+	 * if the given controller does.
+	 *
+	 * @param delegate The controller of the underlying provider.
+	 * @param deviceID The device ID assigned by the composite provider.
+	 * @param providerIndex The index of the underlying provider.
+	 * @return The composite controller.
+	 */
+	static CompositeController create(IController delegate, int deviceID, int providerIndex) {
+		if(delegate instanceof IControllerState) {
+			return new CompositeStateController((IControllerState)delegate, deviceID, providerIndex);
+		}
+		return new CompositeController(delegate, deviceID, providerIndex);
+	}
+
+	/**
+	 * Returns the controller of the underlying provider.
+	 *
+	 * @return The underlying controller.
+	 */
+	public IController getDelegate() {
+		return this.delegate;
+	}
+
+	/**
+	 * Returns the index of the underlying provider in the composite provider.
+	 *
+	 * @return The provider index.
+	 */
+	public int getProviderIndex() {
+		return this.providerIndex;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getDeviceTypeIdentifier()
+	 */
+	@Override
+	public long getDeviceTypeIdentifier() {
+		return this.delegate.getDeviceTypeIdentifier();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getDeviceID()
+	 */
+	@Override
+	public int getDeviceID() {
+		return this.deviceID;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getVendorID()
+	 */
+	@Override
+	public int getVendorID() {
+		return this.delegate.getVendorID();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getProductID()
+	 */
+	@Override
+	public int getProductID() {
+		return this.delegate.getProductID();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getDescription()
+	 */
+	@Override
+	public String getDescription() {
+		return this.delegate.getDescription();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getSticks()
+	 */
+	@Override
+	public IStick[] getSticks() {
+		return this.delegate.getSticks();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getStick(org.gamepad4j.StickID)
+	 */
+	@Override
+	public IStick getStick(StickID stick) throws IllegalArgumentException {
+		return this.delegate.getStick(stick);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getAxes()
+	 */
+	@Override
+	public IAxis[] getAxes() {
+		return this.delegate.getAxes();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getDpadDirection()
+	 */
+	@Override
+	public DpadDirection getDpadDirection() {
+		return this.delegate.getDpadDirection();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getDpadDirectionOnce()
+	 */
+	@Override
+	public DpadDirection getDpadDirectionOnce() {
+		return this.delegate.getDpadDirectionOnce();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getButtons()
+	 */
+	@Override
+	public IButton[] getButtons() {
+		return this.delegate.getButtons();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getButton(int)
+	 */
+	@Override
+	public IButton getButton(int buttonIndex) {
+		return this.delegate.getButton(buttonIndex);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getButton(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public IButton getButton(ButtonID buttonID) {
+		return this.delegate.getButton(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#isButtonPressed(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public boolean isButtonPressed(ButtonID buttonID) {
+		return this.delegate.isButtonPressed(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#isButtonPressedOnce(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public boolean isButtonPressedOnce(ButtonID buttonID) {
+		return this.delegate.isButtonPressedOnce(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getTriggerPressure(org.gamepad4j.TriggerID)
+	 */
+	@Override
+	public float getTriggerPressure(TriggerID triggerID) throws IllegalArgumentException {
+		return this.delegate.getTriggerPressure(triggerID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getTriggers()
+	 */
+	@Override
+	public ITrigger[] getTriggers() {
+		return this.delegate.getTriggers();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IController#getTrigger(org.gamepad4j.TriggerID)
+	 */
+	@Override
+	public ITrigger getTrigger(TriggerID triggerID) {
+		return this.delegate.getTrigger(triggerID);
+	}
+}
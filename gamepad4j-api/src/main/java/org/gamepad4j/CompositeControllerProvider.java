@@ -0,0 +1,576 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.gamepad4j.util.ControllerRegistry;
+import org.gamepad4j.util.Log;
+
+/**
+ * Controller provider which combines the controllers of several other
+ * providers, e.g. native pads with virtual, replayed or network pads:
+ * <pre>
+ * CompositeControllerProvider composite = new CompositeControllerProvider();
+ * composite.addProvider(new DesktopControllerProvider());
+ * composite.addProvider(networkProvider, true);
+ * Controllers.initialize(composite, 250);
+ * </pre>
+ * The controllers of all providers are passed on as CompositeController
+ * instances. The controllers of the first provider keep their device IDs;
+ * the controllers of provider n get device ID + n * DEVICE_ID_RANGE,
+ * so the device IDs of different providers don't collide.
+ * <p>
+ * Synchronous providers are polled one after the other by
+ * "checkControllers()". Asynchronous providers are polled by a thread of
+ * their own, in parallel: "checkControllers()" only triggers their poll,
+ * and passes on the events of their polls finished so far. So a slow
+ * provider (e.g. one which waits for the network) never delays the events
+ * of the others. If it is still busy with the previous poll when the next
+ * one is due, that poll is skipped.
+ * <p>
+ * The poll times of each provider are measured (see "getMeanPollNanos()" etc.).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class CompositeControllerProvider implements IControllerProvider {
+
+	/** Range of device IDs of each provider. */
+	public static final int DEVICE_ID_RANGE = 0x100000;
+
+	/** Default capacity of the event queue of an asynchronous provider. */
+	public static final int DEFAULT_EVENT_QUEUE_CAPACITY = 1024;
+
+	/** The listeners of this provider. */
+	private final ControllerListenerAdapter listeners = new ControllerListenerAdapter();
+
+	/** The combined providers. */
+	private volatile Member[] members = new Member[0];
+
+	/** Set when this provider has been initialized. */
+	private boolean initialized = false;
+
+	/**
+	 * A combined provider, and its controllers.
+	 */
+	private class Member implements IAxisEventListener, IControllerEventHandler, Runnable {
+
+		/** The provider. */
+		final IControllerProvider provider;
+
+		/** The index of the provider. */
+		final int index;
+
+		/** Added to the device IDs of the controllers. */
+		final int deviceIDOffset;
+
+		/** The composite controllers of this provider. */
+		final ControllerRegistry registry = new ControllerRegistry();
+
+		/** Events of the polling thread (null for synchronous providers). */
+		final ControllerEventQueue queue;
+
+		/** The polling thread (asynchronous providers only). */
+		Thread thread = null;
+
+		/** Run flag of the polling thread. */
+		volatile boolean running = false;
+
+		/** Set when a poll has been triggered but not started yet. */
+		volatile boolean pollRequested = false;
+
+		/** Set while the polling thread is polling. */
+		volatile boolean busy = false;
+
+		/** Set when the polling thread has terminated (guarded by this member). */
+		boolean exited = false;
+
+		/** Set if the polling thread must release the provider when it terminates (guarded by this member). */
+		boolean releaseOnExit = false;
+
+		/** Number of polls. */
+		volatile long pollCount = 0L;
+
+		/** Number of polls which failed with an exception. */
+		volatile long errorCount = 0L;
+
+		/** Number of polls skipped because the previous one was not finished. */
+		volatile long skippedCount = 0L;
+
+		/** Sum of all poll times. */
+		volatile long pollSumNanos = 0L;
+
+		/** Duration of the latest poll. */
+		volatile long lastPollNanos = 0L;
+
+		/** Duration of the longest poll. */
+		volatile long maxPollNanos = 0L;
+
+		Member(IControllerProvider provider, int index, int eventQueueCapacity) {
+			this.provider = provider;
+			this.index = index;
+			this.deviceIDOffset = index * DEVICE_ID_RANGE;
+			this.queue = eventQueueCapacity > 0 ? new ControllerEventQueue(eventQueueCapacity) : null;
+		}
+
+		/**
+		 * Polls the provider, and measures the time.
+		 */
+		void poll() {
+			long start = System.nanoTime();
+			try {
+				this.provider.checkControllers();
+			} catch(RuntimeException e) {
+				this.errorCount++;
+				if(Log.errorEnabled) {
+					Log.logger.error("Poll of controller provider " + this.index + " failed: " + e);
+				}
+			}
+			long duration = System.nanoTime() - start;
+			this.lastPollNanos = duration;
+			this.pollSumNanos += duration;
+			if(duration > this.maxPollNanos) {
+				this.maxPollNanos = duration;
+			}
+			this.pollCount++;
+		}
+
+		/**
+		 * Triggers a poll of an asynchronous provider.
+		 */
+		void requestPoll() {
+			if(this.busy || this.pollRequested) {
+				this.skippedCount++;
+				return;
+			}
+			this.pollRequested = true;
+			LockSupport.unpark(this.thread);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				while(this.running) {
+					if(!this.pollRequested) {
+						LockSupport.park(this);
+						continue;
+					}
+					this.busy = true;
+					this.pollRequested = false;
+					poll();
+					this.busy = false;
+				}
+			} finally {
+				boolean release;
+				synchronized(this) {
+					this.exited = true;
+					release = this.releaseOnExit;
+				}
+				if(release) {
+					releaseProvider();
+				}
+			}
+		}
+
+		/**
+		 * Starts the polling thread.
+		 */
+		void start() {
+			this.running = true;
+			this.thread = new Thread(this, "gamepad4j-provider-" + this.index);
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+
+		/**
+		 * Stops the polling thread and releases the provider once the thread
+		 * has terminated. If a poll is still running after one second, the
+		 * provider is released by the polling thread when that poll is done,
+		 * so it is never released while it is polled.
+		 */
+		void stop() {
+			this.running = false;
+			LockSupport.unpark(this.thread);
+			try {
+				this.thread.join(1000L);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			synchronized(this) {
+				if(!this.exited) {
+					this.releaseOnExit = true;
+					if(Log.errorEnabled) {
+						Log.logger.error("Controller provider " + this.index + " is still polling, it is released when the poll is done.");
+					}
+					return;
+				}
+			}
+			releaseProvider();
+		}
+
+		/**
+		 * Detaches from the provider and releases it.
+		 */
+		void releaseProvider() {
+			this.provider.removeListener(this);
+			this.provider.release();
+		}
+
+		/**
+		 * Returns the composite controller for a controller of the provider.
+		 */
+		private IController composite(IController controller) {
+			return this.registry.getController(this.deviceIDOffset + controller.getDeviceID());
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IControllerListener#connected(org.gamepad4j.IController)
+		 */
+		@Override
+		public void connected(IController controller) {
+			CompositeController composite = CompositeController.create(controller,
+					this.deviceIDOffset + controller.getDeviceID(), this.index);
+			if(this.registry.add(composite)) {
+				if(this.queue != null) {
+					this.queue.offer(ControllerEvent.Type.CONNECTED, composite, null, null, null, null, 0f);
+				} else {
+					listeners.connected(composite);
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IControllerListener#disConnected(org.gamepad4j.IController)
+		 */
+		@Override
+		public void disConnected(IController controller) {
+			IController composite = this.registry.remove(this.deviceIDOffset + controller.getDeviceID());
+			if(composite != null) {
+				if(this.queue != null) {
+					this.queue.offer(ControllerEvent.Type.DISCONNECTED, composite, null, null, null, null, 0f);
+				} else {
+					listeners.disConnected(composite);
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IControllerListener#buttonDown(org.gamepad4j.IController, org.gamepad4j.IButton, org.gamepad4j.ButtonID)
+		 */
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			IController composite = composite(controller);
+			if(composite != null) {
+				if(this.queue != null) {
+					this.queue.offer(ControllerEvent.Type.BUTTON_DOWN, composite, button, buttonID, null, null, 0f);
+				} else {
+					listeners.buttonDown(composite, button, buttonID);
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IControllerListener#buttonUp(org.gamepad4j.IController, org.gamepad4j.IButton, org.gamepad4j.ButtonID)
+		 */
+		@Override
+		public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+			IController composite = composite(controller);
+			if(composite != null) {
+				if(this.queue != null) {
+					this.queue.offer(ControllerEvent.Type.BUTTON_UP, composite, button, buttonID, null, null, 0f);
+				} else {
+					listeners.buttonUp(composite, button, buttonID);
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IControllerListener#moveStick(org.gamepad4j.IController, org.gamepad4j.StickID)
+		 */
+		@Override
+		public void moveStick(IController controller, StickID stick) {
+			IController composite = composite(controller);
+			if(composite != null) {
+				if(this.queue != null) {
+					this.queue.offer(ControllerEvent.Type.STICK_MOVED, composite, null, null, null, stick, 0f);
+				} else {
+					listeners.moveStick(composite, stick);
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IAxisEventListener#axisMoved(org.gamepad4j.IController, org.gamepad4j.IAxis, float)
+		 */
+		@Override
+		public void axisMoved(IController controller, IAxis axis, float value) {
+			IController composite = composite(controller);
+			if(composite != null) {
+				if(this.queue != null) {
+					this.queue.offer(ControllerEvent.Type.AXIS_MOVED, composite, null, null, axis, null, value);
+				} else {
+					listeners.axisMoved(composite, axis, value);
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.gamepad4j.IControllerEventHandler#handleEvent(org.gamepad4j.ControllerEvent)
+		 */
+		@Override
+		public void handleEvent(ControllerEvent event) {
+			IController controller = event.getController();
+			switch(event.getType()) {
+				case CONNECTED:
+					listeners.connected(controller);
+					break;
+				case DISCONNECTED:
+					listeners.disConnected(controller);
+					break;
+				case BUTTON_DOWN:
+					listeners.buttonDown(controller, event.getButton(), event.getButtonID());
+					break;
+				case BUTTON_UP:
+					listeners.buttonUp(controller, event.getButton(), event.getButtonID());
+					break;
+				case STICK_MOVED:
+					listeners.moveStick(controller, event.getStickID());
+					break;
+				case AXIS_MOVED:
+					listeners.axisMoved(controller, event.getAxis(), event.getValue());
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Adds a provider which is polled synchronously by "checkControllers()".
+	 * Must be invoked before "initialize()". The provider must not be
+	 * initialized yet.
+	 *
+	 * @param provider The provider.
+	 * @return The index of the provider.
+	 */
+	public int addProvider(IControllerProvider provider) {
+		return addProvider(provider, false);
+	}
+
+	/**
+	 * Adds a provider. Must be invoked before "initialize()". The provider
+	 * must not be initialized yet.
+	 *
+	 * @param provider The provider.
+	 * @param asynchronous True if the provider should be polled by a thread
+	 *                     of its own (for slow providers).
+	 * @return The index of the provider.
+	 */
+	public synchronized int addProvider(IControllerProvider provider, boolean asynchronous) {
+		if(provider == null) {
+			throw new IllegalArgumentException("Provider must not be null.");
+		}
+		if(this.initialized) {
+			throw new IllegalStateException("Providers must be added before initialization.");
+		}
+		Member[] current = this.members;
+		if((long)(current.length + 1) * DEVICE_ID_RANGE > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Too many providers: " + (current.length + 1));
+		}
+		Member[] updated = new Member[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		updated[current.length] = new Member(provider, current.length,
+				asynchronous ? DEFAULT_EVENT_QUEUE_CAPACITY : 0);
+		this.members = updated;
+		return current.length;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerProvider#initialize()
+	 */
+	@Override
+	public synchronized void initialize() {
+		this.initialized = true;
+		Member[] current = this.members;
+		for(int i = 0; i < current.length; i++) {
+			current[i].provider.addListener(current[i]);
+			current[i].provider.initialize();
+			if(current[i].queue != null) {
+				current[i].start();
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerProvider#release()
+	 */
+	@Override
+	public synchronized void release() {
+		Member[] current = this.members;
+		for(int i = 0; i < current.length; i++) {
+			if(current[i].thread != null) {
+				current[i].stop();
+			} else {
+				current[i].releaseProvider();
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerProvider#checkControllers()
+	 */
+	@Override
+	public synchronized void checkControllers() {
+		Member[] current = this.members;
+		// Trigger the asynchronous polls first, so they run in parallel
+		for(int i = 0; i < current.length; i++) {
+			if(current[i].queue != null) {
+				current[i].requestPoll();
+			}
+		}
+		for(int i = 0; i < current.length; i++) {
+			if(current[i].queue == null) {
+				current[i].poll();
+			} else {
+				current[i].queue.drain(current[i]);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerProvider#addListener(org.gamepad4j.IControllerListener)
+	 */
+	@Override
+	public void addListener(IControllerListener listener) {
+		this.listeners.addListener(listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerProvider#removeListener(org.gamepad4j.IControllerListener)
+	 */
+	@Override
+	public void removeListener(IControllerListener listener) {
+		this.listeners.removeListener(listener);
+	}
+
+	/**
+	 * Returns the number of combined providers.
+	 *
+	 * @return The number of providers.
+	 */
+	public int getProviderCount() {
+		return this.members.length;
+	}
+
+	/**
+	 * Returns a combined provider.
+	 *
+	 * @param index The index of the provider.
+	 * @return The provider.
+	 */
+	public IControllerProvider getProvider(int index) {
+		return this.members[index].provider;
+	}
+
+	/**
+	 * Checks if a provider is polled by a thread of its own.
+	 *
+	 * @param index The index of the provider.
+	 * @return True if it is polled asynchronously.
+	 */
+	public boolean isAsynchronous(int index) {
+		return this.members[index].queue != null;
+	}
+
+	/**
+	 * Returns the controllers of one provider.
+	 *
+	 * @param index The index of the provider.
+	 * @return The controllers (may be empty, but not null).
+	 */
+	public IController[] getControllers(int index) {
+		return this.members[index].registry.getControllers();
+	}
+
+	/**
+	 * Returns the number of polls of a provider.
+	 *
+	 * @param index The index of the provider.
+	 * @return The number of polls.
+	 */
+	public long getPollCount(int index) {
+		return this.members[index].pollCount;
+	}
+
+	/**
+	 * Returns the duration of the latest poll of a provider.
+	 *
+	 * @param index The index of the provider.
+	 * @return The poll time in nanoseconds.
+	 */
+	public long getLastPollNanos(int index) {
+		return this.members[index].lastPollNanos;
+	}
+
+	/**
+	 * Returns the average duration of the polls of a provider.
+	 *
+	 * @param index The index of the provider.
+	 * @return The mean poll time in nanoseconds.
+	 */
+	public long getMeanPollNanos(int index) {
+		Member member = this.members[index];
+		long polls = member.pollCount;
+		if(polls == 0L) {
+			return 0L;
+		}
+		return member.pollSumNanos / polls;
+	}
+
+	/**
+	 * Returns the duration of the longest poll of a provider.
+	 *
+	 * @param index The index of the provider.
+	 * @return The maximum poll time in nanoseconds.
+	 */
+	public long getMaxPollNanos(int index) {
+		return this.members[index].maxPollNanos;
+	}
+
+	/**
+	 * Returns the number of polls of a provider which failed with an exception.
+	 *
+	 * @param index The index of the provider.
+	 * @return The number of failed polls.
+	 */
+	public long getErrorCount(int index) {
+		return this.members[index].errorCount;
+	}
+
+	/**
+	 * Returns the number of polls of an asynchronous provider which were
+	 * skipped, because its previous poll was not finished yet.
+	 *
+	 * @param index The index of the provider.
+	 * @return The number of skipped polls (always 0 for synchronous providers).
+	 */
+	public long getSkippedPollCount(int index) {
+		return this.members[index].skippedCount;
+	}
+
+	/**
+	 * Returns the number of events of an asynchronous provider which were
+	 * dropped, because its event queue was full.
+	 *
+	 * @param index The index of the provider.
+	 * @return The number of dropped events (always 0 for synchronous providers).
+	 */
+	public long getDroppedEventCount(int index) {
+		ControllerEventQueue queue = this.members[index].queue;
+		return queue == null ? 0L : queue.getOverflowCount();
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Composite controller for an underlying controller which implements
+ * "IControllerState" (see "CompositeController.create()").
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+class CompositeStateController extends CompositeController implements IControllerState {
+
+	/** The controller of the underlying provider. */
+	private final IControllerState state;
+
+	/**
+	 * Creates a composite controller.
+	 *
+	 * @param delegate The controller of the underlying provider.
+	 * @param deviceID The device ID assigned by the composite provider.
+	 * @param providerIndex The index of the underlying provider.
+	 */
+	CompositeStateController(IControllerState delegate, int deviceID, int providerIndex) {
+		super(delegate, deviceID, providerIndex);
+		this.state = delegate;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#addButtonListener(org.gamepad4j.IButtonListener)
+	 */
+	@Override
+	public void addButtonListener(IButtonListener listener) {
+		this.state.addButtonListener(listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#removeButtonListener(org.gamepad4j.IButtonListener)
+	 */
+	@Override
+	public void removeButtonListener(IButtonListener listener) {
+		this.state.removeButtonListener(listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#pressedMask()
+	 */
+	@Override
+	public long pressedMask() {
+		return this.state.pressedMask();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#isAllPressed(long)
+	 */
+	@Override
+	public boolean isAllPressed(long mask) {
+		return this.state.isAllPressed(mask);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#isAnyPressed(long)
+	 */
+	@Override
+	public boolean isAnyPressed(long mask) {
+		return this.state.isAnyPressed(mask);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getFrame()
+	 */
+	@Override
+	public long getFrame() {
+		return this.state.getFrame();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#pressedThisFrame()
+	 */
+	@Override
+	public long pressedThisFrame() {
+		return this.state.pressedThisFrame();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#releasedThisFrame()
+	 */
+	@Override
+	public long releasedThisFrame() {
+		return this.state.releasedThisFrame();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getPressFrame(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getPressFrame(ButtonID buttonID) {
+		return this.state.getPressFrame(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getReleaseFrame(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getReleaseFrame(ButtonID buttonID) {
+		return this.state.getReleaseFrame(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getDpadChangeFrame()
+	 */
+	@Override
+	public long getDpadChangeFrame() {
+		return this.state.getDpadChangeFrame();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getSampleNanos()
+	 */
+	@Override
+	public long getSampleNanos() {
+		return this.state.getSampleNanos();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getPressNanos(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getPressNanos(ButtonID buttonID) {
+		return this.state.getPressNanos(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getReleaseNanos(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getReleaseNanos(ButtonID buttonID) {
+		return this.state.getReleaseNanos(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getDpadChangeNanos()
+	 */
+	@Override
+	public long getDpadChangeNanos() {
+		return this.state.getDpadChangeNanos();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getNanosSinceChange(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getNanosSinceChange(ButtonID buttonID) {
+		return this.state.getNanosSinceChange(buttonID);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getSnapshot()
+	 */
+	@Override
+	public ControllerSnapshot getSnapshot() {
+		return this.state.getSnapshot();
+	}
+}
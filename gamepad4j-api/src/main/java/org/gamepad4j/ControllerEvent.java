@@ -0,0 +1,148 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * One controller event in the event queue (see {@link ControllerEventQueue}).
+ * <p>
+ * Event instances are preallocated slots of the queue and are reused. An
+ * event handler must therefore not keep a reference to the event object
+ * after "handleEvent()" returned; copy the required values instead.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerEvent {
+
+	/**
+	 * Types of controller events.
+	 */
+	public static enum Type {
+		CONNECTED,
+		DISCONNECTED,
+		BUTTON_DOWN,
+		BUTTON_UP,
+		AXIS_MOVED,
+		STICK_MOVED,
+		STICK_GESTURE
+	}
+
+	/** The type of this event. */
+	Type type = null;
+
+	/** The sample time of the event (System.nanoTime()). */
+	long nanoTime = 0L;
+
+	/** The controller which caused the event. */
+	IController controller = null;
+
+	/** The button (button events only). */
+	IButton button = null;
+
+	/** The button ID (button events only). */
+	ButtonID buttonID = null;
+
+	/** The axis (axis events only). */
+	IAxis axis = null;
+
+	/** The stick ID (stick and gesture events only). */
+	StickID stickID = null;
+
+	/** The axis value (axis events), or the degree (gesture events). */
+	float value = 0f;
+
+	/** The gesture (gesture events only). */
+	StickGesture gesture = null;
+
+	/** The cell with the latest value (merged axis / stick events only). */
+	AxisEventCoalescer.Cell cell = null;
+
+	/**
+	 * Returns the type of this event.
+	 *
+	 * @return The event type.
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Returns the time at which this event occurred. For button, axis
+	 * and stick events, this is the time at which the controller state
+	 * was sampled (see "IControllerState.getSampleNanos()"), so the age of the
+	 * input is "System.nanoTime() - getNanoTime()". The value
+	 * is based on "System.nanoTime()".
+	 *
+	 * @return The event timestamp in nanoseconds.
+	 */
+	public long getNanoTime() {
+		return this.nanoTime;
+	}
+
+	/**
+	 * Returns the controller which caused this event.
+	 *
+	 * @return The controller.
+	 */
+	public IController getController() {
+		return this.controller;
+	}
+
+	/**
+	 * Returns the button which was pressed or released.
+	 *
+	 * @return The button, or null if this is not a button event.
+	 */
+	public IButton getButton() {
+		return this.button;
+	}
+
+	/**
+	 * Returns the ID of the button which was pressed or released.
+	 *
+	 * @return The button ID, or null if this is not a button event.
+	 */
+	public ButtonID getButtonID() {
+		return this.buttonID;
+	}
+
+	/**
+	 * Returns the axis which was moved.
+	 *
+	 * @return The axis, or null if this is not an axis event.
+	 */
+	public IAxis getAxis() {
+		return this.axis;
+	}
+
+	/**
+	 * Returns the ID of the stick which was moved.
+	 *
+	 * @return The stick ID, or null if this is not a stick or gesture event.
+	 */
+	public StickID getStickID() {
+		return this.stickID;
+	}
+
+	/**
+	 * Returns the new value of the axis which was moved. For gesture
+	 * events, this is the degree of the stick at the end of the gesture
+	 * (see "IStickGestureListener").
+	 *
+	 * @return The axis value or degree (0 for other events).
+	 */
+	public float getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Returns the recognized stick gesture.
+	 *
+	 * @return The gesture, or null if this is not a gesture event.
+	 */
+	public StickGesture getGesture() {
+		return this.gesture;
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer / single-consumer ring buffer of controller
+ * events. The polling thread (producer) adds events without ever
+ * blocking or waiting for listeners, and the game thread (consumer)
+ * drains them once per frame.
+ * <p>
+ * All event slots are preallocated, so neither adding nor draining
+ * events allocates any objects. If the queue is full, new events are
+ * dropped and counted as overflow.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerEventQueue {
+
+	/** The preallocated event slots. */
+	private final ControllerEvent[] slots;
+
+	/** Bit mask for wrapping sequence numbers to slot positions. */
+	private final int mask;
+
+	/** Sequence number of the next event to be read (written by consumer only). */
+	private final AtomicLong head = new AtomicLong(0L);
+
+	/** Sequence number of the next event to be written (written by producer only). */
+	private final AtomicLong tail = new AtomicLong(0L);
+
+	/** Highest number of queued events so far (written by producer only). */
+	private volatile long highWaterMark = 0L;
+
+	/** Number of dropped events (written by producer only). */
+	private volatile long overflowCount = 0L;
+
+	/**
+	 * Creates an event queue.
+	 *
+	 * @param capacity The minimum number of events the queue can hold. It
+	 *                 is rounded up to the next power of two.
+	 */
+	public ControllerEventQueue(int capacity) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException("Event queue capacity must be positive: " + capacity);
+		}
+		int size = 1;
+		while(size < capacity) {
+			size <<= 1;
+		}
+		this.slots = new ControllerEvent[size];
+		for(int i = 0; i < size; i++) {
+			this.slots[i] = new ControllerEvent();
+		}
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Adds an event to the queue. Must only be invoked by the
+	 * producer (polling) thread.
+	 *
+	 * @param type The event type.
+	 * @param controller The controller which caused the event.
+	 * @param button The button (or null).
+	 * @param buttonID The button ID (or null).
+	 * @param axis The axis (or null).
+	 * @param stickID The stick ID (or null).
+	 * @param value The axis value (or 0).
+	 * @return True if the event was added, false if the queue was full.
+	 */
+	public boolean offer(ControllerEvent.Type type, IController controller, IButton button,
+			ButtonID buttonID, IAxis axis, StickID stickID, float value) {
+		return add(type, controller, button, buttonID, axis, stickID, value, null, null);
+	}
+
+	/**
+	 * Adds a merged axis or stick event to the queue. It is delivered
+	 * with the value the cell has when the event is drained. Must only
+	 * be invoked by the producer (polling) thread.
+	 *
+	 * @param cell The cell of the axis or stick.
+	 * @return True if the event was added, false if the queue was full.
+	 */
+	boolean offerCoalesced(AxisEventCoalescer.Cell cell) {
+		ControllerEvent.Type type = cell.stickID != null ? ControllerEvent.Type.STICK_MOVED : ControllerEvent.Type.AXIS_MOVED;
+		return add(type, cell.controller, null, null, cell.axis, cell.stickID, 0f, cell, null);
+	}
+
+	/**
+	 * Adds a stick gesture event to the queue. Must only be invoked
+	 * by the producer (polling) thread.
+	 *
+	 * @param controller The controller.
+	 * @param stickID The stick.
+	 * @param gesture The gesture.
+	 * @param degree The degree of the stick at the end of the gesture.
+	 * @return True if the event was added, false if the queue was full.
+	 */
+	boolean offerGesture(IController controller, StickID stickID, StickGesture gesture, float degree) {
+		return add(ControllerEvent.Type.STICK_GESTURE, controller, null, null, null, stickID, degree, null, gesture);
+	}
+
+	/**
+	 * Adds an event to the queue.
+	 */
+	private boolean add(ControllerEvent.Type type, IController controller, IButton button,
+			ButtonID buttonID, IAxis axis, StickID stickID, float value, AxisEventCoalescer.Cell cell,
+			StickGesture gesture) {
+		long currentTail = this.tail.get();
+		long depth = currentTail - this.head.get();
+		if(depth >= this.slots.length) {
+			this.overflowCount++;
+			return false;
+		}
+		ControllerEvent event = this.slots[(int)currentTail & this.mask];
+		event.type = type;
+		event.nanoTime = timestamp(type, controller);
+		event.controller = controller;
+		event.button = button;
+		event.buttonID = buttonID;
+		event.axis = axis;
+		event.stickID = stickID;
+		event.value = value;
+		event.cell = cell;
+		event.gesture = gesture;
+		// Ordered write: slot contents become visible before the new tail
+		this.tail.lazySet(currentTail + 1);
+		if(depth + 1 > this.highWaterMark) {
+			this.highWaterMark = depth + 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the timestamp of a new event: the sample time of the
+	 * controller for input events, the current time otherwise.
+	 */
+	private static long timestamp(ControllerEvent.Type type, IController controller) {
+		if(controller instanceof IControllerState && type != ControllerEvent.Type.CONNECTED && type != ControllerEvent.Type.DISCONNECTED) {
+			long sampleNanos = ((IControllerState)controller).getSampleNanos();
+			if(sampleNanos != 0L) {
+				return sampleNanos;
+			}
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Passes all currently queued events to the given handler, in the
+	 * order in which they were added. Must only be invoked by the
+	 * consumer (game) thread.
+	 *
+	 * @param handler The event handler.
+	 * @return The number of events handled.
+	 */
+	public int drain(IControllerEventHandler handler) {
+		long currentHead = this.head.get();
+		long currentTail = this.tail.get();
+		int handled = 0;
+		while(currentHead < currentTail) {
+			ControllerEvent event = this.slots[(int)currentHead & this.mask];
+			AxisEventCoalescer.Cell cell = event.cell;
+			if(cell != null) {
+				// Merged event: deliver the latest value. The flag is cleared
+				// first, so a later change creates a new event.
+				cell.pending = false;
+				event.value = cell.value;
+				event.nanoTime = cell.nanoTime;
+			}
+			try {
+				handler.handleEvent(event);
+			} finally {
+				event.controller = null;
+				event.button = null;
+				event.axis = null;
+				event.cell = null;
+				currentHead++;
+				this.head.lazySet(currentHead);
+			}
+			handled++;
+		}
+		return handled;
+	}
+
+	/**
+	 * Returns the number of events the queue can hold.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return this.slots.length;
+	}
+
+	/**
+	 * Returns the number of events currently in the queue.
+	 *
+	 * @return The queue depth.
+	 */
+	public int getDepth() {
+		return (int)(this.tail.get() - this.head.get());
+	}
+
+	/**
+	 * Returns the highest number of events that were in the queue at once.
+	 *
+	 * @return The high-water mark.
+	 */
+	public long getHighWaterMark() {
+		return this.highWaterMark;
+	}
+
+	/**
+	 * Returns the number of events which were dropped because the
+	 * queue was full.
+	 *
+	 * @return The overflow count.
+	 */
+	public long getOverflowCount() {
+		return this.overflowCount;
+	}
+}
@@ -4,26 +4,31 @@
 
 package org.gamepad4j;
 
-import java.util.ArrayList;
-import java.util.List;
+import org.gamepad4j.util.ListenerArrays;
 
 /**
- * Handles adding, removing and accessing controller listeners.
+ * Handles adding, removing and accessing controller listeners. The
+ * adapter itself is a controller listener which passes all events
+ * on to the registered listeners.
+ * <p>
+ * The listeners are stored in a copy-on-write array, so events can be
+ * fired without locking and without allocating anything. Axis events are
+ * passed on only to listeners which implement "IAxisEventListener".
  *
  * @author Marcel Schoen
  * @version $Revision: $
  */
-public class ControllerListenerAdapter {
+public class ControllerListenerAdapter implements IAxisEventListener {
 
-	/** The list of registered listeners. */
-	private List<IControllerListener> listeners = new ArrayList<IControllerListener>();
+	/** The registered listeners. */
+	private volatile IControllerListener[] listeners = new IControllerListener[0];
 
 	/**
-	 * Returns the list of listeners.
+	 * Returns the registered listeners. The returned array must not be modified.
 	 * 
-	 * @return The list of controller listeners.
+	 * @return The controller listeners.
 	 */
-	public List<IControllerListener> getListeners() {
+	public IControllerListener[] getListeners() {
 		return this.listeners;
 	}
 	
@@ -32,8 +37,8 @@ public class ControllerListenerAdapter {
 	 * 
 	 * @param listener The controller listener.
 	 */
-	public void addListener(IControllerListener listener) {
-		listeners.add(listener);
+	public synchronized void addListener(IControllerListener listener) {
+		this.listeners = ListenerArrays.add(this.listeners, listener);
 	}
 	
 	/**
@@ -41,7 +46,76 @@ public class ControllerListenerAdapter {
 	 * 
 	 * @param listener The controller listener to remove.
 	 */
-	public void removeListener(IControllerListener listener) {
-		listeners.remove(listener);
+	public synchronized void removeListener(IControllerListener listener) {
+		this.listeners = ListenerArrays.remove(this.listeners, listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#connected(org.gamepad4j.IController)
+	 */
+	@Override
+	public void connected(IController controller) {
+		IControllerListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].connected(controller);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#disConnected(org.gamepad4j.IController)
+	 */
+	@Override
+	public void disConnected(IController controller) {
+		IControllerListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].disConnected(controller);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#buttonDown(org.gamepad4j.IController, org.gamepad4j.IButton, org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+		IControllerListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].buttonDown(controller, button, buttonID);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#buttonUp(org.gamepad4j.IController, org.gamepad4j.IButton, org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+		IControllerListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].buttonUp(controller, button, buttonID);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#moveStick(org.gamepad4j.IController, org.gamepad4j.StickID)
+	 */
+	@Override
+	public void moveStick(IController controller, StickID stick) {
+		IControllerListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].moveStick(controller, stick);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IAxisEventListener#axisMoved(org.gamepad4j.IController, org.gamepad4j.IAxis, float)
+	 */
+	@Override
+	public void axisMoved(IController controller, IAxis axis, float value) {
+		IControllerListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			// Only listeners which implement the axis event interface get axis events
+			if(current[i] instanceof IAxisEventListener) {
+				((IAxisEventListener)current[i]).axisMoved(controller, axis, value);
+			}
+		}
 	}
 }
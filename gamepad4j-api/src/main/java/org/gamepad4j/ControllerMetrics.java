@@ -0,0 +1,307 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gamepad4j.util.LatencyHistogram;
+
+/**
+ * Instrumentation of the controller polling: latency histograms of the
+ * phases of "checkControllers()" and of the update of every controller,
+ * plus counters of polls, events, hotplugs and controller pool misses.
+ * The metrics are pulled with "Controllers.metrics()", e.g. for the
+ * telemetry of a game:
+ * <pre>
+ * ControllerMetrics.enabled = true;
+ * ...
+ * ControllerMetrics metrics = Controllers.metrics();
+ * long p99 = metrics.getHistogram(ControllerMetrics.Phase.POLL).getPercentile(99d);
+ * </pre>
+ * The instrumentation is off by default; it can be switched on with the
+ * flag "enabled" or the system property "gamepad4j.metrics=true". When it
+ * is off, each instrumented place costs one check of a static flag.
+ * <p>
+ * The metrics can be read by any thread. The counters may also be updated
+ * by several threads (e.g. by asynchronous providers of a
+ * "CompositeControllerProvider"). The update histogram of a controller is
+ * dropped when the controller is disconnected.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerMetrics {
+
+	/** Constant for name of system property which enables the metrics. */
+	public static final String GAMEPAD4J_METRICS = "gamepad4j.metrics";
+
+	/** Instrumentation flag; public access for max performance. */
+	public static boolean enabled = Boolean.getBoolean(GAMEPAD4J_METRICS);
+
+	/**
+	 * The measured phases of a poll.
+	 */
+	public static enum Phase {
+
+		/** The whole "Controllers.checkControllers()". */
+		POLL,
+
+		/** Detection of the connected pads (desktop: "natDetectPads()"). */
+		DETECT,
+
+		/** Scan for new and removed pads (desktop: the "natGetDeviceID()" loop, incl. hotplug handling). */
+		SCAN,
+
+		/** Update of the state of one controller, incl. the dispatch of the events it causes. */
+		UPDATE,
+
+		/** Dispatch of one event to the listeners registered with "Controllers". */
+		DISPATCH
+	}
+
+	/** The histograms of the phases. */
+	private final LatencyHistogram[] phaseHistograms;
+
+	/** The update histograms of the controllers, by device ID. */
+	private final Map<Integer, LatencyHistogram> controllerHistograms = new HashMap<Integer, LatencyHistogram>();
+
+	/** Number of polls. */
+	private final AtomicLong pollCount = new AtomicLong();
+
+	/** Number of controller events. */
+	private final AtomicLong eventCount = new AtomicLong();
+
+	/** Number of connected controllers. */
+	private final AtomicLong connectCount = new AtomicLong();
+
+	/** Number of disconnected controllers. */
+	private final AtomicLong disconnectCount = new AtomicLong();
+
+	/** Number of controller instances created because the pool was empty. */
+	private final AtomicLong poolMissCount = new AtomicLong();
+
+	/** Set to let the polling thread reset the metrics before its next poll. */
+	private volatile boolean resetRequested = false;
+
+	/**
+	 * Creates a set of metrics.
+	 */
+	public ControllerMetrics() {
+		Phase[] phases = Phase.values();
+		this.phaseHistograms = new LatencyHistogram[phases.length];
+		for(int i = 0; i < phases.length; i++) {
+			this.phaseHistograms[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Records the duration of a phase.
+	 *
+	 * @param phase The phase.
+	 * @param nanos The duration in nanoseconds.
+	 */
+	public void record(Phase phase, long nanos) {
+		this.phaseHistograms[phase.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Records a poll.
+	 *
+	 * @param nanos The duration of the poll in nanoseconds.
+	 */
+	public void recordPoll(long nanos) {
+		this.phaseHistograms[Phase.POLL.ordinal()].record(nanos);
+		this.pollCount.incrementAndGet();
+	}
+
+	/**
+	 * Records a controller event and the duration of its dispatch.
+	 *
+	 * @param nanos The duration of the dispatch in nanoseconds.
+	 */
+	public void recordEvent(long nanos) {
+		this.phaseHistograms[Phase.DISPATCH.ordinal()].record(nanos);
+		this.eventCount.incrementAndGet();
+	}
+
+	/**
+	 * Records a newly connected controller.
+	 */
+	public void recordConnect() {
+		this.connectCount.incrementAndGet();
+	}
+
+	/**
+	 * Records a disconnected controller.
+	 */
+	public void recordDisconnect() {
+		this.disconnectCount.incrementAndGet();
+	}
+
+	/**
+	 * Records a controller instance that had to be created because
+	 * the instance pool of the provider was empty.
+	 */
+	public void recordPoolMiss() {
+		this.poolMissCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the histogram of a phase.
+	 *
+	 * @param phase The phase.
+	 * @return The histogram.
+	 */
+	public LatencyHistogram getHistogram(Phase phase) {
+		return this.phaseHistograms[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the update histogram of a controller, and creates it if
+	 * there is none yet. Providers should keep the returned histogram
+	 * while the controller is connected, instead of looking it up with
+	 * every poll.
+	 *
+	 * @param deviceID The device ID of the controller.
+	 * @return The histogram.
+	 */
+	public synchronized LatencyHistogram getControllerHistogram(int deviceID) {
+		Integer key = Integer.valueOf(deviceID);
+		LatencyHistogram histogram = this.controllerHistograms.get(key);
+		if(histogram == null) {
+			histogram = new LatencyHistogram();
+			this.controllerHistograms.put(key, histogram);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Drops the update histogram of a controller, when it is disconnected.
+	 * Otherwise every device ID ever seen would keep its histogram.
+	 *
+	 * @param deviceID The device ID of the controller.
+	 */
+	public synchronized void removeControllerHistogram(int deviceID) {
+		this.controllerHistograms.remove(Integer.valueOf(deviceID));
+	}
+
+	/**
+	 * Returns the device IDs of all controllers with an update histogram.
+	 *
+	 * @return The device IDs.
+	 */
+	public synchronized int[] getControllerDeviceIDs() {
+		int[] deviceIDs = new int[this.controllerHistograms.size()];
+		int i = 0;
+		for(Integer deviceID : this.controllerHistograms.keySet()) {
+			deviceIDs[i++] = deviceID.intValue();
+		}
+		return deviceIDs;
+	}
+
+	/**
+	 * Returns the number of polls.
+	 *
+	 * @return The number of polls.
+	 */
+	public long getPollCount() {
+		return this.pollCount.get();
+	}
+
+	/**
+	 * Returns the number of controller events.
+	 *
+	 * @return The number of events.
+	 */
+	public long getEventCount() {
+		return this.eventCount.get();
+	}
+
+	/**
+	 * Returns the number of newly connected controllers.
+	 *
+	 * @return The number of connects.
+	 */
+	public long getConnectCount() {
+		return this.connectCount.get();
+	}
+
+	/**
+	 * Returns the number of disconnected controllers.
+	 *
+	 * @return The number of disconnects.
+	 */
+	public long getDisconnectCount() {
+		return this.disconnectCount.get();
+	}
+
+	/**
+	 * Returns the number of controller instances that had to be created
+	 * because the instance pool of the provider was empty.
+	 *
+	 * @return The number of pool misses.
+	 */
+	public long getPoolMissCount() {
+		return this.poolMissCount.get();
+	}
+
+	/**
+	 * Clears all metrics. Should be invoked while the controllers are
+	 * not polled (otherwise some values of the current poll may remain).
+	 */
+	public synchronized void reset() {
+		for(int i = 0; i < this.phaseHistograms.length; i++) {
+			this.phaseHistograms[i].reset();
+		}
+		for(LatencyHistogram histogram : this.controllerHistograms.values()) {
+			histogram.reset();
+		}
+		this.pollCount.set(0L);
+		this.eventCount.set(0L);
+		this.connectCount.set(0L);
+		this.disconnectCount.set(0L);
+		this.poolMissCount.set(0L);
+	}
+
+	/**
+	 * Resets the metrics from any thread (e.g. by JMX). The polling thread
+	 * performs the reset before its next poll, so it never races with the
+	 * recording of a poll.
+	 */
+	public void requestReset() {
+		this.resetRequested = true;
+	}
+
+	/**
+	 * Performs a reset requested with "requestReset()". Invoked by
+	 * "Controllers.checkControllers()" before each poll.
+	 */
+	void resetIfRequested() {
+		if(this.resetRequested) {
+			this.resetRequested = false;
+			reset();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		text.append("polls=").append(getPollCount())
+			.append(", events=").append(getEventCount())
+			.append(", connects=").append(getConnectCount())
+			.append(", disconnects=").append(getDisconnectCount())
+			.append(", poolMisses=").append(getPoolMissCount());
+		Phase[] phases = Phase.values();
+		for(int i = 0; i < phases.length; i++) {
+			text.append("\n").append(phases[i]).append(": ").append(this.phaseHistograms[i]);
+		}
+		return text.toString();
+	}
+}
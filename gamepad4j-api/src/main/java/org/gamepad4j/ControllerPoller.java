@@ -0,0 +1,290 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.gamepad4j.util.Log;
+
+/**
+ * Polls the controllers at a fixed rate on a dedicated background thread,
+ * so that the game does not need its own polling loop.
+ * <p>
+ * Polls are scheduled on a fixed time grid (start time plus a multiple of
+ * the period), so delays of single polls don't accumulate as drift. The
+ * thread parks until shortly before the next deadline, and spin-waits for
+ * the last stretch, because parking alone is too coarse for rates like
+ * 1000 Hz. If a poll takes longer than one period, it is counted as an
+ * overrun and the missed ticks are skipped.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerPoller implements Runnable {
+
+	/** Constant for name of system property for the polling rate (in Hz). */
+	public static final String GAMEPAD4J_POLLING_RATE = "gamepad4j.polling.rate";
+
+	/** Time before a deadline from which on the thread spins instead of parking. */
+	private static final long SPIN_NANOS = 100000L;
+
+	/** The polling period in nanoseconds. */
+	private final long periodNanos;
+
+	/** The polling rate in Hz. */
+	private final int pollingRate;
+
+	/** The polling thread. */
+	private Thread thread = null;
+
+	/** Run flag of the polling thread. */
+	private volatile boolean running = false;
+
+	/** Number of polls performed. */
+	private volatile long pollCount = 0L;
+
+	/** Number of polls which took longer than one period. */
+	private volatile long overrunCount = 0L;
+
+	/** Number of polls which failed with an exception. */
+	private volatile long errorCount = 0L;
+
+	/** Sum of the deviations of the poll start times from their deadlines. */
+	private volatile long jitterSumNanos = 0L;
+
+	/** Largest deviation of a poll start time from its deadline. */
+	private volatile long maxJitterNanos = 0L;
+
+	/** Start time of the first poll. */
+	private volatile long firstPollNanos = 0L;
+
+	/** Start time of the latest poll. */
+	private volatile long lastPollNanos = 0L;
+
+	/** Set to let the polling thread reset the statistics before its next poll. */
+	private volatile boolean resetRequested = false;
+
+	/**
+	 * Creates a controller poller.
+	 *
+	 * @param pollingRate The number of polls per second (e.g. 125, 250 or 1000).
+	 */
+	public ControllerPoller(int pollingRate) {
+		if(pollingRate < 1 || pollingRate > 10000) {
+			throw new IllegalArgumentException("Invalid polling rate (must be 1 - 10000 Hz): " + pollingRate);
+		}
+		this.pollingRate = pollingRate;
+		this.periodNanos = 1000000000L / pollingRate;
+	}
+
+	/**
+	 * Starts the polling thread (if it's not running yet).
+	 */
+	public synchronized void start() {
+		if(this.thread != null) {
+			return;
+		}
+		this.running = true;
+		this.thread = new Thread(this, "gamepad4j-poller");
+		this.thread.setDaemon(true);
+		this.thread.setPriority(Thread.MAX_PRIORITY);
+		this.thread.start();
+		if(Log.infoEnabled) {
+			Log.logger.info("Controller poller started at " + this.pollingRate + " Hz");
+		}
+	}
+
+	/**
+	 * Stops the polling thread and waits until it has terminated.
+	 */
+	public synchronized void stop() {
+		if(this.thread == null) {
+			return;
+		}
+		this.running = false;
+		LockSupport.unpark(this.thread);
+		try {
+			this.thread.join(1000L);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.thread = null;
+		if(Log.infoEnabled) {
+			Log.logger.info("Controller poller stopped.");
+		}
+	}
+
+	/**
+	 * Checks if the polling thread is running.
+	 *
+	 * @return True if it's running.
+	 */
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Performs one poll. Invokes "Controllers.checkControllers()".
+	 */
+	protected void poll() {
+		Controllers.checkControllers();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		long deadline = System.nanoTime();
+		while(this.running) {
+			long start = System.nanoTime();
+			recordStart(start, start - deadline);
+			try {
+				poll();
+			} catch(RuntimeException e) {
+				this.errorCount++;
+				if(Log.errorEnabled) {
+					Log.logger.error("Controller poll failed: " + e);
+				}
+			}
+
+			deadline += this.periodNanos;
+			long now = System.nanoTime();
+			if(now > deadline) {
+				// Overrun: skip the ticks that were missed, but stay on the grid
+				this.overrunCount++;
+				long missed = (now - deadline) / this.periodNanos + 1;
+				deadline += missed * this.periodNanos;
+			}
+			waitUntil(deadline);
+		}
+	}
+
+	/**
+	 * Waits until the given point in time: parks for most of the
+	 * remaining time, then spins.
+	 *
+	 * @param deadline The deadline (System.nanoTime() based).
+	 */
+	private void waitUntil(long deadline) {
+		long remaining = deadline - System.nanoTime();
+		while(remaining > SPIN_NANOS && this.running) {
+			LockSupport.parkNanos(remaining - SPIN_NANOS);
+			remaining = deadline - System.nanoTime();
+		}
+		while(System.nanoTime() < deadline && this.running) {
+			// spin for the last stretch
+		}
+	}
+
+	/**
+	 * Updates the statistics for a started poll. Only invoked by the
+	 * polling thread.
+	 *
+	 * @param start The start time of the poll.
+	 * @param jitter The deviation from the scheduled start time.
+	 */
+	private void recordStart(long start, long jitter) {
+		if(this.resetRequested) {
+			this.resetRequested = false;
+			this.pollCount = 0L;
+			this.overrunCount = 0L;
+			this.errorCount = 0L;
+			this.jitterSumNanos = 0L;
+			this.maxJitterNanos = 0L;
+		}
+		if(this.pollCount == 0L) {
+			this.firstPollNanos = start;
+		} else {
+			this.jitterSumNanos += jitter;
+			if(jitter > this.maxJitterNanos) {
+				this.maxJitterNanos = jitter;
+			}
+		}
+		this.lastPollNanos = start;
+		this.pollCount++;
+	}
+
+	/**
+	 * Resets the statistics. The polling thread performs the reset before
+	 * its next poll, so the counters are only ever written by that thread.
+	 */
+	public void resetStatistics() {
+		this.resetRequested = true;
+	}
+
+	/**
+	 * Returns the configured polling rate.
+	 *
+	 * @return The polling rate in Hz.
+	 */
+	public int getPollingRate() {
+		return this.pollingRate;
+	}
+
+	/**
+	 * Returns the polling rate actually achieved so far.
+	 *
+	 * @return The achieved rate in Hz (0 if not enough polls were performed).
+	 */
+	public double getAchievedRate() {
+		long polls = this.pollCount;
+		long elapsed = this.lastPollNanos - this.firstPollNanos;
+		if(polls < 2 || elapsed <= 0L) {
+			return 0d;
+		}
+		return (polls - 1) * 1000000000d / elapsed;
+	}
+
+	/**
+	 * Returns the average deviation of the poll start times from their
+	 * scheduled deadlines.
+	 *
+	 * @return The mean jitter in nanoseconds.
+	 */
+	public long getMeanJitterNanos() {
+		long polls = this.pollCount;
+		if(polls < 2) {
+			return 0L;
+		}
+		return this.jitterSumNanos / (polls - 1);
+	}
+
+	/**
+	 * Returns the largest deviation of a poll start time from its deadline.
+	 *
+	 * @return The maximum jitter in nanoseconds.
+	 */
+	public long getMaxJitterNanos() {
+		return this.maxJitterNanos;
+	}
+
+	/**
+	 * Returns the number of polls performed so far.
+	 *
+	 * @return The number of polls.
+	 */
+	public long getPollCount() {
+		return this.pollCount;
+	}
+
+	/**
+	 * Returns the number of polls which took longer than one period.
+	 *
+	 * @return The number of overruns.
+	 */
+	public long getOverrunCount() {
+		return this.overrunCount;
+	}
+
+	/**
+	 * Returns the number of polls which failed with an exception.
+	 *
+	 * @return The number of failed polls.
+	 */
+	public long getErrorCount() {
+		return this.errorCount;
+	}
+}
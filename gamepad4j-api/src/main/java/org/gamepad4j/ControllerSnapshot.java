@@ -0,0 +1,352 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Consistent view of the complete state of one controller, as it was
+ * sampled in one single poll. Unlike the live IButton / IAxis objects,
+ * the values of a snapshot don't change while the game reads them, so
+ * a frame can be processed based on one coherent controller state.
+ * <p>
+ * Instances are recycled (see {@link ControllerSnapshotBuffer}): a snapshot
+ * obtained through {@link IController#getSnapshot()} stays unchanged until
+ * the next invocation of that method, but should not be kept any longer.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerSnapshot {
+
+	/** The device ID of the controller. */
+	int deviceID = -1;
+
+	/** Number of the poll in which this snapshot was taken (0 = never). */
+	long sequence = 0L;
+
+	/** Time of the sample (System.nanoTime()). */
+	long sampleNanos = 0L;
+
+	/** The pressed state of all buttons. */
+	long pressedMask = 0L;
+
+	/** The d-pad direction. */
+	DpadDirection dpadDirection = DpadDirection.NONE;
+
+	/** The poll cycle of the controller in which this snapshot was taken. */
+	long frame = 0L;
+
+	/** Buttons pressed in that poll cycle. */
+	long pressedThisFrame = 0L;
+
+	/** Buttons released in that poll cycle. */
+	long releasedThisFrame = 0L;
+
+	/** Frame of the latest press of each button (indexed by ButtonID ordinal). */
+	final long[] pressFrames = new long[ButtonID.values().length];
+
+	/** Frame of the latest release of each button (indexed by ButtonID ordinal). */
+	final long[] releaseFrames = new long[ButtonID.values().length];
+
+	/** Frame of the latest d-pad direction change. */
+	long dpadChangeFrame = 0L;
+
+	/** Time of the latest press of each button (indexed by ButtonID ordinal). */
+	final long[] pressNanos = new long[ButtonID.values().length];
+
+	/** Time of the latest release of each button (indexed by ButtonID ordinal). */
+	final long[] releaseNanos = new long[ButtonID.values().length];
+
+	/** Time of the latest d-pad direction change. */
+	long dpadChangeNanos = 0L;
+
+	/** The values of all axes, indexed by axis number. */
+	final float[] axes;
+
+	/** Time of the latest change of each axis, indexed by axis number. */
+	final long[] axisChangeNanos;
+
+	/** Number of valid entries in the axes array. */
+	int numberOfAxes = 0;
+
+	/** The trigger values, indexed by TriggerID ordinal. */
+	final float[] triggers = new float[TriggerID.values().length];
+
+	/** The stick X-axis values, indexed by StickID ordinal. */
+	final float[] stickX = new float[StickID.values().length];
+
+	/** The stick Y-axis values, indexed by StickID ordinal. */
+	final float[] stickY = new float[StickID.values().length];
+
+	/**
+	 * Creates a snapshot holder.
+	 *
+	 * @param axisCapacity The maximum number of axes it can hold.
+	 */
+	ControllerSnapshot(int axisCapacity) {
+		this.axes = new float[axisCapacity];
+		this.axisChangeNanos = new long[axisCapacity];
+	}
+
+	/**
+	 * Returns the device ID of the controller.
+	 *
+	 * @return The device ID.
+	 */
+	public int getDeviceID() {
+		return this.deviceID;
+	}
+
+	/**
+	 * Returns the sequence number of this snapshot. It is increased
+	 * with every poll, so it can be used to check if there is new data.
+	 *
+	 * @return The sequence number (0 if no state was published yet).
+	 */
+	public long getSequence() {
+		return this.sequence;
+	}
+
+	/**
+	 * Returns the time at which the state in this snapshot was sampled.
+	 *
+	 * @return The sample time (System.nanoTime()).
+	 */
+	public long getSampleNanos() {
+		return this.sampleNanos;
+	}
+
+	/**
+	 * Returns the age of this snapshot, that is the time between the
+	 * sample and the given time.
+	 *
+	 * @param nanoTime The current time (System.nanoTime()).
+	 * @return The age in nanoseconds.
+	 */
+	public long getAgeNanos(long nanoTime) {
+		return nanoTime - this.sampleNanos;
+	}
+
+	/**
+	 * Returns the pressed state of all buttons as a bitmask.
+	 *
+	 * @return The bitmask of all pressed buttons.
+	 * @see IController#pressedMask()
+	 */
+	public long pressedMask() {
+		return this.pressedMask;
+	}
+
+	/**
+	 * Checks if the given button was pressed.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return True if it was pressed.
+	 */
+	public boolean isPressed(ButtonID buttonID) {
+		return (this.pressedMask & buttonID.getMask()) != 0L;
+	}
+
+	/**
+	 * Checks if all buttons of the given bitmask were pressed.
+	 *
+	 * @param mask The bitmask of the buttons.
+	 * @return True if all of them were pressed.
+	 */
+	public boolean isAllPressed(long mask) {
+		return (this.pressedMask & mask) == mask;
+	}
+
+	/**
+	 * Checks if any button of the given bitmask was pressed.
+	 *
+	 * @param mask The bitmask of the buttons.
+	 * @return True if at least one of them was pressed.
+	 */
+	public boolean isAnyPressed(long mask) {
+		return (this.pressedMask & mask) != 0L;
+	}
+
+	/**
+	 * Returns the frame number (poll cycle) of the controller in which
+	 * this snapshot was taken (see "IControllerState.getFrame()").
+	 *
+	 * @return The frame number.
+	 */
+	public long getFrame() {
+		return this.frame;
+	}
+
+	/**
+	 * Returns the buttons which were pressed in the frame of this snapshot.
+	 *
+	 * @return The bitmask of the newly pressed buttons.
+	 * @see IController#pressedThisFrame()
+	 */
+	public long pressedThisFrame() {
+		return this.pressedThisFrame;
+	}
+
+	/**
+	 * Returns the buttons which were released in the frame of this snapshot.
+	 *
+	 * @return The bitmask of the newly released buttons.
+	 * @see IController#releasedThisFrame()
+	 */
+	public long releasedThisFrame() {
+		return this.releasedThisFrame;
+	}
+
+	/**
+	 * Returns the frame in which the given button was pressed the last time.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return The frame number (0 if it was never pressed).
+	 */
+	public long getPressFrame(ButtonID buttonID) {
+		return this.pressFrames[buttonID.ordinal()];
+	}
+
+	/**
+	 * Returns the frame in which the given button was released the last time.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return The frame number (0 if it was never released).
+	 */
+	public long getReleaseFrame(ButtonID buttonID) {
+		return this.releaseFrames[buttonID.ordinal()];
+	}
+
+	/**
+	 * Returns the frame in which the d-pad direction changed the last time.
+	 *
+	 * @return The frame number (0 if it never changed).
+	 */
+	public long getDpadChangeFrame() {
+		return this.dpadChangeFrame;
+	}
+
+	/**
+	 * Returns the time at which the given button was pressed the last time.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return The time (System.nanoTime()), 0 if it was never pressed.
+	 */
+	public long getPressNanos(ButtonID buttonID) {
+		return this.pressNanos[buttonID.ordinal()];
+	}
+
+	/**
+	 * Returns the time at which the given button was released the last time.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return The time (System.nanoTime()), 0 if it was never released.
+	 */
+	public long getReleaseNanos(ButtonID buttonID) {
+		return this.releaseNanos[buttonID.ordinal()];
+	}
+
+	/**
+	 * Returns the time at which the d-pad direction changed the last time.
+	 *
+	 * @return The time (System.nanoTime()), 0 if it never changed.
+	 */
+	public long getDpadChangeNanos() {
+		return this.dpadChangeNanos;
+	}
+
+	/**
+	 * Returns how long the given button had been in its state (pressed
+	 * or released) when this snapshot was sampled.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return The time in nanoseconds, or -1 if the button never changed.
+	 * @see IController#getNanosSinceChange(ButtonID)
+	 */
+	public long getNanosSinceChange(ButtonID buttonID) {
+		int index = buttonID.ordinal();
+		long pressFrame = this.pressFrames[index];
+		long releaseFrame = this.releaseFrames[index];
+		if(pressFrame == 0L && releaseFrame == 0L) {
+			return -1L;
+		}
+		long changed = pressFrame > releaseFrame ? this.pressNanos[index] : this.releaseNanos[index];
+		return this.sampleNanos - changed;
+	}
+
+	/**
+	 * Returns the d-pad direction.
+	 *
+	 * @return The d-pad direction.
+	 */
+	public DpadDirection getDpadDirection() {
+		return this.dpadDirection;
+	}
+
+	/**
+	 * Returns the number of axes in this snapshot.
+	 *
+	 * @return The number of axes.
+	 */
+	public int getNumberOfAxes() {
+		return this.numberOfAxes;
+	}
+
+	/**
+	 * Returns the value of the axis with the given number.
+	 *
+	 * @param axisNumber The number of the axis (see "IAxis.getNumber()").
+	 * @return The axis value, or 0 if there is no such axis.
+	 */
+	public float getAxisValue(int axisNumber) {
+		if(axisNumber < 0 || axisNumber >= this.numberOfAxes) {
+			return 0f;
+		}
+		return this.axes[axisNumber];
+	}
+
+	/**
+	 * Returns how long the value of the axis with the given number had
+	 * not changed when this snapshot was sampled.
+	 *
+	 * @param axisNumber The number of the axis (see "IAxis.getNumber()").
+	 * @return The time in nanoseconds, or -1 if there is no such axis or it never changed.
+	 */
+	public long getNanosSinceAxisChange(int axisNumber) {
+		if(axisNumber < 0 || axisNumber >= this.numberOfAxes || this.axisChangeNanos[axisNumber] == 0L) {
+			return -1L;
+		}
+		return this.sampleNanos - this.axisChangeNanos[axisNumber];
+	}
+
+	/**
+	 * Returns the analog value of the given trigger.
+	 *
+	 * @param triggerID The ID of the trigger.
+	 * @return The trigger value, or 0 if there is no such trigger.
+	 */
+	public float getTriggerValue(TriggerID triggerID) {
+		return this.triggers[triggerID.ordinal()];
+	}
+
+	/**
+	 * Returns the X-axis value of the given stick.
+	 *
+	 * @param stickID The ID of the stick.
+	 * @return The X-axis value, or 0 if there is no such stick.
+	 */
+	public float getStickX(StickID stickID) {
+		return this.stickX[stickID.ordinal()];
+	}
+
+	/**
+	 * Returns the Y-axis value of the given stick.
+	 *
+	 * @param stickID The ID of the stick.
+	 * @return The Y-axis value, or 0 if there is no such stick.
+	 */
+	public float getStickY(StickID stickID) {
+		return this.stickY[stickID.ordinal()];
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free exchange of controller snapshots between the polling thread
+ * (writer) and the game thread (reader).
+ * <p>
+ * The writer fills a back buffer and publishes it with one atomic swap.
+ * Because the reader may hold on to its snapshot for a whole frame while
+ * the writer publishes several times, there is a third buffer in between:
+ * the writer and the reader each own one buffer exclusively, and swap it
+ * with the shared "middle" buffer. Nothing is allocated after construction.
+ * <p>
+ * There must be only one writer thread and one reader thread.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerSnapshotBuffer {
+
+	/** Flag in the exchange value: middle buffer contains unread data. */
+	private static final int DIRTY = 4;
+
+	/** Mask for the buffer index in the exchange value. */
+	private static final int INDEX = 3;
+
+	/** Cached button IDs (values() creates a new array each time). */
+	private static final ButtonID[] BUTTON_IDS = ButtonID.values();
+
+	/** Cached stick IDs (values() creates a new array each time). */
+	private static final StickID[] STICK_IDS = StickID.values();
+
+	/** The three snapshot buffers. */
+	private final ControllerSnapshot[] buffers = new ControllerSnapshot[3];
+
+	/** Index of the middle buffer, plus the DIRTY flag. */
+	private final AtomicInteger middle = new AtomicInteger(1);
+
+	/** Index of the buffer owned by the writer. */
+	private int back = 0;
+
+	/** Index of the buffer owned by the reader. */
+	private int front = 2;
+
+	/** Number of snapshots published so far. */
+	private long sequence = 0L;
+
+	/**
+	 * Creates a snapshot buffer.
+	 *
+	 * @param axisCapacity The maximum number of axes of the controller.
+	 */
+	public ControllerSnapshotBuffer(int axisCapacity) {
+		for(int i = 0; i < this.buffers.length; i++) {
+			this.buffers[i] = new ControllerSnapshot(axisCapacity);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of axes the snapshots can hold.
+	 *
+	 * @return The axis capacity.
+	 */
+	public int getAxisCapacity() {
+		return this.buffers[0].axes.length;
+	}
+
+	/**
+	 * Captures the current state of the given controller into the
+	 * back buffer, and publishes it. Must only be invoked by the
+	 * writer (polling) thread.
+	 *
+	 * @param controller The controller whose state to capture.
+	 */
+	public void publish(IControllerState controller) {
+		ControllerSnapshot snapshot = this.buffers[this.back];
+		snapshot.deviceID = controller.getDeviceID();
+		snapshot.sequence = ++this.sequence;
+		snapshot.sampleNanos = controller.getSampleNanos();
+		snapshot.pressedMask = controller.pressedMask();
+		snapshot.dpadDirection = controller.getDpadDirection();
+		snapshot.frame = controller.getFrame();
+		snapshot.pressedThisFrame = controller.pressedThisFrame();
+		snapshot.releasedThisFrame = controller.releasedThisFrame();
+		snapshot.dpadChangeFrame = controller.getDpadChangeFrame();
+		snapshot.dpadChangeNanos = controller.getDpadChangeNanos();
+		for(int i = 0; i < BUTTON_IDS.length; i++) {
+			snapshot.pressFrames[i] = controller.getPressFrame(BUTTON_IDS[i]);
+			snapshot.releaseFrames[i] = controller.getReleaseFrame(BUTTON_IDS[i]);
+			snapshot.pressNanos[i] = controller.getPressNanos(BUTTON_IDS[i]);
+			snapshot.releaseNanos[i] = controller.getReleaseNanos(BUTTON_IDS[i]);
+		}
+
+		IAxis[] axes = controller.getAxes();
+		int numberOfAxes = Math.min(axes.length, snapshot.axes.length);
+		for(int i = 0; i < numberOfAxes; i++) {
+			snapshot.axes[i] = axes[i] == null ? 0f : axes[i].getValue();
+			snapshot.axisChangeNanos[i] = axes[i] instanceof IAxisState ? ((IAxisState)axes[i]).getLastChangeNanos() : 0L;
+		}
+		snapshot.numberOfAxes = numberOfAxes;
+
+		for(int i = 0; i < snapshot.triggers.length; i++) {
+			snapshot.triggers[i] = 0f;
+		}
+		ITrigger[] triggers = controller.getTriggers();
+		if(triggers != null) {
+			for(int i = 0; i < triggers.length; i++) {
+				if(triggers[i] != null) {
+					snapshot.triggers[triggers[i].getID().ordinal()] = triggers[i].analogValue();
+				}
+			}
+		}
+
+		for(int i = 0; i < STICK_IDS.length; i++) {
+			snapshot.stickX[i] = 0f;
+			snapshot.stickY[i] = 0f;
+		}
+		IStick[] sticks = controller.getSticks();
+		if(sticks != null) {
+			for(int i = 0; i < sticks.length; i++) {
+				if(sticks[i] != null) {
+					int id = sticks[i].getID().ordinal();
+					IAxis xAxis = sticks[i].getAxis(AxisID.X);
+					IAxis yAxis = sticks[i].getAxis(AxisID.Y);
+					snapshot.stickX[id] = xAxis == null ? 0f : xAxis.getValue();
+					snapshot.stickY[id] = yAxis == null ? 0f : yAxis.getValue();
+				}
+			}
+		}
+
+		// Publish: swap back buffer with the middle one, and mark it as new
+		this.back = this.middle.getAndSet(this.back | DIRTY) & INDEX;
+	}
+
+	/**
+	 * Returns the most recently published snapshot. The returned object
+	 * does not change until the next invocation of this method. Must only
+	 * be invoked by the reader (game) thread.
+	 *
+	 * @return The latest snapshot (with sequence 0 if nothing was published yet).
+	 */
+	public ControllerSnapshot acquire() {
+		if((this.middle.get() & DIRTY) != 0) {
+			this.front = this.middle.getAndSet(this.front) & INDEX;
+		}
+		return this.buffers[this.front];
+	}
+}
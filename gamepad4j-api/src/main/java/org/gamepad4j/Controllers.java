@@ -4,7 +4,9 @@
 
 package org.gamepad4j;
 
+import org.gamepad4j.util.ControllerRegistry;
 import org.gamepad4j.util.Log;
+import org.gamepad4j.util.ManagementUtil;
 import org.gamepad4j.util.PlatformUtil;
 
 
@@ -14,41 +16,146 @@ import org.gamepad4j.util.PlatformUtil;
  * @author Marcel Schoen
  * @version $Revision: $
  */
-public class Controllers implements IControllerListener {
+public class Controllers implements IAxisEventListener {
+
+	/** 
+	 * Constant for name of system property for the class name of the controller 
+	 * provider (overrides the provider of the current platform, e.g. for tests).
+	 */
+	public static final String GAMEPAD4J_PROVIDER_CLASS = "gamepad4j.provider.class";
+
+	/** 
+	 * Constant for name of system property which enables the JMX MBeans 
+	 * (see "registerMBeans()").
+	 */
+	public static final String GAMEPAD4J_JMX = "gamepad4j.jmx";
+
+	/** 
+	 * Constant for name of system property which enables the merging of 
+	 * axis and stick events (see "setAxisCoalescing()").
+	 */
+	public static final String GAMEPAD4J_AXIS_COALESCING = "gamepad4j.axis.coalescing";
 
 	/** Stores controller listeners. */
 	private ControllerListenerAdapter listenerAdapter = new ControllerListenerAdapter();
 	
-	/** The list of available controllers. */
-	private IController[] controllers = new IController[0];
+	/** The registry of available controllers (lock-free for readers). */
+	private ControllerRegistry registry = new ControllerRegistry();
+
+	/** Optional event queue; if set, events are queued instead of dispatched. */
+	private volatile ControllerEventQueue eventQueue = null;
+
+	/** The polling metrics (recorded if "ControllerMetrics.enabled" is set). */
+	private static final ControllerMetrics metrics = new ControllerMetrics();
+
+	/** Flag for merging axis and stick events. */
+	private static volatile boolean axisCoalescing = Boolean.getBoolean(GAMEPAD4J_AXIS_COALESCING);
+
+	/** Merges axis and stick events, if enabled. */
+	private final AxisEventCoalescer coalescer = new AxisEventCoalescer();
+
+	/** The thread which is currently inside "checkControllers()" (direct dispatch with merging only). */
+	private volatile Thread frameThread = null;
+
+	/** The stick gesture recognizer which is fed with every poll (may be null). */
+	private volatile StickGestureRecognizer gestureRecognizer = null;
+
+	/** Puts the recognized stick gestures into the event queue, if enabled. */
+	private final IStickGestureListener gestureQueuer = new IStickGestureListener() {
+		public void stickGesture(IController controller, StickID stickID, StickGesture gesture, float degree, long nanoTime) {
+			ControllerEventQueue queue = eventQueue;
+			if(queue != null) {
+				queue.offerGesture(controller, stickID, gesture, degree);
+			}
+		}
+	};
 	
 	/** The controller provider implementation. */
 	private static IControllerProvider controllerProvider = null;
 	
+	/** The background poller (null if the game polls the controllers itself). */
+	private static ControllerPoller poller = null;
+	
 	/** Singleton instance of this class. */
 	private static Controllers instance = new Controllers();
+
+	/** Set while the MBean of this class is registered. */
+	private static boolean mbeansRegistered = false;
 	
 	/**
 	 * Initializes the controller factory. Must be called once
 	 * before the controllers can be used.
+	 * <p>
+	 * If the system property "gamepad4j.polling.rate" is set to a
+	 * rate in Hz, a background poller is started (see "initialize(int)").
+	 * Otherwise, the game must invoke "checkControllers()" itself.
+	 * The system property "gamepad4j.provider.class" can be set to the 
+	 * class name of another controller provider (with a public no-argument
+	 * constructor), like "org.gamepad4j.desktop.virtual.VirtualControllerProvider".
 	 */
 	public static void initialize() {
+		initialize(Integer.getInteger(ControllerPoller.GAMEPAD4J_POLLING_RATE, 0).intValue());
+	}
+
+	/**
+	 * Initializes the controller factory, and starts a background poller
+	 * which invokes "checkControllers()" at the given rate. In this case,
+	 * the game must not invoke "checkControllers()" itself.
+	 * 
+	 * @param pollingRate The polling rate in Hz (0 for no background poller).
+	 */
+	public static void initialize(int pollingRate) {
+		String providerClassName = System.getProperty(GAMEPAD4J_PROVIDER_CLASS);
+		if(providerClassName == null) {
+			String providerType = "Desktop";
+			if(PlatformUtil.isOuya()) {
+				providerType = "Ouya";
+			}
+			// TODO: Add more Android types (generic 4.x, Xperia Play, GameStik)
+			providerClassName = "org.gamepad4j." + providerType.toLowerCase() + "." + providerType + "ControllerProvider";
+		}
+		
+		IControllerProvider provider = null;
+		try {
+			Class providerClass = Class.forName(providerClassName);
+			provider = (IControllerProvider)providerClass.newInstance();
+		} catch(Exception e) {
+			e.printStackTrace();
+			throw new IllegalStateException("Failed to create controller provider instance: " + e);
+		}
+		initialize(provider, pollingRate);
+	}
+
+	/**
+	 * Initializes the controller factory with the given provider, instead
+	 * of the one for the current platform (e.g. with a provider which 
+	 * replays recorded input, for automated tests). If it was initialized
+	 * before, the background poller of the previous initialization is
+	 * stopped, the previous provider no longer passes events on (it is
+	 * not released, though; release it first with "shutdown()" if necessary),
+	 * and the listeners are notified about the disconnection of its controllers.
+	 * 
+	 * @param provider The controller provider (not initialized yet).
+	 * @param pollingRate The polling rate in Hz (0 for no background poller).
+	 */
+	public static void initialize(IControllerProvider provider, int pollingRate) {
 		// By default, do not log at all.
 		// In order to override this, the caller can
 		// invoke "Log.initialize()" beforehand with
 		// the desired log level.
 		Log.initialize(Log.LogLevel.NONE);
-		
-		String providerType = "Desktop";
-		if(PlatformUtil.isOuya()) {
-			providerType = "Ouya";
+
+		if(poller != null) {
+			poller.stop();
+			poller = null;
+		}
+		if(controllerProvider != null) {
+			controllerProvider.removeListener(instance);
 		}
-		// TODO: Add more Android types (generic 4.x, Xperia Play, GameStik)
+		instance.disconnectAll();
 		
 		try {
-			String providerClassName = "org.gamepad4j." + providerType.toLowerCase() + "." + providerType + "ControllerProvider";
-			Class providerClass = Class.forName(providerClassName);
-			controllerProvider = (IControllerProvider)providerClass.newInstance();
+			controllerProvider = provider;
 			controllerProvider.addListener(instance);
 			controllerProvider.initialize();
 			Log.logger.debug("Controller provider ready: " + controllerProvider.getClass().getName());
@@ -56,15 +163,99 @@ public class Controllers implements IControllerListener {
 			e.printStackTrace();
 			throw new IllegalStateException("Failed to initialize controller provider instance: " + e);
 		}
+		if(pollingRate > 0) {
+			poller = new ControllerPoller(pollingRate);
+			poller.start();
+		}
+		if(Boolean.getBoolean(GAMEPAD4J_JMX)) {
+			registerMBeans();
+		}
 	}
 
 	/**
 	 * Shuts down the controller handler (releases all resources that
 	 * might be held by any native wrapper / library). This should be
-	 * called when the game is terminated.
+	 * called when the game is terminated. The listeners are notified
+	 * about the disconnection of the controllers which are still 
+	 * registered; events still in the event queue are discarded.
 	 */
 	public static void shutdown() {
+		if(poller != null) {
+			poller.stop();
+			poller = null;
+		}
 		controllerProvider.release();
+		instance.disconnectAll();
+		ControllerEventQueue queue = instance.eventQueue;
+		if(queue != null) {
+			instance.eventQueue = new ControllerEventQueue(queue.getCapacity());
+			// Merged events in the discarded queue are no longer pending
+			instance.coalescer.clearPending();
+		}
+		unregisterMBeans();
+	}
+
+	/**
+	 * Disconnects all registered controllers, when their provider is shut
+	 * down or replaced. This also drops their merged events and gesture
+	 * states, so the controllers of the next provider (which may have the
+	 * same device IDs) are connected from scratch.
+	 */
+	private void disconnectAll() {
+		IController[] controllers = this.registry.getControllers();
+		for(int i = 0; i < controllers.length; i++) {
+			disConnected(controllers[i]);
+		}
+	}
+
+	/**
+	 * Registers the JMX MBean "org.gamepad4j:type=Controllers" with the
+	 * platform MBean server, to watch the poller, event and metrics
+	 * statistics with JConsole or VisualVM. This is done automatically
+	 * by "initialize()" if the system property "gamepad4j.jmx" is "true".
+	 * The desktop provider registers an MBean of its own in this case.
+	 * <p>
+	 * Has no effect (besides an error log) on platforms without JMX.
+	 */
+	public static synchronized void registerMBeans() {
+		if(mbeansRegistered) {
+			return;
+		}
+		try {
+			mbeansRegistered = ManagementUtil.register(ControllersManagement.OBJECT_NAME, new ControllersManagement());
+		} catch(LinkageError e) {
+			if(Log.errorEnabled) {
+				Log.logger.error("JMX is not available on this platform: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Unregisters the JMX MBean of this class (if it is registered).
+	 */
+	public static synchronized void unregisterMBeans() {
+		if(mbeansRegistered) {
+			ManagementUtil.unregister(ControllersManagement.OBJECT_NAME);
+			mbeansRegistered = false;
+		}
+	}
+
+	/**
+	 * Returns the controller provider.
+	 * 
+	 * @return The provider (null if not initialized yet).
+	 */
+	public static IControllerProvider getProvider() {
+		return controllerProvider;
+	}
+
+	/**
+	 * Returns the background poller, e.g. for querying its statistics.
+	 * 
+	 * @return The poller, or null if no background poller is running.
+	 */
+	public static ControllerPoller getPoller() {
+		return poller;
 	}
 	
 	/**
@@ -74,11 +265,172 @@ public class Controllers implements IControllerListener {
 		return instance;
 	}
 
+	/**
+	 * Returns the polling metrics. They are only recorded while
+	 * "ControllerMetrics.enabled" is set.
+	 * 
+	 * @return The metrics.
+	 */
+	public static ControllerMetrics metrics() {
+		return metrics;
+	}
+
 	/**
 	 * Lets the backend check the state of all controllers.
 	 */
 	public static void checkControllers() {
-		controllerProvider.checkControllers();
+		metrics.resetIfRequested();
+		boolean measure = ControllerMetrics.enabled;
+		long start = measure ? System.nanoTime() : 0L;
+		if(axisCoalescing && instance.eventQueue == null) {
+			// Collect the axis and stick changes of this poll, and 
+			// dispatch each of them once, at the end
+			instance.frameThread = Thread.currentThread();
+			try {
+				controllerProvider.checkControllers();
+			} finally {
+				instance.frameThread = null;
+				instance.dispatchFrame();
+			}
+		} else {
+			controllerProvider.checkControllers();
+		}
+		StickGestureRecognizer recognizer = instance.gestureRecognizer;
+		if(recognizer != null) {
+			IController[] controllers = instance.registry.getControllers();
+			for(int i = 0; i < controllers.length; i++) {
+				recognizer.update(controllers[i]);
+			}
+		}
+		if(measure) {
+			metrics.recordPoll(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Sets the recognizer which is fed with the stick positions of all
+	 * controllers with every poll. Its listeners are notified on the polling
+	 * thread; if the event queue is enabled, the gestures are queued as 
+	 * "STICK_GESTURE" events as well.
+	 * 
+	 * @param recognizer The gesture recognizer (null to stop recognizing gestures).
+	 */
+	public static synchronized void setStickGestureRecognizer(StickGestureRecognizer recognizer) {
+		StickGestureRecognizer previous = instance.gestureRecognizer;
+		if(previous != null) {
+			previous.removeListener(instance.gestureQueuer);
+		}
+		if(recognizer != null) {
+			recognizer.addListener(instance.gestureQueuer);
+		}
+		instance.gestureRecognizer = recognizer;
+	}
+
+	/**
+	 * Returns the stick gesture recognizer.
+	 * 
+	 * @return The recognizer, or null if gestures are not recognized.
+	 */
+	public static StickGestureRecognizer getStickGestureRecognizer() {
+		return instance.gestureRecognizer;
+	}
+
+	/**
+	 * Enables or disables the merging of axis and stick events. If enabled,
+	 * every axis and stick of a controller delivers at most one event with 
+	 * its latest value per poll (or, with the event queue, per "drainEvents()"),
+	 * instead of one event per change. So listeners which can't keep up
+	 * with the input only see the values that matter. Button events are
+	 * never merged.
+	 * <p>
+	 * A merged event is delivered at the position of the first change it
+	 * contains, so its value may be newer than the button events after it.
+	 * The direct listeners of the axes ("IAxisListener") are not affected.
+	 * 
+	 * @param enabled True to merge axis and stick events.
+	 */
+	public static void setAxisCoalescing(boolean enabled) {
+		axisCoalescing = enabled;
+	}
+
+	/**
+	 * Checks if axis and stick events are merged.
+	 * 
+	 * @return True if they are merged.
+	 */
+	public static boolean isAxisCoalescing() {
+		return axisCoalescing;
+	}
+
+	/**
+	 * Returns the number of axis and stick events which were eliminated
+	 * by merging them (see "setAxisCoalescing()").
+	 * 
+	 * @return The number of merged events.
+	 */
+	public static long getCoalescedEventCount() {
+		return instance.coalescer.getCoalescedCount();
+	}
+
+	/**
+	 * Merges an axis or stick change, if merging is enabled and possible
+	 * for the current thread.
+	 * 
+	 * @param queue The event queue (or null).
+	 * @param controller The controller.
+	 * @param axis The axis (null for stick events).
+	 * @param stick The stick ID (null for axis events).
+	 * @param value The axis value.
+	 * @return True if the change was merged, false if it must be dispatched normally.
+	 */
+	private boolean coalesce(ControllerEventQueue queue, IController controller, IAxis axis, StickID stick, float value) {
+		if(!axisCoalescing || (queue == null && this.frameThread != Thread.currentThread())) {
+			return false;
+		}
+		AxisEventCoalescer.Cell cell = axis != null ? this.coalescer.axisCell(controller, axis) 
+				: this.coalescer.stickCell(controller, stick);
+		if(!this.coalescer.update(cell, value)) {
+			// Merged into a pending event
+			return true;
+		}
+		if(queue == null) {
+			this.coalescer.addToFrame(cell);
+			return true;
+		}
+		boolean measure = ControllerMetrics.enabled;
+		long start = measure ? System.nanoTime() : 0L;
+		if(!queue.offerCoalesced(cell)) {
+			cell.pending = false;
+		}
+		if(measure) {
+			metrics.recordEvent(System.nanoTime() - start);
+		}
+		return true;
+	}
+
+	/**
+	 * Dispatches the merged axis and stick events of a poll.
+	 */
+	private void dispatchFrame() {
+		int size = this.coalescer.getFrameSize();
+		for(int i = 0; i < size; i++) {
+			AxisEventCoalescer.Cell cell = this.coalescer.takeFrameCell(i);
+			if(this.registry.getController(cell.controller.getDeviceID()) != cell.controller) {
+				// Disconnected in the meantime
+				continue;
+			}
+			boolean measure = ControllerMetrics.enabled;
+			long start = measure ? System.nanoTime() : 0L;
+			if(cell.axis != null) {
+				this.listenerAdapter.axisMoved(cell.controller, cell.axis, cell.value);
+			} else {
+				this.listenerAdapter.moveStick(cell.controller, cell.stickID);
+			}
+			if(measure) {
+				metrics.recordEvent(System.nanoTime() - start);
+			}
+		}
+		this.coalescer.clearFrame();
 	}
 	
 	/* (non-Javadoc)
@@ -86,20 +438,19 @@ public class Controllers implements IControllerListener {
 	 */
 	@Override
 	public void connected(IController controller) {
-		// First make sure it's not already in the list
-		boolean addIt = true;
-		for(IController oldController : this.controllers) {
-			if(oldController.getDeviceID() == controller.getDeviceID()) {
-				addIt = false;
+		// Only notify if it's not already in the registry
+		if(this.registry.add(controller)) {
+			boolean measure = ControllerMetrics.enabled;
+			long start = measure ? System.nanoTime() : 0L;
+			ControllerEventQueue queue = this.eventQueue;
+			if(queue != null) {
+				queue.offer(ControllerEvent.Type.CONNECTED, controller, null, null, null, null, 0f);
+			} else {
+				this.listenerAdapter.connected(controller);
 			}
-		}
-		if(addIt) {
-			IController[] newControllers = new IController[this.controllers.length + 1];
-			System.arraycopy(this.controllers, 0, newControllers, 0, this.controllers.length);
-			newControllers[newControllers.length - 1] = controller;
-			this.controllers = newControllers;
-			for(IControllerListener listener : this.listenerAdapter.getListeners()) {
-				listener.connected(controller);
+			if(measure) {
+				metrics.recordConnect();
+				metrics.recordEvent(System.nanoTime() - start);
 			}
 		}
 	}
@@ -109,17 +460,23 @@ public class Controllers implements IControllerListener {
 	 */
 	@Override
 	public void disConnected(IController controller) {
-		if(this.controllers.length > 0) {
-			IController[] newControllers = new IController[this.controllers.length - 1];
-			int ct = 0;
-			for(IController oldController : this.controllers) {
-				if(oldController.getDeviceID() != controller.getDeviceID()) {
-					newControllers[ct] = oldController;
-				}
+		if(this.registry.remove(controller.getDeviceID()) != null) {
+			this.coalescer.remove(controller);
+			StickGestureRecognizer recognizer = this.gestureRecognizer;
+			if(recognizer != null) {
+				recognizer.reset(controller);
 			}
-			this.controllers = newControllers;
-			for(IControllerListener listener : this.listenerAdapter.getListeners()) {
-				listener.disConnected(controller);
+			boolean measure = ControllerMetrics.enabled;
+			long start = measure ? System.nanoTime() : 0L;
+			ControllerEventQueue queue = this.eventQueue;
+			if(queue != null) {
+				queue.offer(ControllerEvent.Type.DISCONNECTED, controller, null, null, null, null, 0f);
+			} else {
+				this.listenerAdapter.disConnected(controller);
+			}
+			if(measure) {
+				metrics.recordDisconnect();
+				metrics.recordEvent(System.nanoTime() - start);
 			}
 		}
 	}
@@ -130,8 +487,16 @@ public class Controllers implements IControllerListener {
 	@Override
 	public void buttonDown(IController controller, IButton button,
 			ButtonID buttonID) {
-		for(IControllerListener listener : this.listenerAdapter.getListeners()) {
-			listener.buttonDown(controller, button, buttonID);
+		boolean measure = ControllerMetrics.enabled;
+		long start = measure ? System.nanoTime() : 0L;
+		ControllerEventQueue queue = this.eventQueue;
+		if(queue != null) {
+			queue.offer(ControllerEvent.Type.BUTTON_DOWN, controller, button, buttonID, null, null, 0f);
+		} else {
+			this.listenerAdapter.buttonDown(controller, button, buttonID);
+		}
+		if(measure) {
+			metrics.recordEvent(System.nanoTime() - start);
 		}
 	}
 
@@ -141,8 +506,16 @@ public class Controllers implements IControllerListener {
 	@Override
 	public void buttonUp(IController controller, IButton button,
 			ButtonID buttonID) {
-		for(IControllerListener listener : this.listenerAdapter.getListeners()) {
-			listener.buttonUp(controller, button, buttonID);
+		boolean measure = ControllerMetrics.enabled;
+		long start = measure ? System.nanoTime() : 0L;
+		ControllerEventQueue queue = this.eventQueue;
+		if(queue != null) {
+			queue.offer(ControllerEvent.Type.BUTTON_UP, controller, button, buttonID, null, null, 0f);
+		} else {
+			this.listenerAdapter.buttonUp(controller, button, buttonID);
+		}
+		if(measure) {
+			metrics.recordEvent(System.nanoTime() - start);
 		}
 	}
 
@@ -151,18 +524,128 @@ public class Controllers implements IControllerListener {
 	 */
 	@Override
 	public void moveStick(IController controller, StickID stick) {
-		for(IControllerListener listener : this.listenerAdapter.getListeners()) {
-			listener.moveStick(controller, stick);
+		ControllerEventQueue queue = this.eventQueue;
+		if(coalesce(queue, controller, null, stick, 0f)) {
+			return;
+		}
+		boolean measure = ControllerMetrics.enabled;
+		long start = measure ? System.nanoTime() : 0L;
+		if(queue != null) {
+			queue.offer(ControllerEvent.Type.STICK_MOVED, controller, null, null, null, stick, 0f);
+		} else {
+			this.listenerAdapter.moveStick(controller, stick);
+		}
+		if(measure) {
+			metrics.recordEvent(System.nanoTime() - start);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IAxisEventListener#axisMoved(org.gamepad4j.IController, org.gamepad4j.IAxis, float)
+	 */
+	@Override
+	public void axisMoved(IController controller, IAxis axis, float value) {
+		ControllerEventQueue queue = this.eventQueue;
+		if(coalesce(queue, controller, axis, null, value)) {
+			return;
+		}
+		boolean measure = ControllerMetrics.enabled;
+		long start = measure ? System.nanoTime() : 0L;
+		if(queue != null) {
+			queue.offer(ControllerEvent.Type.AXIS_MOVED, controller, null, null, axis, null, value);
+		} else {
+			this.listenerAdapter.axisMoved(controller, axis, value);
+		}
+		if(measure) {
+			metrics.recordEvent(System.nanoTime() - start);
 		}
 	}
 
+	/**
+	 * Enables the event queue. From then on, controller events are no longer
+	 * passed to the registered listeners within "checkControllers()", but
+	 * queued, until they're processed by invoking "drainEvents()". This
+	 * decouples the polling thread from slow listeners.
+	 * 
+	 * @param capacity The maximum number of queued events (rounded up to
+	 *                 a power of two). If the queue is full, further events
+	 *                 are dropped and counted (see "ControllerEventQueue").
+	 */
+	public static void enableEventQueue(int capacity) {
+		instance.eventQueue = new ControllerEventQueue(capacity);
+	}
+
+	/**
+	 * Disables the event queue; events will be passed to the listeners 
+	 * directly again. Events still in the queue are discarded.
+	 */
+	public static void disableEventQueue() {
+		instance.eventQueue = null;
+		// Merged events in the discarded queue are no longer pending
+		instance.coalescer.clearPending();
+	}
+
+	/**
+	 * Returns the event queue, e.g. for querying its statistics.
+	 * 
+	 * @return The event queue, or null if it's not enabled.
+	 */
+	public static ControllerEventQueue getEventQueue() {
+		return instance.eventQueue;
+	}
+
+	/**
+	 * Passes all queued events to the given handler. Should be invoked
+	 * once per frame by the game thread (and by that thread only).
+	 * 
+	 * @param handler The event handler.
+	 * @return The number of handled events (0 if the queue is not enabled).
+	 */
+	public static int drainEvents(IControllerEventHandler handler) {
+		ControllerEventQueue queue = instance.eventQueue;
+		if(queue == null) {
+			return 0;
+		}
+		return queue.drain(handler);
+	}
+
 	/**
 	 * Returns all the available controllers.
 	 * 
 	 * @return The available controllers.
 	 */
 	public static IController[] getControllers() {
-		return instance.controllers;
+		return instance.registry.getControllers();
+	}
+
+	/**
+	 * Returns the combined pressed-state bitmask of all connected
+	 * controllers (see "IControllerState.pressedMask()"). This can be used
+	 * to check if any player pressed a certain button.
+	 * 
+	 * @return The bitwise OR of the pressed masks of all controllers.
+	 */
+	public static long pressedMask() {
+		IController[] controllers = instance.registry.getControllers();
+		long mask = 0L;
+		for(int i = 0; i < controllers.length; i++) {
+			if(controllers[i] instanceof IControllerState) {
+				mask |= ((IControllerState)controllers[i]).pressedMask();
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the controller with the given device ID. This lookup
+	 * does not lock and does not allocate, so it can be used in
+	 * the game loop.
+	 * 
+	 * @param deviceID The device ID of the controller.
+	 * @return The controller, or null if no such controller is connected.
+	 */
+	public static IController getController(int deviceID) {
+		return instance.registry.getController(deviceID);
 	}
 	
 	/**
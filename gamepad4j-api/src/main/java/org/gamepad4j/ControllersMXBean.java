@@ -0,0 +1,157 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * JMX interface with the live statistics of the controllers, the
+ * background poller, the event queue and the polling metrics
+ * (see "Controllers.registerMBeans()").
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface ControllersMXBean {
+
+	/**
+	 * @return The class name of the controller provider.
+	 */
+	String getProviderClassName();
+
+	/**
+	 * @return The number of connected controllers.
+	 */
+	int getConnectedControllerCount();
+
+	/**
+	 * @return True if the background poller is running.
+	 */
+	boolean isPollerRunning();
+
+	/**
+	 * @return The configured polling rate in Hz (0 without background poller).
+	 */
+	int getPollingRate();
+
+	/**
+	 * @return The achieved polling rate in Hz.
+	 */
+	double getAchievedPollingRate();
+
+	/**
+	 * @return The number of polls of the background poller.
+	 */
+	long getPollCount();
+
+	/**
+	 * @return The number of polls which took longer than one period.
+	 */
+	long getOverrunCount();
+
+	/**
+	 * @return The number of polls which failed with an exception.
+	 */
+	long getPollErrorCount();
+
+	/**
+	 * @return The mean deviation of the poll start times from the schedule, in nanoseconds.
+	 */
+	long getMeanJitterNanos();
+
+	/**
+	 * @return The largest deviation of a poll start time from the schedule, in nanoseconds.
+	 */
+	long getMaxJitterNanos();
+
+	/**
+	 * @return True if the polling metrics are recorded.
+	 */
+	boolean isMetricsEnabled();
+
+	/**
+	 * @param enabled True to record the polling metrics.
+	 */
+	void setMetricsEnabled(boolean enabled);
+
+	/**
+	 * @return The number of controller events (metrics only).
+	 */
+	long getEventCount();
+
+	/**
+	 * @return The number of controller events per second since the last reset (metrics only).
+	 */
+	double getEventRate();
+
+	/**
+	 * @return The number of newly connected controllers (metrics only).
+	 */
+	long getConnectCount();
+
+	/**
+	 * @return The number of disconnected controllers (metrics only).
+	 */
+	long getDisconnectCount();
+
+	/**
+	 * @return The number of controller instance pool misses (metrics only).
+	 */
+	long getPoolMissCount();
+
+	/**
+	 * @return The mean duration of a poll in nanoseconds (metrics only).
+	 */
+	long getPollLatencyMeanNanos();
+
+	/**
+	 * @return The 99th percentile of the poll duration in nanoseconds (metrics only).
+	 */
+	long getPollLatencyP99Nanos();
+
+	/**
+	 * @return The longest poll in nanoseconds (metrics only).
+	 */
+	long getPollLatencyMaxNanos();
+
+	/**
+	 * @return True if the event queue is enabled.
+	 */
+	boolean isEventQueueEnabled();
+
+	/**
+	 * @return The number of events in the queue.
+	 */
+	int getEventQueueDepth();
+
+	/**
+	 * @return The highest number of events that were in the queue at once.
+	 */
+	long getEventQueueHighWaterMark();
+
+	/**
+	 * @return The number of events dropped because the queue was full.
+	 */
+	long getDroppedEventCount();
+
+	/**
+	 * @return True if axis and stick events are merged.
+	 */
+	boolean isAxisCoalescing();
+
+	/**
+	 * @param enabled True to merge axis and stick events.
+	 */
+	void setAxisCoalescing(boolean enabled);
+
+	/**
+	 * @return The number of axis and stick events eliminated by merging.
+	 */
+	long getCoalescedEventCount();
+
+	/**
+	 * Resets the statistics of the poller, the metrics, the dropped and the merged events.
+	 * The poller statistics and the metrics are reset by the polling thread, before its next poll.
+	 */
+	void resetStatistics();
+}
@@ -0,0 +1,294 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import org.gamepad4j.util.LatencyHistogram;
+
+/**
+ * JMX view of the statistics of "Controllers" (registered as
+ * "org.gamepad4j:type=Controllers", see "Controllers.registerMBeans()").
+ * The values are read on demand; nothing is recorded for JMX.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllersManagement implements ControllersMXBean {
+
+	/** Object name of the MBean. */
+	public static final String OBJECT_NAME = "org.gamepad4j:type=Controllers";
+
+	/** Time of the last reset of the statistics. */
+	private volatile long resetNanos = System.nanoTime();
+
+	/** Event queue at the last reset. */
+	private volatile ControllerEventQueue resetQueue = null;
+
+	/** Number of events dropped by that queue at the last reset. */
+	private volatile long resetDroppedEvents = 0L;
+
+	/** Number of merged events at the last reset. */
+	private volatile long resetCoalescedEvents = 0L;
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getProviderClassName()
+	 */
+	@Override
+	public String getProviderClassName() {
+		IControllerProvider provider = Controllers.getProvider();
+		return provider == null ? "" : provider.getClass().getName();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getConnectedControllerCount()
+	 */
+	@Override
+	public int getConnectedControllerCount() {
+		return Controllers.getControllers().length;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#isPollerRunning()
+	 */
+	@Override
+	public boolean isPollerRunning() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller != null && poller.isRunning();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPollingRate()
+	 */
+	@Override
+	public int getPollingRate() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0 : poller.getPollingRate();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getAchievedPollingRate()
+	 */
+	@Override
+	public double getAchievedPollingRate() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0d : poller.getAchievedRate();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPollCount()
+	 */
+	@Override
+	public long getPollCount() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0L : poller.getPollCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getOverrunCount()
+	 */
+	@Override
+	public long getOverrunCount() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0L : poller.getOverrunCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPollErrorCount()
+	 */
+	@Override
+	public long getPollErrorCount() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0L : poller.getErrorCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getMeanJitterNanos()
+	 */
+	@Override
+	public long getMeanJitterNanos() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0L : poller.getMeanJitterNanos();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getMaxJitterNanos()
+	 */
+	@Override
+	public long getMaxJitterNanos() {
+		ControllerPoller poller = Controllers.getPoller();
+		return poller == null ? 0L : poller.getMaxJitterNanos();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#isMetricsEnabled()
+	 */
+	@Override
+	public boolean isMetricsEnabled() {
+		return ControllerMetrics.enabled;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#setMetricsEnabled(boolean)
+	 */
+	@Override
+	public void setMetricsEnabled(boolean enabled) {
+		ControllerMetrics.enabled = enabled;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getEventCount()
+	 */
+	@Override
+	public long getEventCount() {
+		return Controllers.metrics().getEventCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getEventRate()
+	 */
+	@Override
+	public double getEventRate() {
+		long elapsed = System.nanoTime() - this.resetNanos;
+		if(elapsed <= 0L) {
+			return 0d;
+		}
+		return Controllers.metrics().getEventCount() * 1000000000d / elapsed;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getConnectCount()
+	 */
+	@Override
+	public long getConnectCount() {
+		return Controllers.metrics().getConnectCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getDisconnectCount()
+	 */
+	@Override
+	public long getDisconnectCount() {
+		return Controllers.metrics().getDisconnectCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPoolMissCount()
+	 */
+	@Override
+	public long getPoolMissCount() {
+		return Controllers.metrics().getPoolMissCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPollLatencyMeanNanos()
+	 */
+	@Override
+	public long getPollLatencyMeanNanos() {
+		return pollHistogram().getMean();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPollLatencyP99Nanos()
+	 */
+	@Override
+	public long getPollLatencyP99Nanos() {
+		return pollHistogram().getPercentile(99d);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getPollLatencyMaxNanos()
+	 */
+	@Override
+	public long getPollLatencyMaxNanos() {
+		return pollHistogram().getMax();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#isEventQueueEnabled()
+	 */
+	@Override
+	public boolean isEventQueueEnabled() {
+		return Controllers.getEventQueue() != null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getEventQueueDepth()
+	 */
+	@Override
+	public int getEventQueueDepth() {
+		ControllerEventQueue queue = Controllers.getEventQueue();
+		return queue == null ? 0 : queue.getDepth();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getEventQueueHighWaterMark()
+	 */
+	@Override
+	public long getEventQueueHighWaterMark() {
+		ControllerEventQueue queue = Controllers.getEventQueue();
+		return queue == null ? 0L : queue.getHighWaterMark();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getDroppedEventCount()
+	 */
+	@Override
+	public long getDroppedEventCount() {
+		ControllerEventQueue queue = Controllers.getEventQueue();
+		if(queue == null) {
+			return 0L;
+		}
+		long dropped = queue.getOverflowCount();
+		return queue == this.resetQueue ? dropped - this.resetDroppedEvents : dropped;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#isAxisCoalescing()
+	 */
+	@Override
+	public boolean isAxisCoalescing() {
+		return Controllers.isAxisCoalescing();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#setAxisCoalescing(boolean)
+	 */
+	@Override
+	public void setAxisCoalescing(boolean enabled) {
+		Controllers.setAxisCoalescing(enabled);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#getCoalescedEventCount()
+	 */
+	@Override
+	public long getCoalescedEventCount() {
+		return Controllers.getCoalescedEventCount() - this.resetCoalescedEvents;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.ControllersMXBean#resetStatistics()
+	 */
+	@Override
+	public void resetStatistics() {
+		ControllerPoller poller = Controllers.getPoller();
+		if(poller != null) {
+			poller.resetStatistics();
+		}
+		// Like the poller statistics, the metrics are reset by the polling thread
+		Controllers.metrics().requestReset();
+		ControllerEventQueue queue = Controllers.getEventQueue();
+		this.resetQueue = queue;
+		this.resetDroppedEvents = queue == null ? 0L : queue.getOverflowCount();
+		this.resetCoalescedEvents = Controllers.getCoalescedEventCount();
+		this.resetNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns the poll latency histogram of the metrics.
+	 */
+	private LatencyHistogram pollHistogram() {
+		return Controllers.metrics().getHistogram(ControllerMetrics.Phase.POLL);
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Enumeration of the deadzone modes of analog sticks.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public enum DeadZoneMode {
+
+	/**
+	 * Each axis is clipped separately (square deadzone). Simple, but makes
+	 * the stick snap to the horizontal and vertical directions.
+	 */
+	AXIAL,
+
+	/**
+	 * Inputs inside a circle around the center are ignored, all others
+	 * are passed through unchanged (so small movements jump from 0 to
+	 * the deadzone radius).
+	 */
+	RADIAL,
+
+	/**
+	 * Like RADIAL, but the distance from the deadzone edge to the outer
+	 * zone is rescaled to 0 - 1, so the output starts smoothly at the center.
+	 */
+	SCALED_RADIAL
+	;
+
+	/**
+	 * Returns the DeadZoneMode object which has the same
+	 * name as the given string value.
+	 *
+	 * @param value The DeadZoneMode name to look for.
+	 * @return The DeadZoneMode, or null.
+	 */
+	public static DeadZoneMode getDeadZoneModeFromString(String value) {
+		for(DeadZoneMode mode : values()) {
+			if(mode.name().equals(value)) {
+				return mode;
+			}
+		}
+		return null;
+	}
+}
@@ -32,13 +32,30 @@ public enum DpadDirection {
 	}
 	
 	private int value = -1;
+
+	/** Lookup table of the directions, indexed by their value (NONE for invalid combinations). */
+	private static final DpadDirection[] BY_VALUE = new DpadDirection[16];
 	
-	public static DpadDirection fromIntValue(int value) {
+	static {
+		for(int i = 0; i < BY_VALUE.length; i++) {
+			BY_VALUE[i] = NONE;
+		}
 		for(DpadDirection direction : values()) {
-			if(direction.value == value) {
-				return direction;
-			}
+			BY_VALUE[direction.value] = direction;
+		}
+	}
+	
+	/**
+	 * Returns the direction with the given value (bit combination of
+	 * UP, RIGHT, DOWN and LEFT).
+	 * 
+	 * @param value The value.
+	 * @return The direction, or NONE if the value is not valid.
+	 */
+	public static DpadDirection fromIntValue(int value) {
+		if(value < 0 || value >= BY_VALUE.length) {
+			return NONE;
 		}
-		return NONE;
+		return BY_VALUE[value];
 	}
 }
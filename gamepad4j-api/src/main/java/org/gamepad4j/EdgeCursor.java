@@ -0,0 +1,150 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Detects button presses and releases for one consumer (like the menu
+ * or the gameplay code), without changing any shared state. Every
+ * consumer uses its own cursor, so unlike "IButton.isPressedOnce()",
+ * no consumer can steal the edges of another one.
+ * <p>
+ * The cursor remembers the last frame it has seen. On "update()", it
+ * reports all edges since then, even if the controller was polled
+ * several times in between (e.g. with a 1000 Hz poller and a 60 fps
+ * game loop). If a button was pressed and released again within that
+ * time, both the press and the release are reported.
+ * <pre>
+ * EdgeCursor menuCursor = new EdgeCursor();
+ * ...
+ * menuCursor.update(controller.getSnapshot());
+ * if(menuCursor.wasPressed(ButtonID.ACCEPT)) {
+ *     ...
+ * </pre>
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class EdgeCursor {
+
+	/** Last frame seen by this cursor (-1 = none yet). */
+	private long frame = -1L;
+
+	/** Device ID of the controller of the last frame. */
+	private int deviceID = -1;
+
+	/** Buttons pressed since the previous update. */
+	private long pressed = 0L;
+
+	/** Buttons released since the previous update. */
+	private long released = 0L;
+
+	/** Changed d-pad direction (null if it did not change). */
+	private DpadDirection dpadDirection = null;
+
+	/**
+	 * Advances this cursor to the given snapshot, and computes the edges
+	 * between the frame seen with the previous update and this one. The
+	 * first update (or an update with a snapshot of another controller)
+	 * only sets the starting point and reports no edges.
+	 *
+	 * @param snapshot The current snapshot of the controller.
+	 */
+	public void update(ControllerSnapshot snapshot) {
+		long current = snapshot.frame;
+		long last = this.frame;
+		this.pressed = 0L;
+		this.released = 0L;
+		this.dpadDirection = null;
+		if(last >= 0L && current > last && snapshot.deviceID == this.deviceID) {
+			if(current == last + 1) {
+				// No frames missed
+				this.pressed = snapshot.pressedThisFrame;
+				this.released = snapshot.releasedThisFrame;
+			} else {
+				long[] pressFrames = snapshot.pressFrames;
+				long[] releaseFrames = snapshot.releaseFrames;
+				for(int i = 0; i < pressFrames.length; i++) {
+					if(pressFrames[i] > last) {
+						this.pressed |= 1L << i;
+					}
+					if(releaseFrames[i] > last) {
+						this.released |= 1L << i;
+					}
+				}
+			}
+			if(snapshot.dpadChangeFrame > last) {
+				this.dpadDirection = snapshot.dpadDirection;
+			}
+		}
+		this.frame = current;
+		this.deviceID = snapshot.deviceID;
+	}
+
+	/**
+	 * Resets this cursor, so that the next update only sets the starting point.
+	 */
+	public void reset() {
+		this.frame = -1L;
+		this.pressed = 0L;
+		this.released = 0L;
+		this.dpadDirection = null;
+	}
+
+	/**
+	 * Returns the frame seen with the latest update.
+	 *
+	 * @return The frame number (-1 if not updated yet).
+	 */
+	public long getFrame() {
+		return this.frame;
+	}
+
+	/**
+	 * Returns the buttons which were pressed since the previous update.
+	 *
+	 * @return The bitmask of the newly pressed buttons.
+	 */
+	public long pressedMask() {
+		return this.pressed;
+	}
+
+	/**
+	 * Returns the buttons which were released since the previous update.
+	 *
+	 * @return The bitmask of the released buttons.
+	 */
+	public long releasedMask() {
+		return this.released;
+	}
+
+	/**
+	 * Checks if the given button was pressed since the previous update.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return True if it was pressed.
+	 */
+	public boolean wasPressed(ButtonID buttonID) {
+		return (this.pressed & buttonID.getMask()) != 0L;
+	}
+
+	/**
+	 * Checks if the given button was released since the previous update.
+	 *
+	 * @param buttonID The ID of the button.
+	 * @return True if it was released.
+	 */
+	public boolean wasReleased(ButtonID buttonID) {
+		return (this.released & buttonID.getMask()) != 0L;
+	}
+
+	/**
+	 * Returns the new d-pad direction, if it changed since the previous update.
+	 *
+	 * @return The d-pad direction, or null if it did not change.
+	 */
+	public DpadDirection getDpadDirectionChange() {
+		return this.dpadDirection;
+	}
+}
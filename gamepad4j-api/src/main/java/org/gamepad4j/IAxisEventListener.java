@@ -0,0 +1,26 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Controller listener which is also notified about the movement of
+ * axes. Axis events are delivered only to listeners which implement this
+ * interface; it is separate from "IControllerListener" so that existing
+ * implementations of that interface still compile.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IAxisEventListener extends IControllerListener {
+
+	/**
+	 * Notifies the movement of an axis (trigger, analog d-pad or stick axis).
+	 * 
+	 * @param controller The controller on which the axis was moved.
+	 * @param axis The axis that was moved.
+	 * @param value The new value of the axis.
+	 */
+	void axisMoved(IController controller, IAxis axis, float value);
+}
@@ -14,7 +14,8 @@ public interface IAxisListener {
 
 	/**
 	 * Whenever the axis value changes, this method is called on
-	 * the listeners.
+	 * the listeners. The value is deadzone-filtered, and changes smaller
+	 * than the change epsilon of the axis are not reported.
 	 * 
 	 * @param value The current value of the axis.
 	 */
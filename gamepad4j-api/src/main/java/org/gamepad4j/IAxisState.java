@@ -0,0 +1,32 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Sample timestamps and listener removal of an axis. All axes of the
+ * controllers in this library implement it (see "BaseAxis"); it is
+ * separate from "IAxis" so that existing implementations of that
+ * interface still compile.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IAxisState extends IAxis {
+
+	/**
+	 * Returns the sample time of the poll in which a change of the value
+	 * of this axis was reported to the listeners the last time.
+	 * 
+	 * @return The time (System.nanoTime()), 0 if it never changed.
+	 */
+	long getLastChangeNanos();
+
+	/**
+	 * Removes a listener for events of this axis.
+	 * 
+	 * @param listener The axis listener to remove.
+	 */
+	void removeAxisListener(IAxisListener listener);
+}
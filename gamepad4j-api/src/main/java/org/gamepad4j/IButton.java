@@ -44,6 +44,10 @@ public interface IButton {
 	 * the method will return 'false', even if the button is still pressed,
 	 * until it is released once. This can be used when the user should press
 	 * the button repeatedly instead of just keeping it pressed.
+	 * <p>
+	 * NOTE: This changes state shared by all callers, so if two parts of
+	 * the game use it for the same button, one of them will miss the press.
+	 * Use an "EdgeCursor" per consumer instead.
 	 * 
 	 * @return True if it's pressed.
 	 */
@@ -0,0 +1,34 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Interface for listeners which are notified when a button is pressed
+ * or released. Listeners are invoked by the polling thread, within
+ * "Controllers.checkControllers()", and should therefore return quickly.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IButtonListener {
+
+	/**
+	 * Is invoked when a button was pressed.
+	 * 
+	 * @param controller The controller to which the button belongs.
+	 * @param button The button.
+	 * @param buttonID The ID of the button.
+	 */
+	void buttonDown(IController controller, IButton button, ButtonID buttonID);
+
+	/**
+	 * Is invoked when a button was released.
+	 * 
+	 * @param controller The controller to which the button belongs.
+	 * @param button The button.
+	 * @param buttonID The ID of the button.
+	 */
+	void buttonUp(IController controller, IButton button, ButtonID buttonID);
+}
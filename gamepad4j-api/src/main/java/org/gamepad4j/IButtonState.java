@@ -0,0 +1,40 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Sample timestamps and listeners of a button. All buttons of the
+ * controllers in this library implement it (see "BaseButton"); it is
+ * separate from "IButton" so that existing implementations of that 
+ * interface still compile.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IButtonState extends IButton {
+
+	/**
+	 * Returns the sample time of the poll in which this button was
+	 * pressed or released the last time.
+	 * 
+	 * @return The time (System.nanoTime()), 0 if it never changed.
+	 */
+	long getLastChangeNanos();
+
+	/**
+	 * Registers a listener which is notified whenever this button is
+	 * pressed or released.
+	 * 
+	 * @param listener The button listener.
+	 */
+	void addButtonListener(IButtonListener listener);
+
+	/**
+	 * Removes a button listener.
+	 * 
+	 * @param listener The button listener to remove.
+	 */
+	void removeButtonListener(IButtonListener listener);
+}
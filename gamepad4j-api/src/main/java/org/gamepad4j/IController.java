@@ -93,6 +93,8 @@ public interface IController {
 	 * After that, the method will return "DpadDirection.NONE", even if the d-pad is still 
 	 * pressed, until it is released or changes direction. This can be used when the user 
 	 * should press the d-pad repeatedly instead of just keeping it pressed.
+	 * <p>
+	 * NOTE: This changes state shared by all callers (see "isButtonPressedOnce()").
 	 * 
 	 * @return The current direction.
 	 */
@@ -138,6 +140,10 @@ public interface IController {
 	 * the method will return 'false', even if the button is still pressed,
 	 * until it is released once. This can be used when the user should press
 	 * the button repeatedly instead of just keeping it pressed.
+	 * <p>
+	 * NOTE: This changes state shared by all callers, so if two parts of
+	 * the game use it for the same button, one of them will miss the press.
+	 * Use an "EdgeCursor" per consumer instead.
 	 * 
 	 * @param buttonID The ID of the button.
 	 * @return True if it's pressed.
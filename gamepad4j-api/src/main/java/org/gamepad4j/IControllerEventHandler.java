@@ -0,0 +1,23 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Interface for handling queued controller events
+ * (see "Controllers.drainEvents()").
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IControllerEventHandler {
+
+	/**
+	 * Is invoked for every queued event. The event object is reused
+	 * by the queue afterwards, so it must not be kept.
+	 *
+	 * @param event The controller event.
+	 */
+	void handleEvent(ControllerEvent event);
+}
@@ -5,7 +5,8 @@
 package org.gamepad4j;
 
 /**
- * Interface for handling controller callback (events).
+ * Interface for handling controller callback (events). To be notified
+ * about axis movements too, implement "IAxisEventListener".
  *
  * @author Marcel Schoen
  * @version $Revision: $
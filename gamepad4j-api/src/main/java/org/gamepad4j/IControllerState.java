@@ -0,0 +1,174 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * The state queries of a polled controller: button bitmasks, frame
+ * counters, sample timestamps, snapshots and button listeners. All
+ * controllers of the providers in this library implement it (see
+ * "AbstractBaseController"); it is separate from "IController" so
+ * that existing implementations of that interface still compile.
+ * <p>
+ * The values are updated by the polling thread. Each of them may be
+ * read by other threads (e.g. the game thread, with a background poller),
+ * but several of them read one after the other may belong to different
+ * polls. Use "getSnapshot()" for a consistent view of one poll.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IControllerState extends IController {
+
+	/**
+	 * Registers a listener which is notified whenever any button
+	 * of this controller is pressed or released.
+	 * 
+	 * @param listener The button listener.
+	 */
+	void addButtonListener(IButtonListener listener);
+
+	/**
+	 * Removes a button listener.
+	 * 
+	 * @param listener The button listener to remove.
+	 */
+	void removeButtonListener(IButtonListener listener);
+
+	/**
+	 * Returns the pressed state of all buttons as a bitmask, where each 
+	 * button is represented by the bit "ButtonID.getMask()". Aliases (like
+	 * "ACCEPT") are set together with the button they refer to.
+	 * 
+	 * @return The bitmask of all currently pressed buttons.
+	 */
+	long pressedMask();
+
+	/**
+	 * Checks if all buttons of the given bitmask are currently pressed
+	 * (e.g. a chord built with "ButtonID.maskOf()").
+	 * 
+	 * @param mask The bitmask of the buttons to check.
+	 * @return True if all of them are pressed.
+	 */
+	boolean isAllPressed(long mask);
+
+	/**
+	 * Checks if at least one of the buttons of the given bitmask is
+	 * currently pressed.
+	 * 
+	 * @param mask The bitmask of the buttons to check.
+	 * @return True if any of them is pressed.
+	 */
+	boolean isAnyPressed(long mask);
+
+	/**
+	 * Returns the number of the current poll cycle (frame). It is increased
+	 * by the provider whenever a poll of this controller has completed.
+	 * 
+	 * @return The frame number (0 if the controller was not polled yet).
+	 */
+	long getFrame();
+
+	/**
+	 * Returns the bitmask of the buttons which were pressed in the
+	 * current frame (that is, which were not pressed in the previous frame).
+	 * Unlike "isButtonPressedOnce()", this does not change any state.
+	 * 
+	 * @return The bitmask of the newly pressed buttons.
+	 */
+	long pressedThisFrame();
+
+	/**
+	 * Returns the bitmask of the buttons which were released in the
+	 * current frame.
+	 * 
+	 * @return The bitmask of the newly released buttons.
+	 */
+	long releasedThisFrame();
+
+	/**
+	 * Returns the number of the frame in which the given button was
+	 * pressed the last time.
+	 * 
+	 * @param buttonID The ID of the button.
+	 * @return The frame number (0 if it was never pressed).
+	 */
+	long getPressFrame(ButtonID buttonID);
+
+	/**
+	 * Returns the number of the frame in which the given button was
+	 * released the last time.
+	 * 
+	 * @param buttonID The ID of the button.
+	 * @return The frame number (0 if it was never released).
+	 */
+	long getReleaseFrame(ButtonID buttonID);
+
+	/**
+	 * Returns the number of the frame in which the d-pad direction
+	 * changed the last time.
+	 * 
+	 * @return The frame number (0 if it never changed).
+	 */
+	long getDpadChangeFrame();
+
+	/**
+	 * Returns the time at which the state of this controller was sampled
+	 * by the most recent poll. While the provider applies a new sample
+	 * (e.g. inside listener callbacks), this is the time of that sample.
+	 * 
+	 * @return The sample time (System.nanoTime()), 0 if it was not polled yet.
+	 */
+	long getSampleNanos();
+
+	/**
+	 * Returns the sample time of the poll in which the given button
+	 * was pressed the last time.
+	 * 
+	 * @param buttonID The ID of the button.
+	 * @return The time (System.nanoTime()), 0 if it was never pressed.
+	 */
+	long getPressNanos(ButtonID buttonID);
+
+	/**
+	 * Returns the sample time of the poll in which the given button
+	 * was released the last time.
+	 * 
+	 * @param buttonID The ID of the button.
+	 * @return The time (System.nanoTime()), 0 if it was never released.
+	 */
+	long getReleaseNanos(ButtonID buttonID);
+
+	/**
+	 * Returns the sample time of the poll in which the d-pad direction
+	 * changed the last time.
+	 * 
+	 * @return The time (System.nanoTime()), 0 if it never changed.
+	 */
+	long getDpadChangeNanos();
+
+	/**
+	 * Returns how long the given button has been in its current state
+	 * (pressed or released), as of the most recent sample. For example, 
+	 * a button is "held for 300 ms" if it is pressed and this returns
+	 * at least 300000000.
+	 * 
+	 * @param buttonID The ID of the button.
+	 * @return The time in nanoseconds, or -1 if the button never changed.
+	 */
+	long getNanosSinceChange(ButtonID buttonID);
+
+	/**
+	 * Returns a consistent snapshot of the state of this controller, as it
+	 * was captured by the most recent poll. The returned snapshot does not
+	 * change until this method is invoked again, so it is safe to read it
+	 * while the controllers are being polled by another thread. 
+	 * NOTE: Must be invoked by one single (game) thread only, and only 
+	 * once per frame.
+	 * 
+	 * @return The most recent controller snapshot.
+	 */
+	ControllerSnapshot getSnapshot();
+}
@@ -0,0 +1,28 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Listener which is notified about recognized stick gestures
+ * (see {@link StickGestureRecognizer}).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IStickGestureListener {
+
+	/**
+	 * Invoked when a gesture was recognized.
+	 *
+	 * @param controller The controller.
+	 * @param stickID The stick.
+	 * @param gesture The gesture.
+	 * @param degree The direction of the stick at the end of the gesture
+	 *               (see "StickPosition.getDegree()"); for shakes, 90 for
+	 *               a horizontal and 0 for a vertical one.
+	 * @param nanoTime The sample time at which it was recognized (System.nanoTime()).
+	 */
+	void stickGesture(IController controller, StickID stickID, StickGesture gesture, float degree, long nanoTime);
+}
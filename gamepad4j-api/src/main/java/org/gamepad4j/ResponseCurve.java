@@ -0,0 +1,239 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Sensitivity curve for analog axes, like an exponential curve which
+ * allows precise aiming with small stick movements. The curve maps the
+ * distance from the center (0.0 - 1.0) to a new distance; the sign of
+ * the value is kept.
+ * <p>
+ * When the curve is created, it is sampled into a table of fixed size.
+ * Applying it is then a table lookup with linear interpolation, so it
+ * costs the same for every type of curve.
+ * <pre>
+ * axis.setResponseCurve(ResponseCurve.exponential(2.0f));
+ * </pre>
+ * In the mapping files, curves are defined as "linear", "exponential:2.0",
+ * "scurve:3.0" or "piecewise:0/0,0.5/0.2,1/1" (see "parse()").
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ResponseCurve {
+
+	/**
+	 * A curve function, which is sampled when the curve is created.
+	 */
+	public static interface Function {
+
+		/**
+		 * Computes the output of the curve.
+		 *
+		 * @param input The input value (0.0 - 1.0).
+		 * @return The output value (0.0 - 1.0).
+		 */
+		float apply(float input);
+	}
+
+	/** Number of steps of the curve table. */
+	public static final int STEPS = 256;
+
+	/** Curve which does not change the values. */
+	public static final ResponseCurve LINEAR = new ResponseCurve("linear", new Function() {
+		@Override
+		public float apply(float input) {
+			return input;
+		}
+	});
+
+	/** The sampled output values for the inputs 0 / STEPS up to STEPS / STEPS (plus one guard entry). */
+	private final float[] table = new float[STEPS + 2];
+
+	/** Description of the curve. */
+	private final String description;
+
+	/**
+	 * Creates a curve by sampling the given function.
+	 *
+	 * @param description The description of the curve.
+	 * @param function The curve function.
+	 */
+	private ResponseCurve(String description, Function function) {
+		this.description = description;
+		for(int i = 0; i <= STEPS; i++) {
+			float output = function.apply((float)i / STEPS);
+			if(output < 0f || output > 1.0f || Float.isNaN(output)) {
+				throw new IllegalArgumentException("Curve output out of range (must be 0.0 - 1.0): " + output);
+			}
+			this.table[i] = output;
+		}
+		// Guard entry, so that the interpolation of input 1.0 stays in bounds
+		this.table[STEPS + 1] = this.table[STEPS];
+	}
+
+	/**
+	 * Creates a curve based on a custom function.
+	 *
+	 * @param function The curve function (must map 0.0 - 1.0 to 0.0 - 1.0).
+	 * @return The curve.
+	 */
+	public static ResponseCurve fromFunction(Function function) {
+		return new ResponseCurve("custom", function);
+	}
+
+	/**
+	 * Creates an exponential curve (output = input ^ exponent).
+	 *
+	 * @param exponent The exponent (greater than 1 for more precision near
+	 *                 the center, smaller than 1 for less).
+	 * @return The curve.
+	 */
+	public static ResponseCurve exponential(final float exponent) {
+		if(exponent <= 0f) {
+			throw new IllegalArgumentException("Exponent must be greater than 0: " + exponent);
+		}
+		return new ResponseCurve("exponential:" + exponent, new Function() {
+			@Override
+			public float apply(float input) {
+				return (float)Math.pow(input, exponent);
+			}
+		});
+	}
+
+	/**
+	 * Creates an S-shaped curve, which is flat near the center and near
+	 * full deflection, and steep in between.
+	 *
+	 * @param steepness The steepness (1 = linear, higher values are steeper).
+	 * @return The curve.
+	 */
+	public static ResponseCurve sCurve(final float steepness) {
+		if(steepness < 1f) {
+			throw new IllegalArgumentException("Steepness must be at least 1: " + steepness);
+		}
+		return new ResponseCurve("scurve:" + steepness, new Function() {
+			@Override
+			public float apply(float input) {
+				double rising = Math.pow(input, steepness);
+				double falling = Math.pow(1.0 - input, steepness);
+				return (float)(rising / (rising + falling));
+			}
+		});
+	}
+
+	/**
+	 * Creates a curve from points, which are connected by straight lines.
+	 * Inputs outside of the first and last point get the output of that point.
+	 *
+	 * @param inputs The inputs of the points (0.0 - 1.0, ascending).
+	 * @param outputs The outputs of the points (0.0 - 1.0).
+	 * @return The curve.
+	 */
+	public static ResponseCurve piecewise(float[] inputs, float[] outputs) {
+		if(inputs.length == 0 || inputs.length != outputs.length) {
+			throw new IllegalArgumentException("Piecewise curve needs the same number (at least 1) of inputs and outputs.");
+		}
+		for(int i = 1; i < inputs.length; i++) {
+			if(inputs[i] <= inputs[i - 1]) {
+				throw new IllegalArgumentException("Piecewise curve inputs must be ascending: " + inputs[i]);
+			}
+		}
+		final float[] x = inputs.clone();
+		final float[] y = outputs.clone();
+		StringBuilder description = new StringBuilder("piecewise:");
+		for(int i = 0; i < x.length; i++) {
+			if(i > 0) {
+				description.append(',');
+			}
+			description.append(x[i]).append('/').append(y[i]);
+		}
+		return new ResponseCurve(description.toString(), new Function() {
+			@Override
+			public float apply(float input) {
+				if(input <= x[0]) {
+					return y[0];
+				}
+				for(int i = 1; i < x.length; i++) {
+					if(input <= x[i]) {
+						float fraction = (input - x[i - 1]) / (x[i] - x[i - 1]);
+						return y[i - 1] + (y[i] - y[i - 1]) * fraction;
+					}
+				}
+				return y[y.length - 1];
+			}
+		});
+	}
+
+	/**
+	 * Creates a curve from a definition string: "linear", "exponential:&lt;exponent&gt;",
+	 * "scurve:&lt;steepness&gt;" or "piecewise:&lt;input&gt;/&lt;output&gt;,...".
+	 *
+	 * @param definition The curve definition.
+	 * @return The curve.
+	 * @throws IllegalArgumentException If the definition is not valid.
+	 */
+	public static ResponseCurve parse(String definition) {
+		String value = definition.trim();
+		String type = value;
+		String parameter = null;
+		int separator = value.indexOf(':');
+		if(separator != -1) {
+			type = value.substring(0, separator).trim();
+			parameter = value.substring(separator + 1).trim();
+		}
+		try {
+			if(type.equalsIgnoreCase("linear")) {
+				return LINEAR;
+			} else if(type.equalsIgnoreCase("exponential") && parameter != null) {
+				return exponential(Float.parseFloat(parameter));
+			} else if(type.equalsIgnoreCase("scurve") && parameter != null) {
+				return sCurve(Float.parseFloat(parameter));
+			} else if(type.equalsIgnoreCase("piecewise") && parameter != null) {
+				String[] points = parameter.split(",");
+				float[] inputs = new float[points.length];
+				float[] outputs = new float[points.length];
+				for(int i = 0; i < points.length; i++) {
+					String[] point = points[i].split("/");
+					if(point.length != 2) {
+						throw new IllegalArgumentException("Invalid curve point: " + points[i]);
+					}
+					inputs[i] = Float.parseFloat(point[0].trim());
+					outputs[i] = Float.parseFloat(point[1].trim());
+				}
+				return piecewise(inputs, outputs);
+			}
+		} catch(NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid response curve: " + definition);
+		}
+		throw new IllegalArgumentException("Invalid response curve: " + definition);
+	}
+
+	/**
+	 * Applies the curve to an axis value.
+	 *
+	 * @param value The axis value (-1.0 - 1.0).
+	 * @return The value after applying the curve (with the same sign).
+	 */
+	public float apply(float value) {
+		float magnitude = value < 0f ? -value : value;
+		if(magnitude > 1.0f) {
+			magnitude = 1.0f;
+		}
+		float position = magnitude * STEPS;
+		int index = (int)position;
+		float low = this.table[index];
+		float result = low + (this.table[index + 1] - low) * (position - index);
+		return value < 0f ? -result : result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.description;
+	}
+}
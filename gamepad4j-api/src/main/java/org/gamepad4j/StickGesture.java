@@ -0,0 +1,55 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+/**
+ * Gestures of an analog stick (see {@link StickGestureRecognizer}).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public enum StickGesture {
+
+	/** The stick was pushed quickly from the center to the rim. */
+	FLICK(false),
+
+	/** The stick was turned by a quarter circle along the rim, clockwise. */
+	QUARTER_CIRCLE_CLOCKWISE(true),
+
+	/** The stick was turned by a quarter circle along the rim, counterclockwise. */
+	QUARTER_CIRCLE_COUNTERCLOCKWISE(false),
+
+	/** The stick was turned by half a rotation along the rim, clockwise. */
+	HALF_ROTATION_CLOCKWISE(true),
+
+	/** The stick was turned by half a rotation along the rim, counterclockwise. */
+	HALF_ROTATION_COUNTERCLOCKWISE(false),
+
+	/** The stick was turned by a full rotation along the rim, clockwise. */
+	FULL_ROTATION_CLOCKWISE(true),
+
+	/** The stick was turned by a full rotation along the rim, counterclockwise. */
+	FULL_ROTATION_COUNTERCLOCKWISE(false),
+
+	/** The stick was moved back and forth quickly. */
+	SHAKE(false)
+	;
+
+	StickGesture(boolean clockwise) {
+		this.clockwise = clockwise;
+	}
+
+	/** True for the clockwise rotations. */
+	private final boolean clockwise;
+
+	/**
+	 * Returns true if this is a clockwise rotation or quarter circle.
+	 *
+	 * @return True if it's clockwise.
+	 */
+	public boolean isClockwise() {
+		return this.clockwise;
+	}
+}
@@ -0,0 +1,483 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import java.util.IdentityHashMap;
+
+import org.gamepad4j.util.ListenerArrays;
+
+/**
+ * Recognizes gestures in the stream of analog stick samples: flicks,
+ * quarter circles, half and full rotations, and shakes.
+ * <p>
+ * Rotations are tracked in a small ring of recent angle steps (of at
+ * least "ANGLE_STEP" degree each) along the rim; the turn within the
+ * rotation window is the sum of the steps in the ring. Flicks only need
+ * the time the stick left the center, and shakes a ring of the times of
+ * recent reversals. So the memory per stick is fixed, and nothing is
+ * allocated per sample.
+ * <p>
+ * The recognizer is fed once per poll, either by "Controllers" (see
+ * "Controllers.setStickGestureRecognizer()", which also puts the gestures
+ * into the event queue, if enabled), or by the game with "update()":
+ * <pre>
+ * StickGestureRecognizer gestures = new StickGestureRecognizer();
+ * gestures.addListener(myGestureListener);
+ * Controllers.setStickGestureRecognizer(gestures);
+ * </pre>
+ * Except for adding and removing listeners, it must only be used by one
+ * thread; the settings should be changed before it is used.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class StickGestureRecognizer {
+
+	/** Minimum turn (in degree) of one entry of the rotation ring. */
+	public static final float ANGLE_STEP = 15f;
+
+	/** Number of entries of the rotation ring (one rotation needs 24). */
+	private static final int ROTATION_RING_SIZE = 32;
+
+	/** Maximum number of reversals of a shake. */
+	private static final int MAX_SHAKE_REVERSALS = 16;
+
+	/** Shared empty listener array. */
+	private static final IStickGestureListener[] NO_LISTENERS = new IStickGestureListener[0];
+
+	/** Cached stick IDs (values() creates a new array each time). */
+	private static final StickID[] STICK_IDS = StickID.values();
+
+	/** Turn of the rotation gestures, in degree. */
+	private static final float[] ROTATION_LEVELS = { 90f, 180f, 360f };
+
+	/** Clockwise rotation gestures, by level. */
+	private static final StickGesture[] CLOCKWISE = { StickGesture.QUARTER_CIRCLE_CLOCKWISE,
+		StickGesture.HALF_ROTATION_CLOCKWISE, StickGesture.FULL_ROTATION_CLOCKWISE };
+
+	/** Counterclockwise rotation gestures, by level. */
+	private static final StickGesture[] COUNTERCLOCKWISE = { StickGesture.QUARTER_CIRCLE_COUNTERCLOCKWISE,
+		StickGesture.HALF_ROTATION_COUNTERCLOCKWISE, StickGesture.FULL_ROTATION_COUNTERCLOCKWISE };
+
+	/**
+	 * The recent motion of one stick.
+	 */
+	private static final class StickState {
+
+		/** Computes the degree of the samples. */
+		final StickPosition position = new StickPosition();
+
+		/** Times of the angle steps (ring). */
+		final long[] stepTimes = new long[ROTATION_RING_SIZE];
+
+		/** Turn of the angle steps in degree, positive is clockwise (ring). */
+		final float[] stepAngles = new float[ROTATION_RING_SIZE];
+
+		/** Index of the oldest angle step. */
+		int firstStep = 0;
+
+		/** Number of angle steps in the ring. */
+		int numberOfSteps = 0;
+
+		/** Sum of the angle steps in the ring. */
+		float turn = 0f;
+
+		/** Turn since the last angle step. */
+		float pendingTurn = 0f;
+
+		/** Degree of the previous sample on the rim (NO_DEGREE if it was not on the rim). */
+		float lastDegree = StickPosition.NO_DEGREE;
+
+		/** Number of rotation levels already reported for the current turn. */
+		int reportedLevels = 0;
+
+		/** Direction of the current turn (1 = clockwise, -1 = counterclockwise). */
+		int turnSign = 0;
+
+		/** Time of the latest sample in the center. */
+		long centerNanos = 0L;
+
+		/** Set once the stick was in the center (centerNanos is valid). */
+		boolean centerSeen = false;
+
+		/** Set while the stick is on the rim after a flick (or a slow push). */
+		boolean outside = false;
+
+		/** Axis of the latest shake extreme (0 = none, 1 = X, 2 = Y). */
+		int shakeAxis = 0;
+
+		/** Side of the latest shake extreme (-1 or 1). */
+		int shakeSide = 0;
+
+		/** Set when the stick passed the middle after the latest shake extreme. */
+		boolean shakeCrossed = false;
+
+		/** Times of the recent reversals (ring). */
+		final long[] reversalTimes = new long[MAX_SHAKE_REVERSALS];
+
+		/** Number of reversals in the ring. */
+		int numberOfReversals = 0;
+
+		/** Index of the next reversal in the ring. */
+		int nextReversal = 0;
+
+		/**
+		 * Forgets the current rotation.
+		 */
+		void clearRotation() {
+			this.firstStep = 0;
+			this.numberOfSteps = 0;
+			this.turn = 0f;
+			this.pendingTurn = 0f;
+			this.reportedLevels = 0;
+			this.turnSign = 0;
+		}
+	}
+
+	/** The states of the sticks of each controller (indexed by StickID ordinal). */
+	private final IdentityHashMap<IController, StickState[]> states = new IdentityHashMap<IController, StickState[]>();
+
+	/** The controller of the latest update (saves the map lookup). */
+	private IController lastController = null;
+
+	/** The stick states of that controller. */
+	private StickState[] lastStates = null;
+
+	/** The gesture listeners (copy-on-write array). */
+	private volatile IStickGestureListener[] listeners = NO_LISTENERS;
+
+	/** Distance from the center below which the stick is centered. */
+	private float centerRadius = 0.25f;
+
+	/** Distance from the center above which the stick is on the rim. */
+	private float rimRadius = 0.8f;
+
+	/** Tolerance of the rotation gestures, in degree. */
+	private float angleTolerance = 20f;
+
+	/** Maximum duration of a rotation gesture. */
+	private long rotationWindowNanos = 600 * 1000000L;
+
+	/** Maximum time from the center to the rim for a flick. */
+	private long flickWindowNanos = 60 * 1000000L;
+
+	/** Distance from the center which counts as an extreme of a shake. */
+	private float shakeAmplitude = 0.5f;
+
+	/** Number of reversals of a shake. */
+	private int shakeReversals = 4;
+
+	/** Maximum duration of a shake. */
+	private long shakeWindowNanos = 500 * 1000000L;
+
+	/**
+	 * Sets the distance from the center below which the stick counts as
+	 * centered (for flicks), and above which it is on the rim (for flicks
+	 * and rotations).
+	 *
+	 * @param centerRadius The center radius (default 0.25).
+	 * @param rimRadius The rim radius (default 0.8).
+	 */
+	public void setRadii(float centerRadius, float rimRadius) {
+		if(centerRadius < 0f || rimRadius <= centerRadius || rimRadius > 1f) {
+			throw new IllegalArgumentException("Invalid radii: " + centerRadius + " / " + rimRadius);
+		}
+		this.centerRadius = centerRadius;
+		this.rimRadius = rimRadius;
+	}
+
+	/**
+	 * Sets the tolerance of the rotation gestures: a quarter circle is
+	 * recognized after a turn of 90 degree minus the tolerance, etc.
+	 *
+	 * @param degree The tolerance in degree (default 20).
+	 */
+	public void setAngleTolerance(float degree) {
+		if(degree < 0f || degree >= 90f - ANGLE_STEP) {
+			throw new IllegalArgumentException("Invalid angle tolerance: " + degree);
+		}
+		this.angleTolerance = degree;
+	}
+
+	/**
+	 * Sets the maximum duration of a rotation gesture. Turns which are
+	 * older are not counted.
+	 *
+	 * @param millis The window in milliseconds (default 600).
+	 */
+	public void setRotationWindow(long millis) {
+		this.rotationWindowNanos = millis * 1000000L;
+	}
+
+	/**
+	 * Sets the maximum time from the center to the rim for a flick.
+	 *
+	 * @param millis The window in milliseconds (default 60).
+	 */
+	public void setFlickWindow(long millis) {
+		this.flickWindowNanos = millis * 1000000L;
+	}
+
+	/**
+	 * Sets the parameters of shakes.
+	 *
+	 * @param amplitude The distance from the center which counts as an extreme (default 0.5).
+	 * @param reversals The number of reversals, e.g. 4 for left-right-left-right-left (default 4).
+	 * @param millis The maximum duration in milliseconds (default 500).
+	 */
+	public void setShake(float amplitude, int reversals, long millis) {
+		if(reversals < 1 || reversals > MAX_SHAKE_REVERSALS) {
+			throw new IllegalArgumentException("Invalid number of shake reversals: " + reversals);
+		}
+		this.shakeAmplitude = amplitude;
+		this.shakeReversals = reversals;
+		this.shakeWindowNanos = millis * 1000000L;
+	}
+
+	/**
+	 * Adds a gesture listener.
+	 *
+	 * @param listener The listener.
+	 */
+	public synchronized void addListener(IStickGestureListener listener) {
+		this.listeners = ListenerArrays.add(this.listeners, listener);
+	}
+
+	/**
+	 * Removes a gesture listener.
+	 *
+	 * @param listener The listener.
+	 */
+	public synchronized void removeListener(IStickGestureListener listener) {
+		this.listeners = ListenerArrays.remove(this.listeners, listener);
+	}
+
+	/**
+	 * Feeds the current positions of all sticks of a controller.
+	 * Should be invoked once per poll.
+	 *
+	 * @param controller The controller.
+	 */
+	public void update(IController controller) {
+		IStick[] sticks = controller.getSticks();
+		if(sticks == null) {
+			return;
+		}
+		long nanoTime = controller instanceof IControllerState ? ((IControllerState)controller).getSampleNanos() : 0L;
+		if(nanoTime == 0L) {
+			nanoTime = System.nanoTime();
+		}
+		for(int i = 0; i < sticks.length; i++) {
+			IStick stick = sticks[i];
+			if(stick != null) {
+				IAxis xAxis = stick.getAxis(AxisID.X);
+				IAxis yAxis = stick.getAxis(AxisID.Y);
+				if(xAxis != null && yAxis != null) {
+					update(controller, stick.getID(), xAxis.getValue(), yAxis.getValue(), nanoTime);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Feeds one sample of a stick.
+	 *
+	 * @param controller The controller.
+	 * @param stickID The stick.
+	 * @param x The X-axis value.
+	 * @param y The Y-axis value (negative for "up").
+	 * @param nanoTime The time of the sample (System.nanoTime()).
+	 */
+	public void update(IController controller, StickID stickID, float x, float y, long nanoTime) {
+		StickState state = stateOf(controller, stickID);
+		float distanceSquared = x * x + y * y;
+		boolean onRim = distanceSquared >= this.rimRadius * this.rimRadius;
+
+		// Flick: from the center to the rim within the flick window
+		if(distanceSquared < this.centerRadius * this.centerRadius) {
+			state.centerNanos = nanoTime;
+			state.centerSeen = true;
+			state.outside = false;
+		} else if(onRim && !state.outside) {
+			state.outside = true;
+			if(state.centerSeen && nanoTime - state.centerNanos <= this.flickWindowNanos) {
+				state.position.update(x, y);
+				fire(controller, stickID, StickGesture.FLICK, state.position.getDegree(), nanoTime);
+			}
+		}
+
+		updateRotation(controller, stickID, state, x, y, onRim, nanoTime);
+		updateShake(controller, stickID, state, x, y, nanoTime);
+	}
+
+	/**
+	 * Forgets the motion of the sticks of a controller (e.g. when it was disconnected).
+	 *
+	 * @param controller The controller.
+	 */
+	public void reset(IController controller) {
+		this.states.remove(controller);
+		if(this.lastController == controller) {
+			this.lastController = null;
+			this.lastStates = null;
+		}
+	}
+
+	/**
+	 * Tracks the turn along the rim, and reports the rotation gestures.
+	 */
+	private void updateRotation(IController controller, StickID stickID, StickState state, float x, float y, boolean onRim, long nanoTime) {
+		if(!onRim) {
+			state.lastDegree = StickPosition.NO_DEGREE;
+			state.clearRotation();
+			return;
+		}
+		state.position.update(x, y);
+		float degree = state.position.getDegree();
+		float last = state.lastDegree;
+		state.lastDegree = degree;
+		if(last == StickPosition.NO_DEGREE) {
+			return;
+		}
+		float delta = degree - last;
+		if(delta > 180f) {
+			delta -= 360f;
+		} else if(delta < -180f) {
+			delta += 360f;
+		}
+
+		// Drop the steps which are out of the window
+		while(state.numberOfSteps > 0 && nanoTime - state.stepTimes[state.firstStep] > this.rotationWindowNanos) {
+			removeOldestStep(state);
+		}
+		state.pendingTurn += delta;
+		if(state.pendingTurn < ANGLE_STEP && state.pendingTurn > -ANGLE_STEP) {
+			return;
+		}
+		if(state.numberOfSteps == ROTATION_RING_SIZE) {
+			removeOldestStep(state);
+		}
+		int index = (state.firstStep + state.numberOfSteps) % ROTATION_RING_SIZE;
+		state.stepTimes[index] = nanoTime;
+		state.stepAngles[index] = state.pendingTurn;
+		state.numberOfSteps++;
+		state.turn += state.pendingTurn;
+		state.pendingTurn = 0f;
+
+		int sign = state.turn >= 0f ? 1 : -1;
+		if(sign != state.turnSign) {
+			state.turnSign = sign;
+			state.reportedLevels = 0;
+		}
+		float turn = state.turn * sign;
+		while(state.reportedLevels < ROTATION_LEVELS.length
+				&& turn >= ROTATION_LEVELS[state.reportedLevels] - this.angleTolerance) {
+			StickGesture gesture = sign > 0 ? CLOCKWISE[state.reportedLevels] : COUNTERCLOCKWISE[state.reportedLevels];
+			state.reportedLevels++;
+			fire(controller, stickID, gesture, degree, nanoTime);
+		}
+		if(state.reportedLevels == ROTATION_LEVELS.length) {
+			// Full rotation: the next one starts from here
+			state.clearRotation();
+		}
+	}
+
+	/**
+	 * Removes the oldest step from the rotation ring.
+	 */
+	private static void removeOldestStep(StickState state) {
+		state.turn -= state.stepAngles[state.firstStep];
+		state.firstStep = (state.firstStep + 1) % ROTATION_RING_SIZE;
+		state.numberOfSteps--;
+		if(state.numberOfSteps == 0) {
+			state.turn = 0f;
+			state.reportedLevels = 0;
+		}
+	}
+
+	/**
+	 * Counts the reversals between the extremes on one axis, and reports
+	 * a shake. A reversal only counts if the stick passed the middle in
+	 * between, so rotations (which go around it) are not shakes.
+	 */
+	private void updateShake(IController controller, StickID stickID, StickState state, float x, float y, long nanoTime) {
+		float amplitude = this.shakeAmplitude;
+		float absX = x < 0f ? -x : x;
+		float absY = y < 0f ? -y : y;
+		if(absX < amplitude && absY < amplitude) {
+			state.shakeCrossed = true;
+			return;
+		}
+		int axis;
+		int side;
+		if(absX >= absY) {
+			axis = 1;
+			side = x > 0f ? 1 : -1;
+		} else {
+			axis = 2;
+			side = y > 0f ? 1 : -1;
+		}
+		if(axis == state.shakeAxis && side == state.shakeSide) {
+			return;
+		}
+		boolean reversal = axis == state.shakeAxis && state.shakeCrossed;
+		if(axis != state.shakeAxis || !reversal) {
+			// New direction: start counting again
+			state.numberOfReversals = 0;
+		}
+		state.shakeAxis = axis;
+		state.shakeSide = side;
+		state.shakeCrossed = false;
+		if(!reversal) {
+			return;
+		}
+		state.reversalTimes[state.nextReversal] = nanoTime;
+		state.nextReversal = (state.nextReversal + 1) % MAX_SHAKE_REVERSALS;
+		if(state.numberOfReversals < MAX_SHAKE_REVERSALS) {
+			state.numberOfReversals++;
+		}
+		if(state.numberOfReversals >= this.shakeReversals) {
+			int oldest = (state.nextReversal - this.shakeReversals + MAX_SHAKE_REVERSALS) % MAX_SHAKE_REVERSALS;
+			if(nanoTime - state.reversalTimes[oldest] <= this.shakeWindowNanos) {
+				state.numberOfReversals = 0;
+				fire(controller, stickID, StickGesture.SHAKE, axis == 1 ? 90f : 0f, nanoTime);
+			}
+		}
+	}
+
+	/**
+	 * Returns the state of a stick.
+	 */
+	private StickState stateOf(IController controller, StickID stickID) {
+		StickState[] sticks;
+		if(controller == this.lastController) {
+			sticks = this.lastStates;
+		} else {
+			sticks = this.states.get(controller);
+			if(sticks == null) {
+				sticks = new StickState[STICK_IDS.length];
+				this.states.put(controller, sticks);
+			}
+			this.lastController = controller;
+			this.lastStates = sticks;
+		}
+		StickState state = sticks[stickID.ordinal()];
+		if(state == null) {
+			state = new StickState();
+			sticks[stickID.ordinal()] = state;
+		}
+		return state;
+	}
+
+	/**
+	 * Notifies the listeners about a gesture.
+	 */
+	private void fire(IController controller, StickID stickID, StickGesture gesture, float degree, long nanoTime) {
+		IStickGestureListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].stickGesture(controller, stickID, gesture, degree, nanoTime);
+		}
+	}
+}
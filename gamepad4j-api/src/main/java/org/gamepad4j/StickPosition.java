@@ -25,9 +25,38 @@ public class StickPosition {
 	/** Constant for marker value indicating no degree has been measured. */
 	public static final float NO_DEGREE = -1f;
 
+	/** 
+	 * Flag for using a pre-computed arctangent table in "getDegree()" instead of
+	 * Math.atan2() (max. error about 0.01 degree). Public for max performance.
+	 */
+	public static boolean useAngleTable = false;
+
 	/** Minimum distance from center for stick to not be centered. */
 	private static final float minimumCenterDistance = 0.2f;
 
+	/** Square of the minimum distance from center (avoids the square root). */
+	private static final float minimumCenterDistanceSquared = minimumCenterDistance * minimumCenterDistance;
+
+	/** 
+	 * Tangent of 22.5 degree: the boundary between a straight direction
+	 * and a diagonal one, as a ratio of the two axis values.
+	 */
+	private static final float TAN_22_5 = 0.41421356f;
+
+	/** Number of steps of the arctangent table (for ratios 0.0 - 1.0). */
+	private static final int ANGLE_TABLE_STEPS = 1024;
+
+	/** Arctangent (in degree) of the ratios 0 / steps up to steps / steps. */
+	private static final float[] ANGLE_TABLE = new float[ANGLE_TABLE_STEPS + 2];
+	
+	static {
+		for(int i = 0; i <= ANGLE_TABLE_STEPS; i++) {
+			ANGLE_TABLE[i] = (float)Math.toDegrees(Math.atan((double)i / ANGLE_TABLE_STEPS));
+		}
+		// Guard entry, so that the interpolation of ratio 1.0 stays in bounds
+		ANGLE_TABLE[ANGLE_TABLE_STEPS + 1] = ANGLE_TABLE[ANGLE_TABLE_STEPS];
+	}
+
 	/**
 	 * Should be invoked by the stick implementation before
 	 * returning this instance.
@@ -45,34 +74,32 @@ public class StickPosition {
 	 * of a d-pad. With this method, the analog stick can easily be
 	 * used instead of the d-pad, without having to perform any
 	 * x- and y-axis calculations manually.
+	 * <p>
+	 * Each of the eight directions covers 45 degree, centered on the 
+	 * direction itself. The classification only compares the axis values,
+	 * without calculating the angle.
 	 * 
 	 * @return The direction of the stick, as if it were a d-pad.
 	 */
 	public DpadDirection getDirection() {
-		float degree = getDegree();
-		/*
-		 * degree ranges from 0 (top) to 90 (right) to 180 (down) to 270 (left)
-		 */
-		if(degree == NO_DEGREE) {
+		float x = this.xAxis;
+		float y = this.yAxis;
+		if(x * x + y * y < minimumCenterDistanceSquared) {
 			return DpadDirection.NONE;
-		} else if(degree < 207.5f && degree > 152.5f) {
-			return DpadDirection.DOWN;
-		} else if(degree < 252.5f && degree > 207.5f) {
-			return DpadDirection.DOWN_LEFT;
-		} else if(degree < 297.5f && degree > 252.5f) {
-			return DpadDirection.LEFT;
-		} else if(degree < 342.5f && degree > 297.5f) {
-			return DpadDirection.UP_LEFT;
-		} else if(degree > 342.4f || degree < -342.4f) {
-			return DpadDirection.UP;
-		} else if(degree < 152.5f && degree > 107.5f) {
-			return DpadDirection.DOWN_RIGHT;
-		} else if(degree < 107.5f && degree > 62.5f) {
-			return DpadDirection.RIGHT;
-		} else if(degree < 62.5f && degree > 17.5f) {
-			return DpadDirection.UP_RIGHT;
 		}
-		return DpadDirection.NONE;
+		float absX = x < 0f ? -x : x;
+		float absY = y < 0f ? -y : y;
+		if(absY <= absX * TAN_22_5) {
+			return x > 0f ? DpadDirection.RIGHT : DpadDirection.LEFT;
+		}
+		// Y-axis values are negative for "up"
+		if(absX <= absY * TAN_22_5) {
+			return y > 0f ? DpadDirection.DOWN : DpadDirection.UP;
+		}
+		if(y > 0f) {
+			return x > 0f ? DpadDirection.DOWN_RIGHT : DpadDirection.DOWN_LEFT;
+		}
+		return x > 0f ? DpadDirection.UP_RIGHT : DpadDirection.UP_LEFT;
 	}
 	
 	/**
@@ -81,15 +108,63 @@ public class StickPosition {
 	 * and increases clockwise to the right (90 degree), down (180 degree)
 	 * and left (270 degree).
 	 * 
-	 * @return The degree in which the stick is being held, or NO_DEGREE if 
-	 *         no value was measured.
+	 * @return The degree in which the stick is being held (0 - 360), or 
+	 *         NO_DEGREE if no value was measured.
 	 */
 	public float getDegree() {
-		if(!isStickCentered()) {
-	        float degree = (float) Math.toDegrees( Math.atan2(-this.xAxis, this.yAxis) );
-	        return degree + 180;
+		if(isStickCentered()) {
+			return NO_DEGREE;
+		}
+		if(useAngleTable) {
+			return getDegreeFromTable(this.xAxis, this.yAxis);
 		}
-		return NO_DEGREE;
+		float degree = (float) Math.toDegrees( Math.atan2(-this.xAxis, this.yAxis) );
+		return degree + 180;
+	}
+
+	/**
+	 * Computes the degree of the given stick position with the arctangent
+	 * table. The angle is calculated within one octant, and then mirrored
+	 * into the right quadrant.
+	 * 
+	 * @param x The X-axis value.
+	 * @param y The Y-axis value (negative for "up").
+	 * @return The degree (0 - 360).
+	 */
+	private static float getDegreeFromTable(float x, float y) {
+		float absX = x < 0f ? -x : x;
+		float absY = y < 0f ? -y : y;
+		// Angle from the vertical axis, 0 - 90 degree
+		float angle;
+		if(absX <= absY) {
+			angle = lookupAngle(absX / absY);
+		} else {
+			angle = 90f - lookupAngle(absY / absX);
+		}
+		if(y < 0f) {
+			if(x < 0f) {
+				return 360f - angle;
+			}
+			return angle;
+		}
+		if(x < 0f) {
+			return 180f + angle;
+		}
+		return 180f - angle;
+	}
+
+	/**
+	 * Returns the arctangent of the given ratio from the table
+	 * (interpolated linearly between the two closest entries).
+	 * 
+	 * @param ratio The ratio (0.0 - 1.0).
+	 * @return The arctangent in degree (0 - 45).
+	 */
+	private static float lookupAngle(float ratio) {
+		float position = ratio * ANGLE_TABLE_STEPS;
+		int index = (int)position;
+		float fraction = position - index;
+		return ANGLE_TABLE[index] + (ANGLE_TABLE[index + 1] - ANGLE_TABLE[index]) * fraction;
 	}
 	
 	/**
@@ -112,7 +187,6 @@ public class StickPosition {
 	 * @return True if the stick is centered.
 	 */
     public boolean isStickCentered() {
-        float stickMag = getDistanceToCenter();
-        return (stickMag < minimumCenterDistance);
+        return (this.xAxis * this.xAxis + this.yAxis * this.yAxis) < minimumCenterDistanceSquared;
     }
 }
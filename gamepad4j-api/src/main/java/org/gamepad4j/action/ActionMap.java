@@ -0,0 +1,663 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.action;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gamepad4j.AxisID;
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerSnapshot;
+import org.gamepad4j.DpadDirection;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.StickID;
+import org.gamepad4j.TriggerID;
+
+/**
+ * Maps the input of the controllers to the actions of the game (like
+ * "jump", "fire" or "menu_back"), per player.
+ * <p>
+ * Actions are defined once by name, and then referred to by their handle
+ * (an int). Each action can be bound to any number of buttons, triggers
+ * (as buttons, with a threshold), ranges of stick axes and d-pad directions,
+ * for one player or for all of them:
+ * <pre>
+ * ActionMap actions = new ActionMap(2);
+ * int jump = actions.defineAction("jump");
+ * int left = actions.defineAction("left");
+ * actions.bindButton(jump, ActionMap.ANY_PLAYER, ButtonID.FACE_DOWN);
+ * actions.bindDpad(left, ActionMap.ANY_PLAYER, DpadDirection.LEFT);
+ * actions.bindStickAxis(left, ActionMap.ANY_PLAYER, StickID.LEFT, AxisID.X, -1f, -0.5f);
+ * ...
+ * actions.update(Controllers.getControllers());
+ * if(actions.wasPressed(0, jump)) {
+ *     ...
+ * </pre>
+ * The bindings are compiled into flat tables indexed by player and action
+ * handle: one button bitmask per player and action, plus an array of the
+ * analog and d-pad bindings, ordered by player. "update()" evaluates them
+ * in one pass over the snapshot of each controller, and the queries are
+ * plain array reads, without any string or hash lookup.
+ * <p>
+ * Actions and bindings may be changed by any thread; the tables are
+ * recompiled with the next update. "update()" and the queries must only
+ * be used by the game thread (which also reads the controller snapshots).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ActionMap {
+
+	/** Player number of bindings which apply to all players. */
+	public static final int ANY_PLAYER = -1;
+
+	/** Returned by "getAction()" for an unknown name. */
+	public static final int NO_ACTION = -1;
+
+	/** Binding kind: trigger as a button. */
+	private static final int TRIGGER = 0;
+
+	/** Binding kind: range of the X-axis of a stick. */
+	private static final int STICK_X = 1;
+
+	/** Binding kind: range of the Y-axis of a stick. */
+	private static final int STICK_Y = 2;
+
+	/** Binding kind: d-pad direction. */
+	private static final int DPAD = 3;
+
+	/** Cached button IDs (values() creates a new array each time). */
+	private static final ButtonID[] BUTTON_IDS = ButtonID.values();
+
+	/** Cached trigger IDs. */
+	private static final TriggerID[] TRIGGER_IDS = TriggerID.values();
+
+	/** Cached stick IDs. */
+	private static final StickID[] STICK_IDS = StickID.values();
+
+	/**
+	 * One binding, as defined.
+	 */
+	private static final class Binding {
+
+		/** The action handle. */
+		final int action;
+
+		/** The player (or ANY_PLAYER). */
+		final int player;
+
+		/** The button, or null for the other kinds. */
+		final ButtonID buttonID;
+
+		/** The kind of the other bindings (TRIGGER, STICK_X, ...). */
+		final int kind;
+
+		/** Trigger or stick ordinal, or d-pad direction bits. */
+		final int source;
+
+		/** Lower end of the range (the threshold of a trigger). */
+		final float min;
+
+		/** Upper end of the range. */
+		final float max;
+
+		Binding(int action, int player, ButtonID buttonID, int kind, int source, float min, float max) {
+			this.action = action;
+			this.player = player;
+			this.buttonID = buttonID;
+			this.kind = kind;
+			this.source = source;
+			this.min = min;
+			this.max = max;
+		}
+
+		/**
+		 * Checks if this binding applies to the given player.
+		 */
+		boolean appliesTo(int player) {
+			return this.player == ANY_PLAYER || this.player == player;
+		}
+	}
+
+	/**
+	 * The compiled bindings. Not modified after they were published.
+	 */
+	private static final class Tables {
+
+		/** Number of actions (the row length of the per-player tables). */
+		final int numberOfActions;
+
+		/** Bound buttons, indexed by "player * numberOfActions + action". */
+		final long[] buttonMasks;
+
+		/** Ordinals of all bound buttons. */
+		int[] boundButtons;
+
+		/** Index of the first analog binding of each player (plus the end). */
+		final int[] bindingStart;
+
+		/** Row of each analog binding ("player * numberOfActions + action"). */
+		final int[] bindingRow;
+
+		/** Kind of each analog binding. */
+		final int[] bindingKind;
+
+		/** Source of each analog binding. */
+		final int[] bindingSource;
+
+		/** Lower end of the range of each analog binding. */
+		final float[] bindingMin;
+
+		/** Upper end of the range of each analog binding. */
+		final float[] bindingMax;
+
+		Tables(int numberOfPlayers, int numberOfActions, int numberOfBindings) {
+			this.numberOfActions = numberOfActions;
+			this.buttonMasks = new long[numberOfPlayers * numberOfActions];
+			this.bindingStart = new int[numberOfPlayers + 1];
+			this.bindingRow = new int[numberOfBindings];
+			this.bindingKind = new int[numberOfBindings];
+			this.bindingSource = new int[numberOfBindings];
+			this.bindingMin = new float[numberOfBindings];
+			this.bindingMax = new float[numberOfBindings];
+		}
+	}
+
+	/** The number of players. */
+	private final int numberOfPlayers;
+
+	/** The action names, indexed by handle. */
+	private final List<String> actionNames = new ArrayList<String>();
+
+	/** The action handles by name (only used when defining actions). */
+	private final Map<String, Integer> actionsByName = new HashMap<String, Integer>();
+
+	/** The bindings, as defined. */
+	private final List<Binding> bindings = new ArrayList<Binding>();
+
+	/** The compiled bindings. */
+	private volatile Tables tables;
+
+	/** Set when the bindings must be compiled again. */
+	private volatile boolean dirty = false;
+
+	/** Active state of each action in the current update (scratch). */
+	private boolean[] active;
+
+	/** Down state of each action, indexed like the button masks. */
+	private boolean[] down;
+
+	/** Set if the action was pressed with the latest update. */
+	private boolean[] pressed;
+
+	/** Set if the action was released with the latest update. */
+	private boolean[] released;
+
+	/** Analog value of each action. */
+	private float[] values;
+
+	/** Frame of the snapshot of the previous update of each player (-1 = none). */
+	private final long[] lastFrames;
+
+	/** Device ID of the controller of the previous update of each player. */
+	private final int[] lastDeviceIDs;
+
+	/**
+	 * Creates an action map.
+	 *
+	 * @param numberOfPlayers The number of players.
+	 */
+	public ActionMap(int numberOfPlayers) {
+		if(numberOfPlayers < 1) {
+			throw new IllegalArgumentException("Invalid number of players: " + numberOfPlayers);
+		}
+		this.numberOfPlayers = numberOfPlayers;
+		this.lastFrames = new long[numberOfPlayers];
+		this.lastDeviceIDs = new int[numberOfPlayers];
+		for(int i = 0; i < numberOfPlayers; i++) {
+			this.lastFrames[i] = -1L;
+		}
+		this.tables = compile();
+		allocateState(0);
+	}
+
+	/**
+	 * Returns the number of players.
+	 *
+	 * @return The number of players.
+	 */
+	public int getNumberOfPlayers() {
+		return this.numberOfPlayers;
+	}
+
+	/**
+	 * Defines an action. Defining an action a second time returns the
+	 * handle of the existing one.
+	 *
+	 * @param name The name of the action.
+	 * @return The handle of the action.
+	 */
+	public synchronized int defineAction(String name) {
+		Integer existing = this.actionsByName.get(name);
+		if(existing != null) {
+			return existing.intValue();
+		}
+		int action = this.actionNames.size();
+		this.actionNames.add(name);
+		this.actionsByName.put(name, Integer.valueOf(action));
+		this.dirty = true;
+		return action;
+	}
+
+	/**
+	 * Returns the handle of an action. Meant for setup time (e.g. when
+	 * loading the bindings); games should keep the handles instead.
+	 *
+	 * @param name The name of the action.
+	 * @return The handle, or NO_ACTION if there is no such action.
+	 */
+	public synchronized int getAction(String name) {
+		Integer action = this.actionsByName.get(name);
+		return action == null ? NO_ACTION : action.intValue();
+	}
+
+	/**
+	 * Returns the name of an action.
+	 *
+	 * @param action The handle of the action.
+	 * @return The name of the action.
+	 */
+	public synchronized String getActionName(int action) {
+		checkAction(action);
+		return this.actionNames.get(action);
+	}
+
+	/**
+	 * Returns the number of defined actions. The handles are 0 up to
+	 * (but not including) this number.
+	 *
+	 * @return The number of actions.
+	 */
+	public synchronized int getNumberOfActions() {
+		return this.actionNames.size();
+	}
+
+	/**
+	 * Binds a button to an action.
+	 *
+	 * @param action The handle of the action.
+	 * @param player The player (0-based), or ANY_PLAYER.
+	 * @param buttonID The button.
+	 */
+	public synchronized void bindButton(int action, int player, ButtonID buttonID) {
+		if(buttonID.getMask() == 0L) {
+			throw new IllegalArgumentException("Button cannot be bound: " + buttonID);
+		}
+		addBinding(new Binding(action, player, buttonID, -1, -1, 0f, 0f));
+	}
+
+	/**
+	 * Binds a trigger to an action, as a button which is pressed while
+	 * the trigger is pulled at least up to the threshold. The value of
+	 * the action is the trigger value.
+	 *
+	 * @param action The handle of the action.
+	 * @param player The player (0-based), or ANY_PLAYER.
+	 * @param triggerID The trigger.
+	 * @param threshold The threshold (0 - 1).
+	 */
+	public synchronized void bindTrigger(int action, int player, TriggerID triggerID, float threshold) {
+		addBinding(new Binding(action, player, null, TRIGGER, triggerID.ordinal(), threshold, 1f));
+	}
+
+	/**
+	 * Binds a range of an axis of a stick to an action, which is pressed
+	 * while the axis value is within the range. The value of the action is
+	 * the distance of the axis from the center.
+	 *
+	 * @param action The handle of the action.
+	 * @param player The player (0-based), or ANY_PLAYER.
+	 * @param stickID The stick.
+	 * @param axisID The axis of the stick (X or Y; negative Y is "up").
+	 * @param from The lower end of the range.
+	 * @param to The upper end of the range.
+	 */
+	public synchronized void bindStickAxis(int action, int player, StickID stickID, AxisID axisID, float from, float to) {
+		if(axisID != AxisID.X && axisID != AxisID.Y) {
+			throw new IllegalArgumentException("Not a stick axis: " + axisID);
+		}
+		if(to < from) {
+			throw new IllegalArgumentException("Invalid axis range: " + from + " - " + to);
+		}
+		int kind = axisID == AxisID.X ? STICK_X : STICK_Y;
+		addBinding(new Binding(action, player, null, kind, stickID.ordinal(), from, to));
+	}
+
+	/**
+	 * Binds a d-pad direction to an action, which is pressed while the
+	 * d-pad points in that direction. Diagonals include their neighbours,
+	 * so "LEFT" is also pressed with "UP_LEFT".
+	 *
+	 * @param action The handle of the action.
+	 * @param player The player (0-based), or ANY_PLAYER.
+	 * @param direction The direction (not NONE).
+	 */
+	public synchronized void bindDpad(int action, int player, DpadDirection direction) {
+		if(direction == DpadDirection.NONE) {
+			throw new IllegalArgumentException("Cannot bind d-pad direction: " + direction);
+		}
+		addBinding(new Binding(action, player, null, DPAD, direction.getValue(), 0f, 0f));
+	}
+
+	/**
+	 * Removes all bindings of an action.
+	 *
+	 * @param action The handle of the action.
+	 */
+	public synchronized void unbind(int action) {
+		checkAction(action);
+		for(int i = this.bindings.size() - 1; i >= 0; i--) {
+			if(this.bindings.get(i).action == action) {
+				this.bindings.remove(i);
+			}
+		}
+		this.dirty = true;
+	}
+
+	/**
+	 * Removes all bindings (the actions stay defined).
+	 */
+	public synchronized void clearBindings() {
+		this.bindings.clear();
+		this.dirty = true;
+	}
+
+	/**
+	 * Updates the actions of all players from the given controllers,
+	 * where the controller at index 0 belongs to player 0 and so on.
+	 * The actions of players without a controller (or with one which does
+	 * not implement "IControllerState") are released. Should be invoked 
+	 * once per frame.
+	 *
+	 * @param controllers The controllers (e.g. "Controllers.getControllers()").
+	 */
+	public void update(IController[] controllers) {
+		for(int player = 0; player < this.numberOfPlayers; player++) {
+			update(player, player < controllers.length ? controllers[player] : null);
+		}
+	}
+
+	/**
+	 * Updates the actions of one player from the given controller.
+	 *
+	 * @param player The player (0-based).
+	 * @param controller The controller of the player (null to release all its actions).
+	 */
+	public void update(int player, IController controller) {
+		update(player, controller instanceof IControllerState ? ((IControllerState)controller).getSnapshot() : null);
+	}
+
+	/**
+	 * Updates the actions of one player from a snapshot of its controller.
+	 * Besides the current state, a press of a bound button since the
+	 * previous update of the player is reported by "wasPressed()", even if
+	 * it was released again in between.
+	 *
+	 * @param player The player (0-based).
+	 * @param snapshot The snapshot (null to release all actions of the player).
+	 */
+	public void update(int player, ControllerSnapshot snapshot) {
+		checkPlayer(player, false);
+		Tables current = this.tables;
+		if(this.dirty) {
+			current = recompile();
+		}
+		int numberOfActions = current.numberOfActions;
+		int base = player * numberOfActions;
+		int end = base + numberOfActions;
+		boolean[] active = this.active;
+		float[] values = this.values;
+		long taps = 0L;
+
+		if(snapshot == null || snapshot.getSequence() == 0L) {
+			for(int i = base; i < end; i++) {
+				active[i] = false;
+				values[i] = 0f;
+			}
+			this.lastFrames[player] = -1L;
+		} else {
+			// Buttons pressed since the previous update (also short taps)
+			long frame = snapshot.getFrame();
+			long lastFrame = this.lastFrames[player];
+			if(lastFrame >= 0L && snapshot.getDeviceID() == this.lastDeviceIDs[player]) {
+				int[] boundButtons = current.boundButtons;
+				for(int i = 0; i < boundButtons.length; i++) {
+					if(snapshot.getPressFrame(BUTTON_IDS[boundButtons[i]]) > lastFrame) {
+						taps |= 1L << boundButtons[i];
+					}
+				}
+			}
+			this.lastFrames[player] = frame;
+			this.lastDeviceIDs[player] = snapshot.getDeviceID();
+
+			long mask = snapshot.pressedMask();
+			long[] buttonMasks = current.buttonMasks;
+			for(int i = base; i < end; i++) {
+				boolean on = (buttonMasks[i] & mask) != 0L;
+				active[i] = on;
+				values[i] = on ? 1f : 0f;
+			}
+
+			int dpad = snapshot.getDpadDirection().getValue();
+			int[] rows = current.bindingRow;
+			int[] kinds = current.bindingKind;
+			int[] sources = current.bindingSource;
+			float[] mins = current.bindingMin;
+			float[] maxs = current.bindingMax;
+			for(int b = current.bindingStart[player]; b < current.bindingStart[player + 1]; b++) {
+				float value;
+				boolean on;
+				switch(kinds[b]) {
+				case TRIGGER:
+					value = snapshot.getTriggerValue(TRIGGER_IDS[sources[b]]);
+					value = value < 0f ? -value : value;
+					on = value >= mins[b];
+					break;
+				case STICK_X:
+				case STICK_Y:
+					value = kinds[b] == STICK_X ? snapshot.getStickX(STICK_IDS[sources[b]]) : snapshot.getStickY(STICK_IDS[sources[b]]);
+					on = value >= mins[b] && value <= maxs[b];
+					value = value < 0f ? -value : value;
+					break;
+				default:
+					on = (dpad & sources[b]) == sources[b];
+					value = 1f;
+					break;
+				}
+				if(on) {
+					int row = rows[b];
+					active[row] = true;
+					if(value > values[row]) {
+						values[row] = value;
+					}
+				}
+			}
+		}
+
+		long[] buttonMasks = current.buttonMasks;
+		boolean[] down = this.down;
+		for(int i = base; i < end; i++) {
+			boolean was = down[i];
+			boolean now = active[i];
+			this.pressed[i] = !was && (now || (buttonMasks[i] & taps) != 0L);
+			this.released[i] = was && !now;
+			down[i] = now;
+		}
+	}
+
+	/**
+	 * Checks if an action is currently pressed (as of the latest update).
+	 *
+	 * @param player The player (0-based).
+	 * @param action The handle of the action.
+	 * @return True if at least one of its bindings is active.
+	 */
+	public boolean isDown(int player, int action) {
+		return this.down[index(player, action)];
+	}
+
+	/**
+	 * Checks if an action was pressed with the latest update.
+	 *
+	 * @param player The player (0-based).
+	 * @param action The handle of the action.
+	 * @return True if it was pressed.
+	 */
+	public boolean wasPressed(int player, int action) {
+		return this.pressed[index(player, action)];
+	}
+
+	/**
+	 * Checks if an action was released with the latest update.
+	 *
+	 * @param player The player (0-based).
+	 * @param action The handle of the action.
+	 * @return True if it was released.
+	 */
+	public boolean wasReleased(int player, int action) {
+		return this.released[index(player, action)];
+	}
+
+	/**
+	 * Returns the analog value of an action: 1 for a pressed button or
+	 * d-pad direction, the trigger value or the distance of the axis from
+	 * the center for analog bindings (the highest one, if several bindings
+	 * are active), 0 if it's not pressed.
+	 *
+	 * @param player The player (0-based).
+	 * @param action The handle of the action.
+	 * @return The value (0 - 1).
+	 */
+	public float getValue(int player, int action) {
+		return this.values[index(player, action)];
+	}
+
+	/**
+	 * Returns the index of the state of an action.
+	 */
+	private int index(int player, int action) {
+		int numberOfActions = this.tables.numberOfActions;
+		if(player < 0 || player >= this.numberOfPlayers || action < 0 || action >= numberOfActions) {
+			throw new IllegalArgumentException("Invalid player / action: " + player + " / " + action);
+		}
+		return player * numberOfActions + action;
+	}
+
+	/**
+	 * Adds a binding, after validating it.
+	 */
+	private void addBinding(Binding binding) {
+		checkAction(binding.action);
+		checkPlayer(binding.player, true);
+		this.bindings.add(binding);
+		this.dirty = true;
+	}
+
+	/**
+	 * Compiles the bindings again, and adapts the state arrays to the
+	 * number of actions.
+	 */
+	private Tables recompile() {
+		Tables current;
+		synchronized(this) {
+			current = compile();
+			this.dirty = false;
+		}
+		if(current.numberOfActions != this.tables.numberOfActions) {
+			allocateState(current.numberOfActions);
+		}
+		this.tables = current;
+		return current;
+	}
+
+	/**
+	 * Compiles the bindings into the flat tables.
+	 */
+	private synchronized Tables compile() {
+		int numberOfActions = this.actionNames.size();
+		int numberOfBindings = 0;
+		for(int i = 0; i < this.bindings.size(); i++) {
+			Binding binding = this.bindings.get(i);
+			if(binding.buttonID == null) {
+				numberOfBindings += binding.player == ANY_PLAYER ? this.numberOfPlayers : 1;
+			}
+		}
+		Tables tables = new Tables(this.numberOfPlayers, numberOfActions, numberOfBindings);
+		long allButtons = 0L;
+		int next = 0;
+		for(int player = 0; player < this.numberOfPlayers; player++) {
+			int base = player * numberOfActions;
+			tables.bindingStart[player] = next;
+			for(int i = 0; i < this.bindings.size(); i++) {
+				Binding binding = this.bindings.get(i);
+				if(!binding.appliesTo(player)) {
+					continue;
+				}
+				if(binding.buttonID != null) {
+					tables.buttonMasks[base + binding.action] |= binding.buttonID.getMask();
+					allButtons |= binding.buttonID.getMask();
+				} else {
+					tables.bindingRow[next] = base + binding.action;
+					tables.bindingKind[next] = binding.kind;
+					tables.bindingSource[next] = binding.source;
+					tables.bindingMin[next] = binding.min;
+					tables.bindingMax[next] = binding.max;
+					next++;
+				}
+			}
+		}
+		tables.bindingStart[this.numberOfPlayers] = next;
+
+		tables.boundButtons = new int[Long.bitCount(allButtons)];
+		for(int i = 0; i < tables.boundButtons.length; i++) {
+			tables.boundButtons[i] = Long.numberOfTrailingZeros(allButtons);
+			allButtons &= allButtons - 1;
+		}
+		return tables;
+	}
+
+	/**
+	 * Allocates the state arrays (all actions are released).
+	 */
+	private void allocateState(int numberOfActions) {
+		int size = this.numberOfPlayers * numberOfActions;
+		this.active = new boolean[size];
+		this.down = new boolean[size];
+		this.pressed = new boolean[size];
+		this.released = new boolean[size];
+		this.values = new float[size];
+	}
+
+	/**
+	 * Validates an action handle.
+	 */
+	private void checkAction(int action) {
+		if(action < 0 || action >= this.actionNames.size()) {
+			throw new IllegalArgumentException("Invalid action: " + action);
+		}
+	}
+
+	/**
+	 * Validates a player number.
+	 */
+	private void checkPlayer(int player, boolean anyPlayer) {
+		if((player < 0 || player >= this.numberOfPlayers) && !(anyPlayer && player == ANY_PLAYER)) {
+			throw new IllegalArgumentException("Invalid player: " + player);
+		}
+	}
+}
@@ -4,19 +4,22 @@
 
 package org.gamepad4j.base;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.gamepad4j.AxisID;
 import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerSnapshot;
+import org.gamepad4j.ControllerSnapshotBuffer;
 import org.gamepad4j.DpadDirection;
 import org.gamepad4j.IAxis;
 import org.gamepad4j.IButton;
+import org.gamepad4j.IButtonListener;
 import org.gamepad4j.IController;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.IControllerListener;
 import org.gamepad4j.IStick;
 import org.gamepad4j.ITrigger;
 import org.gamepad4j.StickID;
 import org.gamepad4j.TriggerID;
+import org.gamepad4j.util.ListenerArrays;
 import org.gamepad4j.util.Log;
 
 /**
@@ -26,7 +29,7 @@ import org.gamepad4j.util.Log;
  * @author Marcel Schoen
  * @version $Revision: $
  */
-public abstract class AbstractBaseController implements IController {
+public abstract class AbstractBaseController implements IControllerState {
 
 	/** Stores the deviceID of this controller. */
 	protected int deviceID = -1;
@@ -42,43 +45,132 @@ public abstract class AbstractBaseController implements IController {
 
 	/** Stores the last d-pad direction. */
 	protected DpadDirection lastDirection = null;
+
+	// The per-poll state below is written by the polling thread only. The
+	// fields which are read through "IControllerState" are volatile, so
+	// other threads see them (and 64-bit values are never torn).
+
+	/** Stores the pressed state of all buttons (bit per ButtonID ordinal). */
+	protected volatile long pressedMask = 0L;
+
+	/** Number of the current poll cycle. */
+	protected volatile long frame = 0L;
+
+	/** Pressed state of all buttons in the previous frame. */
+	protected long previousFrameMask = 0L;
+
+	/** Buttons pressed in the current frame. */
+	protected volatile long pressedThisFrame = 0L;
+
+	/** Buttons released in the current frame. */
+	protected volatile long releasedThisFrame = 0L;
+
+	/** Frame of the latest press of each button (indexed by ButtonID ordinal). */
+	protected long[] pressFrames = new long[NUMBER_OF_BUTTON_IDS];
+
+	/** Frame of the latest release of each button (indexed by ButtonID ordinal). */
+	protected long[] releaseFrames = new long[NUMBER_OF_BUTTON_IDS];
+
+	/** D-pad direction in the current frame. */
+	protected DpadDirection frameDpadDirection = DpadDirection.NONE;
+
+	/** Frame of the latest d-pad direction change. */
+	protected volatile long dpadChangeFrame = 0L;
+
+	/** Time of the current (or latest) sample of this controller (System.nanoTime()). */
+	protected volatile long sampleNanos = 0L;
+
+	/** Set by "beginSample()", until the poll cycle is completed. */
+	protected boolean sampling = false;
+
+	/** Time of the latest press of each button (indexed by ButtonID ordinal). */
+	protected long[] pressNanos = new long[NUMBER_OF_BUTTON_IDS];
+
+	/** Time of the latest release of each button (indexed by ButtonID ordinal). */
+	protected long[] releaseNanos = new long[NUMBER_OF_BUTTON_IDS];
+
+	/** Time of the latest press or release of each button (indexed by ButtonID ordinal). */
+	protected long[] lastChangeNanos = new long[NUMBER_OF_BUTTON_IDS];
+
+	/** Buttons which were pressed or released at least once. */
+	protected volatile long changedMask = 0L;
+
+	/** Time of the latest d-pad direction change. */
+	protected volatile long dpadChangeNanos = 0L;
+
+	/** Shared empty axis array, for a controller without axes. */
+	private static final BaseAxis[] NO_AXES = new BaseAxis[0];
+
+	/** Shared empty button listener array. */
+	static final IButtonListener[] NO_BUTTON_LISTENERS = new IButtonListener[0];
+
+	/** The button listeners for all buttons (copy-on-write array). */
+	private volatile IButtonListener[] buttonListeners = NO_BUTTON_LISTENERS;
+
+	/** The listener of the provider, which receives the events of this controller (may be null). */
+	private volatile IControllerListener controllerListener = null;
+
+	/** Stores the snapshots published by the polling thread. */
+	private volatile ControllerSnapshotBuffer snapshotBuffer = new ControllerSnapshotBuffer(0);
 	
+	/** Number of button IDs (size of the button lookup table). */
+	private static final int NUMBER_OF_BUTTON_IDS = ButtonID.values().length;
+
+	/** Number of trigger IDs (size of the trigger lookup table). */
+	private static final int NUMBER_OF_TRIGGER_IDS = TriggerID.values().length;
+
+	/** Number of stick IDs (size of the stick lookup table). */
+	private static final int NUMBER_OF_STICK_IDS = StickID.values().length;
+
+	/** Lookup table positions of the digital d-pad buttons. */
+	private static final int D_PAD_UP = ButtonID.D_PAD_UP.ordinal();
+	private static final int D_PAD_DOWN = ButtonID.D_PAD_DOWN.ordinal();
+	private static final int D_PAD_LEFT = ButtonID.D_PAD_LEFT.ordinal();
+	private static final int D_PAD_RIGHT = ButtonID.D_PAD_RIGHT.ordinal();
+
+	// The references below are replaced as a whole when a (new) mapping 
+	// is applied, so that other threads see either the old or the new one.
+
 	// ----------------------- d-pad -----------------------------
 
-	/** Stores a map for the axes used by an analog d-pad */
-	protected Map<AxisID, BaseAxis> dpadAxisMap = new HashMap<AxisID, BaseAxis>(); 
+	/** Stores the X-axis of an analog d-pad (null for a digital d-pad). */
+	protected volatile BaseAxis dpadXAxis = null;
+
+	/** Stores the Y-axis of an analog d-pad (null for a digital d-pad). */
+	protected volatile BaseAxis dpadYAxis = null;
 
 	// ----------------------- buttons ---------------------------
 	
-	/** Lookup map for buttons based on their type. */
-	protected Map<ButtonID, IButton> buttonMap = new HashMap<ButtonID, IButton>();
-
-	/** Lookup map for button aliases. */
-	protected Map<ButtonID, IButton> buttonAliasMap = new HashMap<ButtonID, IButton>();
+	/** 
+	 * Lookup table for buttons, indexed by ButtonID ordinal. Aliases 
+	 * are resolved when the mapping is applied, so this table
+	 * is all that's needed to find a button by its ID.
+	 */
+	protected volatile IButton[] buttonsByID = new IButton[NUMBER_OF_BUTTON_IDS];
 	
 	/** Stores the buttons of this controller. */
-	protected BaseButton[] buttons = null;
+	protected volatile BaseButton[] buttons = null;
 
 	// ----------------------- triggers ---------------------------
 	
-	/** Lookup map for buttons based on their type. */
-	protected Map<TriggerID, ITrigger> triggerMap = new HashMap<TriggerID, ITrigger>();
+	/** Lookup table for triggers, indexed by TriggerID ordinal. */
+	protected volatile ITrigger[] triggersByID = new ITrigger[NUMBER_OF_TRIGGER_IDS];
 	
 	/** Stores the buttons of this controller. */
-	protected BaseTrigger[] triggers = null;
+	protected volatile BaseTrigger[] triggers = null;
 
 	// ----------------------- sticks ---------------------------
 	
-	/** Lookup map for sticks based on their type. */
-	protected Map<StickID, IStick> stickMap = new HashMap<StickID, IStick>();
+	/** Lookup table for sticks, indexed by StickID ordinal. */
+	protected volatile IStick[] sticksByID = new IStick[NUMBER_OF_STICK_IDS];
 	
 	/** Stores the sticks of this controller. */
-	protected BaseStick[] sticks = null;
+	protected volatile BaseStick[] sticks = null;
 
 	// ----------------------- axes (for triggers AND sticks) ---------------------------
 	
 	/** Stores the axes of this controller. */
-	protected BaseAxis[] axes = null;
+	protected volatile BaseAxis[] axes = null;
 	
 	/**
 	 * Creates a controller wrapper.
@@ -105,12 +197,112 @@ public abstract class AbstractBaseController implements IController {
 	}
 
 	/**
-	 * Adds a button to the map of buttons.
+	 * Adds a button to the lookup table of buttons. A button without
+	 * a valid ID (null or "UNKNOWN") is not mapped, so it is not added.
 	 * 
 	 * @param button The button to add.
 	 */
 	protected void addButton(IButton button) {
-		this.buttonMap.put(button.getID(), button);
+		addButton(this.buttonsByID, button);
+	}
+
+	/**
+	 * Adds a button to the given lookup table of buttons, which is
+	 * built on the side when a mapping is applied again (see "addButton()").
+	 * 
+	 * @param buttonsByID The lookup table (indexed by ButtonID ordinal).
+	 * @param button The button to add.
+	 */
+	protected static void addButton(IButton[] buttonsByID, IButton button) {
+		ButtonID ID = button.getID();
+		if(ID != null && ID != ButtonID.UNKNOWN) {
+			buttonsByID[ID.ordinal()] = button;
+		}
+	}
+
+	/**
+	 * Makes the given button also available under an alias ID (like
+	 * "ACCEPT" for "FACE_DOWN"). A real button mapped to the alias ID
+	 * takes precedence over the alias.
+	 * 
+	 * @param aliasID The alias ID.
+	 * @param button The button to which the alias refers.
+	 */
+	protected void addButtonAlias(ButtonID aliasID, IButton button) {
+		addButtonAlias(this.buttonsByID, aliasID, button);
+	}
+
+	/**
+	 * Adds an alias to the given lookup table of buttons, which is
+	 * built on the side when a mapping is applied again (see "addButtonAlias()").
+	 * 
+	 * @param buttonsByID The lookup table (indexed by ButtonID ordinal).
+	 * @param aliasID The alias ID.
+	 * @param button The button to which the alias refers.
+	 */
+	protected static void addButtonAlias(IButton[] buttonsByID, ButtonID aliasID, IButton button) {
+		if(buttonsByID[aliasID.ordinal()] == null) {
+			buttonsByID[aliasID.ordinal()] = button;
+			if(button instanceof BaseButton) {
+				((BaseButton)button).addAliasMask(aliasID);
+			}
+		}
+	}
+
+	/**
+	 * Adds a trigger to the lookup table of triggers.
+	 * 
+	 * @param trigger The trigger to add.
+	 */
+	protected void addTrigger(ITrigger trigger) {
+		this.triggersByID[trigger.getID().ordinal()] = trigger;
+	}
+
+	/**
+	 * Adds a stick to the lookup table of sticks.
+	 * 
+	 * @param stick The stick to add.
+	 */
+	protected void addStick(IStick stick) {
+		this.sticksByID[stick.getID().ordinal()] = stick;
+	}
+
+	/**
+	 * Sets one of the axes of an analog d-pad.
+	 * 
+	 * @param axis The axis (with ID "D_PAD_X" or "D_PAD_Y").
+	 */
+	protected void setDpadAxis(BaseAxis axis) {
+		if(axis.getID() == AxisID.D_PAD_X) {
+			this.dpadXAxis = axis;
+		} else {
+			this.dpadYAxis = axis;
+		}
+	}
+
+	/**
+	 * Clears the button lookup table. Must be invoked before
+	 * a (new) mapping is applied to a re-used controller instance.
+	 */
+	protected void clearButtonMappings() {
+		for(int i = 0; i < this.buttonsByID.length; i++) {
+			this.buttonsByID[i] = null;
+		}
+	}
+
+	/**
+	 * Clears the trigger, stick and d-pad lookup tables. Must be invoked 
+	 * before a (new) mapping is applied to a re-used controller instance.
+	 */
+	protected void clearAxisMappings() {
+		for(int i = 0; i < this.triggersByID.length; i++) {
+			this.triggersByID[i] = null;
+		}
+		for(int i = 0; i < this.sticksByID.length; i++) {
+			this.sticksByID[i] = null;
+		}
+		this.dpadXAxis = null;
+		this.dpadYAxis = null;
 	}
 
 	/* (non-Javadoc)
@@ -226,6 +418,347 @@ public abstract class AbstractBaseController implements IController {
 		return getButton(buttonID).isPressedOnce();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#addButtonListener(org.gamepad4j.IButtonListener)
+	 */
+	@Override
+	public synchronized void addButtonListener(IButtonListener listener) {
+		this.buttonListeners = ListenerArrays.add(this.buttonListeners, listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#removeButtonListener(org.gamepad4j.IButtonListener)
+	 */
+	@Override
+	public synchronized void removeButtonListener(IButtonListener listener) {
+		this.buttonListeners = ListenerArrays.remove(this.buttonListeners, listener);
+	}
+
+	/**
+	 * Sets the listener which receives the events of this controller. This
+	 * is set by the provider, and is usually the "Controllers" instance.
+	 * 
+	 * @param listener The controller listener (may be null).
+	 */
+	public void setControllerListener(IControllerListener listener) {
+		this.controllerListener = listener;
+	}
+
+	/**
+	 * Returns the listener which receives the events of this controller.
+	 * 
+	 * @return The controller listener (may be null).
+	 */
+	public IControllerListener getControllerListener() {
+		return this.controllerListener;
+	}
+
+	/**
+	 * Notifies the button listeners of this controller and the controller
+	 * listener about a press or release of one of its buttons. Is invoked 
+	 * by the button, when its pressed state changes.
+	 * 
+	 * @param button The button.
+	 * @param isPressed True if the button was pressed, false if it was released.
+	 */
+	protected void fireButtonEvent(IButton button, boolean isPressed) {
+		ButtonID buttonID = button.getID();
+		IButtonListener[] current = this.buttonListeners;
+		for(int i = 0; i < current.length; i++) {
+			if(isPressed) {
+				current[i].buttonDown(this, button, buttonID);
+			} else {
+				current[i].buttonUp(this, button, buttonID);
+			}
+		}
+		IControllerListener listener = this.controllerListener;
+		if(listener != null) {
+			if(isPressed) {
+				listener.buttonDown(this, button, buttonID);
+			} else {
+				listener.buttonUp(this, button, buttonID);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#pressedMask()
+	 */
+	@Override
+	public long pressedMask() {
+		return this.pressedMask;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#isAllPressed(long)
+	 */
+	@Override
+	public boolean isAllPressed(long mask) {
+		return (this.pressedMask & mask) == mask;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#isAnyPressed(long)
+	 */
+	@Override
+	public boolean isAnyPressed(long mask) {
+		return (this.pressedMask & mask) != 0L;
+	}
+
+	/**
+	 * Sets the pressed state bitmask of this controller. Should be invoked
+	 * by the provider once per poll, after all buttons have been updated.
+	 * 
+	 * @param pressedMask The bitmask of all currently pressed buttons.
+	 */
+	public void setPressedMask(long pressedMask) {
+		this.pressedMask = pressedMask;
+	}
+
+	/**
+	 * Rebuilds the pressed state bitmask from the pressed state of all
+	 * buttons in the lookup table. For providers that don't compute the
+	 * mask while updating the buttons.
+	 */
+	public void updatePressedMask() {
+		long mask = 0L;
+		IButton[] buttonsByID = this.buttonsByID;
+		for(int i = 0; i < buttonsByID.length; i++) {
+			IButton button = buttonsByID[i];
+			if(button != null && button.isPressed()) {
+				mask |= 1L << i;
+			}
+		}
+		this.pressedMask = mask & ~(1L << ButtonID.UNKNOWN.ordinal());
+	}
+
+	/**
+	 * Applies the deadzones of all sticks to the current axis values 
+	 * (see "BaseStick.update()"). Must be invoked by the provider once
+	 * per poll, after all axes have been updated.
+	 */
+	public void updateSticks() {
+		BaseStick[] current = this.sticks;
+		if(current != null) {
+			for(int i = 0; i < current.length; i++) {
+				if(current[i] != null) {
+					current[i].update();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts a new poll cycle. Must be invoked by the provider right
+	 * before the native state of the controller is read, so that all
+	 * changes of this cycle are stamped with the time of the sample.
+	 * If a provider doesn't invoke it, changes are stamped with the
+	 * time at which they are applied.
+	 * 
+	 * @param nanoTime The time of the sample (System.nanoTime()).
+	 */
+	public void beginSample(long nanoTime) {
+		this.sampleNanos = nanoTime;
+		this.sampling = true;
+	}
+
+	/**
+	 * Returns the timestamp for a change which is applied now: the time
+	 * of the current sample, or the current time if no sample was started.
+	 * 
+	 * @return The timestamp in nanoseconds.
+	 */
+	long changeNanos() {
+		return this.sampling ? this.sampleNanos : System.nanoTime();
+	}
+
+	/**
+	 * Stamps the press or release of a button right when it is applied
+	 * (see "BaseButton.setPressed()"), so "getNanosSinceChange()" is already
+	 * correct in the listeners notified about it, before the frame is completed.
+	 * 
+	 * @param mask The bitmask of the button (see "BaseButton.getMask()").
+	 * @param pressed True if the button was pressed, false if it was released.
+	 * @param nanoTime The time of the change.
+	 */
+	void stampButtonChange(long mask, boolean pressed, long nanoTime) {
+		long bits = mask;
+		while(bits != 0L) {
+			int index = Long.numberOfTrailingZeros(bits);
+			if(pressed) {
+				this.pressNanos[index] = nanoTime;
+			} else {
+				this.releaseNanos[index] = nanoTime;
+			}
+			this.lastChangeNanos[index] = nanoTime;
+			bits &= bits - 1;
+		}
+		this.changedMask |= mask;
+	}
+
+	/**
+	 * Completes a poll cycle: advances the frame number, and computes 
+	 * which buttons were pressed or released, and if the d-pad direction
+	 * changed, since the previous frame.
+	 */
+	protected void updateFrame() {
+		if(!this.sampling) {
+			this.sampleNanos = System.nanoTime();
+		}
+		this.sampling = false;
+		long now = this.sampleNanos;
+		long mask = this.pressedMask;
+		long previous = this.previousFrameMask;
+		long frame = this.frame + 1;
+		long pressed = mask & ~previous;
+		long released = previous & ~mask;
+		long changed = pressed | released;
+		while(changed != 0L) {
+			int index = Long.numberOfTrailingZeros(changed);
+			if((pressed & (1L << index)) != 0L) {
+				this.pressFrames[index] = frame;
+				this.pressNanos[index] = now;
+			} else {
+				this.releaseFrames[index] = frame;
+				this.releaseNanos[index] = now;
+			}
+			this.lastChangeNanos[index] = now;
+			changed &= changed - 1;
+		}
+		this.changedMask |= pressed | released;
+		DpadDirection direction = getDpadDirection();
+		if(direction != this.frameDpadDirection) {
+			this.frameDpadDirection = direction;
+			this.dpadChangeFrame = frame;
+			this.dpadChangeNanos = now;
+		}
+		this.pressedThisFrame = pressed;
+		this.releasedThisFrame = released;
+		this.previousFrameMask = mask;
+		this.frame = frame;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getFrame()
+	 */
+	@Override
+	public long getFrame() {
+		return this.frame;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#pressedThisFrame()
+	 */
+	@Override
+	public long pressedThisFrame() {
+		return this.pressedThisFrame;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#releasedThisFrame()
+	 */
+	@Override
+	public long releasedThisFrame() {
+		return this.releasedThisFrame;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getPressFrame(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getPressFrame(ButtonID buttonID) {
+		return this.pressFrames[buttonID.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getReleaseFrame(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getReleaseFrame(ButtonID buttonID) {
+		return this.releaseFrames[buttonID.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getDpadChangeFrame()
+	 */
+	@Override
+	public long getDpadChangeFrame() {
+		return this.dpadChangeFrame;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getSampleNanos()
+	 */
+	@Override
+	public long getSampleNanos() {
+		return this.sampleNanos;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getPressNanos(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getPressNanos(ButtonID buttonID) {
+		return this.pressNanos[buttonID.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getReleaseNanos(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getReleaseNanos(ButtonID buttonID) {
+		return this.releaseNanos[buttonID.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getDpadChangeNanos()
+	 */
+	@Override
+	public long getDpadChangeNanos() {
+		return this.dpadChangeNanos;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getNanosSinceChange(org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public long getNanosSinceChange(ButtonID buttonID) {
+		int index = buttonID.ordinal();
+		if((this.changedMask & (1L << index)) == 0L) {
+			return -1L;
+		}
+		// Inside a listener of a provider without sample times, the change
+		// may be newer than the latest sample; it happened just now
+		long nanos = this.sampleNanos - this.lastChangeNanos[index];
+		return nanos < 0L ? 0L : nanos;
+	}
+
+	/**
+	 * Completes the current poll cycle (see "updateFrame()"), then captures
+	 * the state of this controller in a snapshot and publishes it to the 
+	 * game thread. Must be invoked by the provider once per poll, after all
+	 * buttons and axes have been updated.
+	 */
+	public void publishSnapshot() {
+		updateFrame();
+		ControllerSnapshotBuffer buffer = this.snapshotBuffer;
+		IAxis[] axes = getAxes();
+		if(buffer.getAxisCapacity() < axes.length) {
+			// Only happens when a (new) mapping was applied
+			buffer = new ControllerSnapshotBuffer(axes.length);
+			this.snapshotBuffer = buffer;
+		}
+		buffer.publish(this);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerState#getSnapshot()
+	 */
+	@Override
+	public ControllerSnapshot getSnapshot() {
+		return this.snapshotBuffer.acquire();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.gamepad4j.util.IController#getButtons()
 	 */
@@ -241,9 +774,10 @@ public abstract class AbstractBaseController implements IController {
 	@Override
 	public DpadDirection getDpadDirection() {
 		int value = 0;
-		if(this.dpadAxisMap.size() > 0) {
+		BaseAxis xAxis = this.dpadXAxis;
+		BaseAxis yAxis = this.dpadYAxis;
+		if(xAxis != null || yAxis != null) {
 			// It's an analog axes d-pad
-			BaseAxis xAxis = this.dpadAxisMap.get(AxisID.D_PAD_X);
 			if(xAxis != null) {
 				if(xAxis.getValue() == -1) {
 					value += DpadDirection.LEFT.getValue();
@@ -251,7 +785,6 @@ public abstract class AbstractBaseController implements IController {
 					value += DpadDirection.RIGHT.getValue();
 				}
 			}
-			BaseAxis yAxis = this.dpadAxisMap.get(AxisID.D_PAD_Y);
 			if(yAxis != null) {
 				if(yAxis.getValue() == -1) {
 					value += DpadDirection.UP.getValue();
@@ -261,10 +794,11 @@ public abstract class AbstractBaseController implements IController {
 			}
 		} else {
 			// It's a digital button d-pad
-			IButton dpadUp = this.buttonMap.get(ButtonID.D_PAD_UP);
-			IButton dpadRight = this.buttonMap.get(ButtonID.D_PAD_RIGHT);
-			IButton dpadDown = this.buttonMap.get(ButtonID.D_PAD_DOWN);
-			IButton dpadLeft = this.buttonMap.get(ButtonID.D_PAD_LEFT);
+			IButton[] buttonsByID = this.buttonsByID;
+			IButton dpadUp = buttonsByID[D_PAD_UP];
+			IButton dpadRight = buttonsByID[D_PAD_RIGHT];
+			IButton dpadDown = buttonsByID[D_PAD_DOWN];
+			IButton dpadLeft = buttonsByID[D_PAD_LEFT];
 			if(dpadUp != null && dpadUp.isPressed()) {
 				value += DpadDirection.UP.getValue();
 			}
@@ -296,7 +830,7 @@ public abstract class AbstractBaseController implements IController {
 	 */
 	@Override
 	public ITrigger getTrigger(TriggerID triggerID) {
-		return this.triggerMap.get(triggerID);
+		return this.triggersByID[triggerID.ordinal()];
 	}
 
 	/* (non-Javadoc)
@@ -304,11 +838,7 @@ public abstract class AbstractBaseController implements IController {
 	 */
 	@Override
 	public IButton getButton(ButtonID buttonID) {
-		IButton button = this.buttonMap.get(buttonID);
-		if(button == null) {
-			button = this.buttonAliasMap.get(buttonID);
-		}
-		return button;
+		return this.buttonsByID[buttonID.ordinal()];
 	}
 
 	/* (non-Javadoc)
@@ -316,7 +846,8 @@ public abstract class AbstractBaseController implements IController {
 	 */
 	@Override
 	public boolean isButtonPressed(ButtonID buttonID) {
-		return this.buttonMap.get(buttonID).isPressed();
+		IButton button = this.buttonsByID[buttonID.ordinal()];
+		return button != null && button.isPressed();
 	}
 
 	/* (non-Javadoc)
@@ -325,7 +856,11 @@ public abstract class AbstractBaseController implements IController {
 	@Override
 	public float getTriggerPressure(TriggerID buttonID)
 			throws IllegalArgumentException {
-		return this.triggerMap.get(buttonID).analogValue();
+		ITrigger trigger = this.triggersByID[buttonID.ordinal()];
+		if(trigger == null) {
+			throw new IllegalArgumentException("No trigger '" + buttonID + "' on controller " + this.deviceID);
+		}
+		return trigger.analogValue();
 	}
 
 	/* (non-Javadoc)
@@ -341,7 +876,7 @@ public abstract class AbstractBaseController implements IController {
 	 */
 	@Override
 	public IStick getStick(StickID stick) throws IllegalArgumentException {
-		return stickMap.get(stick);
+		return this.sticksByID[stick.ordinal()];
 	}
 	
 	/*
@@ -350,9 +885,8 @@ public abstract class AbstractBaseController implements IController {
 	 */
 	@Override
 	public IAxis[] getAxes() {
-		if(this.axes == null) {
-			this.axes = new BaseAxis[0];
-		}
-		return this.axes;
+		// Not stored, so it cannot overwrite axes published by the polling thread
+		BaseAxis[] current = this.axes;
+		return current == null ? NO_AXES : current;
 	}
 }
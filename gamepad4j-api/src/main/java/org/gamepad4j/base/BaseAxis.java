@@ -5,12 +5,14 @@
 package org.gamepad4j.base;
 
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.gamepad4j.AxisID;
-import org.gamepad4j.IAxis;
+import org.gamepad4j.IAxisEventListener;
 import org.gamepad4j.IAxisListener;
+import org.gamepad4j.IAxisState;
+import org.gamepad4j.IControllerListener;
+import org.gamepad4j.ResponseCurve;
+import org.gamepad4j.util.ListenerArrays;
 
 /**
  * Holder for values of one axis.
@@ -18,7 +20,7 @@ import org.gamepad4j.IAxisListener;
  * @author Marcel Schoen
  * @version $Revision: $
  */
-public class BaseAxis implements IAxis {
+public class BaseAxis implements IAxisState {
 
 	/** Stores the ID of this axis. */
 	private AxisID ID = null;
@@ -36,8 +38,48 @@ public class BaseAxis implements IAxis {
 	private float deadZone = 0.1f;
 	private float deadZoneNegative = -this.deadZone;
 
-	/** List of axis event listeners. */
-	private List<IAxisListener> listeners = null;
+	/** 
+	 * Default minimum change of the (deadzone-filtered) value which is 
+	 * reported to listeners. Can be changed globally by the application
+	 * before the controllers are initialized.
+	 */
+	public static float defaultChangeEpsilon = 0.01f;
+
+	/** Shared empty listener array. */
+	private static final IAxisListener[] NO_LISTENERS = new IAxisListener[0];
+
+	/** Minimum change of the (deadzone-filtered) value which is reported to listeners. */
+	private float changeEpsilon = defaultChangeEpsilon;
+
+	/** The value last reported to the listeners. */
+	private float notifiedValue = 0f;
+
+	/** Axis event listeners (copy-on-write array). */
+	private volatile IAxisListener[] listeners = NO_LISTENERS;
+
+	/** The controller to which this axis belongs (may be null). */
+	private AbstractBaseController controller = null;
+
+	/** Time of the latest change reported to the listeners (System.nanoTime()). */
+	private long lastChangeNanos = 0L;
+
+	/** Number of value changes which were reported to the listeners. */
+	private long deliveredCount = 0L;
+
+	/** Number of value changes which were not reported (below epsilon or inside deadzone). */
+	private long suppressedCount = 0L;
+
+	/** The stick to which this axis belongs (null for triggers, d-pad etc.). */
+	private BaseStick stick = null;
+
+	/** The value computed by the stick deadzone (only used if the axis belongs to a stick). */
+	private float stickValue = 0f;
+
+	/** Flag which is set if the raw value changed since the last stick update. */
+	private boolean stickValueChanged = false;
+
+	/** The response curve (null = linear). */
+	private ResponseCurve responseCurve = null;
 	
 	/**
 	 * Creates a new base axis instance.
@@ -62,11 +104,78 @@ public class BaseAxis implements IAxis {
 	 * @see org.gamepad4j.IAxis#addAxisListener(org.gamepad4j.IAxisListener)
 	 */
 	@Override
-	public void addAxisListener(IAxisListener listener) {
-		if(this.listeners == null) {
-			this.listeners = new ArrayList<IAxisListener>();
-		}
-		this.listeners.add(listener);
+	public synchronized void addAxisListener(IAxisListener listener) {
+		this.listeners = ListenerArrays.add(this.listeners, listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IAxisState#removeAxisListener(org.gamepad4j.IAxisListener)
+	 */
+	@Override
+	public synchronized void removeAxisListener(IAxisListener listener) {
+		this.listeners = ListenerArrays.remove(this.listeners, listener);
+	}
+
+	/**
+	 * Sets the controller to which this axis belongs. Its controller
+	 * listener is notified about changes of this axis as well.
+	 * 
+	 * @param controller The controller (may be null).
+	 */
+	public void setController(AbstractBaseController controller) {
+		this.controller = controller;
+	}
+
+	/**
+	 * Changes the ID of this axis, when the mapping of its controller is
+	 * applied again. The axis is detached from its stick (if any); its
+	 * listeners and its current value are kept.
+	 * 
+	 * @param ID The new ID of the axis.
+	 */
+	public void setID(AxisID ID) {
+		this.ID = ID;
+		this.stick = null;
+		this.stickValueChanged = false;
+	}
+
+	/**
+	 * Sets the minimum change of the (deadzone-filtered) value which is 
+	 * reported to the listeners. Smaller changes, like sensor noise, are
+	 * suppressed. Reaching the center (0) or an end (-1 / 1) is always reported.
+	 * 
+	 * @param changeEpsilon The minimum change (0 reports every change).
+	 */
+	public void setChangeEpsilon(float changeEpsilon) {
+		this.changeEpsilon = changeEpsilon;
+	}
+
+	/**
+	 * Returns the minimum change which is reported to the listeners.
+	 * 
+	 * @return The minimum change.
+	 */
+	public float getChangeEpsilon() {
+		return this.changeEpsilon;
+	}
+
+	/**
+	 * Returns the number of value changes which were reported to the listeners.
+	 * 
+	 * @return The number of reported changes.
+	 */
+	public long getDeliveredCount() {
+		return this.deliveredCount;
+	}
+
+	/**
+	 * Returns the number of raw value changes which were not reported to 
+	 * the listeners, because they were inside the deadzone or too small.
+	 * 
+	 * @return The number of suppressed changes.
+	 */
+	public long getSuppressedCount() {
+		return this.suppressedCount;
 	}
 	
 	/* (non-Javadoc)
@@ -82,16 +191,62 @@ public class BaseAxis implements IAxis {
 	 */
 	@Override
 	public float getValue() {
+		if(this.stick != null) {
+			// Computed jointly with the other axis by the stick
+			return this.stickValue;
+		}
 		// Check if value is inside deadzone
 		if(this.value > this.deadZoneNegative && this.value < this.deadZone) {
 			// If yes, signal nothing.
 			return 0f;
 		}
+		ResponseCurve curve = this.responseCurve;
+		if(curve != null) {
+			return curve.apply(this.value);
+		}
 		return this.value;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IAxisState#getLastChangeNanos()
+	 */
+	@Override
+	public long getLastChangeNanos() {
+		return this.lastChangeNanos;
+	}
+
 	/**
-	 * Sets the deadzone range for this axis.
+	 * Sets the response curve which is applied to the (deadzone-filtered)
+	 * value of this axis. For stick axes, it is applied with the next
+	 * stick update.
+	 * 
+	 * @param responseCurve The response curve (null for none).
+	 */
+	public void setResponseCurve(ResponseCurve responseCurve) {
+		this.responseCurve = responseCurve;
+	}
+
+	/**
+	 * Returns the response curve of this axis.
+	 * 
+	 * @return The response curve, or null if there is none.
+	 */
+	public ResponseCurve getResponseCurve() {
+		return this.responseCurve;
+	}
+
+	/**
+	 * Returns the raw value of this axis, without any deadzone applied.
+	 * 
+	 * @return The raw value (-1.0 - 1.0).
+	 */
+	public float getRawValue() {
+		return this.value;
+	}
+
+	/**
+	 * Sets the deadzone range for this axis. Not used for the axes of 
+	 * a stick; their deadzone is set on the stick.
 	 * 
 	 * @param deadZone The deadzone range value.
 	 */
@@ -111,9 +266,79 @@ public class BaseAxis implements IAxis {
 		}
 		this.previousValue = this.value;
 		this.value = value;
-		if(this.value != this.previousValue && this.listeners != null) {
-			for(IAxisListener listener : this.listeners) {
-				listener.moved(this.value);
+		if(this.value != this.previousValue) {
+			if(this.stick != null) {
+				// Listeners are notified with the next stick update
+				this.stickValueChanged = true;
+			} else {
+				notifyChange(getValue());
+			}
+		}
+	}
+
+	/**
+	 * Sets the stick to which this axis belongs. Invoked by the stick.
+	 * 
+	 * @param stick The stick.
+	 */
+	void setStick(BaseStick stick) {
+		this.stick = stick;
+	}
+
+	/**
+	 * Sets the value computed by the stick deadzone (and applies the 
+	 * response curve), and notifies the listeners if the raw value 
+	 * changed since the previous update.
+	 * Invoked by the stick once per poll.
+	 * 
+	 * @param value The new (deadzone-filtered) value.
+	 */
+	void setStickValue(float value) {
+		ResponseCurve curve = this.responseCurve;
+		if(curve != null) {
+			value = curve.apply(value);
+		}
+		this.stickValue = value;
+		if(this.stickValueChanged) {
+			this.stickValueChanged = false;
+			notifyChange(value);
+		}
+	}
+
+	/**
+	 * Notifies the listeners about a new (deadzone-filtered) value, if it
+	 * differs enough from the value reported last time.
+	 * 
+	 * @param current The new (deadzone-filtered) value.
+	 */
+	private void notifyChange(float current) {
+		float delta = current - this.notifiedValue;
+		if(delta >= this.changeEpsilon || delta <= -this.changeEpsilon
+				|| (delta != 0f && (current == 0f || current == 1f || current == -1f))) {
+			this.notifiedValue = current;
+			this.lastChangeNanos = this.controller != null ? this.controller.changeNanos() : System.nanoTime();
+			this.deliveredCount++;
+			fireAxisEvent(current);
+		} else {
+			this.suppressedCount++;
+		}
+	}
+
+	/**
+	 * Notifies the listeners of this axis, and the controller listener,
+	 * about a new value.
+	 * 
+	 * @param value The new (deadzone-filtered) value.
+	 */
+	protected void fireAxisEvent(float value) {
+		IAxisListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			current[i].moved(value);
+		}
+		if(this.controller != null) {
+			IControllerListener listener = this.controller.getControllerListener();
+			if(listener instanceof IAxisEventListener) {
+				((IAxisEventListener)listener).axisMoved(this.controller, this, value);
 			}
 		}
 	}
@@ -6,7 +6,10 @@ package org.gamepad4j.base;
 
 import org.gamepad4j.ButtonID;
 import org.gamepad4j.IButton;
+import org.gamepad4j.IButtonListener;
+import org.gamepad4j.IButtonState;
 import org.gamepad4j.IController;
+import org.gamepad4j.util.ListenerArrays;
 import org.gamepad4j.util.Log;
 
 /**
@@ -15,13 +18,16 @@ import org.gamepad4j.util.Log;
  * @author Marcel Schoen
  * @version $Revision: $
  */
-public class BaseButton implements IButton {
+public class BaseButton implements IButtonState {
 	
 	/** Button pressing flag. */
 	private boolean isPressed = false;
 
 	/** Stores the deviceID of this button. */
 	protected ButtonID ID = ButtonID.UNKNOWN;
+
+	/** Stores the bitmask of this button (including bits of its aliases). */
+	protected long mask = 0L;
 	
 	/** Stores the label of this button. */
 	protected String label = null;
@@ -32,11 +38,20 @@ public class BaseButton implements IButton {
 	/** Stores the last pressed state. */
 	protected boolean lastPressed = false;
 
+	/** Time of the latest press or release (System.nanoTime()). */
+	protected long lastChangeNanos = 0L;
+
 	/** The numeric code of the controller button. */
 	protected int code = -1;
 	
 	/** Stores the controller to which this button belongs. */
 	protected IController controller = null;
+
+	/** Same as "controller", if it's a base controller (forwards the button events). */
+	protected AbstractBaseController baseController = null;
+
+	/** The button listeners (copy-on-write array). */
+	private volatile IButtonListener[] listeners = AbstractBaseController.NO_BUTTON_LISTENERS;
 	
 	/**
 	 * Creates a button wrapper.
@@ -48,6 +63,9 @@ public class BaseButton implements IButton {
 	 */
 	public BaseButton(IController controller, int code, String label, String labelKey) {
 		this.controller = controller;
+		if(controller instanceof AbstractBaseController) {
+			this.baseController = (AbstractBaseController)controller;
+		}
 		this.code = code;
 		this.label = label;
 		this.labelKey = labelKey;
@@ -63,12 +81,35 @@ public class BaseButton implements IButton {
 	}
 
 	/**
-	 * Sets the ID of this button as defined by the mapping.
+	 * Sets the ID of this button as defined by the mapping. A null ID
+	 * (e.g. an unknown name in the mapping) leaves the button unmapped,
+	 * as "UNKNOWN" without a bit in the pressed mask.
 	 * 
-	 * @param ID The ID for this button.
+	 * @param ID The ID for this button (may be null).
 	 */
 	public void setID(ButtonID ID) {
-		this.ID = ID;
+		this.ID = ID == null ? ButtonID.UNKNOWN : ID;
+		this.mask = this.ID.getMask();
+	}
+
+	/**
+	 * Returns the bitmask which is set in the controller's pressed
+	 * mask when this button is pressed. It contains the bit of the
+	 * button ID and those of all its aliases.
+	 * 
+	 * @return The bitmask of this button.
+	 */
+	public long getMask() {
+		return this.mask;
+	}
+
+	/**
+	 * Adds the bit of an alias ID to the bitmask of this button.
+	 * 
+	 * @param aliasID The alias ID.
+	 */
+	public void addAliasMask(ButtonID aliasID) {
+		this.mask |= aliasID.getMask();
 	}
 	
 	/*
@@ -99,9 +140,59 @@ public class BaseButton implements IButton {
 				Log.logger.debug("Button press change: " + isPressed + "/ code: " + this.code + " / ID: "
 						+ this.ID + " / label: " + this.label + " / key: " + this.labelKey);
 			}
+			this.isPressed = isPressed;
+			if(this.baseController != null) {
+				this.lastChangeNanos = this.baseController.changeNanos();
+				this.baseController.stampButtonChange(this.mask, isPressed, this.lastChangeNanos);
+			} else {
+				this.lastChangeNanos = System.nanoTime();
+			}
+			fireButtonEvent(isPressed);
 		}
-		this.isPressed = isPressed;
-		// TODO: Implement listener for buttons
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IButtonState#getLastChangeNanos()
+	 */
+	@Override
+	public long getLastChangeNanos() {
+		return this.lastChangeNanos;
+	}
+
+	/**
+	 * Notifies the listeners of this button, and those of the controller,
+	 * about a press or release of this button.
+	 * 
+	 * @param isPressed True if the button was pressed, false if it was released.
+	 */
+	protected void fireButtonEvent(boolean isPressed) {
+		IButtonListener[] current = this.listeners;
+		for(int i = 0; i < current.length; i++) {
+			if(isPressed) {
+				current[i].buttonDown(this.controller, this, this.ID);
+			} else {
+				current[i].buttonUp(this.controller, this, this.ID);
+			}
+		}
+		if(this.baseController != null) {
+			this.baseController.fireButtonEvent(this, isPressed);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IButtonState#addButtonListener(org.gamepad4j.IButtonListener)
+	 */
+	@Override
+	public synchronized void addButtonListener(IButtonListener listener) {
+		this.listeners = ListenerArrays.add(this.listeners, listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IButtonState#removeButtonListener(org.gamepad4j.IButtonListener)
+	 */
+	@Override
+	public synchronized void removeButtonListener(IButtonListener listener) {
+		this.listeners = ListenerArrays.remove(this.listeners, listener);
 	}
 
 	/* (non-Javadoc)
@@ -5,13 +5,21 @@
 package org.gamepad4j.base;
 
 import org.gamepad4j.AxisID;
+import org.gamepad4j.DeadZoneMode;
 import org.gamepad4j.IAxis;
 import org.gamepad4j.IStick;
+import org.gamepad4j.ResponseCurve;
 import org.gamepad4j.StickID;
 import org.gamepad4j.StickPosition;
 
 /**
  * Abstract base class for stick wrappers.
+ * <p>
+ * The deadzone of a stick is applied jointly to the X- and Y-axis,
+ * once per poll (see "update()"), so that the filtered values can be
+ * read any number of times without recomputing them. Besides the inner
+ * deadzone, an outer zone can be set; everything beyond it is reported
+ * as full deflection (to compensate for sticks which don't reach 1.0).
  * 
  * TODO: Pool instances of this class
  *
@@ -34,6 +42,33 @@ public class BaseStick implements IStick {
 	
 	/** Stores the two axes in an array. */
 	private IAxis[] axes = new IAxis[2];
+
+	/** The X-axis, if it supports stick deadzones. */
+	private BaseAxis baseXAxis = null;
+
+	/** The Y-axis, if it supports stick deadzones. */
+	private BaseAxis baseYAxis = null;
+
+	/** The deadzone mode. */
+	private DeadZoneMode deadZoneMode = DeadZoneMode.AXIAL;
+
+	/** The inner deadzone (radius or per-axis range). */
+	private float innerDeadZone = 0.1f;
+
+	/** The outer deadzone (distance from which on the stick is fully deflected). */
+	private float outerDeadZone = 1.0f;
+
+	/** Pre-computed square of the inner deadzone. */
+	private float innerSquared = this.innerDeadZone * this.innerDeadZone;
+
+	/** Pre-computed square of the outer deadzone. */
+	private float outerSquared = this.outerDeadZone * this.outerDeadZone;
+
+	/** Pre-computed factor for the range inside the outer deadzone. */
+	private float outerScale = 1.0f;
+
+	/** Pre-computed factor for rescaling the range between inner and outer deadzone. */
+	private float rangeScale = 1.0f / (this.outerDeadZone - this.innerDeadZone);
 	
 	/**
 	 * Creates a stick wrapper.
@@ -53,14 +88,180 @@ public class BaseStick implements IStick {
 	 * @param axisNumber The number of the axis.
 	 */
 	public void setAxis(IAxis axis) {
+		BaseAxis baseAxis = null;
+		if(axis instanceof BaseAxis) {
+			baseAxis = (BaseAxis)axis;
+			baseAxis.setStick(this);
+		}
 		if(axis.getID() == AxisID.X) {
 			this.xAxis = axis;
+			this.baseXAxis = baseAxis;
 			this.axes[0] = this.xAxis;
 		} else {
 			this.yAxis = axis;
+			this.baseYAxis = baseAxis;
 			this.axes[1] = this.yAxis;
 		}
 	}
+
+	/**
+	 * Sets the deadzone of this stick. The new values are applied with 
+	 * the next update.
+	 * 
+	 * @param mode The deadzone mode.
+	 * @param inner The inner deadzone (0.0 - 1.0). In AXIAL mode, the range
+	 *              around the center for each axis, otherwise the radius.
+	 * @param outer The outer deadzone (inner - 1.0). Deflections beyond it
+	 *              are reported as 1.0 (1.0 = no outer deadzone).
+	 */
+	public void setDeadZone(DeadZoneMode mode, float inner, float outer) {
+		if(mode == null) {
+			throw new IllegalArgumentException("Deadzone mode must not be null.");
+		}
+		if(inner < 0f || outer > 1.0f || inner >= outer) {
+			throw new IllegalArgumentException("Invalid deadzone (must be 0 <= inner < outer <= 1): " 
+					+ inner + " / " + outer);
+		}
+		this.deadZoneMode = mode;
+		this.innerDeadZone = inner;
+		this.outerDeadZone = outer;
+		this.innerSquared = inner * inner;
+		this.outerSquared = outer * outer;
+		this.outerScale = 1.0f / outer;
+		this.rangeScale = 1.0f / (outer - inner);
+	}
+
+	/**
+	 * Removes both axes from this stick, before the mapping of its
+	 * controller is applied again (see "setAxis()").
+	 */
+	public void clearAxes() {
+		this.xAxis = null;
+		this.yAxis = null;
+		this.baseXAxis = null;
+		this.baseYAxis = null;
+		this.axes[0] = null;
+		this.axes[1] = null;
+	}
+
+	/**
+	 * Sets the response curve of both axes of this stick.
+	 * 
+	 * @param responseCurve The response curve (null for none).
+	 */
+	public void setResponseCurve(ResponseCurve responseCurve) {
+		if(this.baseXAxis != null) {
+			this.baseXAxis.setResponseCurve(responseCurve);
+		}
+		if(this.baseYAxis != null) {
+			this.baseYAxis.setResponseCurve(responseCurve);
+		}
+	}
+
+	/**
+	 * Returns the deadzone mode of this stick.
+	 * 
+	 * @return The deadzone mode.
+	 */
+	public DeadZoneMode getDeadZoneMode() {
+		return this.deadZoneMode;
+	}
+
+	/**
+	 * Returns the inner deadzone of this stick.
+	 * 
+	 * @return The inner deadzone.
+	 */
+	public float getInnerDeadZone() {
+		return this.innerDeadZone;
+	}
+
+	/**
+	 * Returns the outer deadzone of this stick.
+	 * 
+	 * @return The outer deadzone.
+	 */
+	public float getOuterDeadZone() {
+		return this.outerDeadZone;
+	}
+
+	/**
+	 * Applies the deadzone to the current raw values of both axes, and
+	 * stores the results in the axes (which notify their listeners, if
+	 * necessary). Must be invoked by the provider once per poll, after 
+	 * the values of both axes have been set.
+	 */
+	public void update() {
+		BaseAxis x = this.baseXAxis;
+		BaseAxis y = this.baseYAxis;
+		if(x == null || y == null) {
+			return;
+		}
+		float rawX = x.getRawValue();
+		float rawY = y.getRawValue();
+		float filteredX;
+		float filteredY;
+		if(this.deadZoneMode == DeadZoneMode.AXIAL) {
+			filteredX = applyAxial(rawX);
+			filteredY = applyAxial(rawY);
+		} else {
+			float distanceSquared = rawX * rawX + rawY * rawY;
+			if(distanceSquared < this.innerSquared) {
+				filteredX = 0f;
+				filteredY = 0f;
+			} else {
+				float factor;
+				if(distanceSquared >= this.outerSquared) {
+					// Fully deflected: move onto the unit circle
+					factor = (float)(1.0 / Math.sqrt(distanceSquared));
+				} else if(this.deadZoneMode == DeadZoneMode.RADIAL) {
+					factor = this.outerScale;
+				} else {
+					float distance = (float)Math.sqrt(distanceSquared);
+					factor = (distance - this.innerDeadZone) * this.rangeScale / distance;
+				}
+				filteredX = clamp(rawX * factor);
+				filteredY = clamp(rawY * factor);
+			}
+		}
+		x.setStickValue(filteredX);
+		y.setStickValue(filteredY);
+	}
+
+	/**
+	 * Applies the axial deadzone to one axis value.
+	 * 
+	 * @param value The raw value.
+	 * @return The filtered value.
+	 */
+	private float applyAxial(float value) {
+		if(value > -this.innerDeadZone && value < this.innerDeadZone) {
+			return 0f;
+		}
+		if(value >= this.outerDeadZone) {
+			return 1.0f;
+		}
+		if(value <= -this.outerDeadZone) {
+			return -1.0f;
+		}
+		return value * this.outerScale;
+	}
+
+	/**
+	 * Limits a value to the range -1.0 - 1.0 (against rounding errors).
+	 * 
+	 * @param value The value.
+	 * @return The limited value.
+	 */
+	private static float clamp(float value) {
+		if(value > 1.0f) {
+			return 1.0f;
+		}
+		if(value < -1.0f) {
+			return -1.0f;
+		}
+		return value;
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.gamepad4j.util.IStick#getID()
@@ -7,6 +7,7 @@ package org.gamepad4j.base;
 import org.gamepad4j.IAxis;
 import org.gamepad4j.IController;
 import org.gamepad4j.ITrigger;
+import org.gamepad4j.ResponseCurve;
 import org.gamepad4j.TriggerID;
 
 /**
@@ -91,6 +92,26 @@ public class BaseTrigger implements ITrigger {
 		this.valueRange = valueRange;
 	}
 
+	/**
+	 * Returns the axis of this trigger.
+	 * 
+	 * @return The axis.
+	 */
+	public IAxis getAxis() {
+		return this.axis;
+	}
+
+	/**
+	 * Sets the response curve of the axis of this trigger.
+	 * 
+	 * @param responseCurve The response curve (null for none).
+	 */
+	public void setResponseCurve(ResponseCurve responseCurve) {
+		if(this.axis instanceof BaseAxis) {
+			((BaseAxis)this.axis).setResponseCurve(responseCurve);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.gamepad4j.util.IButton#getID()
 	 */
@@ -0,0 +1,243 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.combo;
+
+import java.util.Arrays;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.DpadDirection;
+
+/**
+ * Definition of a combo: a sequence of d-pad directions, button presses
+ * and chords (buttons pressed together, in any order), which must be
+ * entered within a time window.
+ * <pre>
+ * Combo fireball = new Combo("fireball", 250)
+ *     .dpad(DpadDirection.DOWN)
+ *     .dpad(DpadDirection.DOWN_RIGHT)
+ *     .dpad(DpadDirection.RIGHT)
+ *     .press(ButtonID.FACE_LEFT);
+ * Combo reset = new Combo("reset", 100)
+ *     .chord(ButtonID.SHOULDER_LEFT_UP, ButtonID.SHOULDER_RIGHT_UP, ButtonID.START);
+ * </pre>
+ * A d-pad step matches when the d-pad enters that direction; returning
+ * to the center is not a step, so "UP, UP" is entered by tapping the
+ * d-pad up twice. Button steps match presses of the mapped button IDs
+ * (like "FACE_DOWN"), not of aliases like "ACCEPT".
+ * <p>
+ * A combo must not be modified after it was added to a {@link ComboDetector}.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class Combo {
+
+	/** Default maximum time between the first and the last press of a chord. */
+	public static final long DEFAULT_CHORD_WINDOW_MILLIS = 50L;
+
+	/** Maximum number of buttons in one chord. */
+	public static final int MAX_CHORD_SIZE = 4;
+
+	/** Number of button IDs (the d-pad symbols follow after them). */
+	static final int NUMBER_OF_BUTTON_IDS = ButtonID.values().length;
+
+	/** Number of input symbols (button presses and d-pad directions). */
+	static final int NUMBER_OF_SYMBOLS = NUMBER_OF_BUTTON_IDS + DpadDirection.values().length;
+
+	/** The name of the combo. */
+	private final String name;
+
+	/** Maximum time between the first and the last step. */
+	private final long windowNanos;
+
+	/** Maximum time between the first and the last press of a chord. */
+	private long chordWindowNanos = DEFAULT_CHORD_WINDOW_MILLIS * 1000000L;
+
+	/** The symbols of all steps (chords take one symbol per button). */
+	private int[] symbols = new int[8];
+
+	/** Number of symbols. */
+	private int numberOfSymbols = 0;
+
+	/** Index of the first symbol of each chord. */
+	private int[] chordStarts = new int[0];
+
+	/** Number of buttons of each chord. */
+	private int[] chordSizes = new int[0];
+
+	/**
+	 * Creates a combo.
+	 *
+	 * @param name The name of the combo.
+	 * @param windowMillis The maximum time between the first and the last step, in milliseconds.
+	 */
+	public Combo(String name, long windowMillis) {
+		if(windowMillis < 0L) {
+			throw new IllegalArgumentException("Invalid combo window: " + windowMillis);
+		}
+		this.name = name;
+		this.windowNanos = windowMillis * 1000000L;
+	}
+
+	/**
+	 * Adds a d-pad step.
+	 *
+	 * @param direction The direction the d-pad must enter (not NONE).
+	 * @return This combo.
+	 */
+	public Combo dpad(DpadDirection direction) {
+		if(direction == null || direction == DpadDirection.NONE) {
+			throw new IllegalArgumentException("Invalid d-pad step: " + direction);
+		}
+		addSymbol(dpadSymbol(direction));
+		return this;
+	}
+
+	/**
+	 * Adds a button press step.
+	 *
+	 * @param buttonID The button which must be pressed.
+	 * @return This combo.
+	 */
+	public Combo press(ButtonID buttonID) {
+		addSymbol(buttonSymbol(buttonID));
+		return this;
+	}
+
+	/**
+	 * Adds a chord step: the given buttons must all be pressed, in any
+	 * order, within the chord window.
+	 *
+	 * @param buttonIDs The buttons (2 to MAX_CHORD_SIZE different ones).
+	 * @return This combo.
+	 */
+	public Combo chord(ButtonID... buttonIDs) {
+		if(buttonIDs.length < 2 || buttonIDs.length > MAX_CHORD_SIZE) {
+			throw new IllegalArgumentException("Chord must have 2 to " + MAX_CHORD_SIZE + " buttons: " + buttonIDs.length);
+		}
+		int start = this.numberOfSymbols;
+		for(int i = 0; i < buttonIDs.length; i++) {
+			for(int j = 0; j < i; j++) {
+				if(buttonIDs[j] == buttonIDs[i]) {
+					throw new IllegalArgumentException("Duplicate button in chord: " + buttonIDs[i]);
+				}
+			}
+			addSymbol(buttonSymbol(buttonIDs[i]));
+		}
+		this.chordStarts = Arrays.copyOf(this.chordStarts, this.chordStarts.length + 1);
+		this.chordSizes = Arrays.copyOf(this.chordSizes, this.chordSizes.length + 1);
+		this.chordStarts[this.chordStarts.length - 1] = start;
+		this.chordSizes[this.chordSizes.length - 1] = buttonIDs.length;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum time between the first and the last press of
+	 * each chord of this combo.
+	 *
+	 * @param millis The chord window in milliseconds.
+	 * @return This combo.
+	 */
+	public Combo chordWindow(long millis) {
+		if(millis < 0L) {
+			throw new IllegalArgumentException("Invalid chord window: " + millis);
+		}
+		this.chordWindowNanos = millis * 1000000L;
+		return this;
+	}
+
+	/**
+	 * Returns the name of this combo.
+	 *
+	 * @return The name.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the maximum time between the first and the last step.
+	 *
+	 * @return The window in nanoseconds.
+	 */
+	public long getWindowNanos() {
+		return this.windowNanos;
+	}
+
+	/**
+	 * Returns the maximum time between the first and the last press of a chord.
+	 *
+	 * @return The chord window in nanoseconds.
+	 */
+	public long getChordWindowNanos() {
+		return this.chordWindowNanos;
+	}
+
+	/**
+	 * Returns the number of input symbols of this combo (a chord counts
+	 * one symbol per button).
+	 *
+	 * @return The length of the combo.
+	 */
+	public int getLength() {
+		return this.numberOfSymbols;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Combo[" + this.name + "]";
+	}
+
+	/**
+	 * Returns a copy of the symbols of this combo.
+	 */
+	int[] getSymbols() {
+		return Arrays.copyOf(this.symbols, this.numberOfSymbols);
+	}
+
+	/**
+	 * Returns the index of the first symbol of each chord.
+	 */
+	int[] getChordStarts() {
+		return this.chordStarts;
+	}
+
+	/**
+	 * Returns the number of buttons of each chord.
+	 */
+	int[] getChordSizes() {
+		return this.chordSizes;
+	}
+
+	/**
+	 * Returns the input symbol of a button press.
+	 */
+	static int buttonSymbol(ButtonID buttonID) {
+		if(buttonID == null || buttonID == ButtonID.UNKNOWN) {
+			throw new IllegalArgumentException("Invalid button step: " + buttonID);
+		}
+		return buttonID.ordinal();
+	}
+
+	/**
+	 * Returns the input symbol of a d-pad direction.
+	 */
+	static int dpadSymbol(DpadDirection direction) {
+		return NUMBER_OF_BUTTON_IDS + direction.ordinal();
+	}
+
+	/**
+	 * Appends a symbol.
+	 */
+	private void addSymbol(int symbol) {
+		if(this.numberOfSymbols == this.symbols.length) {
+			this.symbols = Arrays.copyOf(this.symbols, this.symbols.length * 2);
+		}
+		this.symbols[this.numberOfSymbols++] = symbol;
+	}
+}
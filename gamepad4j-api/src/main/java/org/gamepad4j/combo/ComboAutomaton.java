@@ -0,0 +1,244 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.combo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Automaton which recognizes the input sequences of all registered
+ * combos at once (Aho-Corasick). Each state stands for the longest
+ * recent input sequence which is the beginning of at least one combo.
+ * The transitions are completed for every symbol, so advancing by one
+ * input symbol is a single table lookup, no matter how many combos are
+ * registered. A chord is compiled into one sequence per order of its
+ * buttons.
+ * <p>
+ * Instances are immutable and can be shared by any number of players.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+class ComboAutomaton {
+
+	/** Shared empty match list. */
+	private static final int[] NO_MATCHES = new int[0];
+
+	/** Transition table (state * NUMBER_OF_SYMBOLS + symbol). */
+	private final int[] transitions;
+
+	/** Sequences which end in each state (including shorter suffixes), as sequence indexes. */
+	private final int[][] matches;
+
+	/** Combo of each sequence. */
+	private final Combo[] sequenceCombos;
+
+	/** Length of each sequence. */
+	private final int[] sequenceLengths;
+
+	/** Length of the longest sequence. */
+	private final int maxLength;
+
+	/** Longest window of all combos. */
+	private final long maxWindowNanos;
+
+	/**
+	 * Compiles the automaton.
+	 *
+	 * @param combos The combos.
+	 */
+	ComboAutomaton(List<Combo> combos) {
+		List<int[]> sequences = new ArrayList<int[]>();
+		List<Combo> owners = new ArrayList<Combo>();
+		int maxLength = 0;
+		long maxWindowNanos = 0L;
+		for(Combo combo : combos) {
+			int before = sequences.size();
+			expand(combo.getSymbols(), combo.getChordStarts(), combo.getChordSizes(), 0, sequences);
+			for(int i = before; i < sequences.size(); i++) {
+				owners.add(combo);
+			}
+			maxLength = Math.max(maxLength, combo.getLength());
+			maxWindowNanos = Math.max(maxWindowNanos, combo.getWindowNanos());
+		}
+		this.sequenceCombos = owners.toArray(new Combo[owners.size()]);
+		this.sequenceLengths = new int[sequences.size()];
+		this.maxLength = maxLength;
+		this.maxWindowNanos = maxWindowNanos;
+
+		// 1st build the trie of all sequences
+		int symbols = Combo.NUMBER_OF_SYMBOLS;
+		int[] next = new int[symbols * 16];
+		Arrays.fill(next, -1);
+		int numberOfStates = 1;
+		List<List<Integer>> ownMatches = new ArrayList<List<Integer>>();
+		ownMatches.add(null);
+		for(int i = 0; i < sequences.size(); i++) {
+			int[] sequence = sequences.get(i);
+			this.sequenceLengths[i] = sequence.length;
+			int state = 0;
+			for(int j = 0; j < sequence.length; j++) {
+				int index = state * symbols + sequence[j];
+				if(next[index] == -1) {
+					if(numberOfStates * symbols == next.length) {
+						int oldLength = next.length;
+						next = Arrays.copyOf(next, oldLength * 2);
+						Arrays.fill(next, oldLength, next.length, -1);
+					}
+					next[index] = numberOfStates++;
+					ownMatches.add(null);
+				}
+				state = next[index];
+			}
+			if(ownMatches.get(state) == null) {
+				ownMatches.set(state, new ArrayList<Integer>());
+			}
+			ownMatches.get(state).add(Integer.valueOf(i));
+		}
+
+		// 2nd complete the transitions breadth-first, following the fallback
+		// (longest proper suffix) of each state, and collect the matches
+		int[] fallbacks = new int[numberOfStates];
+		this.matches = new int[numberOfStates][];
+		this.matches[0] = NO_MATCHES;
+		int[] queue = new int[numberOfStates];
+		int head = 0;
+		int tail = 0;
+		for(int s = 0; s < symbols; s++) {
+			int target = next[s];
+			if(target == -1) {
+				next[s] = 0;
+			} else {
+				fallbacks[target] = 0;
+				queue[tail++] = target;
+			}
+		}
+		while(head < tail) {
+			int state = queue[head++];
+			this.matches[state] = merge(ownMatches.get(state), this.matches[fallbacks[state]]);
+			for(int s = 0; s < symbols; s++) {
+				int index = state * symbols + s;
+				int target = next[index];
+				int fallbackTarget = next[fallbacks[state] * symbols + s];
+				if(target == -1) {
+					next[index] = fallbackTarget;
+				} else {
+					fallbacks[target] = fallbackTarget;
+					queue[tail++] = target;
+				}
+			}
+		}
+		this.transitions = Arrays.copyOf(next, numberOfStates * symbols);
+	}
+
+	/**
+	 * Returns the state after the given input symbol.
+	 *
+	 * @param state The current state.
+	 * @param symbol The input symbol.
+	 * @return The new state.
+	 */
+	int next(int state, int symbol) {
+		return this.transitions[state * Combo.NUMBER_OF_SYMBOLS + symbol];
+	}
+
+	/**
+	 * Returns the sequences which end with the input leading to the given state.
+	 *
+	 * @param state The state.
+	 * @return The sequence indexes (empty for most states).
+	 */
+	int[] getMatches(int state) {
+		return this.matches[state];
+	}
+
+	/**
+	 * Returns the combo of a sequence.
+	 */
+	Combo getCombo(int sequence) {
+		return this.sequenceCombos[sequence];
+	}
+
+	/**
+	 * Returns the length of a sequence.
+	 */
+	int getLength(int sequence) {
+		return this.sequenceLengths[sequence];
+	}
+
+	/**
+	 * Returns the length of the longest sequence.
+	 */
+	int getMaxLength() {
+		return this.maxLength;
+	}
+
+	/**
+	 * Returns the longest window of all combos.
+	 */
+	long getMaxWindowNanos() {
+		return this.maxWindowNanos;
+	}
+
+	/**
+	 * Returns the number of states.
+	 */
+	int getNumberOfStates() {
+		return this.matches.length;
+	}
+
+	/**
+	 * Adds all sequences of a combo, with every order of the buttons of
+	 * each chord, starting with the given chord.
+	 */
+	private static void expand(int[] symbols, int[] chordStarts, int[] chordSizes, int chord, List<int[]> sequences) {
+		if(chord == chordStarts.length) {
+			sequences.add(symbols.clone());
+			return;
+		}
+		permute(symbols, chordStarts[chord], chordStarts[chord] + chordSizes[chord], chordStarts, chordSizes, chord, sequences);
+	}
+
+	/**
+	 * Permutes the symbols from "from" to "to" (exclusive), and expands
+	 * the following chords for each order.
+	 */
+	private static void permute(int[] symbols, int from, int to, int[] chordStarts, int[] chordSizes, int chord, List<int[]> sequences) {
+		if(to - from <= 1) {
+			expand(symbols, chordStarts, chordSizes, chord + 1, sequences);
+			return;
+		}
+		for(int i = from; i < to; i++) {
+			swap(symbols, from, i);
+			permute(symbols, from + 1, to, chordStarts, chordSizes, chord, sequences);
+			swap(symbols, from, i);
+		}
+	}
+
+	/**
+	 * Swaps two symbols.
+	 */
+	private static void swap(int[] symbols, int i, int j) {
+		int symbol = symbols[i];
+		symbols[i] = symbols[j];
+		symbols[j] = symbol;
+	}
+
+	/**
+	 * Merges the own matches of a state with those of its fallback state.
+	 */
+	private static int[] merge(List<Integer> own, int[] inherited) {
+		if(own == null) {
+			return inherited;
+		}
+		int[] result = new int[own.size() + inherited.length];
+		for(int i = 0; i < own.size(); i++) {
+			result[i] = own.get(i).intValue();
+		}
+		System.arraycopy(inherited, 0, result, own.size(), inherited.length);
+		return result;
+	}
+}
@@ -0,0 +1,435 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.combo;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.gamepad4j.AxisID;
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerEvent;
+import org.gamepad4j.DpadDirection;
+import org.gamepad4j.IAxis;
+import org.gamepad4j.IAxisEventListener;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerEventHandler;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.IControllerListener;
+import org.gamepad4j.StickID;
+import org.gamepad4j.util.ListenerArrays;
+
+/**
+ * Detects combos on any number of controllers. All registered combos
+ * are compiled into one shared automaton, which advances by one table
+ * lookup with each button press or d-pad change; the timing windows are
+ * only checked when the input matches the sequence of a combo. The cost
+ * per input therefore does not grow with the number of combos.
+ * <p>
+ * The detector is fed either directly by the controller events, or by
+ * the event queue:
+ * <pre>
+ * ComboDetector combos = new ComboDetector();
+ * combos.addCombo(new Combo("fireball", 250)
+ *     .dpad(DpadDirection.DOWN).dpad(DpadDirection.DOWN_RIGHT)
+ *     .dpad(DpadDirection.RIGHT).press(ButtonID.FACE_LEFT));
+ * combos.addListener(myComboListener);
+ * Controllers.instance().addListener(combos);   // or: Controllers.drainEvents(combos)
+ * </pre>
+ * Inputs are stamped with the sample time of the controller (see
+ * "IControllerState.getSampleNanos()"), so the timing does not depend on
+ * when the events are handled. Except for adding and removing combos
+ * and listeners, the detector must only be used by one thread.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ComboDetector implements IAxisEventListener, IControllerEventHandler {
+
+	/** Shared empty listener array. */
+	private static final IComboListener[] NO_LISTENERS = new IComboListener[0];
+
+	/** D-pad bits of the digital d-pad buttons. */
+	private static final int UP = DpadDirection.UP.getValue();
+	private static final int DOWN = DpadDirection.DOWN.getValue();
+	private static final int LEFT = DpadDirection.LEFT.getValue();
+	private static final int RIGHT = DpadDirection.RIGHT.getValue();
+
+	/**
+	 * The detection state of one controller.
+	 */
+	private static final class Player {
+
+		/** The automaton this state belongs to. */
+		ComboAutomaton automaton = null;
+
+		/** The current state of the automaton. */
+		int state = 0;
+
+		/** Times of the latest input symbols (ring buffer). */
+		long[] times = new long[0];
+
+		/** Number of input symbols so far. */
+		long count = 0L;
+
+		/** Time of the latest input symbol. */
+		long lastNanos = 0L;
+
+		/** Pressed digital d-pad buttons (DpadDirection bits). */
+		int dpadButtons = 0;
+
+		/** Analog d-pad axis directions (DpadDirection bits). */
+		int dpadAxes = 0;
+
+		/** The current d-pad direction. */
+		DpadDirection direction = DpadDirection.NONE;
+
+		/**
+		 * Starts over with the given automaton.
+		 */
+		void reset(ComboAutomaton automaton) {
+			this.automaton = automaton;
+			this.state = 0;
+			int size = 1;
+			while(size < automaton.getMaxLength()) {
+				size <<= 1;
+			}
+			if(this.times.length != size) {
+				this.times = new long[size];
+			}
+			this.count = 0L;
+		}
+	}
+
+	/** The registered combos. */
+	private final List<Combo> combos = new ArrayList<Combo>();
+
+	/** The automaton of the registered combos. */
+	private volatile ComboAutomaton automaton = new ComboAutomaton(new ArrayList<Combo>());
+
+	/** The detection states of the controllers. */
+	private final IdentityHashMap<IController, Player> players = new IdentityHashMap<IController, Player>();
+
+	/** The controller of the latest input (saves the map lookup). */
+	private IController lastController = null;
+
+	/** The state of that controller. */
+	private Player lastPlayer = null;
+
+	/** The combo listeners (copy-on-write array). */
+	private volatile IComboListener[] listeners = NO_LISTENERS;
+
+	/**
+	 * Registers a combo. The automaton is compiled again, and the
+	 * detection starts over for all controllers.
+	 *
+	 * @param combo The combo.
+	 */
+	public synchronized void addCombo(Combo combo) {
+		if(combo.getLength() == 0) {
+			throw new IllegalArgumentException("Combo has no steps: " + combo);
+		}
+		if(!this.combos.contains(combo)) {
+			this.combos.add(combo);
+			this.automaton = new ComboAutomaton(this.combos);
+		}
+	}
+
+	/**
+	 * Removes a combo. The automaton is compiled again, and the
+	 * detection starts over for all controllers.
+	 *
+	 * @param combo The combo.
+	 */
+	public synchronized void removeCombo(Combo combo) {
+		if(this.combos.remove(combo)) {
+			this.automaton = new ComboAutomaton(this.combos);
+		}
+	}
+
+	/**
+	 * Returns the registered combos.
+	 *
+	 * @return The combos.
+	 */
+	public synchronized Combo[] getCombos() {
+		return this.combos.toArray(new Combo[this.combos.size()]);
+	}
+
+	/**
+	 * Returns the number of states of the compiled automaton.
+	 *
+	 * @return The number of states.
+	 */
+	public int getNumberOfStates() {
+		return this.automaton.getNumberOfStates();
+	}
+
+	/**
+	 * Adds a listener which is notified about entered combos.
+	 *
+	 * @param listener The combo listener.
+	 */
+	public synchronized void addListener(IComboListener listener) {
+		this.listeners = ListenerArrays.add(this.listeners, listener);
+	}
+
+	/**
+	 * Removes a combo listener.
+	 *
+	 * @param listener The combo listener.
+	 */
+	public synchronized void removeListener(IComboListener listener) {
+		this.listeners = ListenerArrays.remove(this.listeners, listener);
+	}
+
+	/**
+	 * Forgets the input of a controller, so that the detection starts over.
+	 *
+	 * @param controller The controller.
+	 */
+	public void reset(IController controller) {
+		this.players.remove(controller);
+		if(this.lastController == controller) {
+			this.lastController = null;
+			this.lastPlayer = null;
+		}
+	}
+
+	/**
+	 * Processes a button press.
+	 *
+	 * @param controller The controller.
+	 * @param buttonID The ID of the button.
+	 * @param nanoTime The time of the press (System.nanoTime()).
+	 */
+	public void buttonPressed(IController controller, ButtonID buttonID, long nanoTime) {
+		if(buttonID == null || buttonID == ButtonID.UNKNOWN) {
+			return;
+		}
+		advance(controller, playerOf(controller), buttonID.ordinal(), nanoTime);
+	}
+
+	/**
+	 * Processes a change of the d-pad direction. Returning to the
+	 * center (NONE) is not an input of its own.
+	 *
+	 * @param controller The controller.
+	 * @param direction The new direction.
+	 * @param nanoTime The time of the change (System.nanoTime()).
+	 */
+	public void dpadChanged(IController controller, DpadDirection direction, long nanoTime) {
+		Player player = playerOf(controller);
+		if(direction == player.direction) {
+			return;
+		}
+		player.direction = direction;
+		if(direction != DpadDirection.NONE) {
+			advance(controller, player, Combo.dpadSymbol(direction), nanoTime);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerEventHandler#handleEvent(org.gamepad4j.ControllerEvent)
+	 */
+	@Override
+	public void handleEvent(ControllerEvent event) {
+		switch(event.getType()) {
+			case BUTTON_DOWN:
+				buttonChanged(event.getController(), event.getButtonID(), true, event.getNanoTime());
+				break;
+			case BUTTON_UP:
+				buttonChanged(event.getController(), event.getButtonID(), false, event.getNanoTime());
+				break;
+			case AXIS_MOVED:
+				axisChanged(event.getController(), event.getAxis(), event.getValue(), event.getNanoTime());
+				break;
+			case DISCONNECTED:
+				reset(event.getController());
+				break;
+			default:
+				break;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#connected(org.gamepad4j.IController)
+	 */
+	@Override
+	public void connected(IController controller) {
+		// Detection starts with the first input
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#disConnected(org.gamepad4j.IController)
+	 */
+	@Override
+	public void disConnected(IController controller) {
+		reset(controller);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#buttonDown(org.gamepad4j.IController, org.gamepad4j.IButton, org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+		buttonChanged(controller, buttonID, true, sampleNanos(controller));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#buttonUp(org.gamepad4j.IController, org.gamepad4j.IButton, org.gamepad4j.ButtonID)
+	 */
+	@Override
+	public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+		buttonChanged(controller, buttonID, false, sampleNanos(controller));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IControllerListener#moveStick(org.gamepad4j.IController, org.gamepad4j.StickID)
+	 */
+	@Override
+	public void moveStick(IController controller, StickID stick) {
+		// Sticks are not part of combos
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IAxisEventListener#axisMoved(org.gamepad4j.IController, org.gamepad4j.IAxis, float)
+	 */
+	@Override
+	public void axisMoved(IController controller, IAxis axis, float value) {
+		axisChanged(controller, axis, value, sampleNanos(controller));
+	}
+
+	/**
+	 * Processes a button press or release. The digital d-pad buttons
+	 * are turned into d-pad directions.
+	 */
+	private void buttonChanged(IController controller, ButtonID buttonID, boolean pressed, long nanoTime) {
+		int bit;
+		if(buttonID == ButtonID.D_PAD_UP) {
+			bit = UP;
+		} else if(buttonID == ButtonID.D_PAD_DOWN) {
+			bit = DOWN;
+		} else if(buttonID == ButtonID.D_PAD_LEFT) {
+			bit = LEFT;
+		} else if(buttonID == ButtonID.D_PAD_RIGHT) {
+			bit = RIGHT;
+		} else {
+			if(pressed) {
+				buttonPressed(controller, buttonID, nanoTime);
+			}
+			return;
+		}
+		Player player = playerOf(controller);
+		player.dpadButtons = pressed ? player.dpadButtons | bit : player.dpadButtons & ~bit;
+		dpadChanged(controller, DpadDirection.fromIntValue(player.dpadButtons | player.dpadAxes), nanoTime);
+	}
+
+	/**
+	 * Processes an axis change. Only the axes of an analog d-pad are used.
+	 */
+	private void axisChanged(IController controller, IAxis axis, float value, long nanoTime) {
+		if(axis == null) {
+			return;
+		}
+		AxisID axisID = axis.getID();
+		int bits;
+		int mask;
+		if(axisID == AxisID.D_PAD_X) {
+			bits = value <= -1f ? LEFT : value >= 1f ? RIGHT : 0;
+			mask = LEFT | RIGHT;
+		} else if(axisID == AxisID.D_PAD_Y) {
+			bits = value <= -1f ? UP : value >= 1f ? DOWN : 0;
+			mask = UP | DOWN;
+		} else {
+			return;
+		}
+		Player player = playerOf(controller);
+		player.dpadAxes = (player.dpadAxes & ~mask) | bits;
+		dpadChanged(controller, DpadDirection.fromIntValue(player.dpadButtons | player.dpadAxes), nanoTime);
+	}
+
+	/**
+	 * Returns the detection state of a controller.
+	 */
+	private Player playerOf(IController controller) {
+		if(controller == this.lastController) {
+			return this.lastPlayer;
+		}
+		Player player = this.players.get(controller);
+		if(player == null) {
+			player = new Player();
+			this.players.put(controller, player);
+		}
+		this.lastController = controller;
+		this.lastPlayer = player;
+		return player;
+	}
+
+	/**
+	 * Advances the automaton of a controller by one input symbol, and
+	 * notifies the listeners about all combos whose sequence and timing
+	 * match.
+	 */
+	private void advance(IController controller, Player player, int symbol, long nanoTime) {
+		ComboAutomaton current = this.automaton;
+		if(player.automaton != current) {
+			player.reset(current);
+		} else if(player.count > 0L && nanoTime - player.lastNanos > current.getMaxWindowNanos()) {
+			// Too late for any combo to continue
+			player.state = 0;
+		}
+		player.lastNanos = nanoTime;
+		long[] times = player.times;
+		int mask = times.length - 1;
+		times[(int)player.count & mask] = nanoTime;
+		long count = ++player.count;
+		int state = current.next(player.state, symbol);
+		player.state = state;
+
+		int[] matches = current.getMatches(state);
+		for(int i = 0; i < matches.length; i++) {
+			int sequence = matches[i];
+			Combo combo = current.getCombo(sequence);
+			long start = count - current.getLength(sequence);
+			if(nanoTime - times[(int)start & mask] > combo.getWindowNanos()) {
+				continue;
+			}
+			if(!chordsInWindow(combo, times, mask, start)) {
+				continue;
+			}
+			IComboListener[] currentListeners = this.listeners;
+			for(int j = 0; j < currentListeners.length; j++) {
+				currentListeners[j].comboEntered(controller, combo, nanoTime);
+			}
+		}
+	}
+
+	/**
+	 * Checks if the buttons of each chord of a combo were pressed within
+	 * the chord window.
+	 */
+	private static boolean chordsInWindow(Combo combo, long[] times, int mask, long start) {
+		int[] chordStarts = combo.getChordStarts();
+		int[] chordSizes = combo.getChordSizes();
+		for(int c = 0; c < chordStarts.length; c++) {
+			long first = start + chordStarts[c];
+			long last = first + chordSizes[c] - 1;
+			if(times[(int)last & mask] - times[(int)first & mask] > combo.getChordWindowNanos()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the sample time of the current state of a controller.
+	 */
+	private static long sampleNanos(IController controller) {
+		long sampleNanos = controller instanceof IControllerState ? ((IControllerState)controller).getSampleNanos() : 0L;
+		return sampleNanos != 0L ? sampleNanos : System.nanoTime();
+	}
+}
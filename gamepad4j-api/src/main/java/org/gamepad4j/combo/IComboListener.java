@@ -0,0 +1,26 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.combo;
+
+import org.gamepad4j.IController;
+
+/**
+ * Listener which is notified when a player has entered a combo
+ * (see {@link ComboDetector}).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IComboListener {
+
+	/**
+	 * Invoked when a combo was entered.
+	 *
+	 * @param controller The controller on which the combo was entered.
+	 * @param combo The combo.
+	 * @param nanoTime The time of the last step of the combo (System.nanoTime()).
+	 */
+	void comboEntered(IController controller, Combo combo, long nanoTime);
+}
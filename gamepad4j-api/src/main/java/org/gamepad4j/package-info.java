@@ -57,11 +57,62 @@
          // Processed only once, until button is released and pressed again
      }
  </pre>
+ Note that "isPressedOnce()" changes the state of the button. If several parts 
+ of the game (e.g. the menu and the gameplay code) check the same button, give
+ each of them its own edge cursor instead; it reports all presses and releases
+ since its previous update, without affecting other cursors. Snapshots, button
+ bitmasks and frame counters are queried through "IControllerState", which
+ all controllers of the built-in providers implement:
+ <pre>
+     IControllerState pad = (IControllerState)controllers[0];
+     EdgeCursor menuCursor = new EdgeCursor();
+     ...
+     menuCursor.update(pad.getSnapshot());
+     if(menuCursor.wasPressed(ButtonID.ACCEPT)) {
+         // Processed only once per press
+     }
+ </pre>
  It is also possible to just retrieve an array of all available buttons,
  which may include some for which no mapping to a constant exists:
  <pre>
      IButton[] buttons = controllers[0].getButtons();
  </pre>
+ To check a combination of buttons ("chord") at once, build its bitmask once
+ and test it against the pressed-state bitmask of the controller:
+ <pre>
+     long chord = ButtonID.maskOf(ButtonID.FACE_DOWN, ButtonID.SHOULDER_RIGHT_UP);
+     ...
+     if(pad.isAllPressed(chord)) {
+         // perform special move...
+     }
+ </pre>
+
+ <h2>Game actions</h2>
+ 
+ Instead of checking buttons, a game can define its actions once, bind them
+ to buttons, triggers, stick ranges and d-pad directions (for all players or
+ just one), and query them by handle after each update:
+ <pre>
+     ActionMap actions = new ActionMap(2);
+     int jump = actions.defineAction("jump");
+     actions.bindButton(jump, ActionMap.ANY_PLAYER, ButtonID.FACE_DOWN);
+     ...
+     actions.update(Controllers.getControllers());
+     if(actions.wasPressed(0, jump)) {
+         // player 1 jumps...
+     }
+ </pre>
+
+ <h2>Queued controller events</h2>
+ 
+ By default, controller listeners are invoked directly by the thread that
+ polls the controllers. To decouple the listeners from polling, enable the
+ event queue once, and process the queued events once per frame in the game loop:
+ <pre>
+     Controllers.enableEventQueue(1024);
+     ...
+     Controllers.drainEvents(myEventHandler);
+ </pre>
   
  <h2>Handle triggers</h2>
  
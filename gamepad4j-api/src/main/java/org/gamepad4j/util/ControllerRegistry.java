@@ -0,0 +1,183 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.util;
+
+import org.gamepad4j.IController;
+
+/**
+ * Copy-on-write registry of the currently connected controllers.
+ * <p>
+ * Readers (usually the game thread, once per frame) never lock: they read
+ * one volatile reference to an immutable state holder, which contains both
+ * the controller array and an open-addressing index from device ID to
+ * array position. Writers (the polling thread, on hotplug events only)
+ * build a new state and publish it with a single volatile write, so a
+ * reader always sees either the complete old or the complete new set.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerRegistry {
+
+	/** Marker for an empty slot in the device ID index. */
+	private static final int EMPTY = -1;
+
+	/**
+	 * Immutable registry state. Never modified after publication.
+	 */
+	private static class State {
+
+		/** The connected controllers, in order of connection. */
+		final IController[] controllers;
+
+		/** Device IDs in the open-addressing index. */
+		final int[] keys;
+
+		/** Positions in the controller array (or EMPTY). */
+		final int[] positions;
+
+		/** Bit mask for wrapping index positions (length - 1). */
+		final int mask;
+
+		State(IController[] controllers) {
+			this.controllers = controllers;
+			int capacity = 4;
+			while(capacity < controllers.length * 2) {
+				capacity <<= 1;
+			}
+			this.keys = new int[capacity];
+			this.positions = new int[capacity];
+			this.mask = capacity - 1;
+			for(int i = 0; i < capacity; i++) {
+				this.positions[i] = EMPTY;
+			}
+			for(int i = 0; i < controllers.length; i++) {
+				int slot = slotFor(controllers[i].getDeviceID());
+				while(this.positions[slot] != EMPTY) {
+					slot = (slot + 1) & this.mask;
+				}
+				this.keys[slot] = controllers[i].getDeviceID();
+				this.positions[slot] = i;
+			}
+		}
+
+		/**
+		 * Returns the array position of the controller with the given
+		 * device ID, or -1 if it's not in this state.
+		 */
+		int indexOf(int deviceID) {
+			int slot = slotFor(deviceID);
+			int position;
+			while((position = this.positions[slot]) != EMPTY) {
+				if(this.keys[slot] == deviceID) {
+					return position;
+				}
+				slot = (slot + 1) & this.mask;
+			}
+			return -1;
+		}
+
+		/**
+		 * Spreads the device ID bits (USB IDs are often sequential).
+		 */
+		private int slotFor(int deviceID) {
+			int hash = deviceID * 0x9E3779B9;
+			return (hash ^ (hash >>> 16)) & this.mask;
+		}
+	}
+
+	/** The currently published state. */
+	private volatile State state = new State(new IController[0]);
+
+	/**
+	 * Returns all currently registered controllers. The returned array
+	 * is a snapshot; it is never modified by the registry afterwards.
+	 *
+	 * @return The registered controllers (may be empty, but not null).
+	 */
+	public IController[] getControllers() {
+		return this.state.controllers;
+	}
+
+	/**
+	 * Returns the controller with the given device ID.
+	 *
+	 * @param deviceID The device ID of the controller.
+	 * @return The controller, or null if none is registered with that ID.
+	 */
+	public IController getController(int deviceID) {
+		State current = this.state;
+		int position = current.indexOf(deviceID);
+		if(position == -1) {
+			return null;
+		}
+		return current.controllers[position];
+	}
+
+	/**
+	 * Checks if a controller with the given device ID is registered.
+	 *
+	 * @param deviceID The device ID of the controller.
+	 * @return True if it is registered.
+	 */
+	public boolean contains(int deviceID) {
+		return this.state.indexOf(deviceID) != -1;
+	}
+
+	/**
+	 * Returns the number of registered controllers.
+	 *
+	 * @return The number of controllers.
+	 */
+	public int size() {
+		return this.state.controllers.length;
+	}
+
+	/**
+	 * Registers the given controller, unless a controller with the
+	 * same device ID is already registered.
+	 *
+	 * @param controller The controller to add.
+	 * @return True if it was added, false if the device ID was already known.
+	 */
+	public synchronized boolean add(IController controller) {
+		State current = this.state;
+		if(current.indexOf(controller.getDeviceID()) != -1) {
+			return false;
+		}
+		IController[] newControllers = new IController[current.controllers.length + 1];
+		System.arraycopy(current.controllers, 0, newControllers, 0, current.controllers.length);
+		newControllers[current.controllers.length] = controller;
+		this.state = new State(newControllers);
+		return true;
+	}
+
+	/**
+	 * Removes the controller with the given device ID.
+	 *
+	 * @param deviceID The device ID of the controller to remove.
+	 * @return The removed controller, or null if there was none with that ID.
+	 */
+	public synchronized IController remove(int deviceID) {
+		State current = this.state;
+		int position = current.indexOf(deviceID);
+		if(position == -1) {
+			return null;
+		}
+		IController removed = current.controllers[position];
+		IController[] newControllers = new IController[current.controllers.length - 1];
+		System.arraycopy(current.controllers, 0, newControllers, 0, position);
+		System.arraycopy(current.controllers, position + 1, newControllers, position, newControllers.length - position);
+		this.state = new State(newControllers);
+		return removed;
+	}
+
+	/**
+	 * Removes all controllers.
+	 */
+	public synchronized void clear() {
+		this.state = new State(new IController[0]);
+	}
+}
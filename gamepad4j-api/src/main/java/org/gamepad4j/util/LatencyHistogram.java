@@ -0,0 +1,210 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.util;
+
+/**
+ * Log-linear histogram of latencies (in nanoseconds). Every power of two
+ * is split into 16 linear buckets, so the relative error of the reported
+ * values is at most 1/16, over the whole range of long values, with a
+ * fixed number of buckets.
+ * <p>
+ * Recording a value takes a few arithmetic operations and does not allocate
+ * or lock. Values must be recorded by one thread only (the polling thread);
+ * other threads may read the histogram at any time, but the values they
+ * read while values are being recorded may be slightly inconsistent.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class LatencyHistogram {
+
+	/** Number of bits of the linear sub-buckets. */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/** Number of linear sub-buckets per power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** Number of buckets (enough for all positive long values). */
+	public static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/** The bucket counters. */
+	private final long[] counts = new long[BUCKETS];
+
+	/** Number of recorded values. */
+	private volatile long count = 0L;
+
+	/** Sum of the recorded values. */
+	private volatile long sum = 0L;
+
+	/** Smallest recorded value. */
+	private volatile long min = Long.MAX_VALUE;
+
+	/** Largest recorded value. */
+	private volatile long max = 0L;
+
+	/**
+	 * Returns the bucket of a value.
+	 *
+	 * @param value The value (negative values are counted as 0).
+	 * @return The bucket index.
+	 */
+	static int bucketOf(long value) {
+		if(value < SUB_BUCKETS) {
+			return value < 0L ? 0 : (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int)((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Returns the smallest value of a bucket.
+	 *
+	 * @param bucket The bucket index.
+	 * @return The lower bound of the bucket.
+	 */
+	static long lowerBoundOf(int bucket) {
+		if(bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+		return ((long)(SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1)))) << shift;
+	}
+
+	/**
+	 * Returns the largest value of a bucket.
+	 *
+	 * @param bucket The bucket index.
+	 * @return The upper bound of the bucket.
+	 */
+	static long upperBoundOf(int bucket) {
+		if(bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+		return lowerBoundOf(bucket) + (1L << shift) - 1L;
+	}
+
+	/**
+	 * Records a value. Must only be invoked by one thread.
+	 *
+	 * @param nanos The latency in nanoseconds.
+	 */
+	public void record(long nanos) {
+		if(nanos < 0L) {
+			nanos = 0L;
+		}
+		this.counts[bucketOf(nanos)]++;
+		this.sum += nanos;
+		if(nanos < this.min) {
+			this.min = nanos;
+		}
+		if(nanos > this.max) {
+			this.max = nanos;
+		}
+		this.count++;
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 *
+	 * @return The number of values.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the smallest recorded value.
+	 *
+	 * @return The minimum in nanoseconds (0 if nothing was recorded).
+	 */
+	public long getMin() {
+		return this.count == 0L ? 0L : this.min;
+	}
+
+	/**
+	 * Returns the largest recorded value.
+	 *
+	 * @return The maximum in nanoseconds.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Returns the average of the recorded values.
+	 *
+	 * @return The mean in nanoseconds (0 if nothing was recorded).
+	 */
+	public long getMean() {
+		long values = this.count;
+		return values == 0L ? 0L : this.sum / values;
+	}
+
+	/**
+	 * Returns the value below or at which the given percentage of the
+	 * recorded values lie (e.g. 99.0 for the 99th percentile). The result
+	 * is the upper bound of the bucket of that value, so it is at most
+	 * 1/16 too high.
+	 *
+	 * @param percentile The percentile (0.0 - 100.0).
+	 * @return The value in nanoseconds (0 if nothing was recorded).
+	 */
+	public long getPercentile(double percentile) {
+		if(percentile < 0d || percentile > 100d) {
+			throw new IllegalArgumentException("Invalid percentile: " + percentile);
+		}
+		long values = this.count;
+		if(values == 0L) {
+			return 0L;
+		}
+		long rank = (long)Math.ceil(values * percentile / 100d);
+		if(rank < 1L) {
+			rank = 1L;
+		}
+		long seen = 0L;
+		for(int i = 0; i < BUCKETS; i++) {
+			seen += this.counts[i];
+			if(seen >= rank) {
+				return Math.min(upperBoundOf(i), this.max);
+			}
+		}
+		return this.max;
+	}
+
+	/**
+	 * Returns the number of values recorded in a bucket.
+	 *
+	 * @param bucket The bucket index (0 - BUCKETS - 1).
+	 * @return The number of values.
+	 */
+	public long getBucketCount(int bucket) {
+		return this.counts[bucket];
+	}
+
+	/**
+	 * Clears all recorded values. Should be invoked by the recording
+	 * thread, or while no values are recorded.
+	 */
+	public void reset() {
+		for(int i = 0; i < BUCKETS; i++) {
+			this.counts[i] = 0L;
+		}
+		this.count = 0L;
+		this.sum = 0L;
+		this.min = Long.MAX_VALUE;
+		this.max = 0L;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", mean=" + getMean() + "ns, p50=" + getPercentile(50d)
+				+ "ns, p99=" + getPercentile(99d) + "ns, max=" + getMax() + "ns";
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.util;
+
+import java.util.Arrays;
+
+/**
+ * Helper methods for copy-on-write listener arrays. Listeners are stored
+ * in arrays which are never modified after publication; adding or removing
+ * a listener creates a new array. The polling thread can therefore fire
+ * events by iterating over a (volatile) array reference, without locking
+ * and without allocating an iterator.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ListenerArrays {
+
+	/**
+	 * Returns a copy of the given array with the listener added at the end.
+	 * 
+	 * @param listeners The current listeners.
+	 * @param listener The listener to add.
+	 * @return The new listener array.
+	 */
+	public static <T> T[] add(T[] listeners, T listener) {
+		if(listener == null) {
+			throw new IllegalArgumentException("Listener must not be null.");
+		}
+		T[] result = Arrays.copyOf(listeners, listeners.length + 1);
+		result[listeners.length] = listener;
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the given array without the given listener.
+	 * 
+	 * @param listeners The current listeners.
+	 * @param listener The listener to remove.
+	 * @return The new listener array (or the given one, if the listener was not found).
+	 */
+	public static <T> T[] remove(T[] listeners, T listener) {
+		for(int i = 0; i < listeners.length; i++) {
+			if(listeners[i] == listener) {
+				T[] result = Arrays.copyOf(listeners, listeners.length - 1);
+				System.arraycopy(listeners, i + 1, result, i, listeners.length - i - 1);
+				return result;
+			}
+		}
+		return listeners;
+	}
+}
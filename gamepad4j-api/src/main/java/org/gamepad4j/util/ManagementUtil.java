@@ -0,0 +1,73 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.util;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registers MBeans with the platform MBean server (JMX), so the
+ * statistics of the controllers can be watched with JConsole or VisualVM.
+ * <p>
+ * This class must only be loaded if JMX is enabled, since the JMX classes
+ * are not available on every platform (e.g. not on Android).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ManagementUtil {
+
+	/** Domain of the object names of the gamepad4j MBeans. */
+	public static final String DOMAIN = "org.gamepad4j";
+
+	/**
+	 * Registers an MBean. An MBean already registered under the
+	 * same name is replaced.
+	 *
+	 * @param name The object name (e.g. "org.gamepad4j:type=Controllers").
+	 * @param mbean The MBean (or MXBean).
+	 * @return True if it was registered, false if it failed (the error is logged).
+	 */
+	public static boolean register(String name, Object mbean) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(name);
+			if(server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(mbean, objectName);
+			if(Log.debugEnabled) {
+				Log.logger.debug("Registered MBean: " + name);
+			}
+			return true;
+		} catch(Exception e) {
+			if(Log.errorEnabled) {
+				Log.logger.error("Failed to register MBean " + name + ": " + e);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Unregisters an MBean (if it is registered).
+	 *
+	 * @param name The object name.
+	 */
+	public static void unregister(String name) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(name);
+			if(server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+		} catch(Exception e) {
+			if(Log.errorEnabled) {
+				Log.logger.error("Failed to unregister MBean " + name + ": " + e);
+			}
+		}
+	}
+}
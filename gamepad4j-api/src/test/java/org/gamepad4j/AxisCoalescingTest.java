@@ -0,0 +1,184 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gamepad4j.base.AbstractBaseController;
+import org.gamepad4j.base.BaseAxis;
+import org.gamepad4j.util.Log;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the merging of axis and stick events.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class AxisCoalescingTest {
+
+	/**
+	 * Provider with one controller, whose axis changes several times
+	 * per poll (like a pad which reports every sample).
+	 */
+	static class BurstProvider implements IControllerProvider {
+		final AbstractBaseController controller = new AbstractBaseController(4711) { };
+		final BaseAxis axis = new BaseAxis(AxisID.X, 0);
+		final ControllerListenerAdapter listeners = new ControllerListenerAdapter();
+		boolean connected = false;
+		float[] burst = new float[0];
+		public void initialize() {
+			this.axis.setController(this.controller);
+			this.controller.setControllerListener(this.listeners);
+		}
+		public void release() {
+			this.listeners.disConnected(this.controller);
+		}
+		public void checkControllers() {
+			if(!this.connected) {
+				this.connected = true;
+				this.listeners.connected(this.controller);
+			}
+			for(int i = 0; i < this.burst.length; i++) {
+				this.axis.setValue(this.burst[i]);
+				this.listeners.moveStick(this.controller, StickID.LEFT);
+				if((i & 1) == 0) {
+					this.listeners.buttonDown(this.controller, null, ButtonID.FACE_DOWN);
+				} else {
+					this.listeners.buttonUp(this.controller, null, ButtonID.FACE_DOWN);
+				}
+			}
+		}
+		public void addListener(IControllerListener listener) {
+			this.listeners.addListener(listener);
+		}
+		public void removeListener(IControllerListener listener) {
+			this.listeners.removeListener(listener);
+		}
+	}
+
+	/**
+	 * Records the events.
+	 */
+	static class RecordingListener extends ControllerListenerAdapter implements IControllerEventHandler {
+		final List<Float> axisValues = new ArrayList<Float>();
+		int stickEvents = 0;
+		int buttonEvents = 0;
+		@Override
+		public void axisMoved(IController controller, IAxis axis, float value) {
+			this.axisValues.add(Float.valueOf(value));
+		}
+		@Override
+		public void moveStick(IController controller, StickID stick) {
+			this.stickEvents++;
+		}
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.buttonEvents++;
+		}
+		@Override
+		public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+			this.buttonEvents++;
+		}
+		public void handleEvent(ControllerEvent event) {
+			switch(event.getType()) {
+				case AXIS_MOVED:
+					axisMoved(event.getController(), event.getAxis(), event.getValue());
+					break;
+				case STICK_MOVED:
+					moveStick(event.getController(), event.getStickID());
+					break;
+				case BUTTON_DOWN:
+				case BUTTON_UP:
+					this.buttonEvents++;
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		Controllers.setAxisCoalescing(false);
+		Controllers.disableEventQueue();
+		Controllers.shutdown();
+	}
+
+	@Test
+	public void testMergedPerPoll() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		BurstProvider provider = new BurstProvider();
+		RecordingListener listener = new RecordingListener();
+		Controllers.setAxisCoalescing(true);
+		Controllers.initialize(provider, 0);
+		Controllers.instance().addListener(listener);
+		try {
+			long coalesced = Controllers.getCoalescedEventCount();
+			provider.burst = new float[] { 0.2f, 0.4f, 0.6f, 0.8f };
+			Controllers.checkControllers();
+			assertEquals(1, listener.axisValues.size());
+			assertEquals(0.8f, listener.axisValues.get(0).floatValue(), 0f);
+			assertEquals(1, listener.stickEvents);
+			// Buttons are never merged
+			assertEquals(4, listener.buttonEvents);
+			assertEquals(6L, Controllers.getCoalescedEventCount() - coalesced);
+
+			provider.burst = new float[] { 0.5f, -0.5f };
+			Controllers.checkControllers();
+			assertEquals(2, listener.axisValues.size());
+			assertEquals(-0.5f, listener.axisValues.get(1).floatValue(), 0f);
+		} finally {
+			Controllers.instance().removeListener(listener);
+		}
+	}
+
+	@Test
+	public void testMergedPerDrain() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		BurstProvider provider = new BurstProvider();
+		RecordingListener handler = new RecordingListener();
+		Controllers.setAxisCoalescing(true);
+		Controllers.enableEventQueue(64);
+		Controllers.initialize(provider, 0);
+		provider.burst = new float[] { 0.2f, 0.4f };
+		Controllers.checkControllers();
+		provider.burst = new float[] { 0.6f, 0.8f };
+		Controllers.checkControllers();
+		Controllers.drainEvents(handler);
+		assertEquals(1, handler.axisValues.size());
+		assertEquals(0.8f, handler.axisValues.get(0).floatValue(), 0f);
+		assertEquals(1, handler.stickEvents);
+		assertEquals(4, handler.buttonEvents);
+
+		// After the drain, a new change creates a new event
+		provider.burst = new float[] { 0.1f };
+		Controllers.checkControllers();
+		Controllers.drainEvents(handler);
+		assertEquals(2, handler.axisValues.size());
+		assertEquals(0.1f, handler.axisValues.get(1).floatValue(), 0f);
+	}
+
+	@Test
+	public void testNotMergedByDefault() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		BurstProvider provider = new BurstProvider();
+		RecordingListener listener = new RecordingListener();
+		Controllers.initialize(provider, 0);
+		Controllers.instance().addListener(listener);
+		try {
+			provider.burst = new float[] { 0.2f, 0.4f, 0.6f };
+			Controllers.checkControllers();
+			assertEquals(3, listener.axisValues.size());
+			assertEquals(3, listener.stickEvents);
+		} finally {
+			Controllers.instance().removeListener(listener);
+		}
+	}
+}
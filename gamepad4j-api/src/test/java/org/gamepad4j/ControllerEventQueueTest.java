@@ -0,0 +1,106 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gamepad4j.base.AbstractBaseController;
+import org.junit.Test;
+
+/**
+ * Tests the single-producer / single-consumer controller event queue.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerEventQueueTest {
+
+	/** Collects the types and button IDs of the handled events. */
+	static class CollectingHandler implements IControllerEventHandler {
+		List<ControllerEvent.Type> types = new ArrayList<ControllerEvent.Type>();
+		List<ButtonID> buttonIDs = new ArrayList<ButtonID>();
+		@Override
+		public void handleEvent(ControllerEvent event) {
+			types.add(event.getType());
+			buttonIDs.add(event.getButtonID());
+		}
+	}
+
+	@Test
+	public void testOrderAndStatistics() throws Exception {
+		IController controller = new AbstractBaseController(1) { };
+		ControllerEventQueue queue = new ControllerEventQueue(3);
+		assertEquals(4, queue.getCapacity());
+
+		assertTrue(queue.offer(ControllerEvent.Type.CONNECTED, controller, null, null, null, null, 0f));
+		assertTrue(queue.offer(ControllerEvent.Type.BUTTON_DOWN, controller, null, ButtonID.FACE_DOWN, null, null, 0f));
+		assertTrue(queue.offer(ControllerEvent.Type.BUTTON_UP, controller, null, ButtonID.FACE_DOWN, null, null, 0f));
+		assertEquals(3, queue.getDepth());
+
+		CollectingHandler handler = new CollectingHandler();
+		assertEquals(3, queue.drain(handler));
+		assertEquals(ControllerEvent.Type.CONNECTED, handler.types.get(0));
+		assertEquals(ControllerEvent.Type.BUTTON_DOWN, handler.types.get(1));
+		assertEquals(ControllerEvent.Type.BUTTON_UP, handler.types.get(2));
+		assertSame(ButtonID.FACE_DOWN, handler.buttonIDs.get(2));
+		assertEquals(0, queue.getDepth());
+		assertEquals(3L, queue.getHighWaterMark());
+	}
+
+	@Test
+	public void testOverflow() throws Exception {
+		IController controller = new AbstractBaseController(1) { };
+		ControllerEventQueue queue = new ControllerEventQueue(2);
+		assertTrue(queue.offer(ControllerEvent.Type.STICK_MOVED, controller, null, null, null, StickID.LEFT, 0f));
+		assertTrue(queue.offer(ControllerEvent.Type.STICK_MOVED, controller, null, null, null, StickID.LEFT, 0f));
+		assertFalse(queue.offer(ControllerEvent.Type.STICK_MOVED, controller, null, null, null, StickID.LEFT, 0f));
+		assertEquals(1L, queue.getOverflowCount());
+
+		// Wrapping around after draining
+		queue.drain(new CollectingHandler());
+		for(int i = 0; i < 10; i++) {
+			assertTrue(queue.offer(ControllerEvent.Type.AXIS_MOVED, controller, null, null, null, null, 0.5f));
+			assertEquals(1, queue.drain(new CollectingHandler()));
+		}
+		assertEquals(1L, queue.getOverflowCount());
+	}
+
+	@Test
+	public void testConcurrentProducer() throws Exception {
+		final IController controller = new AbstractBaseController(1) { };
+		final ControllerEventQueue queue = new ControllerEventQueue(1024);
+		final int events = 20000;
+		Thread producer = new Thread() {
+			public void run() {
+				for(int i = 0; i < events; i++) {
+					while(!queue.offer(ControllerEvent.Type.AXIS_MOVED, controller, null, null, null, null, i)) {
+						Thread.yield();
+					}
+				}
+			}
+		};
+		producer.start();
+		final float[] expected = new float[1];
+		IControllerEventHandler handler = new IControllerEventHandler() {
+			@Override
+			public void handleEvent(ControllerEvent event) {
+				assertEquals(expected[0], event.getValue(), 0f);
+				expected[0]++;
+			}
+		};
+		int received = 0;
+		while(received < events) {
+			received += queue.drain(handler);
+		}
+		producer.join();
+		assertEquals(events, received);
+	}
+}
@@ -4,6 +4,8 @@
 
 package org.gamepad4j;
 
+import static org.junit.Assert.assertEquals;
+
 import org.junit.Test;
 
 /**
@@ -16,6 +18,58 @@ public class ControllerListenerAdapterTest {
 
 	@Test
 	public void testAdapter() throws Exception {
-		
+		final int[] connected = new int[1];
+		ControllerListenerAdapter counter = new ControllerListenerAdapter() {
+			@Override
+			public void connected(IController controller) {
+				connected[0]++;
+			}
+		};
+		ControllerListenerAdapter adapter = new ControllerListenerAdapter();
+		adapter.addListener(counter);
+		adapter.addListener(counter);
+		adapter.connected(null);
+		assertEquals(2, connected[0]);
+
+		adapter.removeListener(counter);
+		assertEquals(1, adapter.getListeners().length);
+		adapter.connected(null);
+		assertEquals(3, connected[0]);
+	}
+
+	/**
+	 * A listener written against the original listener interface.
+	 */
+	static class PlainListener implements IControllerListener {
+		int buttons = 0;
+		public void connected(IController controller) {
+		}
+		public void disConnected(IController controller) {
+		}
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.buttons++;
+		}
+		public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+		}
+		public void moveStick(IController controller, StickID stick) {
+		}
+	}
+
+	@Test
+	public void testAxisEventsOnlyForAxisListeners() throws Exception {
+		final float[] moved = new float[1];
+		PlainListener plain = new PlainListener();
+		ControllerListenerAdapter adapter = new ControllerListenerAdapter();
+		adapter.addListener(plain);
+		adapter.addListener(new ControllerListenerAdapter() {
+			@Override
+			public void axisMoved(IController controller, IAxis axis, float value) {
+				moved[0] = value;
+			}
+		});
+		adapter.axisMoved(null, null, 0.5f);
+		adapter.buttonDown(null, null, ButtonID.FACE_DOWN);
+		assertEquals(0.5f, moved[0], 0f);
+		assertEquals(1, plain.buttons);
 	}
 }
@@ -0,0 +1,105 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the fixed-rate background poller.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerPollerTest {
+
+	@Test
+	public void testPollsAtConfiguredRate() throws Exception {
+		final AtomicInteger polls = new AtomicInteger();
+		ControllerPoller poller = new ControllerPoller(200) {
+			@Override
+			protected void poll() {
+				polls.incrementAndGet();
+			}
+		};
+		poller.start();
+		Thread.sleep(500);
+		poller.stop();
+		assertFalse(poller.isRunning());
+
+		// Roughly 100 polls expected; generous bounds for loaded machines
+		assertTrue("polls: " + polls.get(), polls.get() > 40 && polls.get() < 130);
+		assertEquals(polls.get(), poller.getPollCount());
+		double rate = poller.getAchievedRate();
+		assertTrue("rate: " + rate, rate > 150d && rate < 250d);
+	}
+
+	@Test
+	public void testCountsOverrunsAndErrors() throws Exception {
+		ControllerPoller poller = new ControllerPoller(500) {
+			@Override
+			protected void poll() {
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					// ignore
+				}
+				throw new IllegalStateException("test");
+			}
+		};
+		poller.start();
+		Thread.sleep(100);
+		poller.stop();
+		assertTrue(poller.getOverrunCount() > 0);
+		assertEquals(poller.getPollCount(), poller.getErrorCount());
+	}
+
+	/**
+	 * Provider which just counts the polls.
+	 */
+	static class CountingProvider implements IControllerProvider {
+		final AtomicInteger polls = new AtomicInteger();
+		public void initialize() {
+		}
+		public void release() {
+		}
+		public void checkControllers() {
+			this.polls.incrementAndGet();
+		}
+		public void addListener(IControllerListener listener) {
+		}
+		public void removeListener(IControllerListener listener) {
+		}
+	}
+
+	@Test
+	public void testInitializeAgainStopsPreviousPoller() throws Exception {
+		CountingProvider first = new CountingProvider();
+		CountingProvider second = new CountingProvider();
+		Controllers.initialize(first, 200);
+		ControllerPoller firstPoller = Controllers.getPoller();
+		try {
+			Thread.sleep(50);
+			Controllers.initialize(second, 200);
+			assertFalse(firstPoller.isRunning());
+			int polls = first.polls.get();
+			Thread.sleep(50);
+			assertEquals(polls, first.polls.get());
+			assertTrue(second.polls.get() > 0);
+		} finally {
+			Controllers.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRate() {
+		new ControllerPoller(0);
+	}
+}
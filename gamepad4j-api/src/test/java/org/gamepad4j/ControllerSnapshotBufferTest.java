@@ -0,0 +1,58 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.base.AbstractBaseController;
+import org.junit.Test;
+
+/**
+ * Tests the triple-buffered controller snapshot exchange.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerSnapshotBufferTest {
+
+	@Test
+	public void testAcquireReturnsLatest() throws Exception {
+		AbstractBaseController controller = new AbstractBaseController(7) { };
+		ControllerSnapshotBuffer buffer = new ControllerSnapshotBuffer(0);
+		assertEquals(0L, buffer.acquire().getSequence());
+
+		controller.setPressedMask(ButtonID.FACE_DOWN.getMask());
+		buffer.publish(controller);
+		controller.setPressedMask(ButtonID.FACE_UP.getMask());
+		buffer.publish(controller);
+
+		ControllerSnapshot snapshot = buffer.acquire();
+		assertEquals(2L, snapshot.getSequence());
+		assertEquals(7, snapshot.getDeviceID());
+		assertTrue(snapshot.isPressed(ButtonID.FACE_UP));
+		// Nothing new published: same snapshot
+		assertSame(snapshot, buffer.acquire());
+	}
+
+	@Test
+	public void testHeldSnapshotIsNotOverwritten() throws Exception {
+		AbstractBaseController controller = new AbstractBaseController(7) { };
+		ControllerSnapshotBuffer buffer = new ControllerSnapshotBuffer(0);
+		controller.setPressedMask(ButtonID.FACE_DOWN.getMask());
+		buffer.publish(controller);
+		ControllerSnapshot held = buffer.acquire();
+
+		// Writer keeps publishing while the reader holds its snapshot
+		for(int i = 0; i < 10; i++) {
+			controller.setPressedMask(ButtonID.FACE_LEFT.getMask());
+			buffer.publish(controller);
+		}
+		assertEquals(1L, held.getSequence());
+		assertEquals(ButtonID.FACE_DOWN.getMask(), held.pressedMask());
+		assertEquals(11L, buffer.acquire().getSequence());
+	}
+}
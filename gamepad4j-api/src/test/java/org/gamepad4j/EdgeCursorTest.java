@@ -0,0 +1,91 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.base.AbstractBaseController;
+import org.junit.Test;
+
+/**
+ * Tests per-frame edge masks and per-consumer edge cursors.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class EdgeCursorTest {
+
+	private final AbstractBaseController controller = new AbstractBaseController(3) { };
+
+	private void poll(ButtonID... pressed) {
+		this.controller.setPressedMask(ButtonID.maskOf(pressed));
+		this.controller.publishSnapshot();
+	}
+
+	@Test
+	public void testFrameEdges() throws Exception {
+		poll();
+		poll(ButtonID.FACE_DOWN);
+		assertEquals(2L, this.controller.getFrame());
+		assertEquals(ButtonID.FACE_DOWN.getMask(), this.controller.pressedThisFrame());
+		assertEquals(0L, this.controller.releasedThisFrame());
+		poll(ButtonID.FACE_DOWN);
+		assertEquals(0L, this.controller.pressedThisFrame());
+		poll();
+		assertEquals(ButtonID.FACE_DOWN.getMask(), this.controller.releasedThisFrame());
+		assertEquals(2L, this.controller.getPressFrame(ButtonID.FACE_DOWN));
+		assertEquals(4L, this.controller.getReleaseFrame(ButtonID.FACE_DOWN));
+	}
+
+	@Test
+	public void testIndependentCursors() throws Exception {
+		EdgeCursor menu = new EdgeCursor();
+		EdgeCursor game = new EdgeCursor();
+		poll();
+		menu.update(this.controller.getSnapshot());
+		game.update(this.controller.getSnapshot());
+
+		poll(ButtonID.FACE_DOWN);
+		ControllerSnapshot snapshot = this.controller.getSnapshot();
+		menu.update(snapshot);
+		game.update(snapshot);
+		// Both consumers see the same press
+		assertTrue(menu.wasPressed(ButtonID.FACE_DOWN));
+		assertTrue(game.wasPressed(ButtonID.FACE_DOWN));
+
+		// Still held: no new edge
+		poll(ButtonID.FACE_DOWN);
+		menu.update(this.controller.getSnapshot());
+		assertFalse(menu.wasPressed(ButtonID.FACE_DOWN));
+	}
+
+	@Test
+	public void testCatchesUpOnMissedFrames() throws Exception {
+		EdgeCursor cursor = new EdgeCursor();
+		poll();
+		cursor.update(this.controller.getSnapshot());
+		assertEquals(0L, cursor.pressedMask());
+
+		// Short tap and a d-pad press between two updates
+		poll(ButtonID.FACE_UP);
+		poll();
+		poll(ButtonID.D_PAD_LEFT);
+		cursor.update(this.controller.getSnapshot());
+		assertTrue(cursor.wasPressed(ButtonID.FACE_UP));
+		assertTrue(cursor.wasReleased(ButtonID.FACE_UP));
+		assertTrue(cursor.wasPressed(ButtonID.D_PAD_LEFT));
+		assertFalse(cursor.wasPressed(ButtonID.FACE_DOWN));
+		assertEquals(4L, cursor.getFrame());
+
+		// Nothing new
+		cursor.update(this.controller.getSnapshot());
+		assertEquals(0L, cursor.pressedMask());
+		assertEquals(0L, cursor.releasedMask());
+		assertNull(cursor.getDpadDirectionChange());
+	}
+}
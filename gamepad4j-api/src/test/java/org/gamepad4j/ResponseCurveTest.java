@@ -0,0 +1,69 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+
+import org.gamepad4j.base.BaseAxis;
+import org.junit.Test;
+
+/**
+ * Tests the table-based response curves.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ResponseCurveTest {
+
+	@Test
+	public void testExponentialMatchesFunction() throws Exception {
+		ResponseCurve curve = ResponseCurve.exponential(2.0f);
+		for(int i = 0; i <= 1000; i++) {
+			float input = i / 1000f;
+			assertEquals(input * input, curve.apply(input), 0.0001f);
+			assertEquals(-input * input, curve.apply(-input), 0.0001f);
+		}
+	}
+
+	@Test
+	public void testSCurveIsSymmetric() throws Exception {
+		ResponseCurve curve = ResponseCurve.sCurve(3.0f);
+		assertEquals(0f, curve.apply(0f), 0.0001f);
+		assertEquals(0.5f, curve.apply(0.5f), 0.0001f);
+		assertEquals(1f, curve.apply(1f), 0.0001f);
+		assertEquals(1f - curve.apply(0.2f), curve.apply(0.8f), 0.001f);
+	}
+
+	@Test
+	public void testParsePiecewise() throws Exception {
+		ResponseCurve curve = ResponseCurve.parse("piecewise: 0/0, 0.5/0.25, 1/1");
+		assertEquals(0.125f, curve.apply(0.25f), 0.0001f);
+		assertEquals(0.25f, curve.apply(0.5f), 0.0001f);
+		assertEquals(-0.625f, curve.apply(-0.75f), 0.0001f);
+		assertEquals(ResponseCurve.LINEAR, ResponseCurve.parse("linear"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseInvalid() throws Exception {
+		ResponseCurve.parse("exponential:fast");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutputOutOfRange() throws Exception {
+		ResponseCurve.piecewise(new float[] { 0f, 1f }, new float[] { 0f, 1.5f });
+	}
+
+	@Test
+	public void testAppliedToAxisAfterDeadzone() throws Exception {
+		BaseAxis axis = new BaseAxis(AxisID.TRIGGER, 0);
+		axis.setDeadZone(0.1f);
+		axis.setResponseCurve(ResponseCurve.exponential(2.0f));
+		axis.setValue(0.05f);
+		assertEquals(0f, axis.getValue(), 0f);
+		axis.setValue(-0.5f);
+		assertEquals(-0.25f, axis.getValue(), 0.0001f);
+		assertEquals(-0.5f, axis.getRawValue(), 0f);
+	}
+}
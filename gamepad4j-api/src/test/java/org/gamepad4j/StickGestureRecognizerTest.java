@@ -0,0 +1,195 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gamepad4j.base.AbstractBaseController;
+import org.gamepad4j.base.BaseAxis;
+import org.gamepad4j.base.BaseStick;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests the recognition of stick gestures.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class StickGestureRecognizerTest {
+
+	/** One millisecond in nanoseconds. */
+	private static final long MS = 1000000L;
+
+	/**
+	 * Records the recognized gestures.
+	 */
+	static class RecordingListener implements IStickGestureListener, IControllerEventHandler {
+		final List<StickGesture> gestures = new ArrayList<StickGesture>();
+		final List<Float> degrees = new ArrayList<Float>();
+		public void stickGesture(IController controller, StickID stickID, StickGesture gesture, float degree, long nanoTime) {
+			this.gestures.add(gesture);
+			this.degrees.add(Float.valueOf(degree));
+		}
+		public void handleEvent(ControllerEvent event) {
+			if(event.getType() == ControllerEvent.Type.STICK_GESTURE) {
+				stickGesture(event.getController(), event.getStickID(), event.getGesture(), event.getValue(), event.getNanoTime());
+			}
+		}
+	}
+
+	/**
+	 * Feeds a turn along the rim, in steps of 10 degree every 5 ms.
+	 *
+	 * @return The time after the turn.
+	 */
+	private static long turn(StickGestureRecognizer recognizer, IController pad, int from, int to, long time) {
+		int step = to > from ? 10 : -10;
+		for(int degree = from; degree != to + step; degree += step) {
+			double radians = Math.toRadians(degree);
+			// Degree 0 is up (negative Y), 90 is right
+			recognizer.update(pad, StickID.LEFT, (float)Math.sin(radians), (float)-Math.cos(radians), time);
+			time += 5 * MS;
+		}
+		return time;
+	}
+
+	@Test
+	public void testFlick() throws Exception {
+		StickGestureRecognizer recognizer = new StickGestureRecognizer();
+		RecordingListener listener = new RecordingListener();
+		recognizer.addListener(listener);
+		IController pad = new AbstractBaseController(1) { };
+
+		recognizer.update(pad, StickID.LEFT, 0f, 0f, 0L);
+		recognizer.update(pad, StickID.LEFT, 0.5f, 0f, 10 * MS);
+		recognizer.update(pad, StickID.LEFT, 1f, 0f, 20 * MS);
+		recognizer.update(pad, StickID.LEFT, 1f, 0f, 30 * MS);
+		assertEquals(1, listener.gestures.size());
+		assertEquals(StickGesture.FLICK, listener.gestures.get(0));
+		assertEquals(90f, listener.degrees.get(0).floatValue(), 0.5f);
+
+		// Slow push: no flick
+		recognizer.update(pad, StickID.LEFT, 0f, 0f, 100 * MS);
+		recognizer.update(pad, StickID.LEFT, 0f, 0.5f, 200 * MS);
+		recognizer.update(pad, StickID.LEFT, 0f, 1f, 300 * MS);
+		assertEquals(1, listener.gestures.size());
+	}
+
+	@Test
+	public void testRotations() throws Exception {
+		StickGestureRecognizer recognizer = new StickGestureRecognizer();
+		RecordingListener listener = new RecordingListener();
+		recognizer.addListener(listener);
+		IController pad = new AbstractBaseController(1) { };
+
+		// Quarter circle from down to right (counterclockwise)
+		long time = turn(recognizer, pad, 180, 90, 0L);
+		assertEquals(1, listener.gestures.size());
+		assertEquals(StickGesture.QUARTER_CIRCLE_COUNTERCLOCKWISE, listener.gestures.get(0));
+
+		// Back to the center, then a full clockwise rotation
+		recognizer.update(pad, StickID.LEFT, 0f, 0f, time);
+		listener.gestures.clear();
+		turn(recognizer, pad, 0, 360, time + 100 * MS);
+		assertEquals(3, listener.gestures.size());
+		assertEquals(StickGesture.QUARTER_CIRCLE_CLOCKWISE, listener.gestures.get(0));
+		assertEquals(StickGesture.HALF_ROTATION_CLOCKWISE, listener.gestures.get(1));
+		assertEquals(StickGesture.FULL_ROTATION_CLOCKWISE, listener.gestures.get(2));
+
+		// Too slow
+		recognizer.update(pad, StickID.LEFT, 0f, 0f, 10000 * MS);
+		listener.gestures.clear();
+		time = 11000 * MS;
+		for(int degree = 0; degree <= 90; degree += 10) {
+			double radians = Math.toRadians(degree);
+			recognizer.update(pad, StickID.LEFT, (float)Math.sin(radians), (float)-Math.cos(radians), time);
+			time += 200 * MS;
+		}
+		assertEquals(0, listener.gestures.size());
+	}
+
+	@Test
+	public void testShake() throws Exception {
+		StickGestureRecognizer recognizer = new StickGestureRecognizer();
+		RecordingListener listener = new RecordingListener();
+		recognizer.addListener(listener);
+		recognizer.setFlickWindow(0);
+		IController pad = new AbstractBaseController(1) { };
+
+		float[] x = { -1f, 0f, 1f, 0f, -1f, 0f, 1f, 0f, -1f };
+		for(int i = 0; i < x.length; i++) {
+			recognizer.update(pad, StickID.RIGHT, x[i], 0f, i * 20 * MS);
+		}
+		assertEquals(1, listener.gestures.size());
+		assertEquals(StickGesture.SHAKE, listener.gestures.get(0));
+		assertEquals(90f, listener.degrees.get(0).floatValue(), 0f);
+	}
+
+	@Test
+	public void testQueuedByControllers() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		final BaseAxis xAxis = new BaseAxis(AxisID.X, 0);
+		final BaseAxis yAxis = new BaseAxis(AxisID.Y, 1);
+		final BaseStick stick = new BaseStick(StickID.LEFT);
+		stick.setAxis(xAxis);
+		stick.setAxis(yAxis);
+		final AbstractBaseController pad = new AbstractBaseController(4712) {
+			{
+				this.sticks = new BaseStick[] { stick };
+				addStick(stick);
+			}
+		};
+		final float[][] positions = { { 0f, 0f }, { 0f, 0f }, { 0.6f, 0f }, { 1f, 0f } };
+		IControllerProvider provider = new IControllerProvider() {
+			ControllerListenerAdapter listeners = new ControllerListenerAdapter();
+			int poll = 0;
+			long time = 0L;
+			public void initialize() {
+			}
+			public void release() {
+				this.listeners.disConnected(pad);
+			}
+			public void checkControllers() {
+				if(this.poll == 0) {
+					this.listeners.connected(pad);
+				}
+				float[] position = positions[Math.min(this.poll++, positions.length - 1)];
+				this.time += 10 * MS;
+				pad.beginSample(this.time);
+				xAxis.setValue(position[0]);
+				yAxis.setValue(position[1]);
+				stick.update();
+				pad.publishSnapshot();
+			}
+			public void addListener(IControllerListener listener) {
+				this.listeners.addListener(listener);
+			}
+			public void removeListener(IControllerListener listener) {
+				this.listeners.removeListener(listener);
+			}
+		};
+		StickGestureRecognizer recognizer = new StickGestureRecognizer();
+		RecordingListener handler = new RecordingListener();
+		Controllers.enableEventQueue(64);
+		Controllers.setStickGestureRecognizer(recognizer);
+		try {
+			Controllers.initialize(provider, 0);
+			for(int i = 0; i < positions.length; i++) {
+				Controllers.checkControllers();
+			}
+			Controllers.drainEvents(handler);
+			assertEquals(1, handler.gestures.size());
+			assertEquals(StickGesture.FLICK, handler.gestures.get(0));
+		} finally {
+			Controllers.setStickGestureRecognizer(null);
+			Controllers.disableEventQueue();
+			Controllers.shutdown();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the direction and angle classification of the stick position.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class StickPositionTest {
+
+	@After
+	public void tearDown() {
+		StickPosition.useAngleTable = false;
+	}
+
+	/**
+	 * Returns the position at the given degree (0 = up, clockwise).
+	 */
+	private static StickPosition at(double degree, double distance) {
+		double radians = Math.toRadians(degree);
+		StickPosition position = new StickPosition();
+		position.update((float)(Math.sin(radians) * distance), (float)(-Math.cos(radians) * distance));
+		return position;
+	}
+
+	@Test
+	public void testDirections() throws Exception {
+		DpadDirection[] expected = { DpadDirection.UP, DpadDirection.UP_RIGHT, DpadDirection.RIGHT,
+				DpadDirection.DOWN_RIGHT, DpadDirection.DOWN, DpadDirection.DOWN_LEFT,
+				DpadDirection.LEFT, DpadDirection.UP_LEFT };
+		for(int i = 0; i < expected.length; i++) {
+			double center = i * 45d;
+			assertEquals(expected[i], at(center, 1d).getDirection());
+			assertEquals(expected[i], at(center - 22d, 0.5d).getDirection());
+			assertEquals(expected[i], at(center + 22d, 0.5d).getDirection());
+		}
+	}
+
+	@Test
+	public void testCentered() throws Exception {
+		StickPosition position = at(45d, 0.19d);
+		assertTrue(position.isStickCentered());
+		assertEquals(DpadDirection.NONE, position.getDirection());
+		assertEquals(StickPosition.NO_DEGREE, position.getDegree(), 0f);
+	}
+
+	@Test
+	public void testAngleTableMatchesAtan2() throws Exception {
+		for(int i = 0; i < 3600; i++) {
+			StickPosition position = at(i / 10d, 0.8d);
+			StickPosition.useAngleTable = false;
+			float exact = position.getDegree();
+			StickPosition.useAngleTable = true;
+			float fromTable = position.getDegree();
+			float difference = Math.abs(exact - fromTable);
+			// 0 and 360 degree are the same direction
+			difference = Math.min(difference, 360f - difference);
+			assertTrue("Degree " + (i / 10d) + ": " + exact + " / " + fromTable, difference < 0.01f);
+		}
+	}
+
+	@Test
+	public void testDpadDirectionFromIntValue() throws Exception {
+		for(DpadDirection direction : DpadDirection.values()) {
+			assertEquals(direction, DpadDirection.fromIntValue(direction.getValue()));
+		}
+		// Opposite directions at once, and out of range
+		assertEquals(DpadDirection.NONE, DpadDirection.fromIntValue(5));
+		assertEquals(DpadDirection.NONE, DpadDirection.fromIntValue(16));
+		assertEquals(DpadDirection.NONE, DpadDirection.fromIntValue(-1));
+	}
+}
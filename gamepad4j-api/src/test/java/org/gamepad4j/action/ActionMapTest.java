@@ -0,0 +1,181 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.action;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.AxisID;
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.DpadDirection;
+import org.gamepad4j.IController;
+import org.gamepad4j.StickID;
+import org.gamepad4j.TriggerID;
+import org.gamepad4j.base.AbstractBaseController;
+import org.gamepad4j.base.BaseAxis;
+import org.gamepad4j.base.BaseButton;
+import org.gamepad4j.base.BaseStick;
+import org.gamepad4j.base.BaseTrigger;
+import org.gamepad4j.base.BaseTrigger.ValueRange;
+import org.junit.Test;
+
+/**
+ * Tests the action bindings.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ActionMapTest {
+
+	/**
+	 * Controller with a face button, the d-pad buttons, a trigger and a stick.
+	 */
+	static class TestController extends AbstractBaseController {
+		BaseButton a, left;
+		BaseAxis triggerAxis = new BaseAxis(AxisID.TRIGGER, 0);
+		BaseAxis xAxis = new BaseAxis(AxisID.X, 1);
+		BaseAxis yAxis = new BaseAxis(AxisID.Y, 2);
+		TestController(int deviceID) {
+			super(deviceID);
+			a = button(0, ButtonID.FACE_DOWN);
+			left = button(1, ButtonID.D_PAD_LEFT);
+			addButtonAlias(ButtonID.ACCEPT, a);
+			BaseTrigger trigger = new BaseTrigger(this, 0, triggerAxis, "", "");
+			trigger.setID(TriggerID.RIGHT_DOWN);
+			trigger.setValueRange(ValueRange.POSITIVE_ONLY);
+			this.triggers = new BaseTrigger[] { trigger };
+			BaseStick stick = new BaseStick(StickID.LEFT);
+			stick.setAxis(xAxis);
+			stick.setAxis(yAxis);
+			this.sticks = new BaseStick[] { stick };
+			this.axes = new BaseAxis[] { triggerAxis, xAxis, yAxis };
+			addStick(stick);
+		}
+		private BaseButton button(int code, ButtonID id) {
+			BaseButton button = new BaseButton(this, code, "", "");
+			button.setID(id);
+			addButton(button);
+			return button;
+		}
+		void poll() {
+			updateSticks();
+			updatePressedMask();
+			publishSnapshot();
+		}
+	}
+
+	@Test
+	public void testButtonsAndEdges() throws Exception {
+		ActionMap actions = new ActionMap(2);
+		int jump = actions.defineAction("jump");
+		assertEquals(jump, actions.defineAction("jump"));
+		assertEquals(jump, actions.getAction("jump"));
+		assertEquals(ActionMap.NO_ACTION, actions.getAction("duck"));
+		actions.bindButton(jump, ActionMap.ANY_PLAYER, ButtonID.FACE_DOWN);
+		TestController pad = new TestController(1);
+		IController[] controllers = { pad };
+
+		pad.poll();
+		actions.update(controllers);
+		assertFalse(actions.isDown(0, jump));
+
+		pad.a.setPressed(true);
+		pad.poll();
+		actions.update(controllers);
+		assertTrue(actions.isDown(0, jump));
+		assertTrue(actions.wasPressed(0, jump));
+		assertEquals(1f, actions.getValue(0, jump), 0f);
+		// Player 2 has no controller
+		assertFalse(actions.isDown(1, jump));
+
+		actions.update(controllers);
+		assertTrue(actions.isDown(0, jump));
+		assertFalse(actions.wasPressed(0, jump));
+
+		pad.a.setPressed(false);
+		pad.poll();
+		actions.update(controllers);
+		assertFalse(actions.isDown(0, jump));
+		assertTrue(actions.wasReleased(0, jump));
+
+		// Tapped between two updates
+		pad.a.setPressed(true);
+		pad.poll();
+		pad.a.setPressed(false);
+		pad.poll();
+		actions.update(controllers);
+		assertFalse(actions.isDown(0, jump));
+		assertTrue(actions.wasPressed(0, jump));
+	}
+
+	@Test
+	public void testAnalogAndDpadBindings() throws Exception {
+		ActionMap actions = new ActionMap(1);
+		int fire = actions.defineAction("fire");
+		int left = actions.defineAction("left");
+		actions.bindTrigger(fire, 0, TriggerID.RIGHT_DOWN, 0.5f);
+		actions.bindDpad(left, 0, DpadDirection.LEFT);
+		actions.bindStickAxis(left, 0, StickID.LEFT, AxisID.X, -1f, -0.5f);
+		TestController pad = new TestController(1);
+
+		pad.triggerAxis.setValue(0.3f);
+		pad.poll();
+		actions.update(0, pad);
+		assertFalse(actions.isDown(0, fire));
+		assertFalse(actions.isDown(0, left));
+
+		pad.triggerAxis.setValue(0.8f);
+		pad.xAxis.setValue(-0.7f);
+		pad.poll();
+		actions.update(0, pad);
+		assertTrue(actions.wasPressed(0, fire));
+		assertEquals(0.8f, actions.getValue(0, fire), 0.001f);
+		assertTrue(actions.wasPressed(0, left));
+		assertEquals(0.7f, actions.getValue(0, left), 0.001f);
+
+		// D-pad and stick together: still one press, full value
+		pad.left.setPressed(true);
+		pad.poll();
+		actions.update(0, pad);
+		assertTrue(actions.isDown(0, left));
+		assertFalse(actions.wasPressed(0, left));
+		assertEquals(1f, actions.getValue(0, left), 0f);
+
+		pad.left.setPressed(false);
+		pad.xAxis.setValue(0f);
+		pad.poll();
+		actions.update(0, pad);
+		assertTrue(actions.wasReleased(0, left));
+		assertEquals(0f, actions.getValue(0, left), 0f);
+	}
+
+	@Test
+	public void testPerPlayerBindingsAndRecompile() throws Exception {
+		ActionMap actions = new ActionMap(2);
+		int jump = actions.defineAction("jump");
+		actions.bindButton(jump, 1, ButtonID.FACE_DOWN);
+		TestController pad1 = new TestController(1);
+		TestController pad2 = new TestController(2);
+		IController[] controllers = { pad1, pad2 };
+		pad1.a.setPressed(true);
+		pad1.poll();
+		pad2.a.setPressed(true);
+		pad2.poll();
+		actions.update(controllers);
+		assertFalse(actions.isDown(0, jump));
+		assertTrue(actions.isDown(1, jump));
+
+		// Rebinding takes effect with the next update
+		int menu = actions.defineAction("menu");
+		actions.unbind(jump);
+		actions.bindButton(menu, ActionMap.ANY_PLAYER, ButtonID.ACCEPT);
+		actions.update(controllers);
+		assertFalse(actions.isDown(1, jump));
+		assertTrue(actions.isDown(0, menu));
+		assertTrue(actions.isDown(1, menu));
+		assertEquals("menu", actions.getActionName(menu));
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.base;
+
+import static org.junit.Assert.assertEquals;
+
+import org.gamepad4j.AxisID;
+import org.gamepad4j.IAxisListener;
+import org.junit.Test;
+
+/**
+ * Tests the noise filtering of axis change notifications.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class AxisNotificationTest {
+
+	/**
+	 * Counts axis events.
+	 */
+	static class CountingListener implements IAxisListener {
+		int count = 0;
+		float lastValue = Float.NaN;
+		@Override
+		public void moved(float value) {
+			this.count++;
+			this.lastValue = value;
+		}
+	}
+
+	@Test
+	public void testJitterInsideDeadzoneIsSuppressed() throws Exception {
+		BaseAxis axis = new BaseAxis(AxisID.X, 0);
+		axis.setDeadZone(0.1f);
+		CountingListener listener = new CountingListener();
+		axis.addAxisListener(listener);
+		for(int i = 0; i < 1000; i++) {
+			axis.setValue((i % 2 == 0) ? 0.03f : -0.02f);
+		}
+		assertEquals(0, listener.count);
+		assertEquals(0L, axis.getDeliveredCount());
+		assertEquals(1000L, axis.getSuppressedCount());
+	}
+
+	@Test
+	public void testSmallChangesAreSuppressed() throws Exception {
+		BaseAxis axis = new BaseAxis(AxisID.X, 0);
+		axis.setChangeEpsilon(0.05f);
+		CountingListener listener = new CountingListener();
+		axis.addAxisListener(listener);
+		axis.setValue(0.5f);
+		axis.setValue(0.51f);
+		axis.setValue(0.52f);
+		assertEquals(1, listener.count);
+		axis.setValue(0.56f);
+		assertEquals(2, listener.count);
+		assertEquals(0.56f, listener.lastValue, 0f);
+		// Back to center is always reported
+		axis.setValue(0.02f);
+		assertEquals(3, listener.count);
+		assertEquals(0f, listener.lastValue, 0f);
+		assertEquals(2L, axis.getSuppressedCount());
+	}
+
+	@Test
+	public void testRemoveListener() throws Exception {
+		BaseAxis axis = new BaseAxis(AxisID.X, 0);
+		CountingListener listener = new CountingListener();
+		axis.addAxisListener(listener);
+		axis.removeAxisListener(listener);
+		axis.setValue(1f);
+		assertEquals(0, listener.count);
+		assertEquals(1L, axis.getDeliveredCount());
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.base;
+
+import static org.junit.Assert.assertEquals;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IButtonListener;
+import org.gamepad4j.IController;
+import org.junit.Test;
+
+/**
+ * Tests button listeners on buttons and controllers.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ButtonListenerTest {
+
+	/**
+	 * Counts button events.
+	 */
+	static class CountingListener extends ControllerListenerAdapter implements IButtonListener {
+		int down = 0;
+		int up = 0;
+		ButtonID lastID = null;
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.down++;
+			this.lastID = buttonID;
+		}
+		@Override
+		public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+			this.up++;
+			this.lastID = buttonID;
+		}
+	}
+
+	@Test
+	public void testTransitionsOnly() throws Exception {
+		PressedMaskTest.TestController controller = new PressedMaskTest.TestController();
+		CountingListener buttonListener = new CountingListener();
+		CountingListener padListener = new CountingListener();
+		CountingListener providerListener = new CountingListener();
+		controller.a.addButtonListener(buttonListener);
+		controller.addButtonListener(padListener);
+		controller.setControllerListener(providerListener);
+
+		controller.a.setPressed(true);
+		controller.a.setPressed(true);
+		controller.b.setPressed(false);
+		assertEquals(1, buttonListener.down);
+		assertEquals(1, padListener.down);
+		assertEquals(1, providerListener.down);
+		assertEquals(ButtonID.FACE_DOWN, padListener.lastID);
+
+		controller.a.setPressed(false);
+		assertEquals(1, buttonListener.up);
+		assertEquals(1, padListener.up);
+		assertEquals(1, providerListener.up);
+
+		// Other button: only the controller-wide listeners
+		controller.b.setPressed(true);
+		assertEquals(1, buttonListener.down);
+		assertEquals(2, padListener.down);
+		assertEquals(ButtonID.FACE_RIGHT, padListener.lastID);
+	}
+
+	@Test
+	public void testRemoveListener() throws Exception {
+		PressedMaskTest.TestController controller = new PressedMaskTest.TestController();
+		CountingListener first = new CountingListener();
+		CountingListener second = new CountingListener();
+		controller.addButtonListener(first);
+		controller.addButtonListener(second);
+		controller.removeButtonListener(first);
+
+		controller.rb.setPressed(true);
+		assertEquals(0, first.down);
+		assertEquals(1, second.down);
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.ButtonID;
+import org.junit.Test;
+
+/**
+ * Tests the pressed-state bitmask of the base controller.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class PressedMaskTest {
+
+	/**
+	 * Controller with three buttons and an "ACCEPT" alias.
+	 */
+	static class TestController extends AbstractBaseController {
+		BaseButton a, b, rb;
+		TestController() {
+			super(1);
+			a = button(0, ButtonID.FACE_DOWN);
+			b = button(1, ButtonID.FACE_RIGHT);
+			rb = button(2, ButtonID.SHOULDER_RIGHT_UP);
+			addButtonAlias(ButtonID.ACCEPT, a);
+		}
+		private BaseButton button(int code, ButtonID id) {
+			BaseButton button = new BaseButton(this, code, "", "");
+			button.setID(id);
+			addButton(button);
+			return button;
+		}
+	}
+
+	@Test
+	public void testChord() throws Exception {
+		TestController controller = new TestController();
+		long chord = ButtonID.maskOf(ButtonID.FACE_DOWN, ButtonID.FACE_RIGHT, ButtonID.SHOULDER_RIGHT_UP);
+
+		controller.setPressedMask(controller.a.getMask() | controller.b.getMask());
+		assertFalse(controller.isAllPressed(chord));
+		assertTrue(controller.isAnyPressed(chord));
+
+		controller.setPressedMask(controller.pressedMask() | controller.rb.getMask());
+		assertTrue(controller.isAllPressed(chord));
+	}
+
+	@Test
+	public void testAliasBitIsSetWithButton() throws Exception {
+		TestController controller = new TestController();
+		controller.a.setPressed(true);
+		controller.updatePressedMask();
+		assertEquals(ButtonID.maskOf(ButtonID.FACE_DOWN, ButtonID.ACCEPT), controller.pressedMask());
+		assertEquals(controller.pressedMask(), controller.a.getMask());
+	}
+
+	@Test
+	public void testUnknownHasNoBit() throws Exception {
+		assertEquals(0L, ButtonID.UNKNOWN.getMask());
+		assertEquals(0L, ButtonID.maskOf(ButtonID.UNKNOWN));
+	}
+}
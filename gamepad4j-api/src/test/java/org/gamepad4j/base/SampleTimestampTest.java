@@ -0,0 +1,110 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerEvent;
+import org.gamepad4j.ControllerEventQueue;
+import org.gamepad4j.ControllerSnapshot;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IButtonListener;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerEventHandler;
+import org.junit.Test;
+
+/**
+ * Tests the sample timestamps of buttons, frames, snapshots and events.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class SampleTimestampTest {
+
+	/**
+	 * Polls the test controller once, with the given sample time.
+	 */
+	private static void poll(PressedMaskTest.TestController controller, long nanoTime, boolean aPressed) {
+		controller.beginSample(nanoTime);
+		controller.a.setPressed(aPressed);
+		controller.updatePressedMask();
+		controller.publishSnapshot();
+	}
+
+	@Test
+	public void testTransitionsUseSampleTime() throws Exception {
+		PressedMaskTest.TestController controller = new PressedMaskTest.TestController();
+		poll(controller, 1000L, true);
+		assertEquals(1000L, controller.getSampleNanos());
+		assertEquals(1000L, controller.a.getLastChangeNanos());
+		assertEquals(1000L, controller.getPressNanos(ButtonID.FACE_DOWN));
+		assertEquals(0L, controller.getReleaseNanos(ButtonID.FACE_DOWN));
+		assertEquals(-1L, controller.getNanosSinceChange(ButtonID.FACE_RIGHT));
+
+		// Held for 300 ns
+		poll(controller, 1300L, true);
+		assertEquals(1000L, controller.a.getLastChangeNanos());
+		assertEquals(300L, controller.getNanosSinceChange(ButtonID.FACE_DOWN));
+		ControllerSnapshot snapshot = controller.getSnapshot();
+		assertEquals(1300L, snapshot.getSampleNanos());
+		assertEquals(1000L, snapshot.getPressNanos(ButtonID.FACE_DOWN));
+		assertEquals(300L, snapshot.getNanosSinceChange(ButtonID.FACE_DOWN));
+		assertEquals(700L, snapshot.getAgeNanos(2000L));
+
+		poll(controller, 2000L, false);
+		assertEquals(2000L, controller.getReleaseNanos(ButtonID.FACE_DOWN));
+		assertEquals(0L, controller.getNanosSinceChange(ButtonID.FACE_DOWN));
+		assertEquals(2000L, controller.getSnapshot().getReleaseNanos(ButtonID.FACE_DOWN));
+	}
+
+	@Test
+	public void testNanosSinceChangeInListener() throws Exception {
+		final PressedMaskTest.TestController controller = new PressedMaskTest.TestController();
+		final long[] sinceChange = new long[] { -2L, -2L };
+		controller.addButtonListener(new IButtonListener() {
+			public void buttonDown(IController source, IButton button, ButtonID buttonID) {
+				sinceChange[0] = controller.getNanosSinceChange(buttonID);
+			}
+			public void buttonUp(IController source, IButton button, ButtonID buttonID) {
+				sinceChange[1] = controller.getNanosSinceChange(buttonID);
+			}
+		});
+		poll(controller, 1000L, true);
+		assertEquals(0L, sinceChange[0]);
+		poll(controller, 5000L, false);
+		assertEquals(0L, sinceChange[1]);
+		assertEquals(5000L, controller.getReleaseNanos(ButtonID.FACE_DOWN));
+	}
+
+	@Test
+	public void testWithoutSampleTime() throws Exception {
+		PressedMaskTest.TestController controller = new PressedMaskTest.TestController();
+		long before = System.nanoTime();
+		controller.a.setPressed(true);
+		controller.updatePressedMask();
+		controller.publishSnapshot();
+		long after = System.nanoTime();
+		assertTrue(controller.a.getLastChangeNanos() - before >= 0L);
+		assertTrue(after - controller.getSampleNanos() >= 0L);
+		assertTrue(controller.getSampleNanos() - controller.a.getLastChangeNanos() >= 0L);
+	}
+
+	@Test
+	public void testEventCarriesSampleTime() throws Exception {
+		PressedMaskTest.TestController controller = new PressedMaskTest.TestController();
+		ControllerEventQueue queue = new ControllerEventQueue(4);
+		controller.beginSample(5000L);
+		queue.offer(ControllerEvent.Type.BUTTON_DOWN, controller, controller.a, ButtonID.FACE_DOWN, null, null, 0f);
+		final long[] nanoTime = new long[1];
+		queue.drain(new IControllerEventHandler() {
+			public void handleEvent(ControllerEvent event) {
+				nanoTime[0] = event.getNanoTime();
+			}
+		});
+		assertEquals(5000L, nanoTime[0]);
+	}
+}
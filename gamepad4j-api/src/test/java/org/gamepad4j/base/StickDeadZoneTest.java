@@ -0,0 +1,105 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.base;
+
+import static org.junit.Assert.assertEquals;
+
+import org.gamepad4j.AxisID;
+import org.gamepad4j.DeadZoneMode;
+import org.gamepad4j.StickID;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the deadzone modes of sticks.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class StickDeadZoneTest {
+
+	private static final float DELTA = 0.0001f;
+
+	private BaseStick stick = null;
+
+	private BaseAxis xAxis = null;
+
+	private BaseAxis yAxis = null;
+
+	@Before
+	public void setUp() {
+		this.stick = new BaseStick(StickID.LEFT);
+		this.xAxis = new BaseAxis(AxisID.X, 0);
+		this.yAxis = new BaseAxis(AxisID.Y, 1);
+		this.stick.setAxis(this.xAxis);
+		this.stick.setAxis(this.yAxis);
+	}
+
+	private void move(float x, float y) {
+		this.xAxis.setValue(x);
+		this.yAxis.setValue(y);
+		this.stick.update();
+	}
+
+	@Test
+	public void testAxialKeepsPreviousBehavior() throws Exception {
+		this.stick.setDeadZone(DeadZoneMode.AXIAL, 0.2f, 1.0f);
+		move(0.15f, 0.7f);
+		// X is clipped on its own, which snaps the stick to the vertical
+		assertEquals(0f, this.xAxis.getValue(), DELTA);
+		assertEquals(0.7f, this.yAxis.getValue(), DELTA);
+	}
+
+	@Test
+	public void testRadialDoesNotSnapToAxes() throws Exception {
+		this.stick.setDeadZone(DeadZoneMode.RADIAL, 0.2f, 1.0f);
+		move(0.15f, 0.7f);
+		assertEquals(0.15f, this.xAxis.getValue(), DELTA);
+		assertEquals(0.7f, this.yAxis.getValue(), DELTA);
+		move(0.1f, -0.1f);
+		assertEquals(0f, this.xAxis.getValue(), DELTA);
+		assertEquals(0f, this.yAxis.getValue(), DELTA);
+	}
+
+	@Test
+	public void testScaledRadialStartsAtZero() throws Exception {
+		this.stick.setDeadZone(DeadZoneMode.SCALED_RADIAL, 0.2f, 1.0f);
+		move(0.3f, 0f);
+		assertEquals(0.125f, this.xAxis.getValue(), DELTA);
+		assertEquals(0f, this.yAxis.getValue(), DELTA);
+		// Direction is kept
+		move(0.36f, 0.48f);
+		assertEquals(0.6f * 0.5f, this.xAxis.getValue(), DELTA);
+		assertEquals(0.8f * 0.5f, this.yAxis.getValue(), DELTA);
+	}
+
+	@Test
+	public void testOuterDeadZoneSaturates() throws Exception {
+		this.stick.setDeadZone(DeadZoneMode.SCALED_RADIAL, 0.1f, 0.9f);
+		move(-0.95f, 0f);
+		assertEquals(-1f, this.xAxis.getValue(), DELTA);
+		// Corner of a square gate is moved onto the unit circle
+		move(1f, 1f);
+		assertEquals(0.7071f, this.xAxis.getValue(), DELTA);
+		assertEquals(0.7071f, this.yAxis.getValue(), DELTA);
+	}
+
+	@Test
+	public void testListenersNotifiedOnUpdate() throws Exception {
+		this.stick.setDeadZone(DeadZoneMode.RADIAL, 0.2f, 1.0f);
+		AxisNotificationTest.CountingListener listener = new AxisNotificationTest.CountingListener();
+		this.xAxis.addAxisListener(listener);
+		this.xAxis.setValue(0.5f);
+		assertEquals(0, listener.count);
+		this.stick.update();
+		assertEquals(1, listener.count);
+		assertEquals(0.5f, listener.lastValue, DELTA);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDeadZone() throws Exception {
+		this.stick.setDeadZone(DeadZoneMode.RADIAL, 0.5f, 0.4f);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.combo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.DpadDirection;
+import org.gamepad4j.IController;
+import org.gamepad4j.base.AbstractBaseController;
+import org.junit.Test;
+
+/**
+ * Tests the detection of combos and chords.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ComboDetectorTest {
+
+	/** One millisecond in nanoseconds. */
+	private static final long MS = 1000000L;
+
+	/**
+	 * Records the entered combos.
+	 */
+	static class RecordingListener implements IComboListener {
+		final List<String> entered = new ArrayList<String>();
+		public void comboEntered(IController controller, Combo combo, long nanoTime) {
+			this.entered.add(controller.getDeviceID() + ":" + combo.getName());
+		}
+	}
+
+	private static Combo fireball() {
+		return new Combo("fireball", 250)
+			.dpad(DpadDirection.DOWN)
+			.dpad(DpadDirection.DOWN_RIGHT)
+			.dpad(DpadDirection.RIGHT)
+			.press(ButtonID.FACE_LEFT);
+	}
+
+	@Test
+	public void testSequenceAndWindow() throws Exception {
+		ComboDetector detector = new ComboDetector();
+		RecordingListener listener = new RecordingListener();
+		detector.addCombo(fireball());
+		detector.addListener(listener);
+		IController pad = new AbstractBaseController(1) { };
+
+		detector.dpadChanged(pad, DpadDirection.DOWN, 0L);
+		detector.dpadChanged(pad, DpadDirection.DOWN_RIGHT, 30 * MS);
+		detector.dpadChanged(pad, DpadDirection.RIGHT, 60 * MS);
+		detector.buttonPressed(pad, ButtonID.FACE_LEFT, 100 * MS);
+		assertEquals(1, listener.entered.size());
+
+		// Too slow
+		detector.dpadChanged(pad, DpadDirection.DOWN, 1000 * MS);
+		detector.dpadChanged(pad, DpadDirection.DOWN_RIGHT, 1100 * MS);
+		detector.dpadChanged(pad, DpadDirection.RIGHT, 1200 * MS);
+		detector.buttonPressed(pad, ButtonID.FACE_LEFT, 1300 * MS);
+		assertEquals(1, listener.entered.size());
+
+		// Wrong button
+		detector.dpadChanged(pad, DpadDirection.DOWN, 2000 * MS);
+		detector.dpadChanged(pad, DpadDirection.DOWN_RIGHT, 2010 * MS);
+		detector.dpadChanged(pad, DpadDirection.RIGHT, 2020 * MS);
+		detector.buttonPressed(pad, ButtonID.FACE_UP, 2030 * MS);
+		assertEquals(1, listener.entered.size());
+	}
+
+	@Test
+	public void testOverlappingCombos() throws Exception {
+		ComboDetector detector = new ComboDetector();
+		RecordingListener listener = new RecordingListener();
+		detector.addCombo(new Combo("updown", 1000).dpad(DpadDirection.UP).dpad(DpadDirection.UP)
+				.dpad(DpadDirection.DOWN).dpad(DpadDirection.DOWN));
+		detector.addCombo(new Combo("down2", 1000).dpad(DpadDirection.DOWN).dpad(DpadDirection.DOWN));
+		detector.addListener(listener);
+		IController pad = new AbstractBaseController(1) { };
+
+		// A third "up" must not spoil the sequence
+		DpadDirection[] input = { DpadDirection.UP, DpadDirection.UP, DpadDirection.UP, DpadDirection.DOWN, DpadDirection.DOWN };
+		long time = 0L;
+		for(int i = 0; i < input.length; i++) {
+			detector.dpadChanged(pad, input[i], time);
+			time += 50 * MS;
+			detector.dpadChanged(pad, DpadDirection.NONE, time);
+			time += 50 * MS;
+		}
+		assertEquals(2, listener.entered.size());
+		assertEquals("1:updown", listener.entered.get(0));
+		assertEquals("1:down2", listener.entered.get(1));
+	}
+
+	@Test
+	public void testChordInAnyOrder() throws Exception {
+		ComboDetector detector = new ComboDetector();
+		RecordingListener listener = new RecordingListener();
+		detector.addCombo(new Combo("reset", 500).chord(ButtonID.SHOULDER_LEFT_UP, ButtonID.SHOULDER_RIGHT_UP, ButtonID.START));
+		detector.addListener(listener);
+		IController pad = new AbstractBaseController(1) { };
+
+		detector.buttonPressed(pad, ButtonID.START, 0L);
+		detector.buttonPressed(pad, ButtonID.SHOULDER_RIGHT_UP, 10 * MS);
+		detector.buttonPressed(pad, ButtonID.SHOULDER_LEFT_UP, 20 * MS);
+		assertEquals(1, listener.entered.size());
+
+		// Not together: outside of the chord window
+		detector.buttonPressed(pad, ButtonID.SHOULDER_LEFT_UP, 1000 * MS);
+		detector.buttonPressed(pad, ButtonID.SHOULDER_RIGHT_UP, 1040 * MS);
+		detector.buttonPressed(pad, ButtonID.START, 1080 * MS);
+		assertEquals(1, listener.entered.size());
+	}
+
+	@Test
+	public void testPlayersAndDpadButtons() throws Exception {
+		ComboDetector detector = new ComboDetector();
+		RecordingListener listener = new RecordingListener();
+		detector.addListener(listener);
+		// Many combos with shared prefixes
+		ButtonID[] buttons = { ButtonID.FACE_UP, ButtonID.FACE_DOWN, ButtonID.FACE_LEFT, ButtonID.FACE_RIGHT };
+		for(int i = 0; i < 256; i++) {
+			Combo combo = new Combo("c" + i, 1000);
+			for(int j = 0; j < 4; j++) {
+				combo.press(buttons[(i >> (2 * j)) & 3]);
+			}
+			detector.addCombo(combo);
+		}
+		detector.addCombo(fireball());
+		AbstractBaseController pad1 = new AbstractBaseController(1) { };
+		AbstractBaseController pad2 = new AbstractBaseController(2) { };
+
+		// Interleaved input of two players, d-pad as digital buttons
+		pad1.beginSample(0L);
+		detector.buttonDown(pad1, null, ButtonID.D_PAD_DOWN);
+		pad2.beginSample(5 * MS);
+		detector.buttonDown(pad2, null, ButtonID.FACE_UP);
+		pad1.beginSample(20 * MS);
+		detector.buttonDown(pad1, null, ButtonID.D_PAD_RIGHT);
+		pad2.beginSample(25 * MS);
+		detector.buttonDown(pad2, null, ButtonID.FACE_UP);
+		pad1.beginSample(40 * MS);
+		detector.buttonUp(pad1, null, ButtonID.D_PAD_DOWN);
+		pad2.beginSample(45 * MS);
+		detector.buttonDown(pad2, null, ButtonID.FACE_DOWN);
+		pad1.beginSample(60 * MS);
+		detector.buttonDown(pad1, null, ButtonID.FACE_LEFT);
+		pad2.beginSample(65 * MS);
+		detector.buttonDown(pad2, null, ButtonID.FACE_RIGHT);
+
+		assertEquals(2, listener.entered.size());
+		assertEquals("1:fireball", listener.entered.get(0));
+		// FACE_UP, FACE_UP, FACE_DOWN, FACE_RIGHT = 0 | 0 << 2 | 1 << 4 | 3 << 6
+		assertEquals("2:c208", listener.entered.get(1));
+	}
+}
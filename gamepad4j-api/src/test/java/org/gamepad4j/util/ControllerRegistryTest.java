@@ -0,0 +1,75 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.IController;
+import org.gamepad4j.base.AbstractBaseController;
+import org.junit.Test;
+
+/**
+ * Tests the copy-on-write controller registry.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerRegistryTest {
+
+	private static IController controller(int deviceID) {
+		return new AbstractBaseController(deviceID) { };
+	}
+
+	@Test
+	public void testAddAndLookup() throws Exception {
+		ControllerRegistry registry = new ControllerRegistry();
+		IController first = controller(3);
+		IController second = controller(17);
+		assertTrue(registry.add(first));
+		assertTrue(registry.add(second));
+		assertFalse(registry.add(controller(3)));
+
+		assertEquals(2, registry.size());
+		assertSame(first, registry.getController(3));
+		assertSame(second, registry.getController(17));
+		assertNull(registry.getController(4));
+	}
+
+	@Test
+	public void testRemoveKeepsAllSurvivors() throws Exception {
+		ControllerRegistry registry = new ControllerRegistry();
+		for(int id = 0; id < 10; id++) {
+			registry.add(controller(id));
+		}
+		assertEquals(4, registry.remove(4).getDeviceID());
+		assertEquals(0, registry.remove(0).getDeviceID());
+		assertNull(registry.remove(4));
+
+		IController[] controllers = registry.getControllers();
+		assertEquals(8, controllers.length);
+		int[] expected = new int[] { 1, 2, 3, 5, 6, 7, 8, 9 };
+		for(int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], controllers[i].getDeviceID());
+			assertSame(controllers[i], registry.getController(expected[i]));
+		}
+	}
+
+	@Test
+	public void testPublishedArrayIsNotModified() throws Exception {
+		ControllerRegistry registry = new ControllerRegistry();
+		registry.add(controller(1));
+		registry.add(controller(2));
+		IController[] before = registry.getControllers();
+		registry.remove(1);
+		registry.add(controller(3));
+		assertEquals(2, before.length);
+		assertEquals(1, before[0].getDeviceID());
+		assertEquals(2, before[1].getDeviceID());
+	}
+}
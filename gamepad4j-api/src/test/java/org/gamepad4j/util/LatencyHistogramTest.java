@@ -0,0 +1,56 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the log-linear latency histogram.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBucketBounds() throws Exception {
+		long[] values = { 0L, 1L, 15L, 16L, 17L, 31L, 32L, 1000L, 123456789L, Long.MAX_VALUE };
+		for(int i = 0; i < values.length; i++) {
+			int bucket = LatencyHistogram.bucketOf(values[i]);
+			assertTrue(bucket < LatencyHistogram.BUCKETS);
+			assertTrue(LatencyHistogram.lowerBoundOf(bucket) <= values[i]);
+			assertTrue(LatencyHistogram.upperBoundOf(bucket) >= values[i]);
+		}
+		// Buckets are contiguous
+		for(int bucket = 1; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			assertEquals(LatencyHistogram.upperBoundOf(bucket - 1) + 1, LatencyHistogram.lowerBoundOf(bucket));
+		}
+	}
+
+	@Test
+	public void testPercentiles() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(long i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		assertEquals(1000L, histogram.getCount());
+		assertEquals(1000L, histogram.getMin());
+		assertEquals(1000000L, histogram.getMax());
+		assertEquals(500500L, histogram.getMean());
+		// At most 1/16 too high
+		long median = histogram.getPercentile(50d);
+		assertTrue(median >= 500000L && median <= 500000L + 500000L / 16);
+		long p99 = histogram.getPercentile(99d);
+		assertTrue(p99 >= 990000L && p99 <= 990000L + 990000L / 16);
+		assertEquals(1000000L, histogram.getPercentile(100d));
+
+		histogram.reset();
+		assertEquals(0L, histogram.getCount());
+		assertEquals(0L, histogram.getPercentile(99d));
+	}
+}
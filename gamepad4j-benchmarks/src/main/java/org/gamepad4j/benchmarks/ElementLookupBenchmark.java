@@ -0,0 +1,106 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.base.AbstractBaseController;
+import org.gamepad4j.base.BaseButton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the ordinal-indexed element lookup of AbstractBaseController
+ * with the HashMap-based lookup (including the alias map probe on a miss)
+ * it replaced.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementLookupBenchmark {
+
+	/** All button IDs. */
+	private static final ButtonID[] IDS = ButtonID.values();
+
+	/**
+	 * Controller with all button IDs mapped, through the lookup table.
+	 */
+	static class TableController extends AbstractBaseController {
+		TableController() {
+			super(1);
+			for(ButtonID id : IDS) {
+				BaseButton button = new BaseButton(this, id.ordinal(), "", "");
+				button.setID(id);
+				addButton(button);
+			}
+		}
+	}
+
+	/**
+	 * The previous lookup: one map for buttons, one for aliases.
+	 */
+	static class MapLookup {
+		Map<ButtonID, IButton> buttonMap = new HashMap<ButtonID, IButton>();
+		Map<ButtonID, IButton> buttonAliasMap = new HashMap<ButtonID, IButton>();
+
+		MapLookup(IController controller) {
+			for(ButtonID id : IDS) {
+				if(id == ButtonID.ACCEPT || id == ButtonID.CANCEL) {
+					buttonAliasMap.put(id, controller.getButton(id));
+				} else {
+					buttonMap.put(id, controller.getButton(id));
+				}
+			}
+		}
+
+		IButton getButton(ButtonID buttonID) {
+			IButton button = this.buttonMap.get(buttonID);
+			if(button == null) {
+				button = this.buttonAliasMap.get(buttonID);
+			}
+			return button;
+		}
+	}
+
+	private final TableController controller = new TableController();
+
+	private final MapLookup mapLookup = new MapLookup(this.controller);
+
+	@Benchmark
+	@OperationsPerInvocation(22)
+	public void mapLookup(Blackhole blackhole) {
+		for(int i = 0; i < IDS.length; i++) {
+			blackhole.consume(this.mapLookup.getButton(IDS[i]));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(22)
+	public void tableLookup(Blackhole blackhole) {
+		for(int i = 0; i < IDS.length; i++) {
+			blackhole.consume(this.controller.getButton(IDS[i]));
+		}
+	}
+}
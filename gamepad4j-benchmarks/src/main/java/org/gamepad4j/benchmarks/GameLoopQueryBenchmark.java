@@ -0,0 +1,131 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerSnapshot;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.IStick;
+import org.gamepad4j.StickID;
+import org.gamepad4j.desktop.Mapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the queries a game typically performs once per frame for
+ * every controller: button checks, chords, d-pad, stick angle and
+ * direction, snapshot reads and mapping lookups.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameLoopQueryBenchmark {
+
+	/** Buttons checked by a typical game loop. */
+	private static final ButtonID[] QUERIED_BUTTONS = {
+		ButtonID.FACE_DOWN, ButtonID.FACE_RIGHT, ButtonID.FACE_LEFT, ButtonID.FACE_UP,
+		ButtonID.ACCEPT, ButtonID.CANCEL, ButtonID.START, ButtonID.SHOULDER_LEFT_UP
+	};
+
+	/** A chord of two buttons. */
+	private static final long CHORD = ButtonID.maskOf(ButtonID.FACE_DOWN, ButtonID.SHOULDER_RIGHT_UP);
+
+	/** Number of connected pads. */
+	@Param({"1", "4", "16"})
+	public int pads;
+
+	private IControllerState[] controllers;
+
+	@Setup
+	public void setup() {
+		VirtualBackend backend = new VirtualBackend(this.pads);
+		for(int i = 0; i < backend.pads.length; i++) {
+			backend.pads[i].setButton(0, true);
+			backend.pads[i].setAxis(0, 0.7f);
+			backend.pads[i].setAxis(1, -0.5f);
+		}
+		backend.provider.checkControllers();
+		this.controllers = backend.controllers;
+	}
+
+	@Benchmark
+	public void buttonQueries(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			IController controller = this.controllers[c];
+			for(int i = 0; i < QUERIED_BUTTONS.length; i++) {
+				blackhole.consume(controller.isButtonPressed(QUERIED_BUTTONS[i]));
+			}
+		}
+	}
+
+	@Benchmark
+	public void chordQueries(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			blackhole.consume(this.controllers[c].isAllPressed(CHORD));
+		}
+	}
+
+	@Benchmark
+	public void dpadDirection(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			blackhole.consume(this.controllers[c].getDpadDirection());
+		}
+	}
+
+	@Benchmark
+	public void stickDegree(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			IStick stick = this.controllers[c].getStick(StickID.LEFT);
+			blackhole.consume(stick.getPosition().getDegree());
+		}
+	}
+
+	@Benchmark
+	public void stickDirection(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			IStick stick = this.controllers[c].getStick(StickID.LEFT);
+			blackhole.consume(stick.getPosition().getDirection());
+		}
+	}
+
+	@Benchmark
+	public void snapshotQueries(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			ControllerSnapshot snapshot = this.controllers[c].getSnapshot();
+			blackhole.consume(snapshot.isAllPressed(CHORD));
+			blackhole.consume(snapshot.getStickX(StickID.LEFT));
+			blackhole.consume(snapshot.getDpadDirection());
+		}
+	}
+
+	@Benchmark
+	public void mappingLookup(Blackhole blackhole) {
+		for(int c = 0; c < this.controllers.length; c++) {
+			int numberOfButtons = this.controllers[c].getButtons().length;
+			for(int button = 0; button < numberOfButtons; button++) {
+				blackhole.consume(Mapping.getMapping(this.controllers[c], Mapping.MappingType.BUTTON, button));
+			}
+		}
+	}
+}
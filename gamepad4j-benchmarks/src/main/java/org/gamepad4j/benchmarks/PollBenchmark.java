@@ -0,0 +1,109 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.IAxis;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerListener;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one complete poll ("checkControllers()": detection, button
+ * and axis update, snapshot publishing and event dispatch) for 1, 4 and
+ * 16 pads, and with 0, 1 and 8 registered controller listeners.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PollBenchmark {
+
+	/**
+	 * Listener which just counts the events.
+	 */
+	public static class CountingListener extends ControllerListenerAdapter {
+		public long events = 0L;
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.events++;
+		}
+		@Override
+		public void buttonUp(IController controller, IButton button, ButtonID buttonID) {
+			this.events++;
+		}
+		@Override
+		public void axisMoved(IController controller, IAxis axis, float value) {
+			this.events++;
+		}
+	}
+
+	/** Number of connected pads. */
+	@Param({"1", "4", "16"})
+	public int pads;
+
+	/** Number of registered controller listeners. */
+	@Param({"0", "1", "8"})
+	public int listeners;
+
+	private VirtualBackend backend;
+
+	private VirtualPad[] virtualPads;
+
+	private boolean toggle = false;
+
+	@Setup
+	public void setup() {
+		IControllerListener[] counting = new IControllerListener[this.listeners];
+		for(int i = 0; i < counting.length; i++) {
+			counting[i] = new CountingListener();
+		}
+		this.backend = new VirtualBackend(this.pads, counting);
+		this.virtualPads = this.backend.pads;
+	}
+
+	/**
+	 * Poll without any input changes (pads at rest).
+	 */
+	@Benchmark
+	public void pollIdle() {
+		this.backend.provider.checkControllers();
+	}
+
+	/**
+	 * Poll where every pad changes one button and one stick axis,
+	 * so that events are fired for every pad.
+	 */
+	@Benchmark
+	public void pollWithInput() {
+		this.toggle = !this.toggle;
+		float value = this.toggle ? 0.8f : -0.8f;
+		for(int i = 0; i < this.virtualPads.length; i++) {
+			this.virtualPads[i].setButton(0, this.toggle);
+			this.virtualPads[i].setAxis(0, value);
+		}
+		this.backend.provider.checkControllers();
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.gamepad4j.DpadDirection;
+import org.gamepad4j.StickPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the comparison-based direction classification and the
+ * table-based angle of StickPosition with the atan2-based code it replaced.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StickPositionBenchmark {
+
+	/** Number of stick positions per invocation. */
+	private static final int POSITIONS = 1024;
+
+	/**
+	 * The previous implementation: direction derived from the degree,
+	 * centre check with a square root.
+	 */
+	static class LegacyStickPosition {
+		float xAxis;
+		float yAxis;
+
+		void update(float xAxis, float yAxis) {
+			this.xAxis = xAxis;
+			this.yAxis = yAxis;
+		}
+
+		DpadDirection getDirection() {
+			float degree = getDegree();
+			if(degree == StickPosition.NO_DEGREE) {
+				return DpadDirection.NONE;
+			} else if(degree < 207.5f && degree > 152.5f) {
+				return DpadDirection.DOWN;
+			} else if(degree < 252.5f && degree > 207.5f) {
+				return DpadDirection.DOWN_LEFT;
+			} else if(degree < 297.5f && degree > 252.5f) {
+				return DpadDirection.LEFT;
+			} else if(degree < 342.5f && degree > 297.5f) {
+				return DpadDirection.UP_LEFT;
+			} else if(degree > 342.4f || degree < -342.4f) {
+				return DpadDirection.UP;
+			} else if(degree < 152.5f && degree > 107.5f) {
+				return DpadDirection.DOWN_RIGHT;
+			} else if(degree < 107.5f && degree > 62.5f) {
+				return DpadDirection.RIGHT;
+			} else if(degree < 62.5f && degree > 17.5f) {
+				return DpadDirection.UP_RIGHT;
+			}
+			return DpadDirection.NONE;
+		}
+
+		float getDegree() {
+			if(!isStickCentered()) {
+				float degree = (float) Math.toDegrees(Math.atan2(-this.xAxis, this.yAxis));
+				return degree + 180;
+			}
+			return StickPosition.NO_DEGREE;
+		}
+
+		boolean isStickCentered() {
+			return Math.sqrt(this.xAxis * this.xAxis + this.yAxis * this.yAxis) < 0.2f;
+		}
+	}
+
+	private final float[] xValues = new float[POSITIONS];
+
+	private final float[] yValues = new float[POSITIONS];
+
+	private final StickPosition position = new StickPosition();
+
+	private final LegacyStickPosition legacyPosition = new LegacyStickPosition();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42L);
+		for(int i = 0; i < POSITIONS; i++) {
+			this.xValues[i] = random.nextFloat() * 2f - 1f;
+			this.yValues[i] = random.nextFloat() * 2f - 1f;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		StickPosition.useAngleTable = false;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void legacyDirection(Blackhole blackhole) {
+		for(int i = 0; i < POSITIONS; i++) {
+			this.legacyPosition.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.legacyPosition.getDirection());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void octantDirection(Blackhole blackhole) {
+		for(int i = 0; i < POSITIONS; i++) {
+			this.position.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.position.getDirection());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void legacyDegree(Blackhole blackhole) {
+		for(int i = 0; i < POSITIONS; i++) {
+			this.legacyPosition.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.legacyPosition.getDegree());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void atan2Degree(Blackhole blackhole) {
+		StickPosition.useAngleTable = false;
+		for(int i = 0; i < POSITIONS; i++) {
+			this.position.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.position.getDegree());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void tableDegree(Blackhole blackhole) {
+		StickPosition.useAngleTable = true;
+		for(int i = 0; i < POSITIONS; i++) {
+			this.position.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.position.getDegree());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void legacyCentered(Blackhole blackhole) {
+		for(int i = 0; i < POSITIONS; i++) {
+			this.legacyPosition.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.legacyPosition.isStickCentered());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public void squaredCentered(Blackhole blackhole) {
+		for(int i = 0; i < POSITIONS; i++) {
+			this.position.update(this.xValues[i], this.yValues[i]);
+			blackhole.consume(this.position.isStickCentered());
+		}
+	}
+}
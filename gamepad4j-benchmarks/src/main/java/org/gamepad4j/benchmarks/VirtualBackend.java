@@ -0,0 +1,71 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerListener;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+import org.gamepad4j.util.Log;
+
+/**
+ * Benchmark fixture: a desktop controller provider running on top of
+ * the simulated native backend, with a number of virtual Xbox 360 pads
+ * which are already connected and mapped.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class VirtualBackend {
+
+	/** The simulated native backend. */
+	public final VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+
+	/** The provider under test. */
+	public final DesktopControllerProvider provider;
+
+	/** The virtual pads. */
+	public final VirtualPad[] pads;
+
+	/** The controllers, in order of connection. */
+	public final IControllerState[] controllers;
+
+	/**
+	 * Creates the provider, connects the pads, and performs the first poll.
+	 * 
+	 * @param numberOfPads The number of virtual pads.
+	 * @param listeners The controller listeners to register.
+	 */
+	public VirtualBackend(int numberOfPads, IControllerListener... listeners) {
+		Log.initialize(Log.LogLevel.NONE);
+		this.pads = new VirtualPad[numberOfPads];
+		for(int i = 0; i < numberOfPads; i++) {
+			this.pads[i] = this.wrapper.connectXbox360(i + 1);
+		}
+		final List<IControllerState> connected = new ArrayList<IControllerState>();
+		this.provider = new DesktopControllerProvider(this.wrapper);
+		this.provider.addListener(new ControllerListenerAdapter() {
+			@Override
+			public void connected(IController controller) {
+				connected.add((IControllerState)controller);
+			}
+		});
+		for(IControllerListener listener : listeners) {
+			this.provider.addListener(listener);
+		}
+		this.provider.initialize();
+		this.provider.checkControllers();
+		this.controllers = connected.toArray(new IControllerState[connected.size()]);
+		if(this.controllers.length != numberOfPads) {
+			throw new IllegalStateException("Expected " + numberOfPads + " controllers, got " + this.controllers.length);
+		}
+	}
+}
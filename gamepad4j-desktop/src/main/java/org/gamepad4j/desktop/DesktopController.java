@@ -4,8 +4,16 @@
 
 package org.gamepad4j.desktop;
 
+import java.util.Map;
+
 import org.gamepad4j.AxisID;
 import org.gamepad4j.ButtonID;
+import org.gamepad4j.Controllers;
+import org.gamepad4j.DeadZoneMode;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IStick;
+import org.gamepad4j.ITrigger;
+import org.gamepad4j.ResponseCurve;
 import org.gamepad4j.StickID;
 import org.gamepad4j.TriggerID;
 import org.gamepad4j.base.AbstractBaseController;
@@ -14,11 +22,12 @@ import org.gamepad4j.base.BaseButton;
 import org.gamepad4j.base.BaseStick;
 import org.gamepad4j.base.BaseTrigger;
 import org.gamepad4j.desktop.Mapping.MappingType;
+import org.gamepad4j.util.LatencyHistogram;
 import org.gamepad4j.util.Log;
 
 /**
  * Holder for status information about a desktop controller.
- *
+ * 
  * @author Marcel Schoen
  * @version $Revision: $
  */
@@ -36,6 +45,12 @@ public class DesktopController extends AbstractBaseController {
 	/** Default deadzone value. */
 	private float defaultDeadZone = DEFAULT_DEADZONE;
 
+	/** Update latency histogram of this controller (see ControllerMetrics). */
+	private LatencyHistogram updateHistogram = null;
+
+	/** Device ID for which the update histogram was retrieved. */
+	private int updateHistogramDeviceID = -1;
+
 	/**
 	 * Creates a desktop controller holder for a certain code.
 	 * 
@@ -54,10 +69,40 @@ public class DesktopController extends AbstractBaseController {
 	public void initializeMapping() {
 		Mapping.loadMapping(this);
 	}
+
+	/**
+	 * Applies the current mapping of its device type to this connected
+	 * controller again (see "prepareMapping()").
+	 */
+	void applyMapping() {
+		prepareMapping(Mapping.getProfile(this)).apply();
+	}
+
+	/**
+	 * Resolves the given mapping for this connected controller, without
+	 * changing the controller yet. When the returned mapping is applied,
+	 * the button and axis instances are kept, so buttons which are held down
+	 * stay pressed (without new events), axes keep their values, and button
+	 * and axis listeners stay registered. Sticks and triggers are kept as
+	 * well, if their IDs (and, for triggers, their axes) did not change.
+	 * 
+	 * @param profile The mapping of the device type of this controller.
+	 * @return The resolved mapping.
+	 * @throws RuntimeException If the mapping cannot be applied to this controller.
+	 */
+	PreparedMapping prepareMapping(Mapping.Profile profile) {
+		BaseButton[] currentButtons = this.buttons;
+		BaseAxis[] currentAxes = this.axes;
+		return new PreparedMapping(
+				new ButtonLayout(profile, currentButtons == null ? 0 : currentButtons.length, true),
+				new AxisLayout(profile, currentAxes == null ? 0 : currentAxes.length, true));
+	}
 	
 	/**
+	 * Sets the inner deadzone of the sticks, which is used if the mapping 
+	 * does not define one. Applied when the axes are created.
 	 * 
-	 * @param deadZone
+	 * @param deadZone The deadzone value.
 	 */
 	public void setDefaultDeadZone(float deadZone) {
 		this.defaultDeadZone = deadZone;
@@ -94,6 +139,33 @@ public class DesktopController extends AbstractBaseController {
 	public void setIndex(int index) {
 		this.index = index;
 	}
+
+	/**
+	 * Returns the update latency histogram of this controller. It is
+	 * retrieved from the metrics once per connected device, since the
+	 * holder instances are pooled.
+	 * 
+	 * @return The histogram.
+	 */
+	LatencyHistogram getUpdateHistogram() {
+		if(this.updateHistogram == null || this.updateHistogramDeviceID != getDeviceID()) {
+			this.updateHistogram = Controllers.metrics().getControllerHistogram(getDeviceID());
+			this.updateHistogramDeviceID = getDeviceID();
+		}
+		return this.updateHistogram;
+	}
+
+	/**
+	 * Drops the update latency histogram of this controller from the
+	 * metrics, when it is disconnected and returned to the pool.
+	 */
+	void releaseUpdateHistogram() {
+		if(this.updateHistogram != null) {
+			Controllers.metrics().removeControllerHistogram(this.updateHistogramDeviceID);
+			this.updateHistogram = null;
+			this.updateHistogramDeviceID = -1;
+		}
+	}
 	
 	/**
 	 * Creates the given number of buttons, based on the
@@ -102,40 +174,7 @@ public class DesktopController extends AbstractBaseController {
 	 * @param numberOfButtons The number of buttons.
 	 */
 	public void createButtons(int numberOfButtons) {
-		if(Log.debugEnabled) {
-			Log.logger.debug("Create " + numberOfButtons + " buttons for pad...");
-		}
-
-		// -----------------------  TODO: Use pooling for button instances ------
-		this.buttons = new BaseButton[numberOfButtons];
-		for(int buttonNo = 0; buttonNo < numberOfButtons; buttonNo++) {
-			this.buttons[buttonNo] = new BaseButton(this, buttonNo, "", "");
-		}
-		// -----------------------------------------------------------------------
-		
-		for(int buttonNo = 0; buttonNo < numberOfButtons; buttonNo++) {
-			String mapping = Mapping.getMapping(this, MappingType.BUTTON, buttonNo);
-			if(mapping != null) {
-				ButtonID buttonID = ButtonID.getButtonIDfromString(mapping);
-				if(Log.debugEnabled) {
-					Log.logger.debug("Map button no. " + buttonNo + " from mapping " + mapping + " to button ID " + buttonID);
-				}
-				this.buttons[buttonNo].setID(buttonID);
-				this.buttonMap.put(buttonID, this.buttons[buttonNo]);
-				String label = Mapping.getButtonLabel(this, buttonID);
-				if(label == null) {
-					label = Mapping.getDefaultButtonLabel(buttonID);
-				}
-				if(label != null) {
-					this.buttons[buttonNo].setDefaultLabel(label);
-				}
-				String labelKey = Mapping.getButtonLabelKey(this, buttonID);
-				if(labelKey != null) {
-					this.buttons[buttonNo].setLabelKey(labelKey);
-				}
-
-			}
-		}
+		new ButtonLayout(Mapping.getProfile(this), numberOfButtons, false).publish();
 	}
 
 	/**
@@ -145,122 +184,426 @@ public class DesktopController extends AbstractBaseController {
 	 * @param numberOfAxes The number of axes.
 	 */
 	public void createAxes(int numberOfAxes) {
-		if(Log.debugEnabled) {
-			Log.logger.debug("Process " + numberOfAxes + " analog axes...");
-		}
-
-		// -----------------------  TODO: Use pooling for these ------
-		this.axes = new BaseAxis[numberOfAxes];
-		this.triggers = new BaseTrigger[Mapping.getNumberOfTriggers(this)];
-		this.sticks = new BaseStick[Mapping.getNumberOfSticks(this)];
-		
-		int triggerNo = 0;
-		for(int axisNo = 0; axisNo < axes.length; axisNo++) {
-			String mapping = Mapping.getMapping(this, Mapping.MappingType.TRIGGER_AXIS, axisNo);
-			if(mapping != null) {
-				processTriggerAxis(mapping, axisNo, triggerNo++);
-			}
-			mapping = Mapping.getMapping(this, Mapping.MappingType.STICK_AXIS, axisNo);
-			if(mapping != null) {
-				processStickAxis(mapping, axisNo);
-			}
-			mapping = Mapping.getMapping(this, Mapping.MappingType.DPAD_AXIS, axisNo);
-			if(mapping != null) {
-				processDpadAxis(mapping, axisNo);
-			}
-		}
+		new AxisLayout(Mapping.getProfile(this), numberOfAxes, false).publish();
 	}
 
 	/**
-	 * Processes D-Pad mappings.
+	 * Returns the stick with the given ID from the given sticks.
 	 * 
-	 * @param mapping The mapping value.
-	 * @param axisNo The number of the analog axis.
+	 * @param sticks The sticks (may be null).
+	 * @param stickID The ID of the stick.
+	 * @return The stick, or null if there is none with that ID.
 	 */
-	private void processDpadAxis(String mapping, int axisNo) {
-		// Cut off the axis type part, like "X"
-		String axisTypePart = mapping.substring(mapping.indexOf(".") + 1);
-		if(axisTypePart.equalsIgnoreCase("X")) {
-			if(Log.debugEnabled) {
-				Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to dpad axis X");
-			}
-			this.axes[axisNo] = new BaseAxis(AxisID.D_PAD_X, axisNo);
-			this.dpadAxisMap.put(AxisID.D_PAD_X, this.axes[axisNo]);
-		} else {
-			if(Log.debugEnabled) {
-				Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to dpad axis Y");
+	private static BaseStick findStick(BaseStick[] sticks, StickID stickID) {
+		if(sticks != null) {
+			for(int i = 0; i < sticks.length; i++) {
+				if(sticks[i] != null && sticks[i].getID() == stickID) {
+					return sticks[i];
+				}
 			}
-			this.axes[axisNo] = new BaseAxis(AxisID.D_PAD_Y, axisNo);
-			this.dpadAxisMap.put(AxisID.D_PAD_Y, this.axes[axisNo]);
 		}
+		return null;
 	}
-	
+
 	/**
-	 * Processes stick mappings.
-	 * 
-	 * @param mapping The mapping value.
-	 * @param axisNo The number of the analog axis.
+	 * A mapping which was resolved for this controller, but not applied
+	 * yet (see "prepareMapping()"). Applying it cannot fail.
 	 */
-	private void processStickAxis(String mapping, int axisNo) {
-		// Cut off the ID part, like "LEFT"
-		String stickIDpart = mapping.substring(0, mapping.indexOf("."));
-		// Cut off the axis type part, like "X"
-		String axisTypePart = mapping.substring(mapping.indexOf(".") + 1);
-		StickID stickID = StickID.getStickIDfromString(stickIDpart);
-		BaseStick stick = (BaseStick)stickMap.get(stickID);
-		if(stick == null) {
-			stick = new BaseStick(stickID);
-			stickMap.put(stickID, stick);
+	final class PreparedMapping {
+
+		/** The resolved button mapping. */
+		private final ButtonLayout buttonLayout;
+
+		/** The resolved axis, stick, trigger and d-pad mapping. */
+		private final AxisLayout axisLayout;
+
+		PreparedMapping(ButtonLayout buttonLayout, AxisLayout axisLayout) {
+			this.buttonLayout = buttonLayout;
+			this.axisLayout = axisLayout;
+		}
+
+		/**
+		 * Returns the controller for which the mapping was resolved.
+		 * 
+		 * @return The controller.
+		 */
+		DesktopController getController() {
+			return DesktopController.this;
+		}
+
+		/**
+		 * Applies the mapping to the controller.
+		 */
+		void apply() {
+			this.axisLayout.publish();
+			this.buttonLayout.publish();
 		}
-		if(axisTypePart.equalsIgnoreCase("X")) {
+	}
+
+	/**
+	 * The buttons of this controller and their IDs and labels, as defined by
+	 * a mapping. They are resolved on the side, so that a mapping which cannot
+	 * be resolved leaves the controller untouched, and published at once.
+	 */
+	private final class ButtonLayout {
+
+		/** The buttons (the existing instances, if they are kept). */
+		private final BaseButton[] buttons;
+
+		/** The ID of each button (null if it's not mapped). */
+		private final ButtonID[] IDs;
+
+		/** The label of each button. */
+		private final String[] labels;
+
+		/** The label key of each button. */
+		private final String[] labelKeys;
+
+		/** The button aliases (may be null). */
+		private final Map<ButtonID, ButtonID> aliases;
+
+		/**
+		 * Resolves the buttons of this controller.
+		 * 
+		 * @param profile The mapping.
+		 * @param numberOfButtons The number of buttons.
+		 * @param keepButtons True to keep the existing button instances.
+		 */
+		ButtonLayout(Mapping.Profile profile, int numberOfButtons, boolean keepButtons) {
 			if(Log.debugEnabled) {
-				Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to stick " + stickID + " axis X");
+				Log.logger.debug("Create " + numberOfButtons + " buttons for pad...");
 			}
-			this.axes[axisNo] = new BaseAxis(AxisID.X, axisNo);
-			stick.setAxis(this.axes[axisNo]);
-		} else {
-			if(Log.debugEnabled) {
-				Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to stick " + stickID + " axis Y");
+			BaseButton[] current = DesktopController.this.buttons;
+			if(keepButtons && current != null && current.length == numberOfButtons) {
+				this.buttons = current;
+			} else {
+				// -----------------------  TODO: Use pooling for button instances ------
+				this.buttons = new BaseButton[numberOfButtons];
+				for(int buttonNo = 0; buttonNo < numberOfButtons; buttonNo++) {
+					this.buttons[buttonNo] = new BaseButton(DesktopController.this, buttonNo, "", "");
+				}
+				// -----------------------------------------------------------------------
+			}
+			this.IDs = new ButtonID[numberOfButtons];
+			this.labels = new String[numberOfButtons];
+			this.labelKeys = new String[numberOfButtons];
+			for(int buttonNo = 0; buttonNo < numberOfButtons; buttonNo++) {
+				String mapping = profile.getMapping(MappingType.BUTTON, buttonNo);
+				if(mapping != null) {
+					ButtonID buttonID = ButtonID.getButtonIDfromString(mapping);
+					if(buttonID == null) {
+						if(Log.errorEnabled) {
+							Log.logger.error("Unknown button ID " + mapping + " in mapping of button no. " + buttonNo + ", button is not mapped.");
+						}
+						continue;
+					}
+					if(Log.debugEnabled) {
+						Log.logger.debug("Map button no. " + buttonNo + " from mapping " + mapping + " to button ID " + buttonID);
+					}
+					this.IDs[buttonNo] = buttonID;
+					String label = profile.buttonLabels.get(buttonID);
+					if(label == null) {
+						label = Mapping.getDefaultButtonLabel(buttonID);
+					}
+					this.labels[buttonNo] = label;
+					this.labelKeys[buttonNo] = profile.buttonLabelKeys.get(buttonID);
+				}
 			}
-			this.axes[axisNo] = new BaseAxis(AxisID.Y, axisNo);
-			stick.setAxis(this.axes[axisNo]);
+			this.aliases = profile.getButtonAliases();
+		}
+
+		/**
+		 * Applies the IDs and labels to the buttons, and replaces
+		 * the buttons and the button lookup table of this controller.
+		 */
+		void publish() {
+			IButton[] buttonsByID = new IButton[ButtonID.values().length];
+			for(int buttonNo = 0; buttonNo < this.buttons.length; buttonNo++) {
+				BaseButton button = this.buttons[buttonNo];
+				button.setID(this.IDs[buttonNo]);
+				button.setDefaultLabel(this.labels[buttonNo] == null ? "" : this.labels[buttonNo]);
+				button.setLabelKey(this.labelKeys[buttonNo] == null ? "" : this.labelKeys[buttonNo]);
+				addButton(buttonsByID, button);
+			}
+
+			// Resolve aliases (like "ACCEPT" for "FACE_DOWN") once, here
+			if(this.aliases != null) {
+				for(Map.Entry<ButtonID, ButtonID> alias : this.aliases.entrySet()) {
+					IButton target = buttonsByID[alias.getValue().ordinal()];
+					if(target != null) {
+						if(Log.debugEnabled) {
+							Log.logger.debug("Map button alias " + alias.getKey() + " to button ID " + alias.getValue());
+						}
+						addButtonAlias(buttonsByID, alias.getKey(), target);
+					}
+				}
+			}
+			DesktopController.this.buttons = this.buttons;
+			DesktopController.this.buttonsByID = buttonsByID;
 		}
-		this.axes[axisNo].setDeadZone(this.defaultDeadZone);
 	}
-	
+
 	/**
-	 * Processes trigger mappings.
-	 * 
-	 * @param mapping The mapping value.
-	 * @param axisNo The number of the analog axis.
+	 * The axes of this controller, and the sticks, triggers and d-pad to
+	 * which they belong, as defined by a mapping. They are resolved on the
+	 * side, so that a mapping which cannot be resolved leaves the controller
+	 * untouched, and published at once.
 	 */
-	private void processTriggerAxis(String mapping, int axisNo, int triggerNo) {
-		TriggerID mappedID = TriggerID.getTriggerIDfromString(mapping);
-		if(mappedID != null) {
+	private final class AxisLayout {
+
+		/** The axes (null if not mapped). Existing instances are kept, if requested. */
+		private final BaseAxis[] axes;
+
+		/** The ID of each axis. */
+		private final AxisID[] axisIDs;
+
+		/** The response curve of each axis (may be null). */
+		private final ResponseCurve[] curves;
+
+		/** The triggers. */
+		private final BaseTrigger[] triggers;
+
+		/** The label of each trigger. */
+		private final String[] triggerLabels;
+
+		/** The label key of each trigger. */
+		private final String[] triggerLabelKeys;
+
+		/** The sticks. */
+		private final BaseStick[] sticks;
+
+		/** The sticks, indexed by StickID ordinal. */
+		private final BaseStick[] sticksByID = new BaseStick[StickID.values().length];
+
+		/** The X and Y axis of each stick, indexed by StickID ordinal. */
+		private final BaseAxis[][] stickAxes = new BaseAxis[StickID.values().length][2];
+
+		/** The deadzone mode of each stick, indexed by StickID ordinal. */
+		private final DeadZoneMode[] deadZoneModes = new DeadZoneMode[StickID.values().length];
+
+		/** The inner deadzone of each stick, indexed by StickID ordinal. */
+		private final float[] innerDeadZones = new float[StickID.values().length];
+
+		/** The outer deadzone of each stick, indexed by StickID ordinal. */
+		private final float[] outerDeadZones = new float[StickID.values().length];
+
+		/** The X-axis of the d-pad (may be null). */
+		private BaseAxis dpadXAxis = null;
+
+		/** The Y-axis of the d-pad (may be null). */
+		private BaseAxis dpadYAxis = null;
+
+		/**
+		 * Resolves the axes, sticks, triggers and d-pad of this controller.
+		 * 
+		 * @param profile The mapping.
+		 * @param numberOfAxes The number of axes.
+		 * @param keepAxes True to keep the existing axis, stick and trigger instances.
+		 */
+		AxisLayout(Mapping.Profile profile, int numberOfAxes, boolean keepAxes) {
 			if(Log.debugEnabled) {
-				Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to trigger " + mappedID);
+				Log.logger.debug("Process " + numberOfAxes + " analog axes...");
 			}
-			this.axes[axisNo] = new BaseAxis(AxisID.TRIGGER, axisNo);
-			
-			
+			BaseAxis[] currentAxes = DesktopController.this.axes;
+			BaseAxis[] previousAxes = keepAxes && currentAxes != null && currentAxes.length == numberOfAxes ? currentAxes : null;
+			BaseStick[] previousSticks = keepAxes ? DesktopController.this.sticks : null;
+			BaseTrigger[] previousTriggers = keepAxes ? DesktopController.this.triggers : null;
+
+			// -----------------------  TODO: Use pooling for these ------
+			this.axes = new BaseAxis[numberOfAxes];
+			this.axisIDs = new AxisID[numberOfAxes];
+			this.curves = new ResponseCurve[numberOfAxes];
+			this.triggers = new BaseTrigger[profile.triggerAxes.size()];
+			this.triggerLabels = new String[this.triggers.length];
+			this.triggerLabelKeys = new String[this.triggers.length];
+			this.sticks = new BaseStick[profile.stickAxes.size() / 2];
+
+			int triggerNo = 0;
+			int stickNo = 0;
+			for(int axisNo = 0; axisNo < numberOfAxes; axisNo++) {
+				// Mapped again below (if it's still mapped)
+				BaseAxis axis = previousAxes == null ? null : previousAxes[axisNo];
+				AxisID axisID = null;
+				ResponseCurve curve = null;
+				String mapping = profile.getMapping(MappingType.TRIGGER_AXIS, axisNo);
+				TriggerID triggerID = mapping == null ? null : TriggerID.getTriggerIDfromString(mapping);
+				if(triggerID != null && triggerNo < this.triggers.length) {
+					if(Log.debugEnabled) {
+						Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to trigger " + triggerID);
+					}
+					axisID = AxisID.TRIGGER;
+					if(axis == null) {
+						axis = new BaseAxis(axisID, axisNo);
+					}
+					resolveTrigger(profile, triggerNo++, triggerID, axis, previousTriggers);
+					curve = profile.responseCurves.get("trigger." + triggerID.name());
+				}
+				mapping = profile.getMapping(MappingType.STICK_AXIS, axisNo);
+				if(mapping != null) {
+					// Split into the ID part, like "LEFT", and the axis type part, like "X"
+					StickID stickID = StickID.getStickIDfromString(mapping.substring(0, mapping.indexOf(".")));
+					axisID = mapping.substring(mapping.indexOf(".") + 1).equalsIgnoreCase("X") ? AxisID.X : AxisID.Y;
+					if(Log.debugEnabled) {
+						Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to stick " + stickID + " axis " + axisID);
+					}
+					if(axis == null) {
+						axis = new BaseAxis(axisID, axisNo);
+					}
+					if(this.sticksByID[stickID.ordinal()] == null) {
+						BaseStick stick = findStick(previousSticks, stickID);
+						if(stick == null) {
+							stick = new BaseStick(stickID);
+						}
+						this.sticksByID[stickID.ordinal()] = stick;
+						resolveDeadZone(profile, stickID);
+						if(stickNo < this.sticks.length) {
+							this.sticks[stickNo] = stick;
+						}
+						stickNo++;
+					}
+					this.stickAxes[stickID.ordinal()][axisID == AxisID.X ? 0 : 1] = axis;
+					curve = profile.responseCurves.get("stick." + stickID.name());
+				}
+				mapping = profile.getMapping(MappingType.DPAD_AXIS, axisNo);
+				if(mapping != null) {
+					axisID = mapping.substring(mapping.indexOf(".") + 1).equalsIgnoreCase("X") ? AxisID.D_PAD_X : AxisID.D_PAD_Y;
+					if(Log.debugEnabled) {
+						Log.logger.debug("Map axis no. " + axisNo + " from mapping " + mapping + " to dpad axis " + axisID);
+					}
+					if(axis == null) {
+						axis = new BaseAxis(axisID, axisNo);
+					}
+					if(axisID == AxisID.D_PAD_X) {
+						this.dpadXAxis = axis;
+					} else {
+						this.dpadYAxis = axis;
+					}
+				}
+				if(axisID != null) {
+					this.axes[axisNo] = axis;
+					this.axisIDs[axisNo] = axisID;
+					ResponseCurve axisCurve = profile.responseCurves.get("axis." + axisNo);
+					this.curves[axisNo] = axisCurve != null ? axisCurve : curve;
+				}
+			}
+		}
+
+		/**
+		 * Resolves a trigger. The trigger of the previous mapping is
+		 * re-used, if it has the same ID, number and axis.
+		 * 
+		 * @param profile The mapping.
+		 * @param triggerNo The number of the trigger.
+		 * @param triggerID The ID of the trigger.
+		 * @param axis The axis of the trigger.
+		 * @param previousTriggers The triggers of the previous mapping (or null).
+		 */
+		private void resolveTrigger(Mapping.Profile profile, int triggerNo, TriggerID triggerID, BaseAxis axis, BaseTrigger[] previousTriggers) {
+			BaseTrigger previous = previousTriggers != null && triggerNo < previousTriggers.length ? previousTriggers[triggerNo] : null;
+			if(previous != null && previous.getID() == triggerID && previous.getAxis() == axis) {
+				this.triggers[triggerNo] = previous;
+			} else {
+				this.triggers[triggerNo] = new BaseTrigger(DesktopController.this, triggerNo, axis, "", "");
+				this.triggers[triggerNo].setID(triggerID);
+			}
+
+
 			// TODO: SET LABELS AND RESOURCE KEYS
-			
-			
-			this.triggers[triggerNo] = new BaseTrigger(this, triggerNo, this.axes[axisNo], "", "");
-			this.triggers[triggerNo].setID(mappedID);
-			
-			this.triggerMap.put(mappedID, this.triggers[triggerNo]);
-			String label = Mapping.getTriggerLabel(this, mappedID);
+
+
+			String label = profile.triggerLabels.get(triggerID);
 			if(label == null) {
-				label = Mapping.getDefaultTriggerLabel(mappedID);
+				label = Mapping.getDefaultTriggerLabel(triggerID);
+			}
+			this.triggerLabels[triggerNo] = label;
+			this.triggerLabelKeys[triggerNo] = profile.triggerLabelKeys.get(triggerID);
+		}
+
+		/**
+		 * Resolves the deadzone of a stick. If the configured deadzone is not
+		 * valid, the default one is used, so that a typo in a mapping file
+		 * does not prevent the controller from being connected.
+		 * 
+		 * @param profile The mapping.
+		 * @param stickID The ID of the stick.
+		 */
+		private void resolveDeadZone(Mapping.Profile profile, StickID stickID) {
+			int index = stickID.ordinal();
+			try {
+				DeadZoneMode mode = profile.getDeadZoneMode(stickID);
+				Float inner = profile.getInnerDeadZone(stickID);
+				Float outer = profile.getOuterDeadZone(stickID);
+				this.deadZoneModes[index] = mode == null ? DeadZoneMode.AXIAL : mode;
+				this.innerDeadZones[index] = inner == null ? defaultDeadZone : inner.floatValue();
+				this.outerDeadZones[index] = outer == null ? 1.0f : outer.floatValue();
+				// Same check as "BaseStick.setDeadZone()", which must not fail when it's published
+				if(this.innerDeadZones[index] < 0f || this.outerDeadZones[index] > 1.0f
+						|| this.innerDeadZones[index] >= this.outerDeadZones[index]) {
+					throw new IllegalArgumentException("Invalid deadzone (must be 0 <= inner < outer <= 1): "
+							+ this.innerDeadZones[index] + " / " + this.outerDeadZones[index]);
+				}
+			} catch(IllegalArgumentException e) {
+				if(Log.errorEnabled) {
+					Log.logger.error("Invalid deadzone in mapping of stick " + stickID + ", using the default: " + e.getMessage());
+				}
+				this.deadZoneModes[index] = DeadZoneMode.AXIAL;
+				this.innerDeadZones[index] = defaultDeadZone;
+				this.outerDeadZones[index] = 1.0f;
+			}
+			if(Log.debugEnabled) {
+				Log.logger.debug("Deadzone of stick " + stickID + ": " + this.deadZoneModes[index]
+						+ ", inner " + this.innerDeadZones[index] + ", outer " + this.outerDeadZones[index]);
 			}
-			if(label != null) {
-				this.triggers[triggerNo].setDefaultLabel(label);
+		}
+
+		/**
+		 * Applies the IDs, response curves and deadzones to the axes, sticks
+		 * and triggers, and replaces them and their lookup tables on this controller.
+		 */
+		void publish() {
+			for(int axisNo = 0; axisNo < this.axes.length; axisNo++) {
+				BaseAxis axis = this.axes[axisNo];
+				if(axis != null) {
+					axis.setID(this.axisIDs[axisNo]);
+					axis.setResponseCurve(this.curves[axisNo]);
+					axis.setController(DesktopController.this);
+				}
 			}
-			String labelKey = Mapping.getTriggerLabelKey(this, mappedID);
-			if(labelKey != null) {
-				this.triggers[triggerNo].setLabelKey(labelKey);
+			IStick[] sticksByID = new IStick[this.sticksByID.length];
+			for(int i = 0; i < this.sticksByID.length; i++) {
+				BaseStick stick = this.sticksByID[i];
+				if(stick != null) {
+					BaseAxis xAxis = this.stickAxes[i][0];
+					BaseAxis yAxis = this.stickAxes[i][1];
+					if(xAxis == null || yAxis == null) {
+						stick.clearAxes();
+					}
+					if(xAxis != null) {
+						stick.setAxis(xAxis);
+					}
+					if(yAxis != null) {
+						stick.setAxis(yAxis);
+					}
+					stick.setDeadZone(this.deadZoneModes[i], this.innerDeadZones[i], this.outerDeadZones[i]);
+					sticksByID[i] = stick;
+				}
+			}
+			ITrigger[] triggersByID = new ITrigger[TriggerID.values().length];
+			for(int triggerNo = 0; triggerNo < this.triggers.length; triggerNo++) {
+				BaseTrigger trigger = this.triggers[triggerNo];
+				if(trigger != null) {
+					trigger.setDefaultLabel(this.triggerLabels[triggerNo] == null ? "" : this.triggerLabels[triggerNo]);
+					trigger.setLabelKey(this.triggerLabelKeys[triggerNo] == null ? "" : this.triggerLabelKeys[triggerNo]);
+					triggersByID[trigger.getID().ordinal()] = trigger;
+				}
 			}
+			DesktopController.this.dpadXAxis = this.dpadXAxis;
+			DesktopController.this.dpadYAxis = this.dpadYAxis;
+			DesktopController.this.sticksByID = sticksByID;
+			DesktopController.this.triggersByID = triggersByID;
+			DesktopController.this.sticks = this.sticks;
+			DesktopController.this.triggers = this.triggers;
+			DesktopController.this.axes = this.axes;
 		}
 	}
 }
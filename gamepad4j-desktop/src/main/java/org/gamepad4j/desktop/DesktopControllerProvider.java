@@ -4,15 +4,25 @@
 
 package org.gamepad4j.desktop;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.ControllerMetrics;
+import org.gamepad4j.Controllers;
 import org.gamepad4j.IControllerListener;
 import org.gamepad4j.IControllerProvider;
+import org.gamepad4j.desktop.recording.InputRecorder;
 import org.gamepad4j.util.Log;
+import org.gamepad4j.util.ManagementUtil;
 
 /**
  * Controller provider for desktop systems (Linux, MacOS X, Windows).
@@ -21,32 +31,116 @@ import org.gamepad4j.util.Log;
  * @version $Revision: $
  */
 public class DesktopControllerProvider implements IControllerProvider {
+
+	/** 
+	 * System property with an external mapping directory, which is watched
+	 * for changed mapping files (see "setMappingDirectory()").
+	 */
+	public static final String GAMEPAD4J_MAPPING_DIR = "gamepad4j.mapping.dir";
 	
 	/** Stores controller listeners. */
 	private ControllerListenerAdapter listeners = new ControllerListenerAdapter();
 
+	/** 
+	 * The wrapper of the most recently initialized provider.
+	 * 
+	 * @deprecated Each provider has a wrapper of its own now (see the
+	 *             constructor with a wrapper argument). This field is only
+	 *             set for compatibility; the provider never reads it.
+	 */
+	@Deprecated
 	public static GamepadJniWrapper jniWrapper = null;
 
+	/** The wrapper of the native gamepad library (or of a simulated backend). */
+	protected GamepadJniWrapper wrapper = null;
+
 	/** Map of all connected controllers (deviceID / controller). */
-	private static Map<Integer, DesktopController> connected = new HashMap<Integer, DesktopController>();
+	private Map<Integer, DesktopController> connected = new HashMap<Integer, DesktopController>();
 	
-	/** Stores the controllers instance pool. */
-	private static DesktopController[] controllerPool = new DesktopController[16];
+	/** Initial size of the controller instance pool (it grows if necessary). */
+	public static final int INITIAL_POOL_SIZE = 16;
+
+	/** Stores the controllers instance pool (the free instances are at 0 - pooledControllers-1). */
+	private DesktopController[] controllerPool = new DesktopController[INITIAL_POOL_SIZE];
+
+	/** Number of free instances in the pool. */
+	private int pooledControllers = 0;
 	
 	/** Stores the number of connected controllers. */
-	private static int numberOfControllers = -1;
+	private int numberOfControllers = -1;
+
+	/** Records the input of all controllers (null = not recording). */
+	private volatile InputRecorder inputRecorder = null;
+
+	/** Number of polls. */
+	private volatile long pollCount = 0L;
+
+	/** Number of controller updates which failed with an exception. */
+	private volatile long updateErrorCount = 0L;
+
+	/** Number of failed updates, by device ID. */
+	private final Map<Integer, Long> deviceErrorCounts = new HashMap<Integer, Long>();
+
+	/** Watches the external mapping directory (null if there is none). */
+	private MappingWatcher mappingWatcher = null;
+
+	/** Number of changed mappings which were applied. */
+	private volatile long mappingReloadCount = 0L;
+
+	/** Number of changed mappings which failed to be applied to a controller. */
+	private long mappingApplyErrorCount = 0L;
+
+	/** Object name of the registered MBean (null if not registered). */
+	private String mbeanName = null;
+
+	/** Counter for unique MBean names. */
+	private static final AtomicInteger mbeanCounter = new AtomicInteger();
+
+	/**
+	 * Creates a desktop controller provider which uses the native gamepad library.
+	 */
+	public DesktopControllerProvider() {
+		this(null);
+	}
+
+	/**
+	 * Creates a desktop controller provider which uses the given wrapper
+	 * (e.g. a "VirtualGamepadJniWrapper" for tests and benchmarks).
+	 * 
+	 * @param wrapper The wrapper (if null, the native library is used).
+	 */
+	public DesktopControllerProvider(GamepadJniWrapper wrapper) {
+		this.wrapper = wrapper;
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.gamepad4j.IControllerProvider#initialize()
 	 */
 	@Override
 	public void initialize() {
-		jniWrapper = new GamepadJniWrapper();
-		jniWrapper.initialize();
+		if(this.wrapper == null) {
+			this.wrapper = new GamepadJniWrapper();
+		}
+		this.wrapper.initialize();
+		jniWrapper = this.wrapper;
 		for(int i = 0; i < controllerPool.length; i++) {
 			controllerPool[i] = new DesktopController(-1);
 		}
+		pooledControllers = controllerPool.length;
 		System.out.flush();
+		String mappingDirectory = System.getProperty(GAMEPAD4J_MAPPING_DIR);
+		if(mappingDirectory != null) {
+			try {
+				setMappingDirectory(new File(mappingDirectory));
+			} catch(IOException e) {
+				if(Log.errorEnabled) {
+					Log.logger.error("Cannot watch mapping directory " + mappingDirectory + ": " + e);
+				}
+			}
+		}
+		if(Boolean.getBoolean(Controllers.GAMEPAD4J_JMX)) {
+			registerMBean();
+		}
 	}
 
 	/* (non-Javadoc)
@@ -54,27 +148,77 @@ public class DesktopControllerProvider implements IControllerProvider {
 	 */
 	@Override
 	public void release() {
-		jniWrapper.natRelease();
+		unregisterMBean();
+		synchronized(this) {
+			if(this.mappingWatcher != null) {
+				this.mappingWatcher.stop();
+				this.mappingWatcher = null;
+			}
+		}
+		this.wrapper.natRelease();
+	}
+
+	/**
+	 * Registers the JMX MBean of this provider, named
+	 * "org.gamepad4j:type=DesktopControllerProvider,name=[class]-[n]".
+	 * This is done automatically by "initialize()" if the system
+	 * property "gamepad4j.jmx" is "true".
+	 */
+	public synchronized void registerMBean() {
+		if(this.mbeanName != null) {
+			return;
+		}
+		String name = ManagementUtil.DOMAIN + ":type=DesktopControllerProvider,name="
+				+ getClass().getSimpleName() + "-" + mbeanCounter.incrementAndGet();
+		if(ManagementUtil.register(name, new DesktopControllerProviderManagement(this))) {
+			this.mbeanName = name;
+		}
+	}
+
+	/**
+	 * Unregisters the JMX MBean of this provider (if it is registered).
+	 */
+	public synchronized void unregisterMBean() {
+		if(this.mbeanName != null) {
+			ManagementUtil.unregister(this.mbeanName);
+			this.mbeanName = null;
+		}
+	}
+
+	/**
+	 * Returns the object name of the JMX MBean of this provider.
+	 * 
+	 * @return The object name, or null if it is not registered.
+	 */
+	public synchronized String getMBeanName() {
+		return this.mbeanName;
 	}
 
 	/**
 	 * Returns a controller holder instance from the pool and
-	 * sets its code to the given value.
+	 * sets its code to the given value. If the pool is empty,
+	 * a new instance is created.
 	 * 
-	 * @param code The code to set for the controller instance.
-	 * @return The controller holder (or null if there was none free).
+	 * @param index The index to set for the controller instance.
+	 * @return The controller holder.
 	 */
-	private synchronized static DesktopController getInstanceFromPool(int index) {
-		for(int i = 0; i < controllerPool.length; i++) {
-			if(controllerPool[i] != null) {
-				DesktopController reference = controllerPool[i]; 
-				reference.setIndex(index);
-//				connected.put(code, reference);
-				controllerPool[i] = null;
-				return reference;
+	private synchronized DesktopController getInstanceFromPool(int index) {
+		DesktopController reference = null;
+		if(pooledControllers > 0) {
+			pooledControllers--;
+			reference = controllerPool[pooledControllers];
+			controllerPool[pooledControllers] = null;
+		} else {
+			if(Log.debugEnabled) {
+				Log.logger.debug("Controller instance pool empty, create new instance.");
 			}
+			if(ControllerMetrics.enabled) {
+				Controllers.metrics().recordPoolMiss();
+			}
+			reference = new DesktopController(-1);
 		}
-		return null;
+		reference.setIndex(index);
+		return reference;
 	}
 
 	/**
@@ -82,32 +226,175 @@ public class DesktopControllerProvider implements IControllerProvider {
 	 * 
 	 * @param controller The controller instance to return (must not be null).
 	 */
-	private synchronized static void returnInstanceToPool(DesktopController controller) {
-		for(int i = 0; i < controllerPool.length; i++) {
-			if(controllerPool[i] == null) {
-				controllerPool[i] = controller;
+	private synchronized void returnInstanceToPool(DesktopController controller) {
+		if(pooledControllers == controllerPool.length) {
+			controllerPool = Arrays.copyOf(controllerPool, controllerPool.length * 2);
+		}
+		controllerPool[pooledControllers++] = controller;
+	}
+
+	/**
+	 * Returns the number of free controller instances in the pool.
+	 * 
+	 * @return The number of pooled instances.
+	 */
+	public synchronized int getPooledControllerCount() {
+		return pooledControllers;
+	}
+
+	/**
+	 * Sets the recorder which records the input of all controllers with
+	 * every poll. Controllers which are already connected are recorded as
+	 * newly connected with the next poll.
+	 * 
+	 * @param inputRecorder The recorder (null to stop recording).
+	 */
+	public synchronized void setInputRecorder(InputRecorder inputRecorder) {
+		if(inputRecorder != null) {
+			long now = System.nanoTime();
+			for(DesktopController controller : this.connected.values()) {
+				inputRecorder.recordConnect(controller, now);
 			}
 		}
+		this.inputRecorder = inputRecorder;
 	}
-	
+
+	/**
+	 * Returns the input recorder.
+	 *
+	 * @return The recorder, or null if the input is not recorded.
+	 */
+	public InputRecorder getInputRecorder() {
+		return this.inputRecorder;
+	}
+
+	/**
+	 * Sets an external directory with mapping files (named like the built-in
+	 * ones, e.g. "0x45E-0x28E-gamepad4j-mapping.properties"), which take
+	 * precedence over the built-in mappings. The directory is watched: when a
+	 * mapping file is created or changed, it is parsed on a background thread,
+	 * and the new mapping is applied to the connected controllers of its 
+	 * device type with the next poll. Held buttons stay pressed, and the
+	 * snapshots and frame counters of the controllers are not affected.
+	 * The connected controllers are mapped again right away, with the files
+	 * of the new directory. Can also be set with the system property 
+	 * "gamepad4j.mapping.dir".
+	 * 
+	 * @param directory The directory (null to use only the built-in mappings).
+	 * @throws IOException If the directory cannot be watched.
+	 */
+	public synchronized void setMappingDirectory(File directory) throws IOException {
+		MappingWatcher watcher = null;
+		if(directory != null) {
+			watcher = new MappingWatcher(directory);
+		}
+		if(this.mappingWatcher != null) {
+			this.mappingWatcher.stop();
+		}
+		this.mappingWatcher = watcher;
+		this.mappingApplyErrorCount = 0L;
+		Mapping.setMappingDirectory(directory);
+		for(DesktopController controller : this.connected.values()) {
+			controller.initializeMapping();
+			controller.applyMapping();
+		}
+		if(watcher != null) {
+			watcher.start();
+			if(Log.infoEnabled) {
+				Log.logger.info("Watching mapping directory: " + directory);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of changed mappings which were applied since the
+	 * mapping directory was set (see "setMappingDirectory()").
+	 * 
+	 * @return The number of applied mappings.
+	 */
+	public long getMappingReloadCount() {
+		return this.mappingReloadCount;
+	}
+
+	/**
+	 * Returns the number of changed mapping files which could not be read,
+	 * parsed or applied (they are read again when they change again). A
+	 * file which is invalid, or cannot be applied to all connected controllers
+	 * of its device type, does not replace the mapping which is in use.
+	 * 
+	 * @return The number of failed reloads.
+	 */
+	public synchronized long getMappingErrorCount() {
+		return (this.mappingWatcher == null ? 0L : this.mappingWatcher.getErrorCount()) + this.mappingApplyErrorCount;
+	}
+
+	/**
+	 * Applies the mappings which were changed in the mapping directory
+	 * (and already parsed by the watcher thread) to the connected controllers.
+	 */
+	private void applyChangedMappings() {
+		MappingWatcher watcher = this.mappingWatcher;
+		if(watcher == null) {
+			return;
+		}
+		Mapping.Profile profile = watcher.poll();
+		while(profile != null) {
+			// Resolved for all controllers first: the mapping is installed and
+			// applied only if it can be applied to all of them
+			List<DesktopController.PreparedMapping> prepared = new ArrayList<DesktopController.PreparedMapping>();
+			boolean failed = false;
+			for(DesktopController controller : this.connected.values()) {
+				if(controller.getDeviceTypeIdentifier() == profile.deviceTypeIdentifier) {
+					// A mapping which cannot be applied must not break the poll
+					try {
+						prepared.add(controller.prepareMapping(profile));
+					} catch(RuntimeException e) {
+						failed = true;
+						if(Log.errorEnabled) {
+							Log.logger.error("Failed to apply reloaded mapping to controller " + controller.getDeviceID() + ": " + e);
+						}
+						break;
+					}
+				}
+			}
+			if(failed) {
+				this.mappingApplyErrorCount++;
+			} else {
+				Mapping.installMapping(profile);
+				for(DesktopController.PreparedMapping mapping : prepared) {
+					mapping.apply();
+					if(Log.infoEnabled) {
+						DesktopController controller = mapping.getController();
+						Log.logger.info("Mapping reloaded for controller: " + controller.getDeviceID() + " / " + controller.getDescription());
+					}
+				}
+				this.mappingReloadCount++;
+			}
+			profile = watcher.poll();
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.gamepad4j.IControllerProvider#checkControllers()
 	 */
 	@Override
 	public synchronized void checkControllers() {
-		jniWrapper.natDetectPads();
+		InputRecorder recorder = this.inputRecorder;
+		boolean measure = ControllerMetrics.enabled;
+		long now = recorder == null && !measure ? 0L : System.nanoTime();
+		applyChangedMappings();
+		this.wrapper.natDetectPads();
+		long scanStart = 0L;
+		if(measure) {
+			scanStart = System.nanoTime();
+			Controllers.metrics().record(ControllerMetrics.Phase.DETECT, scanStart - now);
+		}
 		for(DesktopController controller : this.connected.values()) {
 			controller.setChecked(false);
 		}
-		
-		
-		
-		float value = jniWrapper.natGetControllerAxisState(0, 8);
-//		System.err.println(">> Axis 8: " + value);
-		
-		
+
 		// 1st check which controllers are (still) connected
-		int newNumberOfControllers = jniWrapper.natGetNumberOfPads();
+		int newNumberOfControllers = this.wrapper.natGetNumberOfPads();
 		if(newNumberOfControllers != this.numberOfControllers) {
 			this.numberOfControllers = newNumberOfControllers;
 			if(Log.debugEnabled) {
@@ -116,19 +403,16 @@ public class DesktopControllerProvider implements IControllerProvider {
 		}
 //		Log.log("Check for newly connected controllers...");
 		for(int ct = 0; ct < this.numberOfControllers; ct++) {
-			int connectedId = jniWrapper.natGetDeviceID(ct);
+			int connectedId = this.wrapper.natGetDeviceID(ct);
 			if(connectedId != -1) {
 				DesktopController controller = this.connected.get(connectedId);
 				if(controller != null) {
 					controller.setChecked(true);
 				} else {
 					DesktopController newController = getInstanceFromPool(ct);
-					if(newController == null) {
-						throw new IllegalStateException("** DesktopController instance pool exceeded! **");
-					}
 					newController.setChecked(true);
-					jniWrapper.updateControllerInfo(newController);
-					DesktopControllerProvider.connected.put(newController.getDeviceID(), newController);
+					this.wrapper.updateControllerInfo(newController);
+					this.connected.put(newController.getDeviceID(), newController);
 					if(Log.infoEnabled) {
 						Log.logger.info("***********************************************************************");
 						Log.logger.info("Newly connected controller found: " + newController.getDeviceID()
@@ -137,7 +421,11 @@ public class DesktopControllerProvider implements IControllerProvider {
 							+ ") / " + newController.getDescription());
 						Log.logger.info("***********************************************************************");
 					}
-					listeners.getListeners().get(0).connected(newController);
+					if(recorder != null) {
+						recorder.recordConnect(newController, now);
+					}
+					newController.setControllerListener(this.listeners);
+					this.listeners.connected(newController);
 				}
 			}
 		}
@@ -152,7 +440,12 @@ public class DesktopControllerProvider implements IControllerProvider {
 				if(Log.infoEnabled) {
 					Log.logger.info("Controller disconnected: " + controller.getDeviceID() + " / " + controller.getDescription());
 				}
-				listeners.getListeners().get(0).disConnected(controller);
+				if(recorder != null) {
+					recorder.recordDisconnect(controller, now);
+				}
+				this.listeners.disConnected(controller);
+				controller.setControllerListener(null);
+				controller.releaseUpdateHistogram();
 				returnInstanceToPool(controller);
 				// Must be removed from map with iterator, otherwise
 				// ConcurrentModificationException will occur
@@ -162,9 +455,119 @@ public class DesktopControllerProvider implements IControllerProvider {
 		
 		// 3rd update the state of all remaining controllers
 //		Log.log("Update controllers...");
+		if(measure) {
+			long updateStart = System.nanoTime();
+			ControllerMetrics metrics = Controllers.metrics();
+			metrics.record(ControllerMetrics.Phase.SCAN, updateStart - scanStart);
+			for(DesktopController controller : this.connected.values()) {
+				updateController(controller, recorder, now);
+				long updateEnd = System.nanoTime();
+				metrics.record(ControllerMetrics.Phase.UPDATE, updateEnd - updateStart);
+				controller.getUpdateHistogram().record(updateEnd - updateStart);
+				updateStart = updateEnd;
+			}
+		} else {
+			for(DesktopController controller : this.connected.values()) {
+				updateController(controller, recorder, now);
+			}
+		}
+		this.pollCount++;
+	}
+
+	/**
+	 * Updates the state of one controller. If that fails, the error is
+	 * counted for the device, and the other controllers are still updated.
+	 * 
+	 * @param controller The controller.
+	 * @param recorder The input recorder (or null).
+	 * @param now The time of the poll (only if recording).
+	 */
+	private void updateController(DesktopController controller, InputRecorder recorder, long now) {
+		try {
+			controller.beginSample(System.nanoTime());
+			this.wrapper.updateControllerStatus(controller);
+			controller.publishSnapshot();
+			if(recorder != null) {
+				recorder.recordState(controller, now);
+			}
+		} catch(RuntimeException e) {
+			this.updateErrorCount++;
+			Integer deviceID = Integer.valueOf(controller.getDeviceID());
+			Long errors = this.deviceErrorCounts.get(deviceID);
+			this.deviceErrorCounts.put(deviceID, Long.valueOf(errors == null ? 1L : errors.longValue() + 1L));
+			if(Log.errorEnabled) {
+				Log.logger.error("Failed to update controller " + controller.getDeviceID() + ": " + e);
+			}
+		}
+	}
+
+	/**
+	 * Lets the native library detect the connected pads again (without
+	 * polling them). Changes are processed with the next poll.
+	 */
+	public synchronized void redetectControllers() {
+		this.wrapper.natDetectPads();
+	}
+
+	/**
+	 * Returns the number of polls.
+	 * 
+	 * @return The number of polls.
+	 */
+	public long getPollCount() {
+		return this.pollCount;
+	}
+
+	/**
+	 * Returns the number of controller updates which failed with an exception.
+	 * 
+	 * @return The number of failed updates.
+	 */
+	public long getUpdateErrorCount() {
+		return this.updateErrorCount;
+	}
+
+	/**
+	 * Returns the number of failed updates of each device.
+	 * 
+	 * @return A copy of the error counts, by device ID.
+	 */
+	public synchronized Map<Integer, Long> getDeviceErrorCounts() {
+		return new HashMap<Integer, Long>(this.deviceErrorCounts);
+	}
+
+	/**
+	 * Returns a description of each connected controller.
+	 * 
+	 * @return The descriptions ("[device ID] [vendor]/[product] [description]").
+	 */
+	public synchronized String[] getConnectedControllerDescriptions() {
+		String[] descriptions = new String[this.connected.size()];
+		int i = 0;
 		for(DesktopController controller : this.connected.values()) {
-			jniWrapper.updateControllerStatus(controller);
+			descriptions[i++] = controller.getDeviceID() + " " + Integer.toHexString(controller.getVendorID())
+					+ "/" + Integer.toHexString(controller.getProductID()) + " " + controller.getDescription();
 		}
+		return descriptions;
+	}
+
+	/**
+	 * Returns the number of connected controllers.
+	 * 
+	 * @return The number of controllers.
+	 */
+	public synchronized int getConnectedControllerCount() {
+		return this.connected.size();
+	}
+
+	/**
+	 * Resets the poll and error counters.
+	 */
+	public synchronized void resetStatistics() {
+		this.pollCount = 0L;
+		this.mappingReloadCount = 0L;
+		this.updateErrorCount = 0L;
+		this.deviceErrorCounts.clear();
 	}
 	
 	/* (non-Javadoc)
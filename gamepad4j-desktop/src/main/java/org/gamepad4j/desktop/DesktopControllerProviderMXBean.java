@@ -0,0 +1,72 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+import java.util.Map;
+
+/**
+ * JMX interface with the live statistics of a desktop controller provider
+ * (see "DesktopControllerProvider.registerMBean()").
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface DesktopControllerProviderMXBean {
+
+	/**
+	 * @return The number of connected controllers.
+	 */
+	int getConnectedControllerCount();
+
+	/**
+	 * @return A description of each connected controller.
+	 */
+	String[] getConnectedControllers();
+
+	/**
+	 * @return The number of free controller instances in the pool.
+	 */
+	int getPooledControllerCount();
+
+	/**
+	 * @return The number of polls.
+	 */
+	long getPollCount();
+
+	/**
+	 * @return The number of controller updates which failed with an exception.
+	 */
+	long getUpdateErrorCount();
+
+	/**
+	 * @return The number of failed updates, by device ID.
+	 */
+	Map<Integer, Long> getDeviceErrorCounts();
+
+	/**
+	 * @return The number of changed mappings which were applied.
+	 */
+	long getMappingReloadCount();
+
+	/**
+	 * @return The number of changed mapping files which could not be read.
+	 */
+	long getMappingErrorCount();
+
+	/**
+	 * @return True if the input is being recorded.
+	 */
+	boolean isRecording();
+
+	/**
+	 * Lets the native library detect the connected pads again.
+	 */
+	void redetectControllers();
+
+	/**
+	 * Resets the poll and error counters.
+	 */
+	void resetStatistics();
+}
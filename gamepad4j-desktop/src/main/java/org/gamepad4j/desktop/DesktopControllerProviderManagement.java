@@ -0,0 +1,116 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+import java.util.Map;
+
+/**
+ * JMX view of the statistics of a desktop controller provider.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class DesktopControllerProviderManagement implements DesktopControllerProviderMXBean {
+
+	/** The provider. */
+	private final DesktopControllerProvider provider;
+
+	/**
+	 * Creates the JMX view of a provider.
+	 *
+	 * @param provider The provider.
+	 */
+	public DesktopControllerProviderManagement(DesktopControllerProvider provider) {
+		this.provider = provider;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getConnectedControllerCount()
+	 */
+	@Override
+	public int getConnectedControllerCount() {
+		return this.provider.getConnectedControllerCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getConnectedControllers()
+	 */
+	@Override
+	public String[] getConnectedControllers() {
+		return this.provider.getConnectedControllerDescriptions();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getPooledControllerCount()
+	 */
+	@Override
+	public int getPooledControllerCount() {
+		return this.provider.getPooledControllerCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getPollCount()
+	 */
+	@Override
+	public long getPollCount() {
+		return this.provider.getPollCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getUpdateErrorCount()
+	 */
+	@Override
+	public long getUpdateErrorCount() {
+		return this.provider.getUpdateErrorCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getDeviceErrorCounts()
+	 */
+	@Override
+	public Map<Integer, Long> getDeviceErrorCounts() {
+		return this.provider.getDeviceErrorCounts();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getMappingReloadCount()
+	 */
+	@Override
+	public long getMappingReloadCount() {
+		return this.provider.getMappingReloadCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#getMappingErrorCount()
+	 */
+	@Override
+	public long getMappingErrorCount() {
+		return this.provider.getMappingErrorCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#isRecording()
+	 */
+	@Override
+	public boolean isRecording() {
+		return this.provider.getInputRecorder() != null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#redetectControllers()
+	 */
+	@Override
+	public void redetectControllers() {
+		this.provider.redetectControllers();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProviderMXBean#resetStatistics()
+	 */
+	@Override
+	public void resetStatistics() {
+		this.provider.resetStatistics();
+	}
+}
@@ -24,24 +24,41 @@ public class GamepadJniWrapper {
 
 	/** 
 	 * Array which temporarily holds controller ID information.
+	 * Owned by the polling thread of this wrapper, like the other arrays.
 	 */
-	private static int[] idArray = new int[3];
+	private final int[] idArray = new int[3];
 
 	/** 
-	 * Array which temporarily holds controller button state information.
+	 * Array which holds the button states of the controller being updated,
+	 * between reading them and applying them to the buttons. Owned by the
+	 * polling thread of this wrapper, so it must not be static.
 	 */
-	private static boolean[] buttonArray = new boolean[64];
+	private final boolean[] buttonArray = new boolean[64];
 
 	/** 
 	 * Array which temporarily holds controller axis state information.
 	 */
-	private static float[] axisArray = new float[64];
+	private final float[] axisArray = new float[64];
 
 	/**
 	 * Prepares the native library for usage. This method
 	 * must be invoked before anything else is used.
 	 */
 	public GamepadJniWrapper() {
+		this(true);
+	}
+
+	/**
+	 * Creates a wrapper instance.
+	 * 
+	 * @param loadLibrary True if the native library should be loaded. Only 
+	 *                    subclasses which override all native methods (like
+	 *                    a simulated backend) may pass false.
+	 */
+	protected GamepadJniWrapper(boolean loadLibrary) {
+		if(!loadLibrary) {
+			return;
+		}
 		// Since there is no really portable way of detecting if a Java
 		// program is currently running on a 32 or 64 bit system, we try
 		// to load the 64 bit library first, and if that fails, fall back
@@ -145,11 +162,23 @@ public class GamepadJniWrapper {
 	public void updateControllerStatus(DesktopController controller) {
 		natGetControllerButtonStates(controller.getIndex(), buttonArray);
 		int numberOfButtons = natGetNumberOfButtons(controller.getIndex());
+		long pressedMask = 0L;
 		for(int i = 0; i < numberOfButtons; i++) {
 			BaseButton button = (BaseButton)controller.getButton(i);
 			if(button != null) {
 				boolean isPressed = natGetControllerButtonState(controller.getIndex(), button.getCode()) == 1;
-				button.setPressed(isPressed);
+				buttonArray[i] = isPressed;
+				if(isPressed) {
+					pressedMask |= button.getMask();
+				}
+			}
+		}
+		// Set the mask first, so that button listeners see the complete new state
+		controller.setPressedMask(pressedMask);
+		for(int i = 0; i < numberOfButtons; i++) {
+			BaseButton button = (BaseButton)controller.getButton(i);
+			if(button != null) {
+				button.setPressed(buttonArray[i]);
 			}
 		}
 		
@@ -161,6 +190,8 @@ public class GamepadJniWrapper {
 				axes[i].setValue(axisState);
 			}
 		}
+		// Apply the stick deadzones to the new X/Y pairs
+		controller.updateSticks();
 	}
 	
 	/**
@@ -4,14 +4,20 @@
 
 package org.gamepad4j.desktop;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.gamepad4j.ButtonID;
+import org.gamepad4j.DeadZoneMode;
 import org.gamepad4j.IController;
+import org.gamepad4j.ResponseCurve;
 import org.gamepad4j.StickID;
 import org.gamepad4j.TriggerID;
 import org.gamepad4j.util.Log;
@@ -20,6 +26,10 @@ import org.gamepad4j.util.PlatformUtil;
 /**
  * Handles the mapping of digital buttons and analog axes to
  * triggers, d-pad, analog sticks and buttons.
+ * <p>
+ * The mapping tables may be read by several polling threads at once (e.g.
+ * by asynchronous providers of a "CompositeControllerProvider"); they are
+ * only changed by the synchronized methods.
  *
  * @author Marcel Schoen
  * @version $Revision: $
@@ -32,41 +42,166 @@ public class Mapping {
 		DPAD_AXIS,
 		STICK_AXIS
 	}
-	
-	/** Stores digital button mappings. */
-	private static Map<Long, Map<Integer, String>> buttonMapId = new HashMap<Long, Map<Integer, String>>();
-	
-	/** Stores trigger mappings. */
-	private static Map<Long, Map<Integer, String>> triggerAxisMapId = new HashMap<Long, Map<Integer, String>>();
-	
-	/** Stores d-pad mappings. */
-	private static Map<Long, Map<Integer, String>> dpadAxisMapId = new HashMap<Long, Map<Integer, String>>();
-	
-	/** Stores stick mappings. */
-	private static Map<Long, Map<Integer, String>> stickAxisMapId = new HashMap<Long, Map<Integer, String>>();
 
-	/** Stores the default button text labels. */
-	private static Properties defaultLabels = new Properties();
+	/** Name suffix of the mapping files. */
+	public static final String MAPPING_FILE_SUFFIX = "-gamepad4j-mapping.properties";
 
-	/** Stores the default label for each button of each device type. */
-	private static Map<Long, Map<ButtonID, String>> defaultButtonLabelMap = new HashMap<Long, Map<ButtonID, String>>();
+	/**
+	 * The parsed mapping of one device type. It is built by "parseMapping()",
+	 * which may run on any thread, and takes effect with "installMapping()".
+	 */
+	static final class Profile {
 
-	/** Stores the default label for each trigger of each device type. */
-	private static Map<Long, Map<TriggerID, String>> defaultTriggerLabelMap = new HashMap<Long, Map<TriggerID, String>>();
-	
-	/** Stores the label key for each button of each device type. */
-	private static Map<Long, Map<ButtonID, String>> buttonLabelKeyMap = new HashMap<Long, Map<ButtonID, String>>();
+		/** The device type identifier. */
+		final long deviceTypeIdentifier;
+
+		/** Button mappings (button number / ID name). */
+		final Map<Integer, String> buttons = new HashMap<Integer, String>();
+
+		/** Trigger mappings (axis number / ID name). */
+		final Map<Integer, String> triggerAxes = new HashMap<Integer, String>();
+
+		/** D-pad mappings (axis number / axis name). */
+		final Map<Integer, String> dpadAxes = new HashMap<Integer, String>();
+
+		/** Stick mappings (axis number / stick and axis name). */
+		final Map<Integer, String> stickAxes = new HashMap<Integer, String>();
+
+		/** Button aliases (alias ID / ID of the real button). */
+		final Map<ButtonID, ButtonID> aliases = new HashMap<ButtonID, ButtonID>();
+
+		/** The "deadzone..." properties. */
+		final Properties deadZoneSettings = new Properties();
+
+		/** The response curves (key like "stick.LEFT" / curve). */
+		final Map<String, ResponseCurve> responseCurves = new HashMap<String, ResponseCurve>();
+
+		/** Default button labels. */
+		final Map<ButtonID, String> buttonLabels = new HashMap<ButtonID, String>();
+
+		/** Button label keys. */
+		final Map<ButtonID, String> buttonLabelKeys = new HashMap<ButtonID, String>();
+
+		/** Default trigger labels. */
+		final Map<TriggerID, String> triggerLabels = new HashMap<TriggerID, String>();
+
+		/** Trigger label keys. */
+		final Map<TriggerID, String> triggerLabelKeys = new HashMap<TriggerID, String>();
+
+		Profile(long deviceTypeIdentifier) {
+			this.deviceTypeIdentifier = deviceTypeIdentifier;
+		}
+
+		/**
+		 * Returns the mapping for a given button, trigger, dpad or stick axis.
+		 * 
+		 * @param type The mapping type.
+		 * @param value The number of the button or axis.
+		 * @return The mapping string, or null, if none was found.
+		 */
+		String getMapping(MappingType type, int value) {
+			Map<Integer, String> idMap = null;
+			if(type == MappingType.BUTTON) {
+				idMap = this.buttons;
+			} else if(type == MappingType.DPAD_AXIS) {
+				idMap = this.dpadAxes;
+			} else if(type == MappingType.TRIGGER_AXIS) {
+				idMap = this.triggerAxes;
+			} else if(type == MappingType.STICK_AXIS) {
+				idMap = this.stickAxes;
+			}
+			return idMap == null ? null : idMap.get(value);
+		}
+
+		/**
+		 * Returns the button aliases (alias ID / ID of the real button).
+		 * 
+		 * @return The aliases, or null if there are none.
+		 */
+		Map<ButtonID, ButtonID> getButtonAliases() {
+			return this.aliases.isEmpty() ? null : this.aliases;
+		}
+
+		/**
+		 * Returns a deadzone setting for a stick, falling back to the 
+		 * setting for all sticks.
+		 * 
+		 * @param stickID The ID of the stick.
+		 * @param stickSuffix The name of the setting for one stick (like "inner").
+		 * @param defaultKey The property key of the setting for all sticks.
+		 * @return The value, or null if none is defined.
+		 */
+		String getDeadZoneSetting(StickID stickID, String stickSuffix, String defaultKey) {
+			String value = this.deadZoneSettings.getProperty("deadzone." + stickID.name() + "." + stickSuffix);
+			if(value == null) {
+				value = this.deadZoneSettings.getProperty(defaultKey);
+			}
+			return value;
+		}
+
+		/**
+		 * Returns the inner deadzone for a stick (see "Mapping.getInnerDeadZone()").
+		 * 
+		 * @param stickID The ID of the stick.
+		 * @return The inner deadzone, or null if none is defined.
+		 */
+		Float getInnerDeadZone(StickID stickID) {
+			String value = getDeadZoneSetting(stickID, "inner", "deadzone");
+			return value == null ? null : floatFromString(value);
+		}
+
+		/**
+		 * Returns the outer deadzone for a stick (see "Mapping.getOuterDeadZone()").
+		 * 
+		 * @param stickID The ID of the stick.
+		 * @return The outer deadzone, or null if none is defined.
+		 */
+		Float getOuterDeadZone(StickID stickID) {
+			String value = getDeadZoneSetting(stickID, "outer", "deadzone.outer");
+			return value == null ? null : floatFromString(value);
+		}
+
+		/**
+		 * Returns the deadzone mode for a stick (see "Mapping.getDeadZoneMode()").
+		 * 
+		 * @param stickID The ID of the stick.
+		 * @return The deadzone mode, or null if none is defined.
+		 * @throws IllegalArgumentException If the mode is not valid.
+		 */
+		DeadZoneMode getDeadZoneMode(StickID stickID) {
+			String value = getDeadZoneSetting(stickID, "mode", "deadzone.mode");
+			if(value == null) {
+				return null;
+			}
+			DeadZoneMode mode = DeadZoneMode.getDeadZoneModeFromString(value.toUpperCase());
+			if(mode == null) {
+				throw new IllegalArgumentException("Invalid deadzone mode: " + value);
+			}
+			return mode;
+		}
+	}
+
+	/** External directory with mapping files, which take precedence over the built-in ones (may be null). */
+	private static volatile File mappingDirectory = null;
 	
-	/** Stores the label key for each trigger of each device type. */
-	private static Map<Long, Map<TriggerID, String>> triggerLabelKeyMap = new HashMap<Long, Map<TriggerID, String>>();
+	/** 
+	 * Stores the installed mapping of each device type. A mapping is 
+	 * replaced as a whole, so readers never see parts of two mappings.
+	 */
+	private static Map<Long, Profile> profileMap = new ConcurrentHashMap<Long, Profile>();
+
+	/** Stores the default button text labels. */
+	private static Properties defaultLabels = new Properties();
 
 	/** Lazy label initialization flag. */
-	private static boolean labelsInitialized = false;
+	private static volatile boolean labelsInitialized = false;
 	
 	/**
 	 * Loads the mapping for the given controller (if not available yet).
+	 * A mapping file in the external mapping directory (if set) takes
+	 * precedence over the one in the resources.
 	 */
-	public static void loadMapping(DesktopController controller) {
+	public static synchronized void loadMapping(DesktopController controller) {
 		try {
 			
 			if(!labelsInitialized) {
@@ -74,15 +209,30 @@ public class Mapping {
 				InputStream in = Mapping.class.getResourceAsStream("/mappings/default-labels.properties");
 				defaultLabels.load(in);
 				in.close();
+				labelsInitialized = true;
 			}
 			
 			// Check if mappings already exist for that controller
-			if(defaultButtonLabelMap.get(controller.getDeviceTypeIdentifier()) == null) {
+			if(profileMap.get(controller.getDeviceTypeIdentifier()) == null) {
 				// If not, load them now
-				String vendorHex = Integer.toHexString(controller.getVendorID()).toUpperCase();
-				String productHex = Integer.toHexString(controller.getProductID()).toUpperCase();
-				String mappingFileName = "/mappings/" + PlatformUtil.getPlatform().name() + "/"
-						+ "0x" + vendorHex + "-0x" + productHex + "-gamepad4j-mapping.properties";
+				String fileName = getMappingFileName(controller.getVendorID(), controller.getProductID());
+				File directory = mappingDirectory;
+				File mappingFile = directory == null ? null : new File(directory, fileName);
+				if(mappingFile != null && mappingFile.isFile()) {
+					if(Log.debugEnabled) {
+						Log.logger.debug("Load mapping from file: " + mappingFile);
+					}
+					try {
+						installMapping(parseMapping(readMappingFile(mappingFile)));
+						return;
+					} catch(IllegalArgumentException e) {
+						// An invalid file must not keep the controller from being connected
+						if(Log.errorEnabled) {
+							Log.logger.error("Invalid mapping file " + mappingFile + ", using the built-in mapping: " + e.getMessage());
+						}
+					}
+				}
+				String mappingFileName = "/mappings/" + PlatformUtil.getPlatform().name() + "/" + fileName;
 				if(Log.debugEnabled) {
 					Log.logger.debug("Load mapping from resource: " + mappingFileName);
 				}
@@ -93,12 +243,7 @@ public class Mapping {
 					if(propIn != null) {
 						Properties mappingProps = new Properties();
 						mappingProps.load(propIn);
-						addMappings(mappingProps);
-						
-						if(mappingProps.getProperty("deadzone") != null) {
-							float deadZone = floatFromString(mappingProps.getProperty("deadzone"));
-							controller.setDefaultDeadZone(deadZone);
-						}
+						installMapping(parseMapping(mappingProps));
 					} else {
 						if(Log.debugEnabled) {
 							Log.logger.debug("WARNING: Mapping does not exist: " + mappingFileName);
@@ -120,17 +265,68 @@ public class Mapping {
 	}
 
 	/**
+	 * Returns the name of the mapping file for a device type, like
+	 * "0x45E-0x28E-gamepad4j-mapping.properties".
 	 * 
-	 * @param type
-	 * @param properties
+	 * @param vendorID The vendor ID.
+	 * @param productID The product ID.
+	 * @return The file name.
 	 */
-	private static void addMappings(Properties properties) {
-		long deviceTypeIdentifier = extractDeviceIdentifier(properties);
-		
-		defaultButtonLabelMap.put(deviceTypeIdentifier, new HashMap<ButtonID, String>());
-		buttonLabelKeyMap.put(deviceTypeIdentifier, new HashMap<ButtonID, String>());
-		triggerLabelKeyMap.put(deviceTypeIdentifier, new HashMap<TriggerID, String>());
-		defaultTriggerLabelMap.put(deviceTypeIdentifier, new HashMap<TriggerID, String>());
+	public static String getMappingFileName(int vendorID, int productID) {
+		return "0x" + Integer.toHexString(vendorID).toUpperCase() + "-0x"
+				+ Integer.toHexString(productID).toUpperCase() + MAPPING_FILE_SUFFIX;
+	}
+
+	/**
+	 * Sets the external directory with mapping files. The mappings loaded
+	 * so far are forgotten, so controllers connected afterwards use the
+	 * files in the new directory. Must not be invoked while the controllers
+	 * are polled (see "DesktopControllerProvider.setMappingDirectory()").
+	 * 
+	 * @param directory The directory (null for the built-in mappings only).
+	 */
+	static synchronized void setMappingDirectory(File directory) {
+		mappingDirectory = directory;
+		profileMap.clear();
+	}
+
+	/**
+	 * Returns the external directory with mapping files.
+	 * 
+	 * @return The directory, or null if only the built-in mappings are used.
+	 */
+	public static File getMappingDirectory() {
+		return mappingDirectory;
+	}
+
+	/**
+	 * Reads a mapping file.
+	 * 
+	 * @param file The mapping file.
+	 * @return The mapping properties.
+	 * @throws IOException If the file could not be read.
+	 */
+	static Properties readMappingFile(File file) throws IOException {
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		return properties;
+	}
+
+	/**
+	 * Parses mapping properties. It does not change any state, so it may
+	 * run on any thread.
+	 * 
+	 * @param properties The mapping properties.
+	 * @return The parsed mapping.
+	 * @throws IllegalArgumentException If the mapping is not valid.
+	 */
+	static Profile parseMapping(Properties properties) {
+		Profile profile = new Profile(extractDeviceIdentifier(properties));
 		
 		Enumeration<Object> keys = properties.keys();
 		while(keys.hasMoreElements()) {
@@ -138,27 +334,106 @@ public class Mapping {
 			String namePart = key.substring(key.indexOf(".") + 1);
 			String value = properties.getProperty(key);
 			if(key.startsWith("button.")) {
-				addMapping(MappingType.BUTTON, namePart, value, deviceTypeIdentifier);
+				addMapping(profile, MappingType.BUTTON, namePart, value);
 			} else if(key.startsWith("stick.")) {
-				addMapping(MappingType.STICK_AXIS, namePart, value, deviceTypeIdentifier);
+				addMapping(profile, MappingType.STICK_AXIS, namePart, value);
 			} else if(key.startsWith("trigger.")) {
-				addMapping(MappingType.TRIGGER_AXIS, namePart, value, deviceTypeIdentifier);
+				addMapping(profile, MappingType.TRIGGER_AXIS, namePart, value);
 			} else if(key.startsWith("dpad.")) {
-				addMapping(MappingType.DPAD_AXIS, namePart, value, deviceTypeIdentifier);
+				addMapping(profile, MappingType.DPAD_AXIS, namePart, value);
 			} else if(key.startsWith("buttonlabel.")) {
-				Map<ButtonID, String> buttonMap = getOrCreateMapForButton(defaultButtonLabelMap, deviceTypeIdentifier);
-				buttonMap.put(getButtonIDfromPropertyKey(key), value);
+				profile.buttonLabels.put(getButtonIDfromPropertyKey(key), value);
 			} else if(key.startsWith("triggerlabel.")) {
-				Map<TriggerID, String> triggerMap = getOrCreateMapForTrigger(defaultTriggerLabelMap, deviceTypeIdentifier);
-				triggerMap.put(getTriggerIDfromPropertyKey(key), value);
+				profile.triggerLabels.put(getTriggerIDfromPropertyKey(key), value);
 			} else if(key.startsWith("buttonlabelkey.")) {
-				Map<ButtonID, String> buttonMap = getOrCreateMapForButton(buttonLabelKeyMap, deviceTypeIdentifier);
-				buttonMap.put(getButtonIDfromPropertyKey(key), value);
+				profile.buttonLabelKeys.put(getButtonIDfromPropertyKey(key), value);
 			} else if(key.startsWith("triggerlabelkey.")) {
-				Map<TriggerID, String> triggerMap = getOrCreateMapForTrigger(triggerLabelKeyMap, deviceTypeIdentifier);
-				triggerMap.put(getTriggerIDfromPropertyKey(key), value);
+				profile.triggerLabelKeys.put(getTriggerIDfromPropertyKey(key), value);
+			} else if(key.equals("deadzone") || key.startsWith("deadzone.")) {
+				profile.deadZoneSettings.put(key, value.trim());
+			} else if(key.startsWith("curve.")) {
+				// Sampled into its table right away, so reading the axes stays cheap
+				profile.responseCurves.put(namePart, ResponseCurve.parse(value));
 			} 
 		}
+		validateDeadZoneSettings(profile.deadZoneSettings);
+		return profile;
+	}
+
+	/**
+	 * Checks the deadzone settings of a mapping, so that a mapping with an
+	 * invalid deadzone is rejected as a whole (and a reloaded one does not
+	 * replace the mapping in use).
+	 * 
+	 * @param settings The "deadzone..." properties.
+	 * @throws IllegalArgumentException If a setting is not valid.
+	 */
+	private static void validateDeadZoneSettings(Properties settings) {
+		for(String key : settings.stringPropertyNames()) {
+			String[] parts = key.split("\\.");
+			String setting = parts.length == 1 ? "inner" : parts[parts.length - 1];
+			if(parts.length > 3 || (parts.length == 3 && StickID.getStickIDfromString(parts[1]) == null)
+					|| (parts.length == 2 && setting.equals("inner"))) {
+				throw new IllegalArgumentException("Unknown deadzone setting: " + key);
+			}
+			String value = settings.getProperty(key);
+			if(setting.equals("mode")) {
+				if(DeadZoneMode.getDeadZoneModeFromString(value.toUpperCase()) == null) {
+					throw new IllegalArgumentException("Invalid deadzone mode: " + key + "=" + value);
+				}
+			} else if(setting.equals("inner") || setting.equals("outer")) {
+				float deadZone = floatFromString(value).floatValue();
+				if(!(deadZone >= 0f && deadZone <= 1.0f)) {
+					throw new IllegalArgumentException("Deadzone out of range (0 - 1): " + key + "=" + value);
+				}
+			} else {
+				throw new IllegalArgumentException("Unknown deadzone setting: " + key);
+			}
+		}
+		checkDeadZoneRange(settings.getProperty("deadzone"), settings.getProperty("deadzone.outer"), "deadzone");
+		for(StickID stickID : StickID.values()) {
+			String prefix = "deadzone." + stickID.name() + ".";
+			checkDeadZoneRange(settings.getProperty(prefix + "inner", settings.getProperty("deadzone")),
+					settings.getProperty(prefix + "outer", settings.getProperty("deadzone.outer")), "deadzone." + stickID.name());
+		}
+	}
+
+	/**
+	 * Checks that an inner deadzone is smaller than the outer one (if both are set).
+	 * 
+	 * @param inner The inner deadzone (or null).
+	 * @param outer The outer deadzone (or null).
+	 * @param name The name of the deadzone, for the error message.
+	 * @throws IllegalArgumentException If the inner deadzone is not smaller.
+	 */
+	private static void checkDeadZoneRange(String inner, String outer, String name) {
+		if(inner != null && outer != null && floatFromString(inner).floatValue() >= floatFromString(outer).floatValue()) {
+			throw new IllegalArgumentException("Inner deadzone must be smaller than the outer one: " 
+					+ name + "=" + inner + " / " + outer);
+		}
+	}
+
+	/**
+	 * Installs a parsed mapping, replacing the one of the same device type.
+	 * Must be invoked by the polling thread (or while the controllers are
+	 * not polled). Controllers which are already connected keep their old
+	 * mapping until it is applied to them (see "DesktopController.prepareMapping()").
+	 * 
+	 * @param profile The parsed mapping.
+	 */
+	static synchronized void installMapping(Profile profile) {
+		profileMap.put(Long.valueOf(profile.deviceTypeIdentifier), profile);
+	}
+
+	/**
+	 * Returns the installed mapping of the device type of the given controller.
+	 * 
+	 * @param controller The controller.
+	 * @return The mapping (empty if none is installed for its device type).
+	 */
+	static Profile getProfile(IController controller) {
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? new Profile(controller.getDeviceTypeIdentifier()) : profile;
 	}
 
 	/**
@@ -170,58 +445,179 @@ public class Mapping {
 	 * @return The mapping string, or null, if none was found.
 	 */
 	public static String getMapping(IController controller,MappingType type, int value) {
-		Map<Integer, String> idMap = null;
-		if(type == MappingType.BUTTON) {
-			idMap = buttonMapId.get(controller.getDeviceTypeIdentifier());
-		} else if(type == MappingType.DPAD_AXIS) {
-			idMap = dpadAxisMapId.get(controller.getDeviceTypeIdentifier());
-		} else if(type == MappingType.TRIGGER_AXIS) {
-			idMap = triggerAxisMapId.get(controller.getDeviceTypeIdentifier());
-		} else if(type == MappingType.STICK_AXIS) {
-			idMap = stickAxisMapId.get(controller.getDeviceTypeIdentifier());
-		}
-		if(idMap != null) {
-			return idMap.get(value);
-		}
-		return null;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.getMapping(type, value);
+	}
+
+	/**
+	 * Returns the inner deadzone for a stick of the given controller, as 
+	 * defined by "deadzone.LEFT.inner=..." or, for all sticks, "deadzone=...".
+	 * 
+	 * @param controller The controller.
+	 * @param stickID The ID of the stick.
+	 * @return The inner deadzone, or null if none is defined.
+	 */
+	public static Float getInnerDeadZone(IController controller, StickID stickID) {
+		return getProfile(controller).getInnerDeadZone(stickID);
+	}
+
+	/**
+	 * Returns the outer deadzone for a stick of the given controller, as 
+	 * defined by "deadzone.LEFT.outer=..." or, for all sticks, "deadzone.outer=...".
+	 * 
+	 * @param controller The controller.
+	 * @param stickID The ID of the stick.
+	 * @return The outer deadzone, or null if none is defined.
+	 */
+	public static Float getOuterDeadZone(IController controller, StickID stickID) {
+		return getProfile(controller).getOuterDeadZone(stickID);
+	}
+
+	/**
+	 * Returns the deadzone mode for a stick of the given controller, as 
+	 * defined by "deadzone.LEFT.mode=..." or, for all sticks, "deadzone.mode=...".
+	 * 
+	 * @param controller The controller.
+	 * @param stickID The ID of the stick.
+	 * @return The deadzone mode, or null if none is defined.
+	 * @throws IllegalArgumentException If the mode is not valid.
+	 */
+	public static DeadZoneMode getDeadZoneMode(IController controller, StickID stickID) {
+		return getProfile(controller).getDeadZoneMode(stickID);
+	}
+
+	/**
+	 * Returns the response curve for the axes of a stick of the given
+	 * controller, as defined by "curve.stick.LEFT=exponential:2.0".
+	 * 
+	 * @param controller The controller.
+	 * @param stickID The ID of the stick.
+	 * @return The response curve, or null if none is defined.
+	 */
+	public static ResponseCurve getStickResponseCurve(IController controller, StickID stickID) {
+		return getResponseCurve(controller, "stick." + stickID.name());
+	}
+
+	/**
+	 * Returns the response curve for a trigger of the given controller, 
+	 * as defined by "curve.trigger.LEFT_DOWN=scurve:2.0".
+	 * 
+	 * @param controller The controller.
+	 * @param triggerID The ID of the trigger.
+	 * @return The response curve, or null if none is defined.
+	 */
+	public static ResponseCurve getTriggerResponseCurve(IController controller, TriggerID triggerID) {
+		return getResponseCurve(controller, "trigger." + triggerID.name());
+	}
+
+	/**
+	 * Returns the response curve for an axis of the given controller, 
+	 * as defined by "curve.axis.3=piecewise:0/0,0.5/0.2,1/1". It overrides
+	 * the curve of the stick or trigger to which the axis belongs.
+	 * 
+	 * @param controller The controller.
+	 * @param axisNo The number of the axis.
+	 * @return The response curve, or null if none is defined.
+	 */
+	public static ResponseCurve getAxisResponseCurve(IController controller, int axisNo) {
+		return getResponseCurve(controller, "axis." + axisNo);
+	}
+
+	/**
+	 * Returns a response curve of the given controller.
+	 * 
+	 * @param controller The controller.
+	 * @param key The key of the curve (property name without "curve.").
+	 * @return The response curve, or null if none is defined.
+	 */
+	private static ResponseCurve getResponseCurve(IController controller, String key) {
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.responseCurves.get(key);
+	}
+
+	/**
+	 * Returns the button aliases for the given controller (like "ACCEPT"
+	 * for "FACE_DOWN"), as defined by entries such as "button.ACCEPT=FACE_DOWN".
+	 * 
+	 * @param controller The controller for which to retrieve the aliases.
+	 * @return The map of alias IDs to the IDs of the real buttons, or null.
+	 */
+	public static Map<ButtonID, ButtonID> getButtonAliases(IController controller) {
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.getButtonAliases();
 	}
 
 	/**
 	 * Adds a mapping for a certain component of the controller.
 	 * 
+	 * @param profile The mapping to which it is added.
 	 * @param type The type (button, axis, trigger...)
 	 * @param namePart Name part of property name (name of button, axis etc.)
 	 * @param value The number of the axis or button.
-	 * @param deviceTypeIdentifier
+	 * @throws IllegalArgumentException If the name or the value is not valid.
 	 */
-	private static void addMapping(MappingType type, String namePart, String value, long deviceTypeIdentifier) {
+	private static void addMapping(Profile profile, MappingType type, String namePart, String value) {
 		if(type == MappingType.BUTTON) {
-			Map<Integer, String> buttonMap = getOrCreateMapForDevice(buttonMapId, deviceTypeIdentifier);
+			ButtonID buttonID = ButtonID.getButtonIDfromString(namePart);
+			ButtonID aliasTarget = ButtonID.getButtonIDfromString(value.trim());
+			if(aliasTarget != null) {
+				// Alias like "button.ACCEPT=FACE_DOWN"
+				if(Log.debugEnabled) {
+					Log.logger.debug("Add alias for BUTTON: " + namePart + "=" + value);
+				}
+				if(buttonID == null) {
+					throw new IllegalArgumentException("Invalid button alias ID '" + namePart + "'");
+				}
+				profile.aliases.put(buttonID, aliasTarget);
+				return;
+			}
+			if(buttonID == null || buttonID == ButtonID.UNKNOWN) {
+				throw new IllegalArgumentException("Invalid button ID '" + namePart + "'");
+			}
 			if(Log.debugEnabled) {
 				Log.logger.debug("Add mapping for BUTTON: " + namePart + "=" + value);
 			}
-			buttonMap.put(intFromString(value), namePart);
+			profile.buttons.put(intFromString(value), namePart);
 		} else if(type == MappingType.TRIGGER_AXIS) {
-			Map<Integer, String> triggerMap = getOrCreateMapForDevice(triggerAxisMapId, deviceTypeIdentifier);
+			TriggerID triggerID = TriggerID.getTriggerIDfromString(namePart);
+			if(triggerID == null || triggerID == TriggerID.UNKNOWN) {
+				throw new IllegalArgumentException("Invalid trigger ID '" + namePart + "'");
+			}
 			if(Log.debugEnabled) {
 				Log.logger.debug("Add mapping for TRIGGER: " + namePart + "=" + value);
 			}
-			triggerMap.put(intFromString(value), namePart);
+			profile.triggerAxes.put(intFromString(value), namePart);
 		} else if(type == MappingType.DPAD_AXIS) {
-			Map<Integer, String> dpadMap = getOrCreateMapForDevice(dpadAxisMapId, deviceTypeIdentifier);
+			if(!isAxisType(namePart)) {
+				throw new IllegalArgumentException("Invalid d-pad axis '" + namePart + "'");
+			}
 			if(Log.debugEnabled) {
 				Log.logger.debug("Add mapping for DPAD: " + namePart + "=" + value);
 			}
-			dpadMap.put(intFromString(value), namePart);
+			profile.dpadAxes.put(intFromString(value), namePart);
 		} else if(type == MappingType.STICK_AXIS) {
-			Map<Integer, String> stickMap = getOrCreateMapForDevice(stickAxisMapId, deviceTypeIdentifier);
+			int separator = namePart.indexOf(".");
+			if(separator == -1 || StickID.getStickIDfromString(namePart.substring(0, separator)) == null
+					|| !isAxisType(namePart.substring(separator + 1))) {
+				throw new IllegalArgumentException("Invalid stick axis '" + namePart + "'");
+			}
 			if(Log.debugEnabled) {
 				Log.logger.debug("Add mapping for STICK: " + namePart + "=" + value);
 			}
-			stickMap.put(intFromString(value), namePart);
+			profile.stickAxes.put(intFromString(value), namePart);
 		}
 	}
 
+	/**
+	 * Checks if the given name is the type of an axis of a stick or the d-pad.
+	 * 
+	 * @param name The name, like "X".
+	 * @return True if it is "X" or "Y".
+	 */
+	private static boolean isAxisType(String name) {
+		return name.equalsIgnoreCase("X") || name.equalsIgnoreCase("Y");
+	}
+
 	/**
 	 * Converts a string value to a Float.
 	 * 
@@ -252,57 +648,6 @@ public class Mapping {
 		}
 	}
 
-	/**
-	 * Returns the hash map for the given device and mapping type, if it exists.
-	 * If not, it is created.
-	 *  
-	 * @param idMap The map in which to look for the requested map.
-	 * @param deviceTypeIdentifier The device type identifier.
-	 * @return The newly created, or already existing map.
-	 */
-	private static Map<Integer, String> getOrCreateMapForDevice(Map<Long, Map<Integer, String>> idMap, long deviceTypeIdentifier) {
-		Map<Integer, String> map = idMap.get(deviceTypeIdentifier);
-		if(map == null) {
-			map = new HashMap<Integer, String>();
-			idMap.put(deviceTypeIdentifier, map);
-		}
-		return map;
-	}
-
-	/**
-	 * Returns the hash map for the given device and mapping type, if it exists.
-	 * If not, it is created.
-	 *  
-	 * @param idMap The map in which to look for the requested map.
-	 * @param deviceTypeIdentifier The device type identifier.
-	 * @return The newly created, or already existing map.
-	 */
-	private static Map<ButtonID, String> getOrCreateMapForButton(Map<Long, Map<ButtonID, String>> idMap, long deviceTypeIdentifier) {
-		Map<ButtonID, String> map = idMap.get(deviceTypeIdentifier);
-		if(map == null) {
-			map = new HashMap<ButtonID, String>();
-			idMap.put(deviceTypeIdentifier, map);
-		}
-		return map;
-	}
-
-	/**
-	 * Returns the hash map for the given device and mapping type, if it exists.
-	 * If not, it is created.
-	 *  
-	 * @param idMap The map in which to look for the requested map.
-	 * @param deviceTypeIdentifier The device type identifier.
-	 * @return The newly created, or already existing map.
-	 */
-	private static Map<TriggerID, String> getOrCreateMapForTrigger(Map<Long, Map<TriggerID, String>> idMap, long deviceTypeIdentifier) {
-		Map<TriggerID, String> map = idMap.get(deviceTypeIdentifier);
-		if(map == null) {
-			map = new HashMap<TriggerID, String>();
-			idMap.put(deviceTypeIdentifier, map);
-		}
-		return map;
-	}
-	
 	/**
 	 * Creates the device identifier by building a long value based on
 	 * the vendor ID and the product ID in the given properties.
@@ -336,11 +681,8 @@ public class Mapping {
 	 * @return The number of triggers.
 	 */
 	public static int getNumberOfTriggers(IController controller) {
-		Map<Integer, String> map = triggerAxisMapId.get(controller.getDeviceTypeIdentifier());
-		if(map != null) {
-			return map.size();
-		}
-		return 0;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? 0 : profile.triggerAxes.size();
 	}
 	
 	/**
@@ -351,11 +693,8 @@ public class Mapping {
 	 * @return The number of sticks.
 	 */
 	public static int getNumberOfSticks(IController controller) {
-		Map<Integer, String> map = stickAxisMapId.get(controller.getDeviceTypeIdentifier());
-		if(map != null) {
-			return map.size() / 2;
-		}
-		return 0;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? 0 : profile.stickAxes.size() / 2;
 	}
 	
 	/**
@@ -366,11 +705,8 @@ public class Mapping {
 	 * @return The default text, or null, if none was defined.
 	 */
 	public static String getButtonLabel(IController controller, ButtonID buttonID) {
-		Map<ButtonID, String> idMap = defaultButtonLabelMap.get(controller.getDeviceTypeIdentifier());
-		if(idMap != null) {
-			return idMap.get(buttonID);
-		}
-		return null;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.buttonLabels.get(buttonID);
 	}
 	
 	/**
@@ -381,11 +717,8 @@ public class Mapping {
 	 * @return The resource key, or null, if none was defined.
 	 */
 	public static String getButtonLabelKey(IController controller, ButtonID buttonID) {
-		Map<ButtonID, String> idMap = buttonLabelKeyMap.get(controller.getDeviceTypeIdentifier());
-		if(idMap != null) {
-			return idMap.get(buttonID);
-		}
-		return null;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.buttonLabelKeys.get(buttonID);
 	}
 	
 	/**
@@ -396,11 +729,8 @@ public class Mapping {
 	 * @return The default text, or null, if none was defined.
 	 */
 	public static String getTriggerLabel(IController controller, TriggerID triggerID) {
-		Map<TriggerID, String> idMap = defaultTriggerLabelMap.get(controller.getDeviceTypeIdentifier());
-		if(idMap != null) {
-			return idMap.get(triggerID);
-		}
-		return null;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.triggerLabels.get(triggerID);
 	}
 	
 	/**
@@ -411,11 +741,8 @@ public class Mapping {
 	 * @return The resource key, or null, if none was defined.
 	 */
 	public static String getTriggerLabelKey(IController controller, TriggerID triggerID) {
-		Map<TriggerID, String> idMap = triggerLabelKeyMap.get(controller.getDeviceTypeIdentifier());
-		if(idMap != null) {
-			return idMap.get(triggerID);
-		}
-		return null;
+		Profile profile = profileMap.get(controller.getDeviceTypeIdentifier());
+		return profile == null ? null : profile.triggerLabelKeys.get(triggerID);
 	}
 	
 	/**
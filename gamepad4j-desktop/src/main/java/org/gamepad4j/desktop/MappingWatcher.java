@@ -0,0 +1,175 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.gamepad4j.util.Log;
+
+/**
+ * Watches an external mapping directory for created and changed mapping
+ * files. Each changed file is read and parsed on the watcher thread, and
+ * the parsed mapping is queued; the provider takes it from the queue with
+ * its next poll (see "DesktopControllerProvider.setMappingDirectory()"),
+ * so the polling thread never waits for the file system.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+class MappingWatcher implements Runnable {
+
+	/** Time to wait for further changes before the changed files are read (editors often write a file in several steps). */
+	static final long SETTLE_MILLIS = 100L;
+
+	/** The watched directory. */
+	private final Path directory;
+
+	/** The watch service. */
+	private final WatchService watchService;
+
+	/** The watcher thread. */
+	private final Thread thread;
+
+	/** The parsed mappings which were not applied yet. */
+	private final ConcurrentLinkedQueue<Mapping.Profile> pending = new ConcurrentLinkedQueue<Mapping.Profile>();
+
+	/** Number of mapping files which could not be read or parsed. */
+	private volatile long errorCount = 0L;
+
+	/**
+	 * Creates a watcher for the given directory (it must exist).
+	 *
+	 * @param directory The mapping directory.
+	 * @throws IOException If the directory cannot be watched.
+	 */
+	MappingWatcher(File directory) throws IOException {
+		this.directory = directory.toPath();
+		this.watchService = FileSystems.getDefault().newWatchService();
+		try {
+			this.directory.register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY);
+		} catch(IOException e) {
+			this.watchService.close();
+			throw e;
+		}
+		this.thread = new Thread(this, "gamepad4j-mapping-watcher");
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Starts watching.
+	 */
+	void start() {
+		this.thread.start();
+	}
+
+	/**
+	 * Stops watching. Mappings which were not applied yet are discarded.
+	 */
+	void stop() {
+		try {
+			this.watchService.close();
+		} catch(IOException e) {
+			// ignore
+		}
+		this.thread.interrupt();
+		this.pending.clear();
+	}
+
+	/**
+	 * Returns the next parsed mapping which was not applied yet.
+	 *
+	 * @return The mapping, or null if there is none.
+	 */
+	Mapping.Profile poll() {
+		return this.pending.poll();
+	}
+
+	/**
+	 * Returns the number of mapping files which could not be read or parsed.
+	 *
+	 * @return The number of errors.
+	 */
+	long getErrorCount() {
+		return this.errorCount;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		Set<Path> changed = new LinkedHashSet<Path>();
+		try {
+			while(true) {
+				WatchKey key = this.watchService.take();
+				// Collect the changes until the directory is quiet for a moment
+				while(key != null) {
+					for(WatchEvent<?> event : key.pollEvents()) {
+						if(event.kind() == OVERFLOW) {
+							continue;
+						}
+						Path name = (Path)event.context();
+						if(name.toString().endsWith(Mapping.MAPPING_FILE_SUFFIX)) {
+							changed.add(this.directory.resolve(name));
+						}
+					}
+					if(!key.reset()) {
+						if(Log.errorEnabled) {
+							Log.logger.error("Mapping directory is no longer accessible: " + this.directory);
+						}
+						return;
+					}
+					key = this.watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				for(Path file : changed) {
+					read(file.toFile());
+				}
+				changed.clear();
+			}
+		} catch(InterruptedException e) {
+			// Stopped
+		} catch(ClosedWatchServiceException e) {
+			// Stopped
+		}
+	}
+
+	/**
+	 * Reads and parses one mapping file, and queues the result.
+	 *
+	 * @param file The mapping file.
+	 */
+	private void read(File file) {
+		if(!file.isFile()) {
+			return;
+		}
+		try {
+			this.pending.add(Mapping.parseMapping(Mapping.readMappingFile(file)));
+			if(Log.infoEnabled) {
+				Log.logger.info("Mapping file changed: " + file);
+			}
+		} catch(Exception e) {
+			// Probably still being written; it is read again with its next change
+			this.errorCount++;
+			if(Log.errorEnabled) {
+				Log.logger.error("Failed to read mapping file " + file + ": " + e);
+			}
+		}
+	}
+}
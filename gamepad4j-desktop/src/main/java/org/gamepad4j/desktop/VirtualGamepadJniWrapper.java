@@ -0,0 +1,380 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+/**
+ * Simulated replacement for the native gamepad library. It implements
+ * all native methods of the JNI wrapper in plain Java, based on virtual
+ * pads whose button and axis states are set by the application. This
+ * allows to run the complete desktop provider (mapping, polling, events)
+ * without any real gamepad or native library, e.g. for tests and benchmarks.
+ * <pre>
+ * VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+ * VirtualGamepadJniWrapper.VirtualPad pad = wrapper.connect(1,
+ *         VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID, VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID,
+ *         "Virtual Xbox 360 pad", 11, 8);
+ * DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+ * ...
+ * pad.setButton(0, true);
+ * provider.checkControllers();
+ * </pre>
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class VirtualGamepadJniWrapper extends GamepadJniWrapper {
+
+	/** Vendor ID of the Xbox 360 pad (for which a mapping exists). */
+	public static final int XBOX_360_VENDOR_ID = 0x45E;
+
+	/** Product ID of the Xbox 360 pad. */
+	public static final int XBOX_360_PRODUCT_ID = 0x28E;
+
+	/** Number of buttons of the Xbox 360 pad. */
+	public static final int XBOX_360_BUTTONS = 11;
+
+	/** Number of axes of the Xbox 360 pad. */
+	public static final int XBOX_360_AXES = 8;
+
+	/**
+	 * One simulated pad. Its state can be changed from any thread; the
+	 * provider reads it with the next poll.
+	 */
+	public static class VirtualPad {
+
+		/** The device ID. */
+		private final int deviceID;
+
+		/** The vendor ID. */
+		private final int vendorID;
+
+		/** The product ID. */
+		private final int productID;
+
+		/** The description text. */
+		private final String description;
+
+		/** The button states. */
+		private final boolean[] buttons;
+
+		/** The axis values. */
+		private final float[] axes;
+
+		/**
+		 * Creates a virtual pad.
+		 *
+		 * @param deviceID The device ID.
+		 * @param vendorID The vendor ID.
+		 * @param productID The product ID.
+		 * @param description The description text.
+		 * @param numberOfButtons The number of buttons.
+		 * @param numberOfAxes The number of axes.
+		 */
+		VirtualPad(int deviceID, int vendorID, int productID, String description, int numberOfButtons, int numberOfAxes) {
+			this.deviceID = deviceID;
+			this.vendorID = vendorID;
+			this.productID = productID;
+			this.description = description;
+			this.buttons = new boolean[numberOfButtons];
+			this.axes = new float[numberOfAxes];
+		}
+
+		/**
+		 * Returns the device ID of this pad.
+		 *
+		 * @return The device ID.
+		 */
+		public int getDeviceID() {
+			return this.deviceID;
+		}
+
+		/**
+		 * Returns the number of buttons of this pad.
+		 *
+		 * @return The number of buttons.
+		 */
+		public int getNumberOfButtons() {
+			return this.buttons.length;
+		}
+
+		/**
+		 * Returns the number of axes of this pad.
+		 *
+		 * @return The number of axes.
+		 */
+		public int getNumberOfAxes() {
+			return this.axes.length;
+		}
+
+		/**
+		 * Sets the state of a button.
+		 *
+		 * @param button The number of the button.
+		 * @param pressed True if the button is pressed.
+		 */
+		public void setButton(int button, boolean pressed) {
+			this.buttons[button] = pressed;
+		}
+
+		/**
+		 * Returns the state of a button.
+		 *
+		 * @param button The number of the button.
+		 * @return True if the button is pressed.
+		 */
+		public boolean isButtonPressed(int button) {
+			return this.buttons[button];
+		}
+
+		/**
+		 * Sets the value of an axis.
+		 *
+		 * @param axis The number of the axis.
+		 * @param value The axis value (-1.0 - 1.0).
+		 */
+		public void setAxis(int axis, float value) {
+			this.axes[axis] = value;
+		}
+
+		/**
+		 * Returns the value of an axis.
+		 *
+		 * @param axis The number of the axis.
+		 * @return The axis value.
+		 */
+		public float getAxis(int axis) {
+			return this.axes[axis];
+		}
+	}
+
+	/** The pad slots, indexed by pad index (null = free slot). */
+	private volatile VirtualPad[] pads = new VirtualPad[0];
+
+	/**
+	 * Creates a simulated wrapper (does not load the native library).
+	 */
+	public VirtualGamepadJniWrapper() {
+		super(false);
+	}
+
+	/**
+	 * Connects a new virtual pad. It occupies the first free pad index,
+	 * and the indexes of the other pads don't change.
+	 *
+	 * @param deviceID The device ID (must be unique).
+	 * @param vendorID The vendor ID (the mapping for it is used, if one exists).
+	 * @param productID The product ID.
+	 * @param description The description text.
+	 * @param numberOfButtons The number of buttons.
+	 * @param numberOfAxes The number of axes.
+	 * @return The virtual pad.
+	 */
+	public synchronized VirtualPad connect(int deviceID, int vendorID, int productID, String description,
+			int numberOfButtons, int numberOfAxes) {
+		VirtualPad pad = new VirtualPad(deviceID, vendorID, productID, description, numberOfButtons, numberOfAxes);
+		VirtualPad[] current = this.pads;
+		for(int i = 0; i < current.length; i++) {
+			if(current[i] == null) {
+				VirtualPad[] updated = current.clone();
+				updated[i] = pad;
+				this.pads = updated;
+				return pad;
+			}
+		}
+		VirtualPad[] updated = new VirtualPad[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		updated[current.length] = pad;
+		this.pads = updated;
+		return pad;
+	}
+
+	/**
+	 * Connects a new virtual Xbox 360 pad.
+	 *
+	 * @param deviceID The device ID (must be unique).
+	 * @return The virtual pad.
+	 */
+	public VirtualPad connectXbox360(int deviceID) {
+		return connect(deviceID, XBOX_360_VENDOR_ID, XBOX_360_PRODUCT_ID, "Virtual Xbox 360 pad " + deviceID,
+				XBOX_360_BUTTONS, XBOX_360_AXES);
+	}
+
+	/**
+	 * Disconnects a virtual pad.
+	 *
+	 * @param deviceID The device ID of the pad.
+	 * @return True if the pad was connected.
+	 */
+	public synchronized boolean disconnect(int deviceID) {
+		VirtualPad[] current = this.pads;
+		for(int i = 0; i < current.length; i++) {
+			if(current[i] != null && current[i].deviceID == deviceID) {
+				VirtualPad[] updated = current.clone();
+				updated[i] = null;
+				this.pads = updated;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the connected virtual pads.
+	 *
+	 * @return The pads (may contain null entries for free slots).
+	 */
+	public VirtualPad[] getPads() {
+		return this.pads;
+	}
+
+	/**
+	 * Returns the pad with the given index.
+	 *
+	 * @param index The pad index.
+	 * @return The pad, or null if there is none.
+	 */
+	private VirtualPad getPad(int index) {
+		VirtualPad[] current = this.pads;
+		if(index < 0 || index >= current.length) {
+			return null;
+		}
+		return current[index];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natInit()
+	 */
+	@Override
+	public void natInit() {
+		// nothing to initialize
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natRelease()
+	 */
+	@Override
+	public void natRelease() {
+		// nothing to release
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetDeviceID(int)
+	 */
+	@Override
+	public int natGetDeviceID(int index) {
+		VirtualPad pad = getPad(index);
+		return pad == null ? -1 : pad.deviceID;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetNumberOfPads()
+	 */
+	@Override
+	public int natGetNumberOfPads() {
+		return this.pads.length;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetNumberOfAxes(int)
+	 */
+	@Override
+	public int natGetNumberOfAxes(int index) {
+		VirtualPad pad = getPad(index);
+		return pad == null ? 0 : pad.axes.length;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetNumberOfButtons(int)
+	 */
+	@Override
+	public int natGetNumberOfButtons(int index) {
+		VirtualPad pad = getPad(index);
+		return pad == null ? 0 : pad.buttons.length;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetIdOfPad(int)
+	 */
+	@Override
+	public int natGetIdOfPad(int index) {
+		return natGetDeviceID(index);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natDetectPads()
+	 */
+	@Override
+	public void natDetectPads() {
+		// pads are connected and disconnected explicitly
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetControllerDescription(int)
+	 */
+	@Override
+	public String natGetControllerDescription(int index) {
+		VirtualPad pad = getPad(index);
+		return pad == null ? null : pad.description;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetControllerIDs(int, int[])
+	 */
+	@Override
+	public void natGetControllerIDs(int index, int[] idArray) {
+		VirtualPad pad = getPad(index);
+		if(pad != null) {
+			idArray[0] = pad.deviceID;
+			idArray[1] = pad.vendorID;
+			idArray[2] = pad.productID;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetControllerButtonStates(int, boolean[])
+	 */
+	@Override
+	public void natGetControllerButtonStates(int index, boolean[] stateArray) {
+		VirtualPad pad = getPad(index);
+		if(pad != null) {
+			System.arraycopy(pad.buttons, 0, stateArray, 0, Math.min(pad.buttons.length, stateArray.length));
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetControllerAxesStates(int, float[])
+	 */
+	@Override
+	public void natGetControllerAxesStates(int index, float[] axesArray) {
+		VirtualPad pad = getPad(index);
+		if(pad != null) {
+			System.arraycopy(pad.axes, 0, axesArray, 0, Math.min(pad.axes.length, axesArray.length));
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetControllerButtonState(int, int)
+	 */
+	@Override
+	public int natGetControllerButtonState(int index, int buttonIndex) {
+		VirtualPad pad = getPad(index);
+		if(pad == null || buttonIndex < 0 || buttonIndex >= pad.buttons.length) {
+			return 0;
+		}
+		return pad.buttons[buttonIndex] ? 1 : 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.GamepadJniWrapper#natGetControllerAxisState(int, int)
+	 */
+	@Override
+	public float natGetControllerAxisState(int index, int axisIndex) {
+		VirtualPad pad = getPad(index);
+		if(pad == null || axisIndex < 0 || axisIndex >= pad.axes.length) {
+			return 0f;
+		}
+		return pad.axes[axisIndex];
+	}
+}
@@ -0,0 +1,315 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.gamepad4j.IAxis;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.base.BaseAxis;
+import org.gamepad4j.util.Log;
+
+/**
+ * Records the raw input of all controllers into a binary file (see
+ * RecordingFormat), e.g. for bug reports or regression tests. The
+ * recording can be played back with the same mapping, deadzones etc.
+ * <p>
+ * The file is written through memory-mapped segments. Recording a frame
+ * only writes into the mapped memory, without allocating objects or
+ * invoking the operating system; only when a segment is full, the next
+ * one is mapped. The operating system writes the data to disk in the
+ * background.
+ * <pre>
+ * InputRecorder recorder = new InputRecorder(new File("session.g4jr"));
+ * desktopProvider.setInputRecorder(recorder);
+ * ...
+ * desktopProvider.setInputRecorder(null);
+ * recorder.close();
+ * </pre>
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class InputRecorder {
+
+	/** Default number of axis slots per frame. */
+	public static final int DEFAULT_AXIS_SLOTS = 8;
+
+	/** Default size of the mapped segments (16 MB). */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	/** The recording file. */
+	private final RandomAccessFile file;
+
+	/** The channel of the recording file. */
+	private final FileChannel channel;
+
+	/** The mapped header. */
+	private final MappedByteBuffer header;
+
+	/** Number of axis slots per frame. */
+	private final int axisSlots;
+
+	/** Size of one frame. */
+	private final int frameSize;
+
+	/** Size of the mapped segments. */
+	private final int segmentSize;
+
+	/** The currently mapped segment. */
+	private MappedByteBuffer segment = null;
+
+	/** File position of the current segment. */
+	private long segmentStart = 0L;
+
+	/** Number of frames written. */
+	private long frameCount = 0L;
+
+	/** Number of frames which could not be written. */
+	private long droppedCount = 0L;
+
+	/** Flag which is set when the recorder was closed, or failed. */
+	private boolean closed = false;
+
+	/**
+	 * Creates a recorder with the default settings. An existing file is overwritten.
+	 *
+	 * @param file The recording file.
+	 * @throws IOException If the file could not be created.
+	 */
+	public InputRecorder(File file) throws IOException {
+		this(file, DEFAULT_AXIS_SLOTS, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Creates a recorder. An existing file is overwritten.
+	 *
+	 * @param file The recording file.
+	 * @param axisSlots The number of axes recorded per controller (1 - 256).
+	 * @param segmentSize The size of the mapped segments (at least one frame).
+	 * @throws IOException If the file could not be created.
+	 */
+	public InputRecorder(File file, int axisSlots, int segmentSize) throws IOException {
+		if(axisSlots < 1 || axisSlots > 256) {
+			throw new IllegalArgumentException("Invalid number of axis slots (must be 1 - 256): " + axisSlots);
+		}
+		this.axisSlots = axisSlots;
+		this.frameSize = RecordingFormat.getFrameSize(axisSlots);
+		if(segmentSize < this.frameSize) {
+			throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+		}
+		this.segmentSize = segmentSize;
+		this.file = new RandomAccessFile(file, "rw");
+		this.file.setLength(0L);
+		this.channel = this.file.getChannel();
+		this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0L, RecordingFormat.HEADER_SIZE);
+		this.header.order(RecordingFormat.BYTE_ORDER);
+		this.header.putInt(RecordingFormat.HEADER_MAGIC, RecordingFormat.MAGIC);
+		this.header.putShort(RecordingFormat.HEADER_VERSION, RecordingFormat.VERSION);
+		this.header.putShort(RecordingFormat.HEADER_AXIS_SLOTS, (short)axisSlots);
+		this.header.putInt(RecordingFormat.HEADER_FRAME_SIZE, this.frameSize);
+		this.header.putLong(RecordingFormat.HEADER_FRAME_COUNT, 0L);
+		mapSegment(RecordingFormat.HEADER_SIZE);
+		if(Log.infoEnabled) {
+			Log.logger.info("Recording input to " + file.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Maps the next segment of the file.
+	 *
+	 * @param position The file position of the segment.
+	 * @throws IOException If the segment could not be mapped.
+	 */
+	private void mapSegment(long position) throws IOException {
+		this.segment = this.channel.map(FileChannel.MapMode.READ_WRITE, position, this.segmentSize);
+		this.segment.order(RecordingFormat.BYTE_ORDER);
+		this.segmentStart = position;
+	}
+
+	/**
+	 * Makes sure that there is room for the next frame in the current
+	 * segment, and writes the common part of the frame.
+	 *
+	 * @param timestamp The timestamp of the frame.
+	 * @param deviceID The device ID.
+	 * @param type The frame type.
+	 * @return The offset of the frame in the current segment, or -1 if
+	 *         it can't be written.
+	 */
+	private int beginFrame(long timestamp, int deviceID, byte type) {
+		if(this.closed) {
+			this.droppedCount++;
+			return -1;
+		}
+		MappedByteBuffer buffer = this.segment;
+		int offset = buffer.position();
+		if(offset + this.frameSize > buffer.capacity()) {
+			try {
+				mapSegment(this.segmentStart + offset);
+			} catch(IOException e) {
+				// Don't disturb the polling; just stop recording
+				this.closed = true;
+				this.droppedCount++;
+				if(Log.errorEnabled) {
+					Log.logger.error("Input recording stopped, failed to extend file: " + e);
+				}
+				return -1;
+			}
+			buffer = this.segment;
+			offset = 0;
+		}
+		buffer.putLong(offset + RecordingFormat.FRAME_TIMESTAMP, timestamp);
+		buffer.putInt(offset + RecordingFormat.FRAME_DEVICE_ID, deviceID);
+		buffer.put(offset + RecordingFormat.FRAME_TYPE, type);
+		return offset;
+	}
+
+	/**
+	 * Completes the frame at the given offset.
+	 *
+	 * @param offset The offset of the frame in the current segment.
+	 */
+	private void endFrame(int offset) {
+		this.segment.position(offset + this.frameSize);
+		this.frameCount++;
+		this.header.putLong(RecordingFormat.HEADER_FRAME_COUNT, this.frameCount);
+	}
+
+	/**
+	 * Records that a controller was connected.
+	 *
+	 * @param controller The controller.
+	 * @param timestamp The time of the poll (System.nanoTime()).
+	 */
+	public synchronized void recordConnect(IController controller, long timestamp) {
+		int offset = beginFrame(timestamp, controller.getDeviceID(), RecordingFormat.CONNECT);
+		if(offset != -1) {
+			MappedByteBuffer buffer = this.segment;
+			IButton[] buttons = controller.getButtons();
+			IAxis[] axes = controller.getAxes();
+			int numberOfButtons = buttons == null ? 0 : Math.min(buttons.length, RecordingFormat.MAX_BUTTONS);
+			buffer.put(offset + RecordingFormat.FRAME_BUTTON_COUNT, (byte)numberOfButtons);
+			buffer.putShort(offset + RecordingFormat.FRAME_AXIS_COUNT, (short)(axes == null ? 0 : axes.length));
+			buffer.putLong(offset + RecordingFormat.FRAME_BUTTONS,
+					((long)controller.getVendorID() << 32) | (controller.getProductID() & 0xFFFFFFFFL));
+			for(int i = 0; i < this.axisSlots; i++) {
+				buffer.putShort(offset + RecordingFormat.FRAME_AXES + i * 2, (short)0);
+			}
+			endFrame(offset);
+		}
+	}
+
+	/**
+	 * Records that a controller was disconnected.
+	 *
+	 * @param controller The controller.
+	 * @param timestamp The time of the poll (System.nanoTime()).
+	 */
+	public synchronized void recordDisconnect(IController controller, long timestamp) {
+		int offset = beginFrame(timestamp, controller.getDeviceID(), RecordingFormat.DISCONNECT);
+		if(offset != -1) {
+			MappedByteBuffer buffer = this.segment;
+			buffer.put(offset + RecordingFormat.FRAME_BUTTON_COUNT, (byte)0);
+			buffer.putShort(offset + RecordingFormat.FRAME_AXIS_COUNT, (short)0);
+			buffer.putLong(offset + RecordingFormat.FRAME_BUTTONS, 0L);
+			for(int i = 0; i < this.axisSlots; i++) {
+				buffer.putShort(offset + RecordingFormat.FRAME_AXES + i * 2, (short)0);
+			}
+			endFrame(offset);
+		}
+	}
+
+	/**
+	 * Records the raw state of a controller after a poll.
+	 *
+	 * @param controller The controller.
+	 * @param timestamp The time of the poll (System.nanoTime()).
+	 */
+	public synchronized void recordState(IController controller, long timestamp) {
+		int offset = beginFrame(timestamp, controller.getDeviceID(), RecordingFormat.STATE);
+		if(offset != -1) {
+			MappedByteBuffer buffer = this.segment;
+			long buttonStates = 0L;
+			IButton[] buttons = controller.getButtons();
+			if(buttons != null) {
+				int numberOfButtons = Math.min(buttons.length, RecordingFormat.MAX_BUTTONS);
+				for(int i = 0; i < numberOfButtons; i++) {
+					if(buttons[i] != null && buttons[i].isPressed()) {
+						buttonStates |= 1L << i;
+					}
+				}
+			}
+			buffer.put(offset + RecordingFormat.FRAME_BUTTON_COUNT, (byte)0);
+			buffer.putShort(offset + RecordingFormat.FRAME_AXIS_COUNT, (short)0);
+			buffer.putLong(offset + RecordingFormat.FRAME_BUTTONS, buttonStates);
+			IAxis[] axes = controller.getAxes();
+			int numberOfAxes = axes == null ? 0 : axes.length;
+			for(int i = 0; i < this.axisSlots; i++) {
+				short value = 0;
+				if(i < numberOfAxes && axes[i] != null) {
+					float raw = axes[i] instanceof BaseAxis ? ((BaseAxis)axes[i]).getRawValue() : axes[i].getValue();
+					value = RecordingFormat.quantize(raw);
+				}
+				buffer.putShort(offset + RecordingFormat.FRAME_AXES + i * 2, value);
+			}
+			endFrame(offset);
+		}
+	}
+
+	/**
+	 * Returns the number of frames written so far.
+	 *
+	 * @return The number of frames.
+	 */
+	public synchronized long getFrameCount() {
+		return this.frameCount;
+	}
+
+	/**
+	 * Returns the number of frames which could not be written (after
+	 * closing, or because the file could not be extended).
+	 *
+	 * @return The number of dropped frames.
+	 */
+	public synchronized long getDroppedCount() {
+		return this.droppedCount;
+	}
+
+	/**
+	 * Returns the number of axes recorded per controller.
+	 *
+	 * @return The number of axis slots.
+	 */
+	public int getAxisSlots() {
+		return this.axisSlots;
+	}
+
+	/**
+	 * Stops recording, writes the pending data to disk and closes the file.
+	 * The file may be longer than the recorded frames (up to the end of
+	 * the last segment); readers use the frame count of the header.
+	 *
+	 * @throws IOException If the file could not be written.
+	 */
+	public synchronized void close() throws IOException {
+		if(!this.channel.isOpen()) {
+			return;
+		}
+		this.closed = true;
+		this.segment.force();
+		this.header.force();
+		this.channel.close();
+		this.file.close();
+		if(Log.infoEnabled) {
+			Log.logger.info("Input recording closed, " + this.frameCount + " frames written.");
+		}
+	}
+}
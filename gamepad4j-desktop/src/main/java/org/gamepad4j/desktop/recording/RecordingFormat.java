@@ -0,0 +1,141 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.recording;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constants of the binary input recording format. All values are
+ * little-endian.
+ * <p>
+ * The file starts with a header of HEADER_SIZE bytes:
+ * <pre>
+ *  0  int   MAGIC
+ *  4  short VERSION
+ *  6  short number of axis slots per frame
+ *  8  int   frame size in bytes
+ * 12  int   (reserved)
+ * 16  long  number of frames written
+ * </pre>
+ * It is followed by frames of a fixed size (24 bytes plus 2 bytes per axis slot):
+ * <pre>
+ *  0  long  timestamp (System.nanoTime() of the poll)
+ *  8  int   device ID
+ * 12  byte  frame type (STATE, CONNECT or DISCONNECT)
+ * 13  byte  number of buttons (CONNECT only)
+ * 14  short number of axes (CONNECT only)
+ * 16  long  raw button states, bit n = button n (STATE),
+ *           or vendor ID &lt;&lt; 32 | product ID (CONNECT)
+ * 24  short raw axis values, quantized to -32767 - 32767 (STATE only)
+ * </pre>
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public final class RecordingFormat {
+
+	/** Magic number at the start of a recording ("G4JR"). */
+	public static final int MAGIC = 0x47344A52;
+
+	/** Version of the format. */
+	public static final short VERSION = 1;
+
+	/** Byte order of all values. */
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/** Size of the file header. */
+	public static final int HEADER_SIZE = 64;
+
+	/** Offset of the magic number in the header. */
+	public static final int HEADER_MAGIC = 0;
+
+	/** Offset of the version in the header. */
+	public static final int HEADER_VERSION = 4;
+
+	/** Offset of the number of axis slots in the header. */
+	public static final int HEADER_AXIS_SLOTS = 6;
+
+	/** Offset of the frame size in the header. */
+	public static final int HEADER_FRAME_SIZE = 8;
+
+	/** Offset of the number of frames in the header. */
+	public static final int HEADER_FRAME_COUNT = 16;
+
+	/** Size of a frame without the axis slots. */
+	public static final int FRAME_FIXED_SIZE = 24;
+
+	/** Offset of the timestamp in a frame. */
+	public static final int FRAME_TIMESTAMP = 0;
+
+	/** Offset of the device ID in a frame. */
+	public static final int FRAME_DEVICE_ID = 8;
+
+	/** Offset of the frame type in a frame. */
+	public static final int FRAME_TYPE = 12;
+
+	/** Offset of the number of buttons in a frame. */
+	public static final int FRAME_BUTTON_COUNT = 13;
+
+	/** Offset of the number of axes in a frame. */
+	public static final int FRAME_AXIS_COUNT = 14;
+
+	/** Offset of the button states (or vendor / product ID) in a frame. */
+	public static final int FRAME_BUTTONS = 16;
+
+	/** Offset of the first axis value in a frame. */
+	public static final int FRAME_AXES = 24;
+
+	/** Frame type: state of a controller after a poll. */
+	public static final byte STATE = 1;
+
+	/** Frame type: controller was connected. */
+	public static final byte CONNECT = 2;
+
+	/** Frame type: controller was disconnected. */
+	public static final byte DISCONNECT = 3;
+
+	/** Maximum number of buttons which are recorded per controller. */
+	public static final int MAX_BUTTONS = 64;
+
+	/** Factor for quantizing axis values to shorts. */
+	public static final float AXIS_SCALE = 32767f;
+
+	/**
+	 * Returns the size of a frame.
+	 *
+	 * @param axisSlots The number of axis slots per frame.
+	 * @return The frame size in bytes.
+	 */
+	public static int getFrameSize(int axisSlots) {
+		return FRAME_FIXED_SIZE + axisSlots * 2;
+	}
+
+	/**
+	 * Quantizes an axis value.
+	 *
+	 * @param value The axis value (-1.0 - 1.0).
+	 * @return The quantized value.
+	 */
+	public static short quantize(float value) {
+		return (short)Math.round(value * AXIS_SCALE);
+	}
+
+	/**
+	 * Restores a quantized axis value.
+	 *
+	 * @param value The quantized value.
+	 * @return The axis value (-1.0 - 1.0).
+	 */
+	public static float dequantize(short value) {
+		float result = value / AXIS_SCALE;
+		return result < -1.0f ? -1.0f : result;
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private RecordingFormat() {
+	}
+}
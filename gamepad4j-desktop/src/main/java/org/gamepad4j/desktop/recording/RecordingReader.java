@@ -0,0 +1,282 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the frames of an input recording (see RecordingFormat) one by
+ * one. The file is mapped in windows of whole frames, so recordings of
+ * any length can be read without allocating objects per frame.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class RecordingReader {
+
+	/** Size of the mapped windows (approximately). */
+	private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+	/** The recording file. */
+	private final RandomAccessFile file;
+
+	/** The channel of the recording file. */
+	private final FileChannel channel;
+
+	/** Number of axis slots per frame. */
+	private final int axisSlots;
+
+	/** Size of one frame. */
+	private final int frameSize;
+
+	/** Number of frames in the recording. */
+	private final long frameCount;
+
+	/** Number of frames per mapped window. */
+	private final int framesPerWindow;
+
+	/** The currently mapped window. */
+	private MappedByteBuffer window = null;
+
+	/** Index of the first frame of the current window (-1 = none mapped). */
+	private long windowFirstFrame = -1L;
+
+	/** Index of the current frame (-1 = before the first frame). */
+	private long frameIndex = -1L;
+
+	/** Offset of the current frame in the current window. */
+	private int offset = 0;
+
+	/**
+	 * Opens a recording.
+	 *
+	 * @param file The recording file.
+	 * @throws IOException If the file could not be read, or is not a recording.
+	 */
+	public RecordingReader(File file) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		this.channel = this.file.getChannel();
+		try {
+			MappedByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0L, RecordingFormat.HEADER_SIZE);
+			header.order(RecordingFormat.BYTE_ORDER);
+			if(header.getInt(RecordingFormat.HEADER_MAGIC) != RecordingFormat.MAGIC) {
+				throw new IOException("Not an input recording: " + file.getAbsolutePath());
+			}
+			short version = header.getShort(RecordingFormat.HEADER_VERSION);
+			if(version != RecordingFormat.VERSION) {
+				throw new IOException("Unsupported recording version: " + version);
+			}
+			this.axisSlots = header.getShort(RecordingFormat.HEADER_AXIS_SLOTS);
+			this.frameSize = header.getInt(RecordingFormat.HEADER_FRAME_SIZE);
+			if(this.frameSize != RecordingFormat.getFrameSize(this.axisSlots)) {
+				throw new IOException("Invalid frame size in recording: " + this.frameSize);
+			}
+			// A recording which was not closed properly may lack the last frames
+			long available = (this.file.length() - RecordingFormat.HEADER_SIZE) / this.frameSize;
+			this.frameCount = Math.min(header.getLong(RecordingFormat.HEADER_FRAME_COUNT), available);
+			this.framesPerWindow = Math.max(1, WINDOW_SIZE / this.frameSize);
+		} catch(IOException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of frames in the recording.
+	 *
+	 * @return The number of frames.
+	 */
+	public long getFrameCount() {
+		return this.frameCount;
+	}
+
+	/**
+	 * Returns the number of axis slots per frame.
+	 *
+	 * @return The number of axis slots.
+	 */
+	public int getAxisSlots() {
+		return this.axisSlots;
+	}
+
+	/**
+	 * Returns the index of the current frame.
+	 *
+	 * @return The frame index (-1 before the first "next()").
+	 */
+	public long getFrameIndex() {
+		return this.frameIndex;
+	}
+
+	/**
+	 * Checks if there is another frame.
+	 *
+	 * @return True if "next()" will succeed.
+	 */
+	public boolean hasNext() {
+		return this.frameIndex + 1 < this.frameCount;
+	}
+
+	/**
+	 * Advances to the next frame.
+	 *
+	 * @return True if there was another frame.
+	 * @throws IOException If the file could not be read.
+	 */
+	public boolean next() throws IOException {
+		if(!hasNext()) {
+			return false;
+		}
+		this.frameIndex++;
+		this.offset = map(this.frameIndex);
+		return true;
+	}
+
+	/**
+	 * Returns the timestamp of the next frame, without advancing.
+	 *
+	 * @return The timestamp of the next frame.
+	 * @throws IOException If the file could not be read.
+	 * @throws IllegalStateException If there is no next frame.
+	 */
+	public long getNextTimestamp() throws IOException {
+		if(!hasNext()) {
+			throw new IllegalStateException("No more frames in recording.");
+		}
+		long current = this.frameIndex;
+		int nextOffset = map(current + 1);
+		long timestamp = this.window.getLong(nextOffset + RecordingFormat.FRAME_TIMESTAMP);
+		if(current >= 0L) {
+			// The window may have moved
+			this.offset = map(current);
+		}
+		return timestamp;
+	}
+
+	/**
+	 * Moves back to the start of the recording.
+	 */
+	public void rewind() {
+		this.frameIndex = -1L;
+	}
+
+	/**
+	 * Makes sure the given frame is in the mapped window.
+	 *
+	 * @param index The index of the frame.
+	 * @return The offset of the frame in the window.
+	 * @throws IOException If the file could not be mapped.
+	 */
+	private int map(long index) throws IOException {
+		if(this.windowFirstFrame < 0L || index < this.windowFirstFrame
+				|| index >= this.windowFirstFrame + this.framesPerWindow) {
+			// Include the previous frame, so that the current and the next
+			// frame are always in the same window
+			long first = Math.max(0L, index - 1);
+			long frames = Math.min(this.framesPerWindow, this.frameCount - first);
+			this.window = this.channel.map(FileChannel.MapMode.READ_ONLY,
+					RecordingFormat.HEADER_SIZE + first * this.frameSize, frames * this.frameSize);
+			this.window.order(RecordingFormat.BYTE_ORDER);
+			this.windowFirstFrame = first;
+		}
+		return (int)(index - this.windowFirstFrame) * this.frameSize;
+	}
+
+	/**
+	 * Returns the timestamp of the current frame.
+	 *
+	 * @return The timestamp (System.nanoTime() of the recorded poll).
+	 */
+	public long getTimestamp() {
+		return this.window.getLong(this.offset + RecordingFormat.FRAME_TIMESTAMP);
+	}
+
+	/**
+	 * Returns the device ID of the current frame.
+	 *
+	 * @return The device ID.
+	 */
+	public int getDeviceID() {
+		return this.window.getInt(this.offset + RecordingFormat.FRAME_DEVICE_ID);
+	}
+
+	/**
+	 * Returns the type of the current frame.
+	 *
+	 * @return The frame type (RecordingFormat.STATE, CONNECT or DISCONNECT).
+	 */
+	public byte getType() {
+		return this.window.get(this.offset + RecordingFormat.FRAME_TYPE);
+	}
+
+	/**
+	 * Returns the number of buttons of the controller (CONNECT frames only).
+	 *
+	 * @return The number of buttons.
+	 */
+	public int getButtonCount() {
+		return this.window.get(this.offset + RecordingFormat.FRAME_BUTTON_COUNT) & 0xFF;
+	}
+
+	/**
+	 * Returns the number of axes of the controller (CONNECT frames only).
+	 *
+	 * @return The number of axes.
+	 */
+	public int getAxisCount() {
+		return this.window.getShort(this.offset + RecordingFormat.FRAME_AXIS_COUNT);
+	}
+
+	/**
+	 * Returns the vendor ID of the controller (CONNECT frames only).
+	 *
+	 * @return The vendor ID.
+	 */
+	public int getVendorID() {
+		return (int)(this.window.getLong(this.offset + RecordingFormat.FRAME_BUTTONS) >>> 32);
+	}
+
+	/**
+	 * Returns the product ID of the controller (CONNECT frames only).
+	 *
+	 * @return The product ID.
+	 */
+	public int getProductID() {
+		return (int)this.window.getLong(this.offset + RecordingFormat.FRAME_BUTTONS);
+	}
+
+	/**
+	 * Returns the raw button states (STATE frames only).
+	 *
+	 * @return The button states (bit n = button n).
+	 */
+	public long getButtonStates() {
+		return this.window.getLong(this.offset + RecordingFormat.FRAME_BUTTONS);
+	}
+
+	/**
+	 * Returns a raw axis value (STATE frames only).
+	 *
+	 * @param slot The axis number (0 - axis slots - 1).
+	 * @return The axis value (-1.0 - 1.0).
+	 */
+	public float getAxisValue(int slot) {
+		return RecordingFormat.dequantize(this.window.getShort(this.offset + RecordingFormat.FRAME_AXES + slot * 2));
+	}
+
+	/**
+	 * Closes the recording.
+	 *
+	 * @throws IOException If the file could not be closed.
+	 */
+	public void close() throws IOException {
+		this.channel.close();
+		this.file.close();
+	}
+}
@@ -0,0 +1,260 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.recording;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+import org.gamepad4j.util.Log;
+
+/**
+ * Controller provider which replays an input recording (see InputRecorder).
+ * The recorded raw input is fed into simulated pads, and processed like
+ * the input of real pads (mapping, deadzones, listeners, snapshots), so
+ * a game can be run with recorded input without any pads, e.g. for
+ * automated regression tests:
+ * <pre>
+ * ReplayControllerProvider replay = new ReplayControllerProvider(
+ *         new File("session.g4jr"), ReplayControllerProvider.Mode.STEPPED);
+ * Controllers.initialize(replay, 0);
+ * while(replay.step()) {
+ *     game.update();
+ * }
+ * </pre>
+ * Every recorded poll is replayed with one poll of the provider, so no
+ * button press or release is lost, even if it lasted only one poll.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ReplayControllerProvider extends DesktopControllerProvider {
+
+	/**
+	 * The replay modes.
+	 */
+	public static enum Mode {
+
+		/**
+		 * "checkControllers()" replays all recorded polls which are due,
+		 * based on the time elapsed since the first poll.
+		 */
+		REAL_TIME,
+
+		/** Every "checkControllers()" replays the next recorded poll. */
+		AS_FAST_AS_POSSIBLE,
+
+		/**
+		 * Recorded polls are only replayed by "step()"; "checkControllers()"
+		 * polls the current state again.
+		 */
+		STEPPED
+	}
+
+	/** The recording. */
+	private final RecordingReader reader;
+
+	/** The simulated pads. */
+	private final VirtualGamepadJniWrapper pads;
+
+	/** The replay mode. */
+	private final Mode mode;
+
+	/** Timestamp of the first recorded frame. */
+	private long recordingStart = 0L;
+
+	/** Time of the first poll (-1 = not started yet). */
+	private long replayStart = -1L;
+
+	/** Number of recorded polls replayed so far. */
+	private long replayedPolls = 0L;
+
+	/**
+	 * Creates a replay provider.
+	 *
+	 * @param file The recording file.
+	 * @param mode The replay mode.
+	 * @throws IOException If the recording could not be opened.
+	 */
+	public ReplayControllerProvider(File file, Mode mode) throws IOException {
+		this(new RecordingReader(file), mode, new VirtualGamepadJniWrapper());
+	}
+
+	/**
+	 * Creates a replay provider.
+	 *
+	 * @param reader The recording.
+	 * @param mode The replay mode.
+	 * @param pads The simulated pads to feed.
+	 * @throws IOException If the recording could not be read.
+	 */
+	private ReplayControllerProvider(RecordingReader reader, Mode mode, VirtualGamepadJniWrapper pads) throws IOException {
+		super(pads);
+		this.reader = reader;
+		this.mode = mode;
+		this.pads = pads;
+		if(reader.hasNext()) {
+			this.recordingStart = reader.getNextTimestamp();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProvider#release()
+	 */
+	@Override
+	public void release() {
+		super.release();
+		try {
+			this.reader.close();
+		} catch(IOException e) {
+			if(Log.errorEnabled) {
+				Log.logger.error("Failed to close recording: " + e);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProvider#checkControllers()
+	 */
+	@Override
+	public synchronized void checkControllers() {
+		if(this.mode == Mode.AS_FAST_AS_POSSIBLE) {
+			if(!step()) {
+				super.checkControllers();
+			}
+		} else if(this.mode == Mode.REAL_TIME) {
+			long now = System.nanoTime();
+			if(this.replayStart == -1L) {
+				this.replayStart = now;
+			}
+			long elapsed = now - this.replayStart;
+			boolean replayed = false;
+			try {
+				while(this.reader.hasNext() && this.reader.getNextTimestamp() - this.recordingStart <= elapsed) {
+					step();
+					replayed = true;
+				}
+			} catch(IOException e) {
+				throw new IllegalStateException("Failed to read recording: " + e);
+			}
+			if(!replayed) {
+				super.checkControllers();
+			}
+		} else {
+			super.checkControllers();
+		}
+	}
+
+	/**
+	 * Replays the next recorded poll: applies all its frames to the
+	 * simulated pads, then polls them.
+	 *
+	 * @return True if a poll was replayed, false at the end of the recording.
+	 * @throws IllegalStateException If the recording could not be read.
+	 */
+	public synchronized boolean step() {
+		try {
+			if(!this.reader.next()) {
+				return false;
+			}
+			long timestamp = this.reader.getTimestamp();
+			applyFrame();
+			while(this.reader.hasNext() && this.reader.getNextTimestamp() == timestamp) {
+				this.reader.next();
+				applyFrame();
+			}
+		} catch(IOException e) {
+			throw new IllegalStateException("Failed to read recording: " + e);
+		}
+		super.checkControllers();
+		this.replayedPolls++;
+		return true;
+	}
+
+	/**
+	 * Replays all remaining recorded polls, as fast as possible.
+	 *
+	 * @return The number of polls replayed.
+	 */
+	public synchronized long replayAll() {
+		long polls = 0L;
+		while(step()) {
+			polls++;
+		}
+		return polls;
+	}
+
+	/**
+	 * Checks if all recorded polls have been replayed.
+	 *
+	 * @return True if the end of the recording was reached.
+	 */
+	public synchronized boolean isFinished() {
+		return !this.reader.hasNext();
+	}
+
+	/**
+	 * Returns the number of recorded polls replayed so far.
+	 *
+	 * @return The number of polls.
+	 */
+	public synchronized long getReplayedPollCount() {
+		return this.replayedPolls;
+	}
+
+	/**
+	 * Returns the replay mode.
+	 *
+	 * @return The mode.
+	 */
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Applies the current frame of the recording to the simulated pads.
+	 */
+	private void applyFrame() {
+		int deviceID = this.reader.getDeviceID();
+		byte type = this.reader.getType();
+		if(type == RecordingFormat.CONNECT) {
+			this.pads.connect(deviceID, this.reader.getVendorID(), this.reader.getProductID(),
+					"Replayed controller " + deviceID, this.reader.getButtonCount(), this.reader.getAxisCount());
+		} else if(type == RecordingFormat.DISCONNECT) {
+			this.pads.disconnect(deviceID);
+		} else if(type == RecordingFormat.STATE) {
+			VirtualPad pad = findPad(deviceID);
+			if(pad != null) {
+				long buttonStates = this.reader.getButtonStates();
+				int numberOfButtons = Math.min(pad.getNumberOfButtons(), RecordingFormat.MAX_BUTTONS);
+				for(int i = 0; i < numberOfButtons; i++) {
+					pad.setButton(i, (buttonStates & (1L << i)) != 0L);
+				}
+				int numberOfAxes = Math.min(pad.getNumberOfAxes(), this.reader.getAxisSlots());
+				for(int i = 0; i < numberOfAxes; i++) {
+					pad.setAxis(i, this.reader.getAxisValue(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the simulated pad with the given device ID.
+	 *
+	 * @param deviceID The device ID.
+	 * @return The pad, or null if it is not connected.
+	 */
+	private VirtualPad findPad(int deviceID) {
+		VirtualPad[] current = this.pads.getPads();
+		for(int i = 0; i < current.length; i++) {
+			if(current[i] != null && current[i].getDeviceID() == deviceID) {
+				return current[i];
+			}
+		}
+		return null;
+	}
+}
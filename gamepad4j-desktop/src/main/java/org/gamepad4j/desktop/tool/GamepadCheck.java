@@ -18,7 +18,9 @@ import org.gamepad4j.TriggerID;
 /**
  * Simulates game loop. Since there is no "main loop" in a Swing
  * GUI application like in a typical game, it has to be simulated
- * with a separate thread, polling the controller states.
+ * with a separate thread, reading the controller states. The
+ * controllers themselves are polled by the background poller
+ * (see "Controllers.initialize(int)").
  *
  * @author Marcel Schoen
  * @version $Revision: $
@@ -34,7 +36,6 @@ public class GamepadCheck implements Runnable {
 	public void run() {
 		while(running) {
 			// This is basically what you would do in your game's main loop
-			Controllers.checkControllers();
 			IController[] controllers = Controllers.getControllers();
 			if(controllers != null && controllers.length > 0) {
 				IButton acceptButton = controllers[0].getButton(ButtonID.FACE_DOWN);
@@ -84,6 +85,7 @@ public class GamepadCheck implements Runnable {
 				System.err.println("No controllers available.");
 			}
 			try {
+				// Simulated frame time
 				Thread.sleep(150);
 			} catch (InterruptedException e) {
 				// ignore
@@ -22,6 +22,8 @@ import javax.swing.JFrame;
 
 import org.gamepad4j.ButtonID;
 import org.gamepad4j.Controllers;
+import org.gamepad4j.IAxis;
+import org.gamepad4j.IAxisEventListener;
 import org.gamepad4j.IButton;
 import org.gamepad4j.IController;
 import org.gamepad4j.IControllerListener;
@@ -34,18 +36,21 @@ import org.gamepad4j.util.Log;
  * @author Marcel Schoen
  * @version $Revision: $
  */
-public class MappingToolWindow extends JFrame implements IControllerListener {
+public class MappingToolWindow extends JFrame implements IAxisEventListener {
 
 	/** Stores ImageIcon instances for various pads. */
 	public static Map<Long, ImageIcon> padImageMap = new HashMap<Long, ImageIcon>();
 
 	private static int numberOfPads = 0;
+
+	/** Rate (in Hz) at which the controllers are polled. */
+	private static final int POLLING_RATE = 125;
 	
 	public MappingToolWindow() {
 		
-		// Initial gamepad detection
+		// Initial gamepad detection; the controllers are then polled in the background
 		Log.initialize(Log.LogLevel.DEBUG);
-		Controllers.initialize();
+		Controllers.initialize(POLLING_RATE);
 		
 		setTitle("Gamepad4J Test Program");
 	    setSize(400,500);  
@@ -149,6 +154,14 @@ public class MappingToolWindow extends JFrame implements IControllerListener {
 		System.out.println(">> move stick");
 	}
 
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.IAxisEventListener#axisMoved(org.gamepad4j.IController, org.gamepad4j.IAxis, float)
+	 */
+	@Override
+	public void axisMoved(IController controller, IAxis axis, float value) {
+		// Axes are shown by the axis panels
+	}
+
 
 	class TestWindowListener extends WindowAdapter {
 	    public void windowClosing(WindowEvent e) {
@@ -0,0 +1,27 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+
+/**
+ * Generates the input of virtual controllers (see VirtualControllerProvider).
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public interface IVirtualInputDriver {
+
+	/**
+	 * Invoked with every poll for each connected virtual pad, before the
+	 * pads are polled. Sets the button and axis states due at the given time.
+	 * Must not block, and should not allocate objects.
+	 *
+	 * @param pad The virtual pad.
+	 * @param padIndex The index of the pad (stable while it is connected).
+	 * @param now The time of the poll (System.nanoTime()).
+	 */
+	void update(VirtualPad pad, int padIndex, long now);
+}
@@ -0,0 +1,122 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import java.util.Arrays;
+
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+
+/**
+ * Input driver which changes random buttons and axes of every pad at a
+ * given rate. Half of the changes toggle a button, the other half move
+ * an axis (to the center in one out of four cases, to exercise the deadzones).
+ * The sequence of changes only depends on the seed and the timing.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class RandomInputDriver implements IVirtualInputDriver {
+
+	/** Maximum number of changes per pad and poll (when polling is late). */
+	private static final int MAX_CHANGES_PER_UPDATE = 1024;
+
+	/** Time between two changes of one pad, in nanoseconds. */
+	private final long intervalNanos;
+
+	/** Time of the next change of each pad (by pad index; 0 = not started). */
+	private long[] nextChange = new long[16];
+
+	/** State of the random number generator (xorshift). */
+	private long seed;
+
+	/** Number of changes made so far. */
+	private long changeCount = 0L;
+
+	/**
+	 * Creates a random input driver.
+	 *
+	 * @param seed The seed of the random numbers.
+	 * @param changesPerSecond The number of changes per second and pad (e.g. 10 or 10000).
+	 */
+	public RandomInputDriver(long seed, double changesPerSecond) {
+		if(changesPerSecond <= 0d) {
+			throw new IllegalArgumentException("Invalid rate of changes: " + changesPerSecond);
+		}
+		this.intervalNanos = Math.max(1L, (long)(1000000000d / changesPerSecond));
+		this.seed = seed == 0L ? 1L : seed;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.virtual.IVirtualInputDriver#update(org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad, int, long)
+	 */
+	@Override
+	public void update(VirtualPad pad, int padIndex, long now) {
+		if(padIndex >= this.nextChange.length) {
+			this.nextChange = Arrays.copyOf(this.nextChange, Math.max(padIndex + 1, this.nextChange.length * 2));
+		}
+		long next = this.nextChange[padIndex];
+		if(next == 0L) {
+			next = now;
+		}
+		int changes = 0;
+		while(next <= now && changes < MAX_CHANGES_PER_UPDATE) {
+			change(pad);
+			next += this.intervalNanos;
+			changes++;
+		}
+		if(next <= now) {
+			// Too far behind (e.g. polling paused); don't catch up
+			next = now + this.intervalNanos;
+		}
+		this.nextChange[padIndex] = next;
+	}
+
+	/**
+	 * Makes one random change.
+	 *
+	 * @param pad The virtual pad.
+	 */
+	private void change(VirtualPad pad) {
+		long random = nextRandom();
+		int buttons = pad.getNumberOfButtons();
+		int axes = pad.getNumberOfAxes();
+		if((random & 1L) == 0L && buttons > 0) {
+			int button = (int)((random >>> 1) % buttons);
+			pad.setButton(button, !pad.isButtonPressed(button));
+		} else if(axes > 0) {
+			int axis = (int)((random >>> 1) % axes);
+			float value = 0f;
+			if(((random >>> 20) & 3L) != 0L) {
+				// -1.0 - 1.0
+				value = ((random >>> 32) & 0xFFFFL) / 32767.5f - 1.0f;
+			}
+			pad.setAxis(axis, value);
+		}
+		this.changeCount++;
+	}
+
+	/**
+	 * Returns the next random number (xorshift64).
+	 *
+	 * @return The random number (positive).
+	 */
+	private long nextRandom() {
+		long x = this.seed;
+		x ^= x << 13;
+		x ^= x >>> 7;
+		x ^= x << 17;
+		this.seed = x;
+		return x & Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the number of changes made so far.
+	 *
+	 * @return The number of changes.
+	 */
+	public long getChangeCount() {
+		return this.changeCount;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import java.util.Arrays;
+
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+
+/**
+ * Input driver which plays a script of timed button and axis changes on
+ * every pad (each pad starts the script with its first poll). The script
+ * can be repeated in a loop.
+ * <pre>
+ * ScriptedInputDriver script = new ScriptedInputDriver(1000);
+ * script.button(0, 0, true);      // press button 0 right away
+ * script.button(50, 0, false);    // release it after 50 ms
+ * script.axis(100, 0, 1.0f);      // push axis 0 to the right after 100 ms
+ * script.axis(500, 0, 0f);        // and back to the center after 500 ms
+ * </pre>
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ScriptedInputDriver implements IVirtualInputDriver {
+
+	/** Step type: set a button. */
+	private static final int BUTTON = 0;
+
+	/** Step type: set an axis. */
+	private static final int AXIS = 1;
+
+	/** Times of the steps (nanoseconds after the start of the script). */
+	private long[] times = new long[16];
+
+	/** Types of the steps. */
+	private int[] types = new int[16];
+
+	/** Button or axis numbers of the steps. */
+	private int[] numbers = new int[16];
+
+	/** Values of the steps (0 / 1 for buttons). */
+	private float[] values = new float[16];
+
+	/** Number of steps. */
+	private int numberOfSteps = 0;
+
+	/** Length of the loop in nanoseconds (0 = no loop). */
+	private final long loopNanos;
+
+	/** Start time of the current run of each pad (by pad index). */
+	private long[] startTimes = new long[16];
+
+	/** True for each pad which has started the script. */
+	private boolean[] started = new boolean[16];
+
+	/** Next step of each pad. */
+	private int[] nextSteps = new int[16];
+
+	/**
+	 * Creates a script driver.
+	 *
+	 * @param loopMillis The length of the loop in milliseconds, after which
+	 *                   the script starts again (0 to play it only once).
+	 */
+	public ScriptedInputDriver(long loopMillis) {
+		if(loopMillis < 0L) {
+			throw new IllegalArgumentException("Invalid loop length: " + loopMillis);
+		}
+		this.loopNanos = loopMillis * 1000000L;
+	}
+
+	/**
+	 * Adds a button change to the script.
+	 *
+	 * @param atMillis The time after the start of the script, in milliseconds
+	 *                 (not before the previous step).
+	 * @param button The number of the button.
+	 * @param pressed True to press the button, false to release it.
+	 * @return This script.
+	 */
+	public synchronized ScriptedInputDriver button(long atMillis, int button, boolean pressed) {
+		addStep(atMillis, BUTTON, button, pressed ? 1f : 0f);
+		return this;
+	}
+
+	/**
+	 * Adds an axis change to the script.
+	 *
+	 * @param atMillis The time after the start of the script, in milliseconds
+	 *                 (not before the previous step).
+	 * @param axis The number of the axis.
+	 * @param value The axis value (-1.0 - 1.0).
+	 * @return This script.
+	 */
+	public synchronized ScriptedInputDriver axis(long atMillis, int axis, float value) {
+		if(value < -1.0f || value > 1.0f) {
+			throw new IllegalArgumentException("Invalid axis value: " + value);
+		}
+		addStep(atMillis, AXIS, axis, value);
+		return this;
+	}
+
+	/**
+	 * Adds a step.
+	 */
+	private void addStep(long atMillis, int type, int number, float value) {
+		long time = atMillis * 1000000L;
+		if(this.numberOfSteps > 0 && time < this.times[this.numberOfSteps - 1]) {
+			throw new IllegalArgumentException("Steps must be added in chronological order: " + atMillis);
+		}
+		if(this.loopNanos > 0L && time >= this.loopNanos) {
+			throw new IllegalArgumentException("Step after the end of the loop: " + atMillis);
+		}
+		if(this.numberOfSteps == this.times.length) {
+			int size = this.times.length * 2;
+			this.times = Arrays.copyOf(this.times, size);
+			this.types = Arrays.copyOf(this.types, size);
+			this.numbers = Arrays.copyOf(this.numbers, size);
+			this.values = Arrays.copyOf(this.values, size);
+		}
+		this.times[this.numberOfSteps] = time;
+		this.types[this.numberOfSteps] = type;
+		this.numbers[this.numberOfSteps] = number;
+		this.values[this.numberOfSteps] = value;
+		this.numberOfSteps++;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.virtual.IVirtualInputDriver#update(org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad, int, long)
+	 */
+	@Override
+	public synchronized void update(VirtualPad pad, int padIndex, long now) {
+		if(padIndex >= this.startTimes.length) {
+			int size = Math.max(padIndex + 1, this.startTimes.length * 2);
+			this.startTimes = Arrays.copyOf(this.startTimes, size);
+			this.nextSteps = Arrays.copyOf(this.nextSteps, size);
+			this.started = Arrays.copyOf(this.started, size);
+		}
+		if(!this.started[padIndex]) {
+			this.startTimes[padIndex] = now;
+			this.started[padIndex] = true;
+		}
+		long start = this.startTimes[padIndex];
+		int step = this.nextSteps[padIndex];
+		long elapsed = now - start;
+		if(this.loopNanos > 0L && elapsed >= this.loopNanos) {
+			// Finish the current run of the loop
+			step = applySteps(pad, step, this.loopNanos - 1L);
+			long runs = elapsed / this.loopNanos;
+			if(runs > 1L) {
+				// Polling was late for more than a whole run; every run ends
+				// in the same state, so playing one of them is enough
+				applySteps(pad, 0, this.loopNanos - 1L);
+			}
+			// Start the current run of the loop
+			start += runs * this.loopNanos;
+			elapsed -= runs * this.loopNanos;
+			step = 0;
+		}
+		step = applySteps(pad, step, elapsed);
+		this.startTimes[padIndex] = start;
+		this.nextSteps[padIndex] = step;
+	}
+
+	/**
+	 * Applies the steps from the given one up to the given time of the run.
+	 *
+	 * @return The next step which has not been applied.
+	 */
+	private int applySteps(VirtualPad pad, int step, long elapsed) {
+		while(step < this.numberOfSteps && this.times[step] <= elapsed) {
+			apply(pad, step);
+			step++;
+		}
+		return step;
+	}
+
+	/**
+	 * Applies one step to a pad.
+	 */
+	private void apply(VirtualPad pad, int step) {
+		int number = this.numbers[step];
+		if(this.types[step] == BUTTON) {
+			if(number < pad.getNumberOfButtons()) {
+				pad.setButton(number, this.values[step] != 0f);
+			}
+		} else if(number < pad.getNumberOfAxes()) {
+			pad.setAxis(number, this.values[step]);
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+
+/**
+ * Controller provider with virtual pads, for load and soak tests of games
+ * (many pads, high input rates, connect / disconnect churn) without any
+ * hardware. The input of the pads is generated by an input driver, and
+ * processed like the input of real pads (mapping, deadzones, listeners).
+ * <p>
+ * It can be selected without code changes with these system properties:
+ * <pre>
+ * -Dgamepad4j.provider.class=org.gamepad4j.desktop.virtual.VirtualControllerProvider
+ * -Dgamepad4j.virtual.controllers=64
+ * -Dgamepad4j.virtual.input.rate=1000
+ * </pre>
+ * The pads are virtual Xbox 360 pads, with device IDs starting at 1.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class VirtualControllerProvider extends DesktopControllerProvider {
+
+	/** System property: Number of pads connected at startup (default 1). */
+	public static final String GAMEPAD4J_VIRTUAL_CONTROLLERS = "gamepad4j.virtual.controllers";
+
+	/** System property: Random changes per second and pad (default 0 = no input). */
+	public static final String GAMEPAD4J_VIRTUAL_INPUT_RATE = "gamepad4j.virtual.input.rate";
+
+	/** The virtual pads. */
+	private final VirtualGamepadJniWrapper pads;
+
+	/** Number of pads to connect at startup. */
+	private final int initialControllers;
+
+	/** Generates the input of the pads (null = no input). */
+	private volatile IVirtualInputDriver inputDriver;
+
+	/** Device ID of the next pad. */
+	private int nextDeviceID = 1;
+
+	/**
+	 * Creates a virtual provider configured by the system properties
+	 * "gamepad4j.virtual.controllers" and "gamepad4j.virtual.input.rate".
+	 */
+	public VirtualControllerProvider() {
+		this(Integer.getInteger(GAMEPAD4J_VIRTUAL_CONTROLLERS, 1).intValue(), createDefaultDriver());
+	}
+
+	/**
+	 * Creates a virtual provider.
+	 *
+	 * @param numberOfControllers The number of pads to connect at startup.
+	 * @param inputDriver Generates the input of the pads (may be null).
+	 */
+	public VirtualControllerProvider(int numberOfControllers, IVirtualInputDriver inputDriver) {
+		this(new VirtualGamepadJniWrapper(), numberOfControllers, inputDriver);
+	}
+
+	/**
+	 * Creates a virtual provider.
+	 *
+	 * @param pads The virtual pads.
+	 * @param numberOfControllers The number of pads to connect at startup.
+	 * @param inputDriver Generates the input of the pads (may be null).
+	 */
+	private VirtualControllerProvider(VirtualGamepadJniWrapper pads, int numberOfControllers, IVirtualInputDriver inputDriver) {
+		super(pads);
+		if(numberOfControllers < 0) {
+			throw new IllegalArgumentException("Invalid number of controllers: " + numberOfControllers);
+		}
+		this.pads = pads;
+		this.initialControllers = numberOfControllers;
+		this.inputDriver = inputDriver;
+	}
+
+	/**
+	 * Creates the random input driver configured by the system
+	 * property "gamepad4j.virtual.input.rate".
+	 *
+	 * @return The driver, or null if no rate is set.
+	 */
+	private static IVirtualInputDriver createDefaultDriver() {
+		String rate = System.getProperty(GAMEPAD4J_VIRTUAL_INPUT_RATE);
+		if(rate == null || rate.trim().length() == 0) {
+			return null;
+		}
+		double changesPerSecond = Double.parseDouble(rate.trim());
+		if(changesPerSecond <= 0d) {
+			return null;
+		}
+		return new RandomInputDriver(System.nanoTime(), changesPerSecond);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProvider#initialize()
+	 */
+	@Override
+	public void initialize() {
+		super.initialize();
+		for(int i = 0; i < this.initialControllers; i++) {
+			connectController();
+		}
+	}
+
+	/**
+	 * Connects a new virtual Xbox 360 pad. The controller becomes available
+	 * with the next poll.
+	 *
+	 * @return The virtual pad.
+	 */
+	public synchronized VirtualPad connectController() {
+		return this.pads.connectXbox360(this.nextDeviceID++);
+	}
+
+	/**
+	 * Connects a new virtual pad. The controller becomes available
+	 * with the next poll.
+	 *
+	 * @param vendorID The vendor ID (the mapping for it is used, if one exists).
+	 * @param productID The product ID.
+	 * @param numberOfButtons The number of buttons.
+	 * @param numberOfAxes The number of axes.
+	 * @return The virtual pad.
+	 */
+	public synchronized VirtualPad connectController(int vendorID, int productID, int numberOfButtons, int numberOfAxes) {
+		int deviceID = this.nextDeviceID++;
+		return this.pads.connect(deviceID, vendorID, productID, "Virtual pad " + deviceID,
+				numberOfButtons, numberOfAxes);
+	}
+
+	/**
+	 * Disconnects a virtual pad. The controller is removed with the next poll.
+	 *
+	 * @param deviceID The device ID of the pad.
+	 * @return True if the pad was connected.
+	 */
+	public synchronized boolean disconnectController(int deviceID) {
+		return this.pads.disconnect(deviceID);
+	}
+
+	/**
+	 * Returns the connected virtual pads.
+	 *
+	 * @return The pads (may contain null entries for free slots).
+	 */
+	public VirtualPad[] getPads() {
+		return this.pads.getPads();
+	}
+
+	/**
+	 * Sets the input driver.
+	 *
+	 * @param inputDriver Generates the input of the pads (null = no input).
+	 */
+	public void setInputDriver(IVirtualInputDriver inputDriver) {
+		this.inputDriver = inputDriver;
+	}
+
+	/**
+	 * Returns the input driver.
+	 *
+	 * @return The input driver (may be null).
+	 */
+	public IVirtualInputDriver getInputDriver() {
+		return this.inputDriver;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.gamepad4j.desktop.DesktopControllerProvider#checkControllers()
+	 */
+	@Override
+	public synchronized void checkControllers() {
+		IVirtualInputDriver driver = this.inputDriver;
+		if(driver != null) {
+			long now = System.nanoTime();
+			VirtualPad[] current = this.pads.getPads();
+			for(int i = 0; i < current.length; i++) {
+				if(current[i] != null) {
+					driver.update(current[i], i, now);
+				}
+			}
+		}
+		super.checkControllers();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.gamepad4j.Controllers;
+import org.gamepad4j.ControllersManagement;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests the JMX MBeans of the controllers and the desktop provider.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ManagementTest {
+
+	/** Device ID of the pad whose updates fail. */
+	private static final int FAILING_DEVICE_ID = 2;
+
+	@Test
+	public void testMBeans() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper() {
+			@Override
+			public void updateControllerStatus(DesktopController controller) {
+				if(controller.getDeviceID() == FAILING_DEVICE_ID) {
+					throw new IllegalStateException("Simulated failure");
+				}
+				super.updateControllerStatus(controller);
+			}
+		};
+		wrapper.connectXbox360(1);
+		wrapper.connectXbox360(FAILING_DEVICE_ID);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName controllersName = new ObjectName(ControllersManagement.OBJECT_NAME);
+		System.setProperty(Controllers.GAMEPAD4J_JMX, "true");
+		try {
+			Controllers.initialize(provider, 0);
+			assertTrue(server.isRegistered(controllersName));
+			assertNotNull(provider.getMBeanName());
+			ObjectName providerName = new ObjectName(provider.getMBeanName());
+			assertTrue(server.isRegistered(providerName));
+
+			// A failing pad does not keep the others from being updated
+			Controllers.checkControllers();
+			Controllers.checkControllers();
+			assertEquals(Integer.valueOf(2), server.getAttribute(controllersName, "ConnectedControllerCount"));
+			assertEquals(Long.valueOf(2L), server.getAttribute(providerName, "PollCount"));
+			assertEquals(Long.valueOf(2L), server.getAttribute(providerName, "UpdateErrorCount"));
+			TabularData errors = (TabularData)server.getAttribute(providerName, "DeviceErrorCounts");
+			assertEquals(1, errors.size());
+			assertEquals(Long.valueOf(2L), errors.get(new Object[] { Integer.valueOf(FAILING_DEVICE_ID) }).get("value"));
+			assertEquals(Boolean.FALSE, server.getAttribute(providerName, "Recording"));
+
+			server.invoke(providerName, "redetectControllers", null, null);
+			server.invoke(providerName, "resetStatistics", null, null);
+			server.invoke(controllersName, "resetStatistics", null, null);
+			assertEquals(Long.valueOf(0L), server.getAttribute(providerName, "UpdateErrorCount"));
+
+			server.setAttribute(controllersName, new Attribute("MetricsEnabled", Boolean.TRUE));
+			Controllers.checkControllers();
+			assertEquals(Long.valueOf(1L), server.getAttribute(providerName, "PollCount"));
+			assertTrue(((Long)server.getAttribute(controllersName, "PollLatencyMaxNanos")).longValue() > 0L);
+		} finally {
+			server.setAttribute(controllersName, new Attribute("MetricsEnabled", Boolean.FALSE));
+			Controllers.metrics().reset();
+			System.clearProperty(Controllers.GAMEPAD4J_JMX);
+			String providerName = provider.getMBeanName();
+			Controllers.shutdown();
+			assertFalse(server.isRegistered(controllersName));
+			assertFalse(server.isRegistered(new ObjectName(providerName)));
+		}
+	}
+}
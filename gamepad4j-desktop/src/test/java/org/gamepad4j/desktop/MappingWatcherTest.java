@@ -0,0 +1,355 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.DeadZoneMode;
+import org.gamepad4j.IAxis;
+import org.gamepad4j.IAxisListener;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.IStick;
+import org.gamepad4j.ITrigger;
+import org.gamepad4j.StickID;
+import org.gamepad4j.TriggerID;
+import org.gamepad4j.base.BaseStick;
+import org.gamepad4j.base.BaseTrigger;
+import org.gamepad4j.util.Log;
+import org.gamepad4j.util.PlatformUtil;
+import org.junit.Test;
+
+/**
+ * Tests the hot-reload of mapping files from the external mapping directory.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class MappingWatcherTest {
+
+	/**
+	 * Returns the built-in mapping of the Xbox 360 pad.
+	 */
+	private static Properties xbox360Mapping() throws Exception {
+		Properties mapping = new Properties();
+		InputStream in = Mapping.class.getResourceAsStream("/mappings/" + PlatformUtil.getPlatform().name() + "/"
+				+ Mapping.getMappingFileName(VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID, VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID));
+		try {
+			mapping.load(in);
+		} finally {
+			in.close();
+		}
+		return mapping;
+	}
+
+	/**
+	 * Writes a mapping file.
+	 */
+	private static void write(Properties mapping, File file) throws Exception {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			mapping.store(out, null);
+		} finally {
+			out.close();
+		}
+	}
+
+	@Test
+	public void testInvalidDeadZoneFallsBackToDefault() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File directory = Files.createTempDirectory("gamepad4j-mappings").toFile();
+		File mappingFile = new File(directory, Mapping.getMappingFileName(VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID,
+				VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID));
+		Properties mapping = xbox360Mapping();
+		mapping.setProperty("deadzone.mode", "circular");
+		mapping.setProperty("deadzone.LEFT.inner", "1.5");
+		write(mapping, mappingFile);
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		wrapper.connectXbox360(5);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		VirtualGamepadTest.RecordingListener listener = new VirtualGamepadTest.RecordingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		try {
+			provider.setMappingDirectory(directory);
+			provider.checkControllers();
+			// The invalid file is rejected, the built-in mapping is used
+			assertEquals(1, listener.connected.size());
+			BaseStick stick = (BaseStick)listener.connected.get(0).getStick(StickID.LEFT);
+			String builtIn = xbox360Mapping().getProperty("deadzone");
+			assertEquals(DeadZoneMode.AXIAL, stick.getDeadZoneMode());
+			assertEquals(builtIn == null ? DesktopController.DEFAULT_DEADZONE : Float.parseFloat(builtIn), 
+					stick.getInnerDeadZone(), 0f);
+			assertEquals(1f, stick.getOuterDeadZone(), 0f);
+		} finally {
+			provider.setMappingDirectory(null);
+			provider.release();
+			mappingFile.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void testInvalidReloadKeepsMapping() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File directory = Files.createTempDirectory("gamepad4j-mappings").toFile();
+		File mappingFile = new File(directory, Mapping.getMappingFileName(VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID,
+				VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID));
+		Properties mapping = xbox360Mapping();
+		mapping.setProperty("deadzone.LEFT.inner", "0.2");
+		write(mapping, mappingFile);
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		wrapper.connectXbox360(5);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		VirtualGamepadTest.RecordingListener listener = new VirtualGamepadTest.RecordingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		try {
+			provider.setMappingDirectory(directory);
+			provider.checkControllers();
+			BaseStick stick = (BaseStick)listener.connected.get(0).getStick(StickID.LEFT);
+			assertEquals(0.2f, stick.getInnerDeadZone(), 0f);
+
+			// Inner deadzone not smaller than the outer one
+			mapping.setProperty("deadzone.LEFT.outer", "0.1");
+			write(mapping, mappingFile);
+			long timeout = System.currentTimeMillis() + 10000L;
+			while(provider.getMappingErrorCount() == 0L && System.currentTimeMillis() < timeout) {
+				Thread.sleep(20L);
+				provider.checkControllers();
+			}
+			assertEquals(1L, provider.getMappingErrorCount());
+			assertEquals(0L, provider.getMappingReloadCount());
+			assertEquals(0.2f, stick.getInnerDeadZone(), 0f);
+			assertEquals(1f, stick.getOuterDeadZone(), 0f);
+		} finally {
+			provider.setMappingDirectory(null);
+			provider.release();
+			mappingFile.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void testUnknownButtonNameDoesNotBreakPolling() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File directory = Files.createTempDirectory("gamepad4j-mappings").toFile();
+		File mappingFile = new File(directory, Mapping.getMappingFileName(VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID,
+				VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID));
+		Properties mapping = xbox360Mapping();
+		mapping.remove("button.FACE_DOWN");
+		mapping.setProperty("button.FACE_DWN", "0");
+		write(mapping, mappingFile);
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		VirtualGamepadJniWrapper.VirtualPad pad = wrapper.connectXbox360(5);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		VirtualGamepadTest.RecordingListener listener = new VirtualGamepadTest.RecordingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		try {
+			provider.setMappingDirectory(directory);
+			provider.checkControllers();
+			provider.checkControllers();
+			assertEquals(1, listener.connected.size());
+			pad.setButton(0, true);
+			pad.setButton(1, true);
+			provider.checkControllers();
+			assertTrue(listener.connected.get(0).isButtonPressed(ButtonID.FACE_RIGHT));
+			assertTrue(listener.pressed.contains(ButtonID.FACE_RIGHT));
+		} finally {
+			provider.setMappingDirectory(null);
+			provider.release();
+			mappingFile.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void testParseRejectsInvalidDeadZones() throws Exception {
+		String[][] invalid = {
+			{ "deadzone.mode", "square" },
+			{ "deadzone.LEFT.inner", "-0.1" },
+			{ "deadzone.outer", "1.5" },
+			{ "deadzone", "abc" },
+			{ "deadzone.UP.inner", "0.1" },
+			{ "deadzone.RIGHT.size", "0.1" }
+		};
+		for(int i = 0; i < invalid.length; i++) {
+			Properties mapping = xbox360Mapping();
+			mapping.setProperty(invalid[i][0], invalid[i][1]);
+			try {
+				Mapping.parseMapping(mapping);
+				fail("Accepted " + invalid[i][0] + "=" + invalid[i][1]);
+			} catch(IllegalArgumentException e) {
+				// expected
+			}
+		}
+		Properties mapping = xbox360Mapping();
+		mapping.setProperty("deadzone", "0.2");
+		mapping.setProperty("deadzone.mode", "scaled_radial");
+		mapping.setProperty("deadzone.RIGHT.outer", "0.9");
+		Mapping.parseMapping(mapping);
+	}
+
+	@Test
+	public void testParseRejectsUnknownNames() throws Exception {
+		String[][] invalid = {
+			{ "button.FACE_DWN", "0" },
+			{ "button.UNKNOWN", "0" },
+			{ "button.ACCPT", "FACE_DOWN" },
+			{ "stick.MIDDLE.X", "2" },
+			{ "stick.LEFT.Z", "2" },
+			{ "stick.LEFT", "2" },
+			{ "trigger.LEFT_MIDDLE", "2" },
+			{ "dpad.Z", "6" }
+		};
+		for(int i = 0; i < invalid.length; i++) {
+			Properties mapping = xbox360Mapping();
+			mapping.setProperty(invalid[i][0], invalid[i][1]);
+			try {
+				Mapping.parseMapping(mapping);
+				fail("Accepted " + invalid[i][0] + "=" + invalid[i][1]);
+			} catch(IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testReloadKeepsHeldButtons() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File directory = Files.createTempDirectory("gamepad4j-mappings").toFile();
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		VirtualGamepadJniWrapper.VirtualPad pad = wrapper.connectXbox360(5);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		VirtualGamepadTest.RecordingListener listener = new VirtualGamepadTest.RecordingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		File mappingFile = new File(directory, Mapping.getMappingFileName(VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID,
+				VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID));
+		try {
+			provider.setMappingDirectory(directory);
+			provider.checkControllers();
+			IControllerState controller = (IControllerState)listener.connected.get(0);
+			IAxis axis = controller.getAxes()[0];
+			IStick stick = controller.getStick(StickID.LEFT);
+			ITrigger trigger = controller.getTrigger(TriggerID.LEFT_DOWN);
+			final List<Float> moves = new ArrayList<Float>();
+			axis.addAxisListener(new IAxisListener() {
+				public void moved(float value) {
+					moves.add(Float.valueOf(value));
+				}
+			});
+			pad.setButton(0, true);
+			pad.setAxis(0, 1.0f);
+			provider.checkControllers();
+			assertTrue(controller.isButtonPressed(ButtonID.FACE_DOWN));
+			assertEquals(1, listener.pressed.size());
+			assertEquals(1, moves.size());
+			long frame = controller.getFrame();
+
+			// Swap the two lower face buttons
+			Properties mapping = xbox360Mapping();
+			mapping.setProperty("button.FACE_DOWN", "1");
+			mapping.setProperty("button.FACE_RIGHT", "0");
+			write(mapping, mappingFile);
+			long timeout = System.currentTimeMillis() + 10000L;
+			while(provider.getMappingReloadCount() == 0L && System.currentTimeMillis() < timeout) {
+				Thread.sleep(20L);
+				provider.checkControllers();
+			}
+			assertEquals(1L, provider.getMappingReloadCount());
+			assertEquals(0L, provider.getMappingErrorCount());
+
+			// The held button is still pressed, now as FACE_RIGHT, without a new press event
+			assertTrue(controller.isButtonPressed(ButtonID.FACE_RIGHT));
+			assertFalse(controller.isButtonPressed(ButtonID.FACE_DOWN));
+			assertTrue(controller.isButtonPressed(ButtonID.CANCEL));
+			assertEquals(1, listener.pressed.size());
+			assertTrue(controller.getFrame() > frame);
+
+			// The axes, sticks and triggers are kept, with their values and listeners
+			assertSame(axis, controller.getAxes()[0]);
+			assertSame(stick, controller.getStick(StickID.LEFT));
+			assertSame(axis, stick.getAxes()[0]);
+			assertSame(trigger, controller.getTrigger(TriggerID.LEFT_DOWN));
+			assertEquals(1.0f, axis.getValue(), 0f);
+			assertEquals(1, moves.size());
+
+			pad.setButton(1, true);
+			pad.setAxis(0, 0f);
+			provider.checkControllers();
+			assertEquals(ButtonID.FACE_DOWN, listener.pressed.get(1));
+			assertEquals(2, moves.size());
+		} finally {
+			provider.setMappingDirectory(null);
+			provider.release();
+			mappingFile.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void testReloadReplacesSticksAndAxes() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File directory = Files.createTempDirectory("gamepad4j-mappings").toFile();
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		wrapper.connectXbox360(5);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		VirtualGamepadTest.RecordingListener listener = new VirtualGamepadTest.RecordingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		File mappingFile = new File(directory, Mapping.getMappingFileName(VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID,
+				VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID));
+		try {
+			provider.setMappingDirectory(directory);
+			provider.checkControllers();
+			IControllerState controller = (IControllerState)listener.connected.get(0);
+			IStick left = controller.getStick(StickID.LEFT);
+			assertEquals(2, controller.getSticks().length);
+
+			// Without the right stick, and the left one on the axes of the right one
+			Properties mapping = xbox360Mapping();
+			mapping.remove("stick.RIGHT.X");
+			mapping.remove("stick.RIGHT.Y");
+			mapping.setProperty("stick.LEFT.X", "3");
+			mapping.setProperty("stick.LEFT.Y", "4");
+			write(mapping, mappingFile);
+			long timeout = System.currentTimeMillis() + 10000L;
+			while(provider.getMappingReloadCount() == 0L && System.currentTimeMillis() < timeout) {
+				Thread.sleep(20L);
+				provider.checkControllers();
+			}
+			assertEquals(1L, provider.getMappingReloadCount());
+			assertEquals(1, controller.getSticks().length);
+			assertSame(left, controller.getStick(StickID.LEFT));
+			assertSame(controller.getAxes()[3], left.getAxes()[0]);
+			assertSame(controller.getAxes()[4], left.getAxes()[1]);
+			assertNull(controller.getStick(StickID.RIGHT));
+			assertNull(controller.getAxes()[0]);
+			assertNull(controller.getAxes()[1]);
+			assertSame(controller.getAxes()[2], ((BaseTrigger)controller.getTrigger(TriggerID.LEFT_DOWN)).getAxis());
+		} finally {
+			provider.setMappingDirectory(null);
+			provider.release();
+			mappingFile.delete();
+			directory.delete();
+		}
+	}
+}
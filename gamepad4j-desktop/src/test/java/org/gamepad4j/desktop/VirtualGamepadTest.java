@@ -0,0 +1,71 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.IControllerState;
+import org.gamepad4j.StickID;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Runs the desktop provider on the simulated native backend.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class VirtualGamepadTest {
+
+	/**
+	 * Records connected controllers and button presses.
+	 */
+	static class RecordingListener extends ControllerListenerAdapter {
+		List<IController> connected = new ArrayList<IController>();
+		List<ButtonID> pressed = new ArrayList<ButtonID>();
+		@Override
+		public void connected(IController controller) {
+			this.connected.add(controller);
+		}
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.pressed.add(buttonID);
+		}
+	}
+
+	@Test
+	public void testPollVirtualPad() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		VirtualGamepadJniWrapper.VirtualPad pad = wrapper.connectXbox360(5);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		RecordingListener listener = new RecordingListener();
+		provider.addListener(listener);
+		provider.initialize();
+
+		provider.checkControllers();
+		assertEquals(1, listener.connected.size());
+		IControllerState controller = (IControllerState)listener.connected.get(0);
+		assertEquals(5, controller.getDeviceID());
+
+		pad.setButton(0, true);
+		pad.setAxis(0, 1f);
+		provider.checkControllers();
+		assertEquals(1, listener.pressed.size());
+		assertEquals(ButtonID.FACE_DOWN, listener.pressed.get(0));
+		assertTrue(controller.isButtonPressed(ButtonID.ACCEPT));
+		assertNotNull(controller.getStick(StickID.LEFT));
+		assertEquals(1f, controller.getSnapshot().getStickX(StickID.LEFT), 0f);
+	}
+}
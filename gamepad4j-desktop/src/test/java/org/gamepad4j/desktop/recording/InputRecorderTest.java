@@ -0,0 +1,90 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.recording;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests the binary input recording.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class InputRecorderTest {
+
+	@Test
+	public void testRecordAcrossSegments() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File file = File.createTempFile("gamepad4j", ".g4jr");
+		file.deleteOnExit();
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		VirtualGamepadJniWrapper.VirtualPad pad = wrapper.connectXbox360(7);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		provider.initialize();
+		// Small segments, so that many of them are mapped
+		InputRecorder recorder = new InputRecorder(file, 8, 1000);
+		provider.setInputRecorder(recorder);
+
+		int polls = 500;
+		for(int i = 0; i < polls; i++) {
+			pad.setButton(3, (i % 2) == 1);
+			pad.setAxis(1, -i / (float)polls);
+			provider.checkControllers();
+		}
+		wrapper.disconnect(7);
+		provider.checkControllers();
+		provider.setInputRecorder(null);
+		recorder.close();
+
+		// connect + one state frame per poll + disconnect
+		long frames = polls + 2;
+		assertEquals(frames, recorder.getFrameCount());
+		assertEquals(0L, recorder.getDroppedCount());
+
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			ByteBuffer buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, in.length());
+			buffer.order(RecordingFormat.BYTE_ORDER);
+			assertEquals(RecordingFormat.MAGIC, buffer.getInt(RecordingFormat.HEADER_MAGIC));
+			assertEquals(8, buffer.getShort(RecordingFormat.HEADER_AXIS_SLOTS));
+			int frameSize = buffer.getInt(RecordingFormat.HEADER_FRAME_SIZE);
+			assertEquals(frames, buffer.getLong(RecordingFormat.HEADER_FRAME_COUNT));
+
+			int offset = RecordingFormat.HEADER_SIZE;
+			assertEquals(RecordingFormat.CONNECT, buffer.get(offset + RecordingFormat.FRAME_TYPE));
+			assertEquals(7, buffer.getInt(offset + RecordingFormat.FRAME_DEVICE_ID));
+			assertEquals(((long)VirtualGamepadJniWrapper.XBOX_360_VENDOR_ID << 32) | VirtualGamepadJniWrapper.XBOX_360_PRODUCT_ID,
+					buffer.getLong(offset + RecordingFormat.FRAME_BUTTONS));
+			assertEquals(VirtualGamepadJniWrapper.XBOX_360_AXES, buffer.getShort(offset + RecordingFormat.FRAME_AXIS_COUNT));
+
+			long previous = Long.MIN_VALUE;
+			for(int i = 0; i < polls; i++) {
+				offset = RecordingFormat.HEADER_SIZE + (i + 1) * frameSize;
+				assertEquals(RecordingFormat.STATE, buffer.get(offset + RecordingFormat.FRAME_TYPE));
+				long timestamp = buffer.getLong(offset + RecordingFormat.FRAME_TIMESTAMP);
+				assertEquals(true, timestamp >= previous);
+				previous = timestamp;
+				long buttons = buffer.getLong(offset + RecordingFormat.FRAME_BUTTONS);
+				assertEquals((i % 2) == 1 ? 1L << 3 : 0L, buttons);
+				short axis = buffer.getShort(offset + RecordingFormat.FRAME_AXES + 2);
+				assertEquals(-i / (float)polls, RecordingFormat.dequantize(axis), 0.0001f);
+			}
+			offset = RecordingFormat.HEADER_SIZE + (polls + 1) * frameSize;
+			assertEquals(RecordingFormat.DISCONNECT, buffer.get(offset + RecordingFormat.FRAME_TYPE));
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.recording;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.Controllers;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.StickID;
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests replaying recorded input through the Controllers API.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ReplayControllerProviderTest {
+
+	/** Device ID used for the recording. */
+	private static final int DEVICE_ID = 4711;
+
+	/**
+	 * Counts controller events.
+	 */
+	static class CountingListener extends ControllerListenerAdapter {
+		int connected = 0;
+		int disconnected = 0;
+		int faceDownPresses = 0;
+		@Override
+		public void connected(IController controller) {
+			this.connected++;
+		}
+		@Override
+		public void disConnected(IController controller) {
+			this.disconnected++;
+		}
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			if(buttonID == ButtonID.FACE_DOWN) {
+				this.faceDownPresses++;
+			}
+		}
+	}
+
+	/**
+	 * Records a session: 10 taps of the FACE_DOWN button (each lasting only
+	 * one poll), with the left stick pushed to the right at the end.
+	 */
+	private File record() throws Exception {
+		File file = File.createTempFile("gamepad4j", ".g4jr");
+		file.deleteOnExit();
+		VirtualGamepadJniWrapper wrapper = new VirtualGamepadJniWrapper();
+		VirtualGamepadJniWrapper.VirtualPad pad = wrapper.connectXbox360(DEVICE_ID);
+		DesktopControllerProvider provider = new DesktopControllerProvider(wrapper);
+		provider.initialize();
+		InputRecorder recorder = new InputRecorder(file);
+		provider.setInputRecorder(recorder);
+		for(int i = 0; i < 40; i++) {
+			pad.setButton(0, (i % 4) == 1);
+			pad.setAxis(0, i < 39 ? 0f : 1f);
+			provider.checkControllers();
+		}
+		wrapper.disconnect(DEVICE_ID);
+		provider.checkControllers();
+		recorder.close();
+		return file;
+	}
+
+	@Test
+	public void testSteppedReplay() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File file = record();
+		ReplayControllerProvider replay = new ReplayControllerProvider(file, ReplayControllerProvider.Mode.STEPPED);
+		CountingListener listener = new CountingListener();
+		Controllers.instance().addListener(listener);
+		try {
+			Controllers.initialize(replay, 0);
+			// Stepped: polling alone does not advance
+			Controllers.checkControllers();
+			assertEquals(0, listener.connected);
+
+			for(int i = 0; i < 40; i++) {
+				assertTrue(replay.step());
+			}
+			assertEquals(1, listener.connected);
+			assertEquals(10, listener.faceDownPresses);
+			IController controller = Controllers.getController(DEVICE_ID);
+			assertEquals(1f, controller.getStick(StickID.LEFT).getAxes()[0].getValue(), 0.0001f);
+
+			assertTrue(replay.step());
+			assertEquals(1, listener.disconnected);
+			assertFalse(replay.step());
+			assertTrue(replay.isFinished());
+			assertEquals(41L, replay.getReplayedPollCount());
+		} finally {
+			Controllers.instance().removeListener(listener);
+			Controllers.shutdown();
+		}
+	}
+
+	@Test
+	public void testAsFastAsPossible() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		File file = record();
+		ReplayControllerProvider replay = new ReplayControllerProvider(file, ReplayControllerProvider.Mode.AS_FAST_AS_POSSIBLE);
+		replay.initialize();
+		CountingListener listener = new CountingListener();
+		replay.addListener(listener);
+		for(int i = 0; i < 45; i++) {
+			replay.checkControllers();
+		}
+		assertEquals(1, listener.connected);
+		assertEquals(10, listener.faceDownPresses);
+		assertEquals(1, listener.disconnected);
+		assertEquals(41L, replay.getReplayedPollCount());
+		replay.release();
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.CompositeController;
+import org.gamepad4j.CompositeControllerProvider;
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests combining virtual controller providers.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class CompositeControllerProviderTest {
+
+	/**
+	 * Collects controller events.
+	 */
+	static class CollectingListener extends ControllerListenerAdapter {
+		final List<IController> connected = new ArrayList<IController>();
+		volatile int disconnected = 0;
+		volatile int buttonDowns = 0;
+		@Override
+		public synchronized void connected(IController controller) {
+			this.connected.add(controller);
+		}
+		@Override
+		public void disConnected(IController controller) {
+			this.disconnected++;
+		}
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.buttonDowns++;
+		}
+		synchronized int getConnectedCount() {
+			return this.connected.size();
+		}
+	}
+
+	/**
+	 * Virtual provider whose polls take a while (like a network backend).
+	 */
+	static class SlowProvider extends VirtualControllerProvider {
+		SlowProvider() {
+			super(1, null);
+		}
+		@Override
+		public synchronized void checkControllers() {
+			try {
+				Thread.sleep(50L);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.checkControllers();
+		}
+	}
+
+	/**
+	 * Virtual provider whose poll blocks until it is allowed to finish.
+	 */
+	static class BlockingProvider extends VirtualControllerProvider {
+		final CountDownLatch polling = new CountDownLatch(1);
+		final CountDownLatch finish = new CountDownLatch(1);
+		volatile boolean released = false;
+		volatile boolean releasedWhilePolling = false;
+		volatile boolean busy = false;
+		BlockingProvider() {
+			super(1, null);
+		}
+		@Override
+		public void checkControllers() {
+			this.busy = true;
+			this.polling.countDown();
+			try {
+				this.finish.await();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.checkControllers();
+			this.busy = false;
+		}
+		@Override
+		public void release() {
+			this.releasedWhilePolling = this.busy;
+			super.release();
+			this.released = true;
+		}
+	}
+
+	@Test
+	public void testDeviceIDsDoNotCollide() {
+		Log.initialize(Log.LogLevel.NONE);
+		VirtualControllerProvider first = new VirtualControllerProvider(2, null);
+		VirtualControllerProvider second = new VirtualControllerProvider(2, null);
+		CompositeControllerProvider composite = new CompositeControllerProvider();
+		assertEquals(0, composite.addProvider(first));
+		assertEquals(1, composite.addProvider(second));
+		CollectingListener listener = new CollectingListener();
+		composite.addListener(listener);
+		composite.initialize();
+		composite.checkControllers();
+
+		assertEquals(4, listener.getConnectedCount());
+		assertNotNull(findController(listener, 1));
+		assertNotNull(findController(listener, 2));
+		CompositeController remapped = (CompositeController)findController(listener, CompositeControllerProvider.DEVICE_ID_RANGE + 1);
+		assertNotNull(remapped);
+		assertEquals(1, remapped.getProviderIndex());
+		assertEquals(1, remapped.getDelegate().getDeviceID());
+
+		// Events of the second provider arrive with the remapped controller
+		second.getPads()[0].setButton(0, true);
+		composite.checkControllers();
+		assertEquals(1, listener.buttonDowns);
+		assertTrue(remapped.isButtonPressed(ButtonID.FACE_DOWN));
+
+		second.disconnectController(1);
+		composite.checkControllers();
+		assertEquals(1, listener.disconnected);
+		assertEquals(1, composite.getControllers(1).length);
+		assertEquals(2, composite.getControllers(0).length);
+		assertEquals(3L, composite.getPollCount(1));
+		assertTrue(composite.getMaxPollNanos(1) >= composite.getMeanPollNanos(1));
+		composite.release();
+	}
+
+	@Test
+	public void testSlowProviderDoesNotDelayOthers() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		VirtualControllerProvider fast = new VirtualControllerProvider(1, null);
+		SlowProvider slow = new SlowProvider();
+		CompositeControllerProvider composite = new CompositeControllerProvider();
+		composite.addProvider(fast);
+		composite.addProvider(slow, true);
+		CollectingListener listener = new CollectingListener();
+		composite.addListener(listener);
+		composite.initialize();
+
+		long start = System.nanoTime();
+		composite.checkControllers();
+		long elapsed = System.nanoTime() - start;
+		assertTrue("Poll was delayed: " + elapsed, elapsed < 40000000L);
+		assertEquals(1, listener.getConnectedCount());
+		// The slow provider is still busy with its first poll
+		composite.checkControllers();
+		assertTrue(composite.getSkippedPollCount(1) > 0L);
+
+		// The slow provider's controller arrives with a later poll (the
+		// connect is passed on before the duration of the poll is recorded)
+		long timeout = System.currentTimeMillis() + 5000L;
+		while((listener.getConnectedCount() < 2 || composite.getPollCount(1) == 0L) && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10L);
+			composite.checkControllers();
+		}
+		assertEquals(2, listener.getConnectedCount());
+		assertNotNull(findController(listener, CompositeControllerProvider.DEVICE_ID_RANGE + 1));
+		assertTrue(composite.getMaxPollNanos(1) >= 50000000L);
+		assertEquals(0L, composite.getSkippedPollCount(0));
+		composite.release();
+	}
+
+	@Test
+	public void testProviderIsNotReleasedWhilePolling() throws Exception {
+		Log.initialize(Log.LogLevel.NONE);
+		BlockingProvider blocking = new BlockingProvider();
+		CompositeControllerProvider composite = new CompositeControllerProvider();
+		composite.addProvider(blocking, true);
+		composite.initialize();
+		composite.checkControllers();
+		assertTrue(blocking.polling.await(5L, TimeUnit.SECONDS));
+
+		// The poll outlasts the stop timeout, so the release is left to the polling thread
+		composite.release();
+		assertFalse(blocking.released);
+		blocking.finish.countDown();
+		long timeout = System.currentTimeMillis() + 5000L;
+		while(!blocking.released && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10L);
+		}
+		assertTrue(blocking.released);
+		assertFalse(blocking.releasedWhilePolling);
+	}
+
+	private static IController findController(CollectingListener listener, int deviceID) {
+		synchronized(listener) {
+			for(IController controller : listener.connected) {
+				if(controller.getDeviceID() == deviceID) {
+					return controller;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.ControllerMetrics;
+import org.gamepad4j.Controllers;
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests the polling metrics with virtual controllers.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class ControllerMetricsTest {
+
+	@Test
+	public void testMetrics() {
+		Log.initialize(Log.LogLevel.NONE);
+		int pads = DesktopControllerProvider.INITIAL_POOL_SIZE + 2;
+		VirtualControllerProvider provider = new VirtualControllerProvider(pads, null);
+		ControllerMetrics metrics = Controllers.metrics();
+		metrics.reset();
+		ControllerMetrics.enabled = true;
+		try {
+			Controllers.initialize(provider, 0);
+			for(int i = 0; i < 10; i++) {
+				provider.getPads()[0].setButton(0, (i & 1) == 0);
+				Controllers.checkControllers();
+			}
+			assertEquals(10L, metrics.getPollCount());
+			assertEquals(10L, metrics.getHistogram(ControllerMetrics.Phase.POLL).getCount());
+			assertEquals(10L, metrics.getHistogram(ControllerMetrics.Phase.DETECT).getCount());
+			assertEquals(10L, metrics.getHistogram(ControllerMetrics.Phase.SCAN).getCount());
+			assertEquals(10L * pads, metrics.getHistogram(ControllerMetrics.Phase.UPDATE).getCount());
+			assertEquals(10L, metrics.getControllerHistogram(1).getCount());
+			assertEquals((long)pads, metrics.getConnectCount());
+			assertEquals(2L, metrics.getPoolMissCount());
+			// Connects plus 5 presses and 5 releases
+			assertEquals(pads + 10L, metrics.getEventCount());
+			assertTrue(metrics.getHistogram(ControllerMetrics.Phase.POLL).getMax() > 0L);
+
+			// Switched off: nothing is recorded
+			ControllerMetrics.enabled = false;
+			Controllers.checkControllers();
+			assertEquals(10L, metrics.getPollCount());
+
+			ControllerMetrics.enabled = true;
+			for(int i = 1; i <= pads; i++) {
+				provider.disconnectController(i);
+			}
+			Controllers.checkControllers();
+			assertEquals((long)pads, metrics.getDisconnectCount());
+			// The histograms of the disconnected controllers are dropped
+			assertEquals(0, metrics.getControllerDeviceIDs().length);
+
+			// A requested reset is performed by the next poll
+			metrics.requestReset();
+			assertEquals((long)pads, metrics.getDisconnectCount());
+			Controllers.checkControllers();
+			assertEquals(0L, metrics.getDisconnectCount());
+			assertEquals(1L, metrics.getPollCount());
+		} finally {
+			ControllerMetrics.enabled = false;
+			metrics.reset();
+			Controllers.shutdown();
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * @Copyright: Marcel Schoen, Switzerland, 2014, All Rights Reserved.
+ */
+
+package org.gamepad4j.desktop.virtual;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.gamepad4j.ButtonID;
+import org.gamepad4j.ControllerListenerAdapter;
+import org.gamepad4j.Controllers;
+import org.gamepad4j.IButton;
+import org.gamepad4j.IController;
+import org.gamepad4j.StickID;
+import org.gamepad4j.desktop.DesktopControllerProvider;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper;
+import org.gamepad4j.desktop.VirtualGamepadJniWrapper.VirtualPad;
+import org.gamepad4j.util.Log;
+import org.junit.Test;
+
+/**
+ * Tests the virtual controller provider and its input drivers.
+ *
+ * @author Marcel Schoen
+ * @version $Revision: $
+ */
+public class VirtualControllerProviderTest {
+
+	/**
+	 * Counts controller events.
+	 */
+	static class CountingListener extends ControllerListenerAdapter {
+		int connected = 0;
+		int disconnected = 0;
+		int buttonDowns = 0;
+		IController lastConnected = null;
+		@Override
+		public void connected(IController controller) {
+			this.connected++;
+			this.lastConnected = controller;
+		}
+		@Override
+		public void disConnected(IController controller) {
+			this.disconnected++;
+		}
+		@Override
+		public void buttonDown(IController controller, IButton button, ButtonID buttonID) {
+			this.buttonDowns++;
+		}
+	}
+
+	@Test
+	public void testConnectDisconnectChurn() {
+		Log.initialize(Log.LogLevel.NONE);
+		VirtualControllerProvider provider = new VirtualControllerProvider(64, new RandomInputDriver(42L, 100000d));
+		CountingListener listener = new CountingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		provider.checkControllers();
+		assertEquals(64, listener.connected);
+		assertEquals(0, provider.getPooledControllerCount());
+		assertTrue(listener.buttonDowns > 0);
+
+		// Disconnect all pads; the instances go back to the (grown) pool
+		VirtualPad[] pads = provider.getPads();
+		for(int i = 0; i < pads.length; i++) {
+			provider.disconnectController(pads[i].getDeviceID());
+		}
+		provider.checkControllers();
+		assertEquals(64, listener.disconnected);
+		assertEquals(64, provider.getPooledControllerCount());
+
+		// Churn: connect and disconnect more pads than the initial pool size
+		for(int round = 0; round < 10; round++) {
+			int first = provider.connectController().getDeviceID();
+			for(int i = 1; i < DesktopControllerProvider.INITIAL_POOL_SIZE + 4; i++) {
+				provider.connectController();
+			}
+			provider.checkControllers();
+			for(int i = 0; i < DesktopControllerProvider.INITIAL_POOL_SIZE + 4; i++) {
+				provider.disconnectController(first + i);
+			}
+			provider.checkControllers();
+		}
+		assertEquals(64 + 10 * 20, listener.connected);
+		assertEquals(listener.connected, listener.disconnected);
+		assertEquals(64, provider.getPooledControllerCount());
+		provider.release();
+	}
+
+	@Test
+	public void testScriptedInput() {
+		Log.initialize(Log.LogLevel.NONE);
+		ScriptedInputDriver script = new ScriptedInputDriver(0L)
+			.button(0L, 0, true)
+			.axis(0L, 0, 1.0f);
+		VirtualControllerProvider provider = new VirtualControllerProvider(2, script);
+		CountingListener listener = new CountingListener();
+		provider.addListener(listener);
+		provider.initialize();
+		provider.checkControllers();
+		provider.checkControllers();
+		assertEquals(2, listener.buttonDowns);
+		VirtualPad[] pads = provider.getPads();
+		for(int i = 0; i < pads.length; i++) {
+			assertTrue(pads[i].isButtonPressed(0));
+			assertEquals(1.0f, pads[i].getAxis(0), 0.0001f);
+		}
+		provider.release();
+	}
+
+	@Test
+	public void testScriptedInputCatchesUpLatePolls() {
+		ScriptedInputDriver script = new ScriptedInputDriver(100L)
+			.button(0L, 0, true)
+			.button(50L, 0, false);
+		VirtualPad pad = new VirtualGamepadJniWrapper().connectXbox360(1);
+		// Zero is a valid start time
+		script.update(pad, 0, 0L);
+		assertTrue(pad.isButtonPressed(0));
+		script.update(pad, 0, 60000000L);
+		assertFalse(pad.isButtonPressed(0));
+		// Polling very late lands in the first half of a run
+		script.update(pad, 0, Long.MAX_VALUE / 2L - (Long.MAX_VALUE / 2L) % 100000000L + 10000000L);
+		assertTrue(pad.isButtonPressed(0));
+	}
+
+	@Test
+	public void testSelectedBySystemProperty() {
+		Log.initialize(Log.LogLevel.NONE);
+		System.setProperty(Controllers.GAMEPAD4J_PROVIDER_CLASS, VirtualControllerProvider.class.getName());
+		System.setProperty(VirtualControllerProvider.GAMEPAD4J_VIRTUAL_CONTROLLERS, "3");
+		try {
+			Controllers.initialize(0);
+			Controllers.checkControllers();
+			assertEquals(3, Controllers.getControllers().length);
+			IController controller = Controllers.getController(1);
+			assertNotNull(controller);
+			assertNotNull(controller.getStick(StickID.LEFT));
+		} finally {
+			Controllers.shutdown();
+			System.clearProperty(Controllers.GAMEPAD4J_PROVIDER_CLASS);
+			System.clearProperty(VirtualControllerProvider.GAMEPAD4J_VIRTUAL_CONTROLLERS);
+		}
+	}
+
+	@Test
+	public void testShutdownForgetsControllers() {
+		Log.initialize(Log.LogLevel.NONE);
+		CountingListener listener = new CountingListener();
+		Controllers.instance().addListener(listener);
+		try {
+			for(int round = 1; round <= 2; round++) {
+				Controllers.initialize(new VirtualControllerProvider(1, null), 0);
+				Controllers.checkControllers();
+				assertEquals(round, listener.connected);
+				assertEquals(1, Controllers.getControllers().length);
+				assertSame(listener.lastConnected, Controllers.getControllers()[0]);
+				Controllers.shutdown();
+				assertEquals(round, listener.disconnected);
+				assertEquals(0, Controllers.getControllers().length);
+			}
+		} finally {
+			Controllers.instance().removeListener(listener);
+		}
+	}
+
+	@Test
+	public void testInitializeAgainReplacesControllers() {
+		Log.initialize(Log.LogLevel.NONE);
+		CountingListener listener = new CountingListener();
+		Controllers.instance().addListener(listener);
+		try {
+			VirtualControllerProvider first = new VirtualControllerProvider(1, null);
+			Controllers.initialize(first, 0);
+			Controllers.checkControllers();
+			IController previous = listener.lastConnected;
+
+			// Without shutdown; the new controller has the same device ID
+			Controllers.initialize(new VirtualControllerProvider(1, null), 0);
+			assertEquals(1, listener.disconnected);
+			assertEquals(0, Controllers.getControllers().length);
+			Controllers.checkControllers();
+			assertEquals(2, listener.connected);
+			assertEquals(1, Controllers.getControllers().length);
+			assertSame(listener.lastConnected, Controllers.getControllers()[0]);
+			assertFalse(previous == listener.lastConnected);
+			first.release();
+		} finally {
+			Controllers.shutdown();
+			Controllers.instance().removeListener(listener);
+		}
+	}
+}
@@ -37,6 +37,7 @@ public class OuyaControllerButton extends BaseButton {
 	public OuyaControllerButton(IController controller, ButtonID id, String label, String labelKey, OuyaController wrappedController) {
 		super(controller, 0, label, labelKey);
 		this.controller = wrappedController;
+		setID(id);
 		if(id == ButtonID.ACCEPT) {
 			this.code = OuyaController.BUTTON_O;
 		} else if(id == ButtonID.BACK) {
@@ -72,7 +72,9 @@ public class OuyaControllerProvider implements IControllerProvider {
 			if(OuyaController.getControllerByPlayer(ct) != null) {
 				OuyaController ouyaController = OuyaController.getControllerByPlayer(ct);
 				OuyaControllerWrapper wrapper = this.connected.get(ouyaController);
+				wrapper.beginSample(System.nanoTime());
 				wrapper.updateValues();
+				wrapper.publishSnapshot();
 			}
 		}
 	}
@@ -89,9 +91,8 @@ public class OuyaControllerProvider implements IControllerProvider {
 				OuyaController ouyaController = OuyaController.getControllerByPlayer(ct);
 				OuyaControllerWrapper controller = new OuyaControllerWrapper(ouyaController);
 				this.connected.put(ouyaController, controller);
-				for(IControllerListener listener : this.listeners.getListeners()) {
-					listener.connected(controller);
-				}
+				controller.setControllerListener(this.listeners);
+				this.listeners.connected(controller);
 			}
 		}
 	}
@@ -36,10 +36,11 @@ public class OuyaControllerStick extends BaseStick {
 	}
 	
 	/**
-	 * Updates the axis values of this stick.
+	 * Updates the axis values of this stick, and applies the deadzone.
 	 */
 	public void updateValues() {
 		((OuyaAxis)getAxis(AxisID.X)).updateValue();
 		((OuyaAxis)getAxis(AxisID.Y)).updateValue();
+		update();
 	}
 }
@@ -13,6 +13,7 @@ import org.gamepad4j.ITrigger;
 import org.gamepad4j.StickID;
 import org.gamepad4j.base.AbstractBaseController;
 import org.gamepad4j.base.BaseAxis;
+import org.gamepad4j.base.BaseButton;
 import org.gamepad4j.base.BaseTrigger;
 
 import tv.ouya.console.api.OuyaController;
@@ -92,8 +93,16 @@ public class OuyaControllerWrapper extends AbstractBaseController {
 	public void updateValues() {
 		this.sticks[LEFT_STICK].updateValues();
 		this.sticks[RIGHT_STICK].updateValues();
+		updatePressedMask();
+		// Track the pressed state of the buttons, to fire button events
+		for(int i = 0; i < this.buttonsByID.length; i++) {
+			if(this.buttonsByID[i] instanceof BaseButton) {
+				BaseButton button = (BaseButton)this.buttonsByID[i];
+				button.setPressed(button.isPressed());
+			}
+		}
 		
-		// TODO - Update triggers and buttons
+		// TODO - Update triggers
 		
 	}
 	